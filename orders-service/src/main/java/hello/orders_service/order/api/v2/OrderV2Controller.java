@@ -1,7 +1,6 @@
 package hello.orders_service.order.api.v2;
 
 import hello.orders_service.common.web.response.ApiSuccess;
-import hello.orders_service.order.domain.Order;
 import hello.orders_service.order.dto.request.OrderCreateRequest;
 import hello.orders_service.order.dto.response.OrderResponse;
 import hello.orders_service.order.saga.OrderSagaOrchestrator;
@@ -12,6 +11,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequiredArgsConstructor
 public class OrderV2Controller {
@@ -21,11 +22,12 @@ public class OrderV2Controller {
      * V2 OrderSagaOrchestrator 사용
      * 상품 서버와 주문 서버의 일관성 고려
      * 사가패턴 적용
+     * 사가 단계는 SagaExecutor 에서 비동기로 연결 실행 (order.saga.executor.enabled=true 이면 요청 스레드를 점유하지 않음)
      */
     @PostMapping("/v2/orders")
-    public ResponseEntity<ApiSuccess<OrderResponse>> create(@RequestBody OrderCreateRequest req) {
-        Order createOrder = orderSagaOrchestrator.startOrder(req.getProductId(), req.getBuyerId(), req.getQuantity());
-        return ResponseEntity.ok(ApiSuccess.of(OrderResponse.from(createOrder), null));
+    public CompletableFuture<ResponseEntity<ApiSuccess<OrderResponse>>> create(@RequestBody OrderCreateRequest req) {
+        return orderSagaOrchestrator.startOrderAsync(req.getProductId(), req.getBuyerId(), req.getQuantity())
+            .thenApply(createOrder -> ResponseEntity.ok(ApiSuccess.of(OrderResponse.from(createOrder), null)));
     }
 
     /**
@@ -34,9 +36,8 @@ public class OrderV2Controller {
      * 사가패턴 적용
      */
     @PostMapping("/v2/orders/{orderId}")
-    public ResponseEntity<ApiSuccess<OrderResponse>> cancel(@PathVariable Long orderId) {
-        Order cancelOrder = orderSagaOrchestrator.startCancel(orderId);
-        return ResponseEntity.ok(ApiSuccess.of(OrderResponse.from(cancelOrder), null));
+    public CompletableFuture<ResponseEntity<ApiSuccess<OrderResponse>>> cancel(@PathVariable Long orderId) {
+        return orderSagaOrchestrator.startCancelAsync(orderId)
+            .thenApply(cancelOrder -> ResponseEntity.ok(ApiSuccess.of(OrderResponse.from(cancelOrder), null)));
     }
 }
-
@@ -9,7 +9,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // 주문 생성 기록 전에 중단된 사가의 주문 조회 (SagaRecoveryWorker)
+    @Index(name = "idx_orders_saga_id", columnList = "sagaId")
+})
 @Getter
 @ToString
 public class Order {
@@ -28,6 +31,10 @@ public class Order {
 
     private String failReason;
 
+    // 주문을 만든 사가 (V2 사가로 생성한 주문만)
+    @Column(length = 36)
+    private String sagaId;
+
     @CreationTimestamp
     @Column(updatable = false, nullable = false)
     private LocalDateTime createAt;
@@ -46,6 +53,12 @@ public class Order {
         return order;
     }
 
+    public static Order create(Long productId, String buyerId, int quantity, String sagaId) {
+        Order order = create(productId, buyerId, quantity);
+        order.sagaId = sagaId;
+        return order;
+    }
+
 
     // == 비즈니스 메서드 ==//
     public void createStatus() {
@@ -6,7 +6,8 @@ public enum ErrorCode {
     DEPENDENCY_FAILED(424, "의존 서비스 실패"),
     VALIDATION_ERROR(400, "요청 형식이 올바르지 않습니다."),
     INSUFFICIENT_STOCK(400, "재고가 부족합니다."),
-    PRODUCT_NOT_FOUND(404, "상품을 찾을 수 없습니다.");
+    PRODUCT_NOT_FOUND(404, "상품을 찾을 수 없습니다."),
+    SAGA_OVERLOADED(503, "주문 처리 요청이 많습니다. 잠시 후 다시 시도해주세요.");
 
     private final int status; private final String message;
     ErrorCode(int s, String m){ this.status=s; this.message=m; }
@@ -0,0 +1,7 @@
+package hello.orders_service.order.exception;
+
+public class SagaOverloadedException extends ApiException {
+    public SagaOverloadedException(Throwable cause) {
+        super(ErrorCode.SAGA_OVERLOADED, ErrorCode.SAGA_OVERLOADED.getMessage(), null, cause);
+    }
+}
@@ -0,0 +1,29 @@
+package hello.orders_service.order.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 발행 완료(SENT) outbox 정리 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox.archive")
+public class OutboxArchiveProperties {
+    private boolean enabled = true;
+
+    // SENT 이후 보관 기간, 이보다 오래된 행은 삭제 (장애 분석/재발행 확인에 필요한 기간보다 길게)
+    private Duration retention = Duration.ofHours(24);
+
+    // 한 트랜잭션에서 삭제할 최대 건수 (락 유지 시간 제한)
+    private int batchSize = 500;
+
+    // 한 번 실행에서 처리할 최대 배치 수, 남은 행은 다음 실행에서 이어서 삭제
+    private int maxBatchesPerRun = 50;
+
+    // 실행 주기(ms)
+    private long intervalMs = 60_000;
+}
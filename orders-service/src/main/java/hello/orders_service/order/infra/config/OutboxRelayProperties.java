@@ -0,0 +1,32 @@
+package hello.orders_service.order.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * outbox 발행 재시도/발행량 제한 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox.relay")
+public class OutboxRelayProperties {
+    // 첫 재시도 대기 시간, 이후 재시도마다 backoffMultiplier 배씩 증가
+    private Duration initialBackoff = Duration.ofSeconds(5);
+
+    private double backoffMultiplier = 2.0;
+
+    // 재시도 대기 시간 상한
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    // 대기 시간을 [1 - jitter, 1] 배 범위에서 무작위로 줄여, 같은 시각에 실패한 outbox 가 동시에 재시도되지 않게 함 (0 ~ 1)
+    private double jitter = 0.5;
+
+    // 초당 발행 상한 (토큰 버킷 충전 속도)
+    private double publishRatePerSecond = 1000;
+
+    // 순간 최대 발행 수 (토큰 버킷 크기)
+    private int publishBurst = 200;
+}
@@ -0,0 +1,22 @@
+package hello.orders_service.order.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * V2 사가 실행 스레드 풀 설정
+ * enabled=true 이면 사가를 전용 풀에서 실행하고 요청(Tomcat) 스레드는 바로 반환 (서블릿 비동기 처리)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.saga.executor")
+public class SagaExecutorProperties {
+    private boolean enabled = false;
+
+    // 동시에 실행할 수 있는 사가 수 (상품 서버 호출 동안 블로킹되는 스레드 수)
+    private int poolSize = 200;
+
+    // 풀이 가득 찼을 때 대기할 수 있는 사가 수, 초과 시 503 으로 즉시 거절
+    private int queueCapacity = 1000;
+}
@@ -0,0 +1,44 @@
+package hello.orders_service.order.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 사가 기록 저장(group commit) 및 복구 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.saga.log")
+public class SagaLogProperties {
+    // 한 트랜잭션으로 묶어 저장할 최대 기록 수, 대기 중인 기록이 적으면 모인 만큼만 바로 저장
+    private int batchSize = 200;
+
+    private Recovery recovery = new Recovery();
+
+    @Getter
+    @Setter
+    public static class Recovery {
+        private boolean enabled = true;
+
+        // 시작 후 이 시간이 지나도 종료 기록이 없으면 중단된 사가로 보고 복구 (단계 실행 시간 상한보다 충분히 길게)
+        private Duration stuckAfter = Duration.ofMinutes(1);
+
+        // 한 번 실행에서 복구할 최대 사가 수
+        private int batchSize = 100;
+
+        // 사가 하나를 복구하는 동안 다른 인스턴스가 가져가지 못하는 시간 (사가 1건 복구 시간보다 충분히 길게)
+        private Duration claimLease = Duration.ofMinutes(5);
+
+        // 종료된 사가 기록 보관 기간
+        private Duration retention = Duration.ofHours(24);
+
+        // 한 번 실행에서 정리할 최대 사가 수
+        private int purgeBatchSize = 500;
+
+        // 실행 주기(ms)
+        private long intervalMs = 30_000;
+    }
+}
@@ -0,0 +1,65 @@
+package hello.orders_service.order.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 사가 단계 재시도 설정 (RETRYABLE 실패, 단계 시간 초과)
+ * 단계별 정책은 단계 클래스 이름으로 지정, 지정하지 않은 단계는 defaults 사용
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.saga.retry")
+public class SagaRetryProperties {
+    private boolean enabled = true;
+
+    private Policy defaults = new Policy();
+
+    // 단계 클래스 이름별 정책 (예: DecreaseStockAndConfirmStep.max-attempts: 3), 항목 단위로 지정하지 않은 값은 Policy 기본값
+    private Map<String, Policy> steps = new HashMap<>();
+
+    private Budget budget = new Budget();
+
+    public Policy policyOf(String stepName) {
+        return steps.getOrDefault(stepName, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        // 첫 시도를 포함한 최대 시도 횟수
+        private int maxAttempts = 3;
+
+        // 첫 재시도 대기 시간, 이후 재시도마다 backoffMultiplier 배씩 증가
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        private double backoffMultiplier = 2.0;
+
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        // 대기 시간을 [1 - jitter, 1] 배 범위에서 무작위로 줄임 (0 ~ 1)
+        private double jitter = 0.5;
+    }
+
+    /**
+     * 단계별 재시도 예산
+     * 첫 시도마다 retryRatio 만큼, 시간당 minRetriesPerSecond 만큼 적립하고 재시도마다 1씩 사용
+     * 상품 서버 장애로 모든 요청이 실패할 때 재시도가 부하를 (1 + retryRatio) 배 이상 키우지 않도록 제한
+     */
+    @Getter
+    @Setter
+    public static class Budget {
+        private double retryRatio = 0.2;
+
+        // 요청이 적을 때도 재시도할 수 있도록 보장하는 초당 재시도 수
+        private double minRetriesPerSecond = 5;
+
+        // 적립 상한
+        private int maxBalance = 100;
+    }
+}
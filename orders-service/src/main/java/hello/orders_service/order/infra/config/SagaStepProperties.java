@@ -0,0 +1,28 @@
+package hello.orders_service.order.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 비동기 사가 단계별 실행 시간 상한
+ * 사가 풀에서 단계가 실제로 시작된 시점부터 재고, 초과한 단계는 RETRYABLE 로 실패 처리 (재시도 없이 복구 대상)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.saga.step")
+public class SagaStepProperties {
+    // 기본 상한 (상품 서버 connect 2s + read 3s 보다 길게)
+    private Duration defaultTimeout = Duration.ofSeconds(6);
+
+    // 단계 클래스 이름별 상한 (예: DecreaseStockAndConfirmStep: 4s)
+    private Map<String, Duration> timeouts = new HashMap<>();
+
+    public Duration timeoutOf(String stepName) {
+        return timeouts.getOrDefault(stepName, defaultTimeout);
+    }
+}
@@ -1,85 +1,271 @@
 package hello.orders_service.order.infra.messaging.publisher;
 
 import hello.orders_service.order.infra.config.OrderRabbitConfig;
+import hello.orders_service.order.infra.config.OutboxRelayProperties;
+import hello.orders_service.order.outbox.RetryBackoff;
 import hello.orders_service.order.service.OrderService;
 import hello.orders_service.order.service.OrderOutboxService;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import hello.orders_service.order.repository.OrderOutboxRepository;
 import hello.orders_service.order.outbox.OrderOutbox;
-import hello.orders_service.order.outbox.OutboxStatus;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.amqp.core.MessageBuilder;
-import org.springframework.amqp.core.MessageProperties;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OrderOutboxPublisher {
-    private final OrderOutboxRepository orderOutboxRepository;
     private final RabbitTemplate rabbitTemplate;
     private final OrderOutboxService orderOutboxService;
     private final OrderService orderService;
+    private final Timer relayLatency;
+    private final Timer sweepLatency;
+    private final RetryBackoff retryBackoff;
+    private final TokenBucket publishRate;
+    private final CircuitBreaker brokerBreaker;
+    private final double publishRatePerSecond;
+    // 선점(lease) owner 이름, 인스턴스 id + 선점 순번으로 선점 단위마다 고유
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong claimSequence = new AtomicLong();
 
     private static final int MAX_RETRY_COUNT = 5;
-    private static final int RETRY_DELAY_SECONDS = 30;
+    private static final String BROKER_BREAKER = "rabbitPublisher";
+    private static final long CONFIRM_TIMEOUT_MS = 5_000;
+    // 커밋 직후 릴레이가 처리 중인 outbox 를 스윕이 중복 발행하지 않도록 두는 유예 시간
+    private static final long SWEEP_GRACE_SECONDS = 5;
+    private static final int BATCH_SIZE = 100;
+    // 선점 시간 = 발행 속도 제한으로 배치를 다 보내는 시간 + confirm 대기(CONFIRM_TIMEOUT_MS) + 결과 저장 여유, 최소 MIN_CLAIM_LEASE
+    private static final Duration MIN_CLAIM_LEASE = Duration.ofSeconds(60);
+    private static final Duration CLAIM_LEASE_MARGIN = Duration.ofSeconds(30);
 
-    // 5초마다 실행
-    @Scheduled(fixedDelay = 5000)
+    public OrderOutboxPublisher(RabbitTemplate rabbitTemplate,
+                                OrderOutboxService orderOutboxService,
+                                OrderService orderService,
+                                MeterRegistry meterRegistry,
+                                OutboxRelayProperties relayProperties,
+                                CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.orderOutboxService = orderOutboxService;
+        this.orderService = orderService;
+        this.relayLatency = latencyTimer(meterRegistry, "relay");
+        this.sweepLatency = latencyTimer(meterRegistry, "sweep");
+        this.retryBackoff = new RetryBackoff(relayProperties);
+        this.publishRate = new TokenBucket(relayProperties.getPublishRatePerSecond(), relayProperties.getPublishBurst());
+        this.publishRatePerSecond = relayProperties.getPublishRatePerSecond();
+        this.brokerBreaker = circuitBreakerRegistry.circuitBreaker(BROKER_BREAKER);
+    }
+
+    // 주문 생성(outbox 저장) ~ 브로커 confirm 까지 걸린 시간
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String trigger) {
+        return Timer.builder("order.outbox.publish.latency")
+            .description("주문 생성부터 재고 감소 요청 발행 확인까지 걸린 시간")
+            .tag("trigger", trigger)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * 커밋 직후 릴레이(OrderOutboxRelay)에서 호출
+     * 아직 PENDING 이고 다른 발행자가 선점하지 않은 outbox 만 선점 후 발행
+     */
+    public void publishByIds(Collection<Long> ids) {
+        if (isBrokerUnavailable()) {
+            // 서킷이 닫힌 뒤 스윕이 발행
+            return;
+        }
+        String owner = nextClaimOwner();
+        Duration lease = claimLease(ids.size());
+        List<OrderOutbox> outboxes = orderOutboxService.claimByIds(ids, owner, lease);
+        publishBatch(owner, outboxes, relayLatency, lease);
+    }
+
+    /**
+     * 안전망 스윕 (10초마다 실행)
+     * 릴레이가 놓친 outbox(커밋 직후 장애, 릴레이 발행 실패)와 재시도 시각이 된 FAILED outbox 를 선점 후 발행
+     * 선점(lease) 덕분에 여러 인스턴스가 동시에 스윕해도 같은 outbox 를 중복 발행하지 않음
+     * 방금 커밋된 outbox 는 릴레이가 처리하도록 SWEEP_GRACE_SECONDS 이전에 예정된 outbox 만 대상
+     */
+    @Scheduled(fixedDelay = 10_000)
     public void publishDueOutboxEvents() {
-        List<OrderOutbox> outboxes = orderOutboxRepository.findTop100ByStatusInAndRetryCountLessThanAndNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
-            List.of(OutboxStatus.PENDING, OutboxStatus.FAILED),
+        if (isBrokerUnavailable()) {
+            log.debug("브로커 서킷 오픈, Outbox 스윕 건너뜀");
+            return;
+        }
+        String owner = nextClaimOwner();
+        Duration lease = claimLease(BATCH_SIZE);
+        List<OrderOutbox> outboxes = orderOutboxService.claimDue(
+            owner,
+            LocalDateTime.now().minusSeconds(SWEEP_GRACE_SECONDS),
             MAX_RETRY_COUNT,
-            LocalDateTime.now()
+            lease,
+            BATCH_SIZE
         );
+        publishBatch(owner, outboxes, sweepLatency, lease);
+    }
 
+    // 서킷이 열려 있는 동안은 선점 자체를 하지 않음 (재시도 횟수/lease 를 소모하지 않음)
+    private boolean isBrokerUnavailable() {
+        CircuitBreaker.State state = brokerBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private String nextClaimOwner() {
+        return instanceId + "#" + claimSequence.incrementAndGet();
+    }
+
+    // count 건을 빈 토큰 버킷에서 발행하는 시간 + confirm 대기 + 여유
+    private Duration claimLease(int count) {
+        long publishMillis = (long) Math.ceil(count * 1000.0 / publishRatePerSecond);
+        Duration lease = Duration.ofMillis(publishMillis + CONFIRM_TIMEOUT_MS).plus(CLAIM_LEASE_MARGIN);
+        return lease.compareTo(MIN_CLAIM_LEASE) < 0 ? MIN_CLAIM_LEASE : lease;
+    }
+
+    /**
+     * 배치 전체를 먼저 발행(publisher confirm)하고 ack 를 기다린 뒤, 확인된 outbox 만 UPDATE 1회로 SENT 처리
+     * nack/타임아웃/발행 예외는 건별 재시도(FAILED, 지수 백오프 + 지터) 또는 DEAD 처리
+     * 발행은 토큰 버킷으로 속도를 제한하고, 브로커 서킷이 열리면 남은 outbox 는 재시도 횟수를 쓰지 않고 선점만 해제
+     * 결과 기록/선점 해제는 owner 가 아직 선점 중인 outbox 에만 반영
+     * 다른 발행자와 토큰 버킷을 나눠 쓰다 발행이 늦어지면, confirm 대기와 여유를 남길 수 없는 시점부터는 발행하지 않고 선점만 해제 (lease 만료 후 발행 방지)
+     */
+    private void publishBatch(String owner, List<OrderOutbox> outboxes, Timer latency, Duration lease) {
         if (outboxes.isEmpty()) {
             return;
         }
+        long publishDeadline = System.nanoTime() + lease.minus(CLAIM_LEASE_MARGIN).toNanos() - TimeUnit.MILLISECONDS.toNanos(CONFIRM_TIMEOUT_MS);
 
         log.info("Outbox 메시지 발행 시작 [개수: {}]", outboxes.size());
 
+        // 1. 배치 발행 (confirm 은 기다리지 않음)
+        Map<OrderOutbox, InFlight> published = new LinkedHashMap<>();
+        List<Long> pausedIds = new ArrayList<>();
         for (OrderOutbox outbox : outboxes) {
+            if (!"STOCK_DECREASE_REQUEST".equals(outbox.getEventType())) {
+                handleFailure(owner, outbox, new IllegalArgumentException("Unsupported outbox eventType: " + outbox.getEventType()));
+                continue;
+            }
+            if (System.nanoTime() - publishDeadline >= 0 || !brokerBreaker.tryAcquirePermission()) {
+                pausedIds.add(outbox.getId());
+                continue;
+            }
             try {
-                if ("STOCK_DECREASE_REQUEST".equals(outbox.getEventType())) {
-                    var message = MessageBuilder
-                        .withBody(outbox.getPayload().getBytes(StandardCharsets.UTF_8))
-                        .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-                        .build();
-
-                    rabbitTemplate.send(
-                        OrderRabbitConfig.STOCK_REQUEST_EXCHANGE,
-                        OrderRabbitConfig.STOCK_REQUEST_ROUTING_KEY,
-                        message
-                    );
-                } else {
-                    throw new IllegalArgumentException("Unsupported outbox eventType: " + outbox.getEventType());
-                }
-
-                orderOutboxService.markSent(outbox.getId());
-                log.info("Outbox 발행 성공. outboxId={}, orderId={}", outbox.getId(), outbox.getOrderId());
+                publishRate.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                brokerBreaker.releasePermission();
+                pausedIds.add(outbox.getId());
+                continue;
+            }
 
+            long startNanos = System.nanoTime();
+            try {
+                published.put(outbox, new InFlight(publish(outbox), startNanos));
             } catch (Exception e) {
-                log.error("Outbox 발행 실패. outboxId={}, orderId={}", outbox.getId(), outbox.getOrderId(), e);
-
-                int nextRetryCount = outbox.getRetryCount() + 1;
-                String errorMessage = trimErrorMessage(e);
-
-                if (nextRetryCount >= MAX_RETRY_COUNT) {
-                    orderOutboxService.markDead(outbox.getId(), errorMessage);
-                    orderService.failOrderIfPending(outbox.getOrderId(), "OUTBOX_RETRY_EXHAUSTED");
-                    log.error("Outbox retry exhausted. orderId={}, outboxId={}, nextRetryCount={}",
-                        outbox.getOrderId(), outbox.getId(), nextRetryCount);
-                } else {
-                    LocalDateTime nextAttemptAt = LocalDateTime.now().plusSeconds((long) RETRY_DELAY_SECONDS * nextRetryCount);
-                    orderOutboxService.markFailed(outbox.getId(), errorMessage, nextAttemptAt);
+                brokerBreaker.onError(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS, e);
+                handleFailure(owner, outbox, e);
+            }
+        }
+
+        // 2. confirm 대기, ack 받은 outbox 만 SENT 대상
+        List<Long> confirmedIds = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONFIRM_TIMEOUT_MS);
+        for (Map.Entry<OrderOutbox, InFlight> entry : published.entrySet()) {
+            OrderOutbox outbox = entry.getKey();
+            InFlight inFlight = entry.getValue();
+            Exception failure;
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm = inFlight.correlationData().getFuture().get(remaining, TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    brokerBreaker.onSuccess(System.nanoTime() - inFlight.startNanos(), TimeUnit.NANOSECONDS);
+                    confirmedIds.add(outbox.getId());
+                    recordLatency(latency, outbox);
+                    continue;
                 }
+                failure = new IllegalStateException("broker nack: " + confirm.getReason());
+            } catch (TimeoutException e) {
+                failure = new IllegalStateException("publisher confirm timeout", e);
+            } catch (ExecutionException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                brokerBreaker.releasePermission();
+                handleFailure(owner, outbox, e);
+                continue;
+            }
+            brokerBreaker.onError(System.nanoTime() - inFlight.startNanos(), TimeUnit.NANOSECONDS, failure);
+            handleFailure(owner, outbox, failure);
+        }
+
+        // 3. 확인된 outbox 일괄 SENT 처리, 서킷 때문에 보류한 outbox 는 선점 해제
+        orderOutboxService.markSentAll(confirmedIds);
+        if (!pausedIds.isEmpty()) {
+            orderOutboxService.releaseClaims(pausedIds, owner);
+            log.warn("브로커 서킷 오픈 또는 선점 시간 부족, Outbox 발행 보류 [개수: {}]", pausedIds.size());
+        }
+        log.info("Outbox 발행 완료 [confirm: {}/{}]", confirmedIds.size(), outboxes.size());
+    }
+
+    // 발행 후 confirm 대기 중인 메시지 (서킷 브레이커 호출 시간 기록용 시작 시각 포함)
+    private record InFlight(CorrelationData correlationData, long startNanos) {
+    }
+
+    private void recordLatency(Timer latency, OrderOutbox outbox) {
+        if (outbox.getCreatedAt() != null) {
+            latency.record(Duration.between(outbox.getCreatedAt(), LocalDateTime.now()));
+        }
+    }
+
+    private CorrelationData publish(OrderOutbox outbox) {
+        // 저장된 바이트를 복사 없이 body 로 사용 (withBody 는 배열을 복제하지 않음)
+        var message = MessageBuilder
+            .withBody(outbox.getPayload())
+            .setContentType(outbox.getContentType())
+            .build();
+
+        CorrelationData correlationData = new CorrelationData(String.valueOf(outbox.getId()));
+        rabbitTemplate.send(
+            OrderRabbitConfig.STOCK_REQUEST_EXCHANGE,
+            OrderRabbitConfig.STOCK_REQUEST_ROUTING_KEY,
+            message,
+            correlationData
+        );
+        return correlationData;
+    }
+
+    private void handleFailure(String owner, OrderOutbox outbox, Exception e) {
+        log.error("Outbox 발행 실패. outboxId={}, orderId={}", outbox.getId(), outbox.getOrderId(), e);
+
+        int nextRetryCount = outbox.getRetryCount() + 1;
+        String errorMessage = trimErrorMessage(e);
+
+        if (nextRetryCount >= MAX_RETRY_COUNT) {
+            if (!orderOutboxService.markDead(outbox.getId(), owner, errorMessage)) {
+                // 선점을 잃었으면 새 발행자가 발행 중일 수 있으므로 주문을 실패 처리하지 않음
+                return;
             }
+            orderService.failOrderIfPending(outbox.getOrderId(), "OUTBOX_RETRY_EXHAUSTED");
+            log.error("Outbox retry exhausted. orderId={}, outboxId={}, nextRetryCount={}",
+                outbox.getOrderId(), outbox.getId(), nextRetryCount);
+        } else {
+            LocalDateTime nextAttemptAt = LocalDateTime.now().plus(retryBackoff.delay(nextRetryCount));
+            orderOutboxService.markFailed(outbox.getId(), owner, errorMessage, nextAttemptAt);
         }
     }
 
@@ -0,0 +1,86 @@
+package hello.orders_service.order.infra.messaging.publisher;
+
+import hello.orders_service.order.outbox.OrderOutboxSavedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * outbox 저장 트랜잭션 커밋 직후 발행하는 릴레이
+ * 커밋된 outbox id 를 큐에 모으고, 전용 스레드 1개가 최대 BATCH_SIZE 씩 꺼내 OrderOutboxPublisher 로 발행
+ * 요청 스레드는 confirm 을 기다리지 않음, 발행에 실패한 outbox 는 스케줄 스윕이 재시도
+ */
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+    private static final int BATCH_SIZE = 100;
+
+    private final OrderOutboxPublisher orderOutboxPublisher;
+    private final Queue<Long> pendingIds = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderOutboxRelay(OrderOutboxPublisher orderOutboxPublisher) {
+        this.orderOutboxPublisher = orderOutboxPublisher;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOutboxSaved(OrderOutboxSavedEvent event) {
+        pendingIds.add(event.getOutboxId());
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // 종료 중 등 실행 불가 -> 스윕이 처리
+                draining.set(false);
+                log.warn("Outbox 릴레이 실행 불가, 스윕에서 처리합니다. 대기 건수={}", pendingIds.size(), e);
+            }
+        }
+    }
+
+    void drain() {
+        try {
+            while (!pendingIds.isEmpty()) {
+                List<Long> ids = new ArrayList<>(BATCH_SIZE);
+                Long id;
+                while (ids.size() < BATCH_SIZE && (id = pendingIds.poll()) != null) {
+                    ids.add(id);
+                }
+                try {
+                    orderOutboxPublisher.publishByIds(ids);
+                } catch (Exception e) {
+                    log.error("Outbox 릴레이 발행 실패, 스윕에서 재시도합니다. outboxIds={}", ids, e);
+                }
+            }
+        } finally {
+            draining.set(false);
+            // drain 종료 직전에 들어온 id 처리
+            if (!pendingIds.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
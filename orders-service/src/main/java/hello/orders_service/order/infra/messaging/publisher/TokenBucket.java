@@ -0,0 +1,55 @@
+package hello.orders_service.order.infra.messaging.publisher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 발행량 제한용 토큰 버킷
+ * 초당 ratePerSecond 개씩 충전, 최대 burst 개까지 모아 두었다가 순간 발행에 사용
+ * 토큰이 없으면 다음 토큰이 충전될 때까지 호출 스레드가 대기 (예약 방식이라 대기 순서대로 토큰을 받음)
+ */
+public class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoTime;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, int burst, LongSupplier nanoTime) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("ratePerSecond, burst 는 0보다 커야 합니다.");
+        }
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.nanoTime = nanoTime;
+        this.tokens = burst;
+        this.lastRefillNanos = nanoTime.getAsLong();
+    }
+
+    /**
+     * 토큰 1개를 가져감, 토큰이 부족하면 충전될 때까지 대기
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 토큰 1개 예약
+     * @return 예약한 토큰을 쓸 수 있을 때까지 기다려야 하는 시간(ns), 바로 쓸 수 있으면 0
+     */
+    synchronized long reserve() {
+        long now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
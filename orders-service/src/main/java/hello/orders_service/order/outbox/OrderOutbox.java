@@ -10,7 +10,13 @@ import java.time.LocalDateTime;
 
 @Entity
 @Getter
-@Table(name = "order_outbox")
+@Table(name = "order_outbox", indexes = {
+    // 발행 대상 조회 (status in (PENDING, FAILED) and nextAttemptAt <= ?), SENT/DEAD 행은 status 에서 걸러짐
+    @Index(name = "idx_order_outbox_due", columnList = "status, nextAttemptAt"),
+    // SENT 정리 (status = SENT and sentAt < ?)
+    @Index(name = "idx_order_outbox_sent", columnList = "status, sentAt"),
+    @Index(name = "idx_order_outbox_claim_owner", columnList = "claimOwner")
+})
 @NoArgsConstructor
 public class OrderOutbox {
     @Id
@@ -24,10 +30,13 @@ public class OrderOutbox {
     @Column(nullable = false)
     private String eventType;
 
-    // RabbitMQ 로 보낼 실제 메시지 내용(JSON 형식)
-    @Lob
-    @Column(nullable = false)
-    private String payload;
+    // RabbitMQ 로 보낼 실제 메시지 body (OutboxPayloadCodec 으로 인코딩, LOB 대신 길이 제한 컬럼)
+    @Column(nullable = false, length = 256)
+    private byte[] payload;
+
+    // payload 인코딩 방식, AMQP content-type 헤더로 그대로 발행
+    @Column(nullable = false, length = 64)
+    private String contentType;
 
      // PENDING, SENT, FAILED 등
     @Enumerated(EnumType.STRING)
@@ -51,11 +60,18 @@ public class OrderOutbox {
     @Column(length = 1000)
     private String lastError;
 
+    // 발행 선점(lease) 정보, 여러 인스턴스/스레드가 같은 outbox 를 중복 발행하지 않도록 사용
+    @Column(length = 64)
+    private String claimOwner;
+
+    private LocalDateTime claimedUntil;
+
     //== 생성 메서드 ==//
-    public static OrderOutbox pending(Long orderId, String eventType, String payload) {
+    public static OrderOutbox pending(Long orderId, String eventType, String contentType, byte[] payload) {
         OrderOutbox outbox = new OrderOutbox();
         outbox.orderId = orderId;
         outbox.eventType = eventType;
+        outbox.contentType = contentType;
         outbox.payload = payload;
         outbox.status = OutboxStatus.PENDING;
         outbox.nextAttemptAt = LocalDateTime.now();
@@ -68,26 +84,18 @@ public class OrderOutbox {
         this.lastAttemptAt = this.sentAt;
         this.nextAttemptAt = null;
         this.lastError = null;
-    }
-
-    public void markFailed(String errorMessage, LocalDateTime nextAttemptAt) {
-        this.status = OutboxStatus.FAILED;
-        this.retryCount++;
-        this.lastAttemptAt = LocalDateTime.now();
-        this.lastError = errorMessage;
-        this.nextAttemptAt = nextAttemptAt;
-    }
-
-    public void markDead(String errorMessage) {
-        this.status = OutboxStatus.DEAD;
-        this.lastAttemptAt = LocalDateTime.now();
-        this.lastError = errorMessage;
-        this.nextAttemptAt = null;
+        releaseClaim();
     }
 
     public void requeue() {
         this.status = OutboxStatus.PENDING;
         this.lastError = null;
         this.nextAttemptAt = LocalDateTime.now();
+        releaseClaim();
+    }
+
+    private void releaseClaim() {
+        this.claimOwner = null;
+        this.claimedUntil = null;
     }
 }
@@ -0,0 +1,15 @@
+package hello.orders_service.order.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * outbox 저장 알림 (스프링 내부 이벤트)
+ * 저장 트랜잭션이 커밋된 뒤 OrderOutboxRelay 가 받아서 바로 발행
+ */
+@Getter
+@AllArgsConstructor
+public class OrderOutboxSavedEvent {
+    private Long outboxId;
+    private Long orderId;
+}
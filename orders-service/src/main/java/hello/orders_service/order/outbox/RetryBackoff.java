@@ -0,0 +1,37 @@
+package hello.orders_service.order.outbox;
+
+import hello.orders_service.order.infra.config.OutboxRelayProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * outbox 재시도 대기 시간 계산 (지수 백오프 + 지터)
+ * delay = min(maxBackoff, initialBackoff * multiplier^(retryCount - 1)) * (1 - jitter * random)
+ */
+public class RetryBackoff {
+    private final OutboxRelayProperties properties;
+    private final DoubleSupplier random;
+
+    public RetryBackoff(OutboxRelayProperties properties) {
+        this(properties, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RetryBackoff(OutboxRelayProperties properties, DoubleSupplier random) {
+        this.properties = properties;
+        this.random = random;
+    }
+
+    /**
+     * @param retryCount 이번 실패를 포함한 누적 재시도 횟수 (1부터)
+     */
+    public Duration delay(int retryCount) {
+        double initialMillis = properties.getInitialBackoff().toMillis();
+        double maxMillis = properties.getMaxBackoff().toMillis();
+        double exponential = initialMillis * Math.pow(properties.getBackoffMultiplier(), Math.max(0, retryCount - 1));
+        double base = Math.min(maxMillis, exponential);
+        double jitter = Math.min(1.0, Math.max(0.0, properties.getJitter()));
+        return Duration.ofMillis((long) (base * (1 - jitter * random.getAsDouble())));
+    }
+}
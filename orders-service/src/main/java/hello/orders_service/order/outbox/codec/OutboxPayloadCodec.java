@@ -0,0 +1,15 @@
+package hello.orders_service.order.outbox.codec;
+
+/**
+ * outbox payload 인코딩 방식
+ * 인코딩된 바이트는 outbox 에 그대로 저장되고, 발행 시 복사 없이 AMQP body 로 사용됨
+ * contentType 은 AMQP content-type 헤더로 함께 발행되어 소비 측(상품 서버)이 디코더를 선택하는 기준
+ */
+public interface OutboxPayloadCodec<T> {
+
+    String contentType();
+
+    byte[] encode(T payload);
+
+    T decode(byte[] bytes);
+}
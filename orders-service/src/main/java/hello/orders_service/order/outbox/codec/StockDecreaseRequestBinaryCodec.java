@@ -0,0 +1,72 @@
+package hello.orders_service.order.outbox.codec;
+
+import hello.orders_service.order.infra.messaging.event.StockDecreaseRequestEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * StockDecreaseRequestEvent 바이너리 인코딩 (기본값)
+ * [version 1B][orderId 8B][productId 8B][quantity 4B][requestId 길이 1B][requestId UTF-8 최대 64B], big-endian
+ * 상품 서버 StockDecreaseEventBinaryConverter 와 레이아웃이 같아야 함 (변경 시 VERSION 과 CONTENT_TYPE 을 함께 올림)
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.payload-format", havingValue = "binary", matchIfMissing = true)
+public class StockDecreaseRequestBinaryCodec implements OutboxPayloadCodec<StockDecreaseRequestEvent> {
+    public static final String CONTENT_TYPE = "application/x-stock-decrease-request-v1";
+    public static final int MAX_REQUEST_ID_BYTES = 64;
+    public static final int MAX_SIZE = 1 + 8 + 8 + 4 + 1 + MAX_REQUEST_ID_BYTES;
+
+    private static final byte VERSION = 1;
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(StockDecreaseRequestEvent event) {
+        byte[] requestId = event.getRequestId().getBytes(StandardCharsets.UTF_8);
+        if (requestId.length > MAX_REQUEST_ID_BYTES) {
+            throw new IllegalArgumentException("requestId 길이 초과: " + requestId.length + " bytes");
+        }
+
+        return ByteBuffer.allocate(MAX_SIZE - MAX_REQUEST_ID_BYTES + requestId.length)
+            .put(VERSION)
+            .putLong(event.getOrderId())
+            .putLong(event.getProductId())
+            .putInt(event.getQuantity())
+            .put((byte) requestId.length)
+            .put(requestId)
+            .array();
+    }
+
+    @Override
+    public StockDecreaseRequestEvent decode(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 payload 버전: " + version);
+            }
+
+            long orderId = buffer.getLong();
+            long productId = buffer.getLong();
+            int quantity = buffer.getInt();
+            int requestIdLength = Byte.toUnsignedInt(buffer.get());
+            if (requestIdLength > MAX_REQUEST_ID_BYTES) {
+                throw new IllegalArgumentException("requestId 길이 초과: " + requestIdLength + " bytes");
+            }
+            if (buffer.remaining() < requestIdLength) {
+                throw new IllegalArgumentException("payload 길이 부족: " + bytes.length + " bytes");
+            }
+            String requestId = new String(bytes, buffer.position(), requestIdLength, StandardCharsets.UTF_8);
+            return new StockDecreaseRequestEvent(orderId, productId, quantity, requestId);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("payload 길이 부족: " + bytes.length + " bytes", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package hello.orders_service.order.outbox.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.orders_service.order.infra.messaging.event.StockDecreaseRequestEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * StockDecreaseRequestEvent JSON 인코딩 (outbox.payload-format=json)
+ * 바이너리 디코더가 없는 소비자와 연동하거나 메시지를 사람이 직접 확인해야 할 때 사용
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.payload-format", havingValue = "json")
+@RequiredArgsConstructor
+public class StockDecreaseRequestJsonCodec implements OutboxPayloadCodec<StockDecreaseRequestEvent> {
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String contentType() {
+        return MessageProperties.CONTENT_TYPE_JSON;
+    }
+
+    @Override
+    public byte[] encode(StockDecreaseRequestEvent event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("재고 감소 이벤트 직렬화 실패", e);
+        }
+    }
+
+    @Override
+    public StockDecreaseRequestEvent decode(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, StockDecreaseRequestEvent.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("재고 감소 이벤트 역직렬화 실패", e);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package hello.orders_service.order.repository;
 
 import hello.orders_service.order.outbox.OutboxStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import hello.orders_service.order.outbox.OrderOutbox;
@@ -14,12 +18,86 @@ import java.util.Optional;
 public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
     List<OrderOutbox> findTop100ByStatusOrderByCreatedAtAsc(OutboxStatus status);
 
-    // retryCount 한도 미만인 outbox만 재시도 대상으로 조회
-    List<OrderOutbox> findTop100ByStatusInAndRetryCountLessThanAndNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
-        Collection<OutboxStatus> statuses,
-        int retryCount,
-        LocalDateTime nextAttemptAt
+    // 발행 예정 시각이 지났고 retryCount 한도 미만이며, 다른 발행자가 선점하지 않은(lease 만료 포함) outbox id 조회
+    @Query("select o.id from OrderOutbox o " +
+        "where o.status in :statuses and o.retryCount < :maxRetryCount and o.nextAttemptAt <= :dueAt " +
+        "and (o.claimedUntil is null or o.claimedUntil < :now) " +
+        "order by o.createdAt asc")
+    List<Long> findClaimableIds(
+        @Param("statuses") Collection<OutboxStatus> statuses,
+        @Param("maxRetryCount") int maxRetryCount,
+        @Param("dueAt") LocalDateTime dueAt,
+        @Param("now") LocalDateTime now,
+        Pageable pageable
     );
 
+    // 조건부 UPDATE 로 선점, 동시에 같은 행을 선점하려 하면 먼저 커밋한 쪽만 성공 (나머지는 lease 조건에서 걸러짐)
+    @Modifying(clearAutomatically = true)
+    @Query("update OrderOutbox o set o.claimOwner = :owner, o.claimedUntil = :claimedUntil " +
+        "where o.id in :ids and o.status in :statuses and (o.claimedUntil is null or o.claimedUntil < :now)")
+    int claim(
+        @Param("ids") Collection<Long> ids,
+        @Param("statuses") Collection<OutboxStatus> statuses,
+        @Param("owner") String owner,
+        @Param("claimedUntil") LocalDateTime claimedUntil,
+        @Param("now") LocalDateTime now
+    );
+
+    List<OrderOutbox> findByClaimOwnerOrderByCreatedAtAsc(String claimOwner);
+
+    // 발행하지 않고 선점만 해제 (재시도 횟수는 그대로)
+    // 아래 결과 기록 UPDATE 모두 선점한 owner 일 때만 반영, lease 만료 후 다른 발행자가 다시 선점한 outbox 는 건드리지 않음
+    @Modifying(clearAutomatically = true)
+    @Query("update OrderOutbox o set o.claimOwner = null, o.claimedUntil = null " +
+        "where o.id in :ids and o.claimOwner = :owner")
+    int releaseClaims(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    // 발행 실패 기록 후 선점 해제 (OrderOutbox.markFailed 와 같은 전이)
+    @Modifying(clearAutomatically = true)
+    @Query("update OrderOutbox o set o.status = hello.orders_service.order.outbox.OutboxStatus.FAILED, " +
+        "o.retryCount = o.retryCount + 1, o.lastAttemptAt = :now, o.lastError = :lastError, " +
+        "o.nextAttemptAt = :nextAttemptAt, o.claimOwner = null, o.claimedUntil = null " +
+        "where o.id = :id and o.claimOwner = :owner")
+    int markFailed(
+        @Param("id") Long id,
+        @Param("owner") String owner,
+        @Param("lastError") String lastError,
+        @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+        @Param("now") LocalDateTime now
+    );
+
+    // 재시도 한도 초과, DEAD 처리 후 선점 해제 (OrderOutbox.markDead 와 같은 전이)
+    @Modifying(clearAutomatically = true)
+    @Query("update OrderOutbox o set o.status = hello.orders_service.order.outbox.OutboxStatus.DEAD, " +
+        "o.lastAttemptAt = :now, o.lastError = :lastError, o.nextAttemptAt = null, " +
+        "o.claimOwner = null, o.claimedUntil = null " +
+        "where o.id = :id and o.claimOwner = :owner")
+    int markDead(
+        @Param("id") Long id,
+        @Param("owner") String owner,
+        @Param("lastError") String lastError,
+        @Param("now") LocalDateTime now
+    );
+
+    // 보관 기간이 지난 SENT outbox id (idx_order_outbox_sent 사용)
+    @Query("select o.id from OrderOutbox o " +
+        "where o.status = hello.orders_service.order.outbox.OutboxStatus.SENT and o.sentAt < :cutoff " +
+        "order by o.sentAt asc")
+    List<Long> findSentIdsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OrderOutbox o where o.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    Optional<OrderOutbox> findTopByStatusOrderBySentAtAsc(OutboxStatus status);
+
     Optional<OrderOutbox> findTopByOrderIdOrderByCreatedAtDesc(Long orderId);
+
+    // 브로커 confirm 을 받은 outbox 일괄 SENT 처리 (UPDATE 1회)
+    @Modifying(clearAutomatically = true)
+    @Query("update OrderOutbox o set o.status = hello.orders_service.order.outbox.OutboxStatus.SENT, " +
+        "o.sentAt = :sentAt, o.lastAttemptAt = :sentAt, o.nextAttemptAt = null, o.lastError = null, " +
+        "o.claimOwner = null, o.claimedUntil = null " +
+        "where o.id in :ids")
+    int markSentAll(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
 }
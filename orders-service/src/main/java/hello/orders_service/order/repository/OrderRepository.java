@@ -6,7 +6,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByBuyerIdAndStatus(String buyerId, OrderStatus status, Pageable pageable);
     Page<Order> findByBuyerId(String buyerId, Pageable pageable);
+    Optional<Order> findBySagaId(String sagaId);
 }
@@ -0,0 +1,44 @@
+package hello.orders_service.order.repository;
+
+import hello.orders_service.order.saga.log.SagaLogEntry;
+import hello.orders_service.order.saga.log.SagaLogEventType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SagaLogRepository extends JpaRepository<SagaLogEntry, Long> {
+
+    List<SagaLogEntry> findBySagaIdOrderByIdAsc(String sagaId);
+
+    // cutoff 이전에 시작했지만 종료 기록이 없는 사가 (오래된 순)
+    @Query("select s.sagaId from SagaLogEntry s " +
+        "where s.eventType = :started and s.createdAt < :cutoff " +
+        "and not exists (select 1 from SagaLogEntry f where f.sagaId = s.sagaId and f.eventType = :finished) " +
+        "order by s.createdAt asc")
+    List<String> findUnfinishedSagaIds(
+        @Param("started") SagaLogEventType started,
+        @Param("finished") SagaLogEventType finished,
+        @Param("cutoff") LocalDateTime cutoff,
+        Pageable pageable
+    );
+
+    // cutoff 이전에 종료된 사가 (기록 정리 대상)
+    @Query("select f.sagaId from SagaLogEntry f where f.eventType = :finished and f.createdAt < :cutoff order by f.createdAt asc")
+    List<String> findFinishedSagaIdsBefore(
+        @Param("finished") SagaLogEventType finished,
+        @Param("cutoff") LocalDateTime cutoff,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("delete from SagaLogEntry e where e.sagaId in :sagaIds")
+    int deleteBySagaIdIn(@Param("sagaIds") Collection<String> sagaIds);
+}
@@ -0,0 +1,45 @@
+package hello.orders_service.order.repository;
+
+import hello.orders_service.order.saga.log.SagaRecoveryClaim;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface SagaRecoveryClaimRepository extends JpaRepository<SagaRecoveryClaim, String> {
+
+    // 처음 선점, 이미 행이 있으면 PK 충돌 (DataIntegrityViolationException)
+    @Modifying
+    @Query(value = "insert into saga_recovery_claim (saga_id, claim_owner, claimed_until) values (:sagaId, :owner, :claimedUntil)",
+        nativeQuery = true)
+    int insertClaim(
+        @Param("sagaId") String sagaId,
+        @Param("owner") String owner,
+        @Param("claimedUntil") LocalDateTime claimedUntil
+    );
+
+    // lease 가 만료된 선점만 가져옴, 동시에 시도하면 먼저 커밋한 쪽만 성공
+    @Modifying
+    @Query("update SagaRecoveryClaim c set c.claimOwner = :owner, c.claimedUntil = :claimedUntil " +
+        "where c.sagaId = :sagaId and c.claimedUntil < :now")
+    int claimIfExpired(
+        @Param("sagaId") String sagaId,
+        @Param("owner") String owner,
+        @Param("claimedUntil") LocalDateTime claimedUntil,
+        @Param("now") LocalDateTime now
+    );
+
+    // 내 선점만 해제 (lease 만료 후 다른 인스턴스가 가져간 선점은 건드리지 않음)
+    @Modifying
+    @Query("delete from SagaRecoveryClaim c where c.sagaId = :sagaId and c.claimOwner = :owner")
+    int release(@Param("sagaId") String sagaId, @Param("owner") String owner);
+
+    @Modifying
+    @Query("delete from SagaRecoveryClaim c where c.sagaId in :sagaIds")
+    int deleteBySagaIdIn(@Param("sagaIds") Collection<String> sagaIds);
+}
@@ -6,6 +6,9 @@ import lombok.Data;
 
 @Data
 public class OrderSagaContext {
+    private String sagaId;          // 사가 기록(SagaLogEntry) 식별자
+    private OrderSagaType sagaType;
+
     private Long productId;
     private String buyerId;
     private int quantity;
@@ -9,21 +9,32 @@ import hello.orders_service.order.exception.ApiException;
 import hello.orders_service.order.exception.DependencyFailedException;
 import hello.orders_service.order.exception.ErrorCode;
 import hello.orders_service.order.exception.OrderStateException;
+import hello.orders_service.order.exception.SagaOverloadedException;
 import hello.orders_service.order.exception.client.ProductClientException;
+import hello.orders_service.order.infra.config.SagaStepProperties;
+import hello.orders_service.order.saga.log.SagaProgress;
+import hello.orders_service.order.saga.retry.SagaStepRetrier;
 import hello.orders_service.order.saga.step.CancelOrderStep;
 import hello.orders_service.order.saga.step.CreateOrderPendingStep;
 import hello.orders_service.order.saga.step.DecreaseStockAndConfirmStep;
 import hello.orders_service.order.saga.step.IncreaseStockByCancelStep;
 import hello.orders_service.order.service.OrderService;
+import hello.orders_service.saga.AsyncSagaRunner;
+import hello.orders_service.saga.AsyncSagaStep;
 import hello.orders_service.saga.SagaErrorType;
 import hello.orders_service.saga.SagaException;
+import hello.orders_service.saga.SagaLog;
 import hello.orders_service.saga.SagaStep;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 @Service
@@ -39,23 +50,57 @@ public class OrderSagaOrchestrator {
     private final IncreaseStockByCancelStep increaseStockByCancelStep;
     private final CancelOrderStep cancelOrderStep;
 
+    // 비동기 사가 단계 실행 스레드, 단계별 실행 시간 상한
+    private final SagaExecutor sagaExecutor;
+    private final SagaStepProperties sagaStepProperties;
+
+    // 사가 진행 기록 (중단된 사가 복구용)
+    private final SagaLog<OrderSagaContext> sagaLog;
+
+    // RETRYABLE 실패 단계 재시도 (단계별 정책/예산)
+    private final SagaStepRetrier sagaStepRetrier;
+    private AsyncSagaRunner<OrderSagaContext> asyncSagaRunner;
+
     // 플로우별 step 리스트
     private List<SagaStep<OrderSagaContext>> orderSteps;
     private List<SagaStep<OrderSagaContext>> cancelSteps;
 
+    // 비동기 플로우별 stage 리스트 (같은 stage 의 단계는 동시에 실행)
+    private List<List<AsyncSagaStep<OrderSagaContext>>> orderStages;
+    private List<List<AsyncSagaStep<OrderSagaContext>>> cancelStages;
+
     @PostConstruct
     void init() {
         // 주문 생성 플로우: PENDING → 재고 차감 & CONFIRM
         this.orderSteps = List.of(
-            createOrderPendingStep,
-            decreaseStockAndConfirmStep
+            sagaStepRetrier.retrying(createOrderPendingStep),
+            sagaStepRetrier.retrying(decreaseStockAndConfirmStep)
         );
 
         // 주문 취소 플로우: 재고 복원(INC) → CANCELLED
         this.cancelSteps = List.of(
-            increaseStockByCancelStep,
-            cancelOrderStep
+            sagaStepRetrier.retrying(increaseStockByCancelStep),
+            sagaStepRetrier.retrying(cancelOrderStep)
         );
+
+        // 현재 단계들은 앞 단계 결과(orderId, 재고 차감)에 의존하므로 stage 당 1개씩
+        // 결제/배송처럼 서로 독립적인 단계가 추가되면 같은 stage 에 묶어 동시에 실행
+        this.orderStages = List.of(
+            List.of(async(createOrderPendingStep)),
+            List.of(async(decreaseStockAndConfirmStep))
+        );
+        this.cancelStages = List.of(
+            List.of(async(increaseStockByCancelStep)),
+            List.of(async(cancelOrderStep))
+        );
+
+        this.asyncSagaRunner = new AsyncSagaRunner<>(sagaLog);
+    }
+
+    private AsyncSagaStep<OrderSagaContext> async(SagaStep<OrderSagaContext> step) {
+        AsyncSagaStep<OrderSagaContext> asyncStep = AsyncSagaStep.of(step, sagaExecutor, sagaStepProperties.timeoutOf(step.name()));
+        // 재시도 대기 후 이어가기는 거절되지 않도록 (거절되면 delayedExecutor 안에서 예외가 사라져 사가가 끝나지 않음)
+        return sagaStepRetrier.retrying(asyncStep, sagaExecutor::executeOrRun);
     }
 
 
@@ -71,12 +116,36 @@ public class OrderSagaOrchestrator {
         context.setProductId(productId);
         context.setBuyerId(buyerId);
         context.setQuantity(quantity);
+        context.setSagaType(OrderSagaType.ORDER);
 
+        record(sagaLog.started(context));
         return runSaga(orderSteps, context);
     }
 
     /** 주문 취소 사가: CONFIRMED → (재고 복원 INC-{orderId}) → CANCELLED */
     public Order startCancel(Long orderId) {
+        OrderSagaContext context = cancelContext(orderId);
+        record(sagaLog.started(context));
+        return runSaga(cancelSteps, context);
+    }
+
+    /** 주문 생성 사가 (비동기): 단계 사이에서 스레드를 점유하지 않고 연결 */
+    public CompletableFuture<Order> startOrderAsync(Long productId, String buyerId, int quantity) {
+        OrderSagaContext context = new OrderSagaContext();
+        context.setProductId(productId);
+        context.setBuyerId(buyerId);
+        context.setQuantity(quantity);
+        context.setSagaType(OrderSagaType.ORDER);
+
+        return runSagaAsync(orderStages, context);
+    }
+
+    /** 주문 취소 사가 (비동기), 상태 검증은 호출 스레드에서 바로 수행 */
+    public CompletableFuture<Order> startCancelAsync(Long orderId) {
+        return runSagaAsync(cancelStages, cancelContext(orderId));
+    }
+
+    private OrderSagaContext cancelContext(Long orderId) {
         // 기존 startCancel 의 상태 검증 로직
         Order order = orderService.findById(orderId);
         if (order.getStatus() != OrderStatus.CONFIRMED) {
@@ -85,26 +154,61 @@ public class OrderSagaOrchestrator {
         }
 
         OrderSagaContext context = new OrderSagaContext();
+        context.setSagaType(OrderSagaType.CANCEL);
         context.setOrderId(orderId);
         context.setProductId(order.getProductId());
         context.setQuantity(order.getQuantity());
         context.setIncKey("INC-" + orderId);
         context.setDecKey("DEC-" + orderId);
         context.setOrder(order); // 기본은 CONFIRMED
+        return context;
+    }
 
-        return runSaga(cancelSteps, context);
+    // 비동기 주문 / 취소 공통 실행 로직, 실패 처리 결과는 runSaga 와 같다.
+    CompletableFuture<Order> runSagaAsync(List<List<AsyncSagaStep<OrderSagaContext>>> stages, OrderSagaContext ctx) {
+        // 시작 기록 실패는 아무 단계도 실행하지 않은 상태이므로 그대로 실패
+        return sagaLog.started(ctx).thenCompose(started -> asyncSagaRunner.run(stages, ctx).handle((ignored, ex) -> {
+            if (ex == null) {
+                return ctx.getOrder();
+            }
+
+            Throwable cause = AsyncSagaRunner.unwrap(ex);
+            // 주문 생성 전에 사가 풀이 가득 차 거절된 경우는 기존처럼 SAGA_OVERLOADED 로 응답
+            if (ctx.getOrder() == null && cause instanceof SagaException rejected
+                && rejected.getCause() instanceof SagaOverloadedException overloaded) {
+                throw overloaded;
+            }
+            // RETRYABLE(재시도 소진, 대기열 초과): 그대로 던짐, 주문이 만들어지기 전 실패도 반환할 주문이 없으므로 던짐
+            boolean retryable = cause instanceof SagaException sagaEx && sagaEx.getType() == SagaErrorType.RETRYABLE;
+            if (retryable || ctx.getOrder() == null) {
+                throw cause instanceof RuntimeException runtimeEx ? runtimeEx : new CompletionException(cause);
+            }
+
+            // BUSINESS: 이미 FAILED 처리, COMPENSATE/예상 밖 예외: 보상 완료
+            log.warn("Saga finished with failure. ctx={}", ctx);
+            return ctx.getOrder();
+        }));
     }
 
     // 주문 / 취소 공통 실행 로직
     Order runSaga(List<SagaStep<OrderSagaContext>> steps, OrderSagaContext ctx) {
-        int completed = 0;
+        return runSaga(steps, ctx, 0);
+    }
+
+    // fromStep 부터 실행 (복구 시 완료된 단계 이후부터 이어서 실행)
+    Order runSaga(List<SagaStep<OrderSagaContext>> steps, OrderSagaContext ctx, int fromStep) {
+        int completed = fromStep;
 
         try {
-            for (SagaStep<OrderSagaContext> step : steps) {
-                log.info("Executing step: {}", step.getClass().getSimpleName());
+            for (int i = fromStep; i < steps.size(); i++) {
+                SagaStep<OrderSagaContext> step = steps.get(i);
+                log.info("Executing step: {}", step.name());
                 step.execute(ctx);
                 completed++;
+                // 완료 기록이 저장된 뒤 다음 단계 진행, 기록 실패는 보상 대상
+                record(sagaLog.stepDone(ctx, i));
             }
+            recordQuietly(sagaLog.finished(ctx), ctx);
             return ctx.getOrder();
 
         } catch (SagaException ex) {
@@ -113,11 +217,12 @@ public class OrderSagaOrchestrator {
             switch (type) {
                 case BUSINESS -> {
                     log.warn("Saga business failure. ctx={}", ctx);
+                    recordQuietly(sagaLog.finished(ctx), ctx);
                     return ctx.getOrder();
                 }
 
                 case RETRYABLE -> {
-                    // 재시도 대상: 지금은 그대로 던지고, 나중에 재시도 메커니즘 붙일 수 있음
+                    // 단계 재시도(SagaStepRetrier)를 모두 소진한 실패: 종료 기록을 남기지 않으므로 SagaRecoveryWorker 가 이후 이어서 실행
                     log.error("Saga retryable failure. ctx={}", ctx, ex);
                     throw ex;
                 }
@@ -144,15 +249,119 @@ public class OrderSagaOrchestrator {
     }
 
     void compensate(List<SagaStep<OrderSagaContext>> steps, OrderSagaContext ctx, int lastIndex) {
+        List<Integer> indexes = new ArrayList<>();
         for (int i = lastIndex; i >= 0; i--) {
+            indexes.add(i);
+        }
+        compensateSteps(steps, ctx, indexes);
+    }
+
+    // indexes 순서대로 보상 (호출 측에서 역순으로 전달)
+    // 성공한 보상만 기록하고, 실패한 보상이 있으면 종료를 기록하지 않음 (복구 작업이 남은 보상을 다시 시도)
+    // @return 모든 보상이 성공했는지
+    private boolean compensateSteps(List<SagaStep<OrderSagaContext>> steps, OrderSagaContext ctx, List<Integer> indexes) {
+        recordQuietly(sagaLog.compensating(ctx), ctx);
+        boolean allCompensated = true;
+        for (int i : indexes) {
             SagaStep<OrderSagaContext> step = steps.get(i);
             try {
-                log.info("Compensating step: {}", step.getClass().getSimpleName());
+                log.info("Compensating step: {}", step.name());
                 step.compensate(ctx);
             } catch (Exception ex) {
                 log.error("Saga compensation step[{}] failed. step={}, ctx={}",
-                    i, step.getClass().getSimpleName(), ctx, ex);
+                    i, step.name(), ctx, ex);
+                allCompensated = false;
+                continue;
+            }
+            recordQuietly(sagaLog.stepCompensated(ctx, i), ctx);
+        }
+
+        if (allCompensated) {
+            recordQuietly(sagaLog.finished(ctx), ctx);
+        }
+        return allCompensated;
+    }
+
+    /**
+     * 중단된 사가 복구 (SagaRecoveryWorker 에서 호출)
+     * 보상 중이었으면 남은 보상을 이어서 수행, 아니면 완료된 마지막 단계 다음부터 이어서 실행
+     * 상품 서버 호출은 DEC-/INC-{orderId} 멱등키를 그대로 사용하므로 이미 반영된 요청이 다시 반영되지 않는다.
+     * RETRYABLE 실패는 그대로 던짐 (종료 기록이 없으므로 다음 주기에 다시 복구)
+     */
+    public Order recover(SagaProgress progress) {
+        OrderSagaContext ctx = new OrderSagaContext();
+        ctx.setSagaId(progress.getSagaId());
+        ctx.setSagaType(progress.getSagaType());
+        ctx.setOrderId(progress.getOrderId());
+        ctx.setProductId(progress.getProductId());
+        ctx.setQuantity(progress.getQuantity());
+
+        if (progress.getOrderId() == null) {
+            // 주문 PENDING 생성 완료 기록 전에 중단, 상품 서버 호출 전이므로 만들어진 주문이 있으면 FAILED 처리 후 종료
+            Order created = orderService.findBySagaId(progress.getSagaId()).orElse(null);
+            if (created != null) {
+                orderService.failOrderIfPending(created.getId(), "SAGA_ABORTED");
+                ctx.setOrderId(created.getId());
+                ctx.setOrder(orderService.findById(created.getId()));
+            }
+            log.warn("Saga stopped before order creation recorded. sagaId={}, orderId={}", progress.getSagaId(), ctx.getOrderId());
+            record(sagaLog.finished(ctx));
+            return ctx.getOrder();
+        }
+
+        ctx.setDecKey("DEC-" + progress.getOrderId());
+        ctx.setIncKey("INC-" + progress.getOrderId());
+        try {
+            ctx.setOrder(orderService.findById(progress.getOrderId()));
+        } catch (NoSuchElementException ex) {
+            log.warn("Saga order not found, finishing saga. sagaId={}, orderId={}", progress.getSagaId(), progress.getOrderId());
+            record(sagaLog.finished(ctx));
+            return null;
+        }
+
+        List<SagaStep<OrderSagaContext>> steps = progress.getSagaType() == OrderSagaType.CANCEL ? cancelSteps : orderSteps;
+
+        if (progress.isCompensating()) {
+            log.info("Resuming saga compensation. sagaId={}, steps={}", progress.getSagaId(), progress.stepsToCompensate());
+            if (!compensateSteps(steps, ctx, progress.stepsToCompensate())) {
+                // 종료 기록 없이 남겨 다음 주기에 다시 보상
+                throw SagaException.retryable("Saga compensation incomplete. sagaId=" + progress.getSagaId(), null);
             }
+            return ctx.getOrder();
+        }
+
+        if (alreadySettled(progress.getSagaType(), ctx.getOrder())) {
+            // 마지막 단계까지 반영됐지만 기록 전에 중단된 경우
+            record(sagaLog.finished(ctx));
+            return ctx.getOrder();
+        }
+
+        log.info("Resuming saga. sagaId={}, fromStep={}", progress.getSagaId(), progress.nextStep());
+        return runSaga(steps, ctx, progress.nextStep());
+    }
+
+    private boolean alreadySettled(OrderSagaType sagaType, Order order) {
+        if (sagaType == OrderSagaType.CANCEL) {
+            return order.getStatus() == OrderStatus.CANCEL;
+        }
+        return order.getStatus() == OrderStatus.CONFIRMED || order.getStatus() == OrderStatus.FAILED;
+    }
+
+    // 기록이 저장될 때까지 대기, 실패 시 예외
+    private void record(CompletableFuture<Void> logged) {
+        try {
+            logged.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    // 보상/종료 기록 실패는 사가 결과를 바꾸지 않음 (기록이 남지 않은 사가는 복구 작업이 다시 정리)
+    private void recordQuietly(CompletableFuture<Void> logged, OrderSagaContext ctx) {
+        try {
+            record(logged);
+        } catch (RuntimeException ex) {
+            log.error("Saga log write failed. ctx={}", ctx, ex);
         }
     }
 
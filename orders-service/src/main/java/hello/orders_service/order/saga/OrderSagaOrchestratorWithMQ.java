@@ -30,7 +30,7 @@ public class OrderSagaOrchestratorWithMQ {
 
         try {
             createOrderPendingStep.execute(context);
-            // outbox 저장만 수행 (실제 MQ 발행은 @Scheduled 퍼블리셔가 담당)
+            // outbox 저장만 수행 (실제 MQ 발행은 커밋 직후 릴레이가 담당)
             saveOutboxStep.execute(context);
             log.info("Saga 종료: 메시지 발행 완료");
         } catch (Exception e) {
@@ -0,0 +1,6 @@
+package hello.orders_service.order.saga;
+
+public enum OrderSagaType {
+    ORDER,     // 주문 생성 사가
+    CANCEL     // 주문 취소 사가
+}
@@ -0,0 +1,90 @@
+package hello.orders_service.order.saga;
+
+import hello.orders_service.order.exception.SagaOverloadedException;
+import hello.orders_service.order.infra.config.SagaExecutorProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 사가 실행기
+ * 활성화 시 비동기 사가 단계(AsyncSagaStep, 상품 서버 Feign 호출 포함)를 전용 스레드 풀에서 실행,
+ * 컨트롤러가 사가 CompletableFuture 를 그대로 반환하면 서블릿 비동기 처리로 Tomcat 요청 스레드는 상품 서버 응답을 기다리지 않음
+ * 비활성화 시 호출 스레드에서 바로 실행 (기존 동작)
+ */
+@Component
+@Slf4j
+public class SagaExecutor implements Executor {
+    private final ThreadPoolTaskExecutor executor;
+
+    public SagaExecutor(SagaExecutorProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            this.executor = null;
+            return;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("saga-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "sagaExecutor", List.of()).bindTo(meterRegistry);
+        this.executor = executor;
+    }
+
+    // 전용 풀 사용 여부 (false 면 호출 스레드에서 바로 실행)
+    public boolean isAsync() {
+        return executor != null;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (executor == null) {
+            task.run();
+            return;
+        }
+
+        try {
+            executor.execute(task);
+        } catch (TaskRejectedException ex) {
+            log.warn("사가 실행 대기열 초과, 요청 거절");
+            throw new SagaOverloadedException(ex);
+        }
+    }
+
+    /**
+     * 대기열이 가득 차면 호출 스레드에서 바로 실행 (거절하지 않음)
+     * 이미 끝난 작업(사가 기록 저장, 재시도 대기)에 이어서 다음 단계를 제출하는 가벼운 후속 처리용
+     * 이어서 제출한 단계가 거절되면 그 단계가 RETRYABLE 로 실패하고, 사가는 종료 기록 없이 복구 대상으로 남는다.
+     */
+    public void executeOrRun(Runnable task) {
+        if (executor == null) {
+            task.run();
+            return;
+        }
+
+        try {
+            executor.execute(task);
+        } catch (TaskRejectedException ex) {
+            task.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package hello.orders_service.order.saga.log;
+
+import hello.orders_service.order.saga.OrderSagaContext;
+import hello.orders_service.order.saga.SagaExecutor;
+import hello.orders_service.saga.SagaLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 주문/취소 사가 기록, SagaLogWriter 로 group commit
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSagaLog implements SagaLog<OrderSagaContext> {
+    private final SagaLogWriter sagaLogWriter;
+    private final SagaExecutor sagaExecutor;
+
+    @Override
+    public CompletableFuture<Void> started(OrderSagaContext context) {
+        if (context.getSagaId() == null) {
+            context.setSagaId(UUID.randomUUID().toString());
+        }
+        return append(context, SagaLogEventType.STARTED, null);
+    }
+
+    @Override
+    public CompletableFuture<Void> stepDone(OrderSagaContext context, int stepIndex) {
+        return append(context, SagaLogEventType.STEP_DONE, stepIndex);
+    }
+
+    @Override
+    public CompletableFuture<Void> compensating(OrderSagaContext context) {
+        return append(context, SagaLogEventType.COMPENSATING, null);
+    }
+
+    @Override
+    public CompletableFuture<Void> stepCompensated(OrderSagaContext context, int stepIndex) {
+        return append(context, SagaLogEventType.STEP_COMPENSATED, stepIndex);
+    }
+
+    @Override
+    public CompletableFuture<Void> finished(OrderSagaContext context) {
+        return append(context, SagaLogEventType.FINISHED, null);
+    }
+
+    private CompletableFuture<Void> append(OrderSagaContext context, SagaLogEventType eventType, Integer stepIndex) {
+        CompletableFuture<Void> written = sagaLogWriter.append(SagaLogEntry.of(context, eventType, stepIndex));
+
+        if (!sagaExecutor.isAsync()) {
+            // 사가 전용 풀 미사용: 호출 스레드에서 커밋을 기다려, 이후 단계도 호출 스레드에서 실행되도록 함
+            try {
+                written.join();
+                return written;
+            } catch (CompletionException e) {
+                return CompletableFuture.failedFuture(e.getCause());
+            }
+        }
+
+        // 다음 단계는 writer 스레드가 아닌 사가 풀에서 이어서 실행
+        // 풀이 가득 차도 이미 커밋된 기록을 실패로 돌리지 않도록 거절 대신 writer 스레드에서 이어감 (단계 제출만 하므로 짧음)
+        return written.thenRunAsync(() -> { }, sagaExecutor::executeOrRun);
+    }
+}
@@ -0,0 +1,66 @@
+package hello.orders_service.order.saga.log;
+
+import hello.orders_service.order.saga.OrderSagaContext;
+import hello.orders_service.order.saga.OrderSagaType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사가 진행 기록, 한 사가의 기록은 INSERT 만 하고 수정하지 않는다.
+ * 복구에 필요한 값(orderId, productId, quantity)만 컬럼으로 남겨 행을 작게 유지
+ */
+@Entity
+@Getter
+@ToString
+@Table(name = "saga_log", indexes = {
+    @Index(name = "idx_saga_log_saga_id", columnList = "sagaId"),
+    // 미종료 사가 조회 / 종료된 기록 정리
+    @Index(name = "idx_saga_log_event_created", columnList = "eventType, createdAt")
+})
+@NoArgsConstructor
+public class SagaLogEntry {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String sagaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OrderSagaType sagaType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SagaLogEventType eventType;
+
+    private Integer stepIndex;
+
+    // 주문 생성 사가는 첫 단계(주문 PENDING 생성) 완료 이후부터 채워짐
+    private Long orderId;
+
+    private Long productId;
+
+    private Integer quantity;
+
+    // 기록 시점 (group commit 으로 저장 시점보다 조금 이를 수 있음)
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public static SagaLogEntry of(OrderSagaContext context, SagaLogEventType eventType, Integer stepIndex) {
+        SagaLogEntry entry = new SagaLogEntry();
+        entry.sagaId = context.getSagaId();
+        entry.sagaType = context.getSagaType();
+        entry.eventType = eventType;
+        entry.stepIndex = stepIndex;
+        entry.orderId = context.getOrderId();
+        entry.productId = context.getProductId();
+        entry.quantity = context.getQuantity();
+        entry.createdAt = LocalDateTime.now();
+        return entry;
+    }
+}
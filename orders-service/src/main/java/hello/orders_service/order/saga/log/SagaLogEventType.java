@@ -0,0 +1,9 @@
+package hello.orders_service.order.saga.log;
+
+public enum SagaLogEventType {
+    STARTED,            // 사가 시작 (productId, quantity, 취소 사가는 orderId 포함)
+    STEP_DONE,          // stepIndex 단계 실행 완료
+    COMPENSATING,       // 보상 시작
+    STEP_COMPENSATED,   // stepIndex 단계 보상 완료
+    FINISHED            // 사가 종료 (성공, 비즈니스 실패, 보상 완료)
+}
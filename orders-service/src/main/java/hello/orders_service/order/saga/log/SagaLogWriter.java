@@ -0,0 +1,126 @@
+package hello.orders_service.order.saga.log;
+
+import hello.orders_service.order.infra.config.SagaLogProperties;
+import hello.orders_service.order.repository.SagaLogRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 사가 기록 group commit
+ * 요청 스레드들이 append 한 기록을 전용 스레드 1개가 모아서 한 트랜잭션(JDBC 배치 INSERT)으로 저장하고,
+ * 커밋 이후 각 기록의 future 를 완료한다.
+ * 별도의 대기 시간은 두지 않음: 이전 배치를 저장하는 동안 쌓인 기록이 다음 배치가 되므로, 부하가 클수록 배치가 커진다.
+ * 지표 : order.saga.log.batch.size (커밋당 기록 수)
+ */
+@Component
+@Slf4j
+public class SagaLogWriter {
+    private final SagaLogRepository sagaLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final DistributionSummary batchSizes;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public SagaLogWriter(SagaLogRepository sagaLogRepository,
+                         TransactionTemplate transactionTemplate,
+                         SagaLogProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.sagaLogRepository = sagaLogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.getBatchSize();
+        this.batchSizes = DistributionSummary.builder("order.saga.log.batch.size").register(meterRegistry);
+        this.writerThread = new Thread(this::run, "saga-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * @return 기록이 커밋되면 완료, 저장 실패 시 예외로 완료
+     */
+    public CompletableFuture<Void> append(SagaLogEntry entry) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("사가 기록 저장 종료됨"));
+            return future;
+        }
+        queue.add(new Pending(entry, future));
+        return future;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 종료 시 남은 기록은 저장하지 못함 -> 해당 사가는 복구 대상으로 남음
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(new IllegalStateException("사가 기록 저장 종료됨"));
+        }
+    }
+
+    void write(List<Pending> batch) {
+        List<SagaLogEntry> entries = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            entries.add(pending.entry());
+        }
+
+        RuntimeException failure = null;
+        try {
+            transactionTemplate.executeWithoutResult(status -> sagaLogRepository.saveAll(entries));
+            batchSizes.record(entries.size());
+        } catch (RuntimeException e) {
+            log.error("사가 기록 저장 실패, count = {}", entries.size(), e);
+            failure = e;
+        }
+
+        for (Pending pending : batch) {
+            try {
+                if (failure == null) {
+                    pending.future().complete(null);
+                } else {
+                    pending.future().completeExceptionally(failure);
+                }
+            } catch (RuntimeException e) {
+                // 후속 처리(다음 사가 단계 제출 등)에서 난 예외가 writer 스레드를 멈추지 않도록
+                log.error("사가 기록 완료 후속 처리 실패, sagaId = {}", pending.entry().getSagaId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writerThread.join(5_000);
+    }
+
+    private record Pending(SagaLogEntry entry, CompletableFuture<Void> future) {
+    }
+}
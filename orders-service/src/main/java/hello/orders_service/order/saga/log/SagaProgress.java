@@ -0,0 +1,73 @@
+package hello.orders_service.order.saga.log;
+
+import hello.orders_service.order.saga.OrderSagaType;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * 사가 기록을 모아 만든 진행 상태 (복구용)
+ */
+@Getter
+@ToString
+public class SagaProgress {
+    private String sagaId;
+    private OrderSagaType sagaType;
+    private Long orderId;
+    private Long productId;
+    private int quantity;
+    private boolean compensating;
+    private boolean finished;
+    private final NavigableSet<Integer> doneSteps = new TreeSet<>();
+    private final NavigableSet<Integer> compensatedSteps = new TreeSet<>();
+
+    /**
+     * @param entries 한 사가의 기록 (id 오름차순)
+     */
+    public static SagaProgress from(List<SagaLogEntry> entries) {
+        SagaProgress progress = new SagaProgress();
+        for (SagaLogEntry entry : entries) {
+            progress.sagaId = entry.getSagaId();
+            progress.sagaType = entry.getSagaType();
+            if (entry.getOrderId() != null) {
+                progress.orderId = entry.getOrderId();
+            }
+            if (entry.getProductId() != null) {
+                progress.productId = entry.getProductId();
+            }
+            if (entry.getQuantity() != null) {
+                progress.quantity = entry.getQuantity();
+            }
+
+            switch (entry.getEventType()) {
+                case STEP_DONE -> progress.doneSteps.add(entry.getStepIndex());
+                case COMPENSATING -> progress.compensating = true;
+                case STEP_COMPENSATED -> progress.compensatedSteps.add(entry.getStepIndex());
+                case FINISHED -> progress.finished = true;
+                default -> {
+                }
+            }
+        }
+        return progress;
+    }
+
+    // 이어서 실행할 단계 (완료된 마지막 단계 다음)
+    public int nextStep() {
+        return doneSteps.isEmpty() ? 0 : doneSteps.last() + 1;
+    }
+
+    // 아직 보상하지 않은 완료 단계 (보상 순서: 역순)
+    public List<Integer> stepsToCompensate() {
+        List<Integer> steps = new ArrayList<>();
+        for (Integer step : doneSteps.descendingSet()) {
+            if (!compensatedSteps.contains(step)) {
+                steps.add(step);
+            }
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,31 @@
+package hello.orders_service.order.saga.log;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사가 복구 선점 (인스턴스 여러 대가 같은 사가를 동시에 복구하지 않도록)
+ * saga_log 는 INSERT 만 하므로 선점은 사가당 1행인 별도 테이블에서 조건부 INSERT/UPDATE 로 처리
+ * 복구가 끝나면 삭제, 복구 중 인스턴스가 죽으면 claimedUntil 이후 다른 인스턴스가 다시 선점
+ */
+@Entity
+@Getter
+@Table(name = "saga_recovery_claim")
+@NoArgsConstructor
+public class SagaRecoveryClaim {
+    @Id
+    @Column(length = 36)
+    private String sagaId;
+
+    @Column(nullable = false, length = 64)
+    private String claimOwner;
+
+    @Column(nullable = false)
+    private LocalDateTime claimedUntil;
+}
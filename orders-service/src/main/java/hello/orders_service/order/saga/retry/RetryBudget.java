@@ -0,0 +1,63 @@
+package hello.orders_service.order.saga.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 재시도 예산
+ * 첫 시도마다 retryRatio 개, 초당 minRetriesPerSecond 개씩 적립 (최대 maxBalance), 재시도 1회에 1개 사용
+ * 예산이 없으면 재시도하지 않고 바로 실패 -> 장애 시 재시도 폭주 방지
+ */
+public class RetryBudget {
+    private final double retryRatio;
+    private final double tokensPerNano;
+    private final double maxBalance;
+    private final LongSupplier nanoTime;
+    private double balance;
+    private long lastRefillNanos;
+
+    public RetryBudget(double retryRatio, double minRetriesPerSecond, int maxBalance) {
+        this(retryRatio, minRetriesPerSecond, maxBalance, System::nanoTime);
+    }
+
+    RetryBudget(double retryRatio, double minRetriesPerSecond, int maxBalance, LongSupplier nanoTime) {
+        if (retryRatio < 0 || minRetriesPerSecond < 0 || maxBalance <= 0) {
+            throw new IllegalArgumentException("retryRatio, minRetriesPerSecond 는 0 이상, maxBalance 는 0보다 커야 합니다.");
+        }
+        this.retryRatio = retryRatio;
+        this.tokensPerNano = minRetriesPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxBalance = maxBalance;
+        this.nanoTime = nanoTime;
+        this.balance = maxBalance;
+        this.lastRefillNanos = nanoTime.getAsLong();
+    }
+
+    // 첫 시도 기록
+    public synchronized void recordAttempt() {
+        refill();
+        balance = Math.min(maxBalance, balance + retryRatio);
+    }
+
+    /**
+     * @return 재시도 가능하면 예산 1개를 사용하고 true
+     */
+    public synchronized boolean tryAcquireRetry() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    public synchronized double balance() {
+        refill();
+        return balance;
+    }
+
+    private void refill() {
+        long now = nanoTime.getAsLong();
+        balance = Math.min(maxBalance, balance + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
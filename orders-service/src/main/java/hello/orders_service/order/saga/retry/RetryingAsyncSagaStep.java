@@ -0,0 +1,81 @@
+package hello.orders_service.order.saga.retry;
+
+import hello.orders_service.saga.AsyncSagaRunner;
+import hello.orders_service.saga.AsyncSagaStep;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 재시도하는 AsyncSagaStep
+ * 시간 상한은 시도마다 적용하고, 재시도 대기는 스레드를 점유하지 않음 (delayedExecutor)
+ * 마지막 시도의 실패를 그대로 전달 (시간 초과는 AsyncSagaRunner 가 RETRYABLE 로 변환)
+ * 시간 초과한 시도는 끝났는지 알 수 없으므로 재시도하지 않고 바로 실패 (다음 시도와 동시에 실행되지 않도록)
+ */
+@Slf4j
+class RetryingAsyncSagaStep<C> implements AsyncSagaStep<C> {
+    private final AsyncSagaStep<C> delegate;
+    private final StepRetry stepRetry;
+    private final Executor executor;
+
+    RetryingAsyncSagaStep(AsyncSagaStep<C> delegate, StepRetry stepRetry, Executor executor) {
+        this.delegate = delegate;
+        this.stepRetry = stepRetry;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> executeAsync(C context) {
+        stepRetry.onFirstAttempt();
+        return attempt(context, 1);
+    }
+
+    private CompletableFuture<Void> attempt(C context, int attempt) {
+        CompletableFuture<Void> future;
+        try {
+            future = delegate.executeAsync(context);
+        } catch (RuntimeException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        if (delegate.timeout() != null) {
+            future = future.orTimeout(delegate.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return future.handle((ignored, ex) -> {
+            if (ex == null) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+
+            Throwable cause = AsyncSagaRunner.unwrap(ex);
+            Duration delay = stepRetry.nextDelay(attempt, cause);
+            if (delay == null) {
+                return CompletableFuture.<Void>failedFuture(cause);
+            }
+
+            log.warn("Saga step retry. step={}, attempt={}, delay={}ms, msg={}", name(), attempt, delay.toMillis(), cause.getMessage());
+            Executor delayed = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, executor);
+            return CompletableFuture.runAsync(() -> { }, delayed)
+                .thenCompose(waited -> attempt(context, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    @Override
+    public CompletableFuture<Void> compensateAsync(C context) {
+        return delegate.compensateAsync(context);
+    }
+
+    // 시도마다 적용하므로 전체 상한은 두지 않음
+    @Override
+    public Duration timeout() {
+        return null;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+}
@@ -0,0 +1,55 @@
+package hello.orders_service.order.saga.retry;
+
+import hello.orders_service.saga.SagaStep;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * 재시도하는 SagaStep (동기 실행, 대기 동안 호출 스레드 점유)
+ * 단계는 context 의 DEC-/INC- 멱등키를 그대로 사용하므로 같은 요청이 상품 서버에 두 번 반영되지 않는다.
+ * 보상은 재시도하지 않음
+ */
+@Slf4j
+class RetryingSagaStep<C> implements SagaStep<C> {
+    private final SagaStep<C> delegate;
+    private final StepRetry stepRetry;
+
+    RetryingSagaStep(SagaStep<C> delegate, StepRetry stepRetry) {
+        this.delegate = delegate;
+        this.stepRetry = stepRetry;
+    }
+
+    @Override
+    public void execute(C context) {
+        stepRetry.onFirstAttempt();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                delegate.execute(context);
+                return;
+            } catch (RuntimeException ex) {
+                Duration delay = stepRetry.nextDelay(attempt, ex);
+                if (delay == null) {
+                    throw ex;
+                }
+                log.warn("Saga step retry. step={}, attempt={}, delay={}ms, msg={}", name(), attempt, delay.toMillis(), ex.getMessage());
+                try {
+                    Thread.sleep(delay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void compensate(C context) {
+        delegate.compensate(context);
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+}
@@ -0,0 +1,62 @@
+package hello.orders_service.order.saga.retry;
+
+import hello.orders_service.order.infra.config.SagaRetryProperties;
+import hello.orders_service.saga.AsyncSagaStep;
+import hello.orders_service.saga.SagaStep;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 사가 단계에 재시도 정책/예산을 적용
+ * 예산과 지표는 단계 이름별로 하나씩 (동기/비동기 실행이 같은 예산을 사용)
+ * 지표 : order.saga.step.retries, order.saga.step.retry.exhausted (reason=attempts|budget), order.saga.step.retry.budget
+ */
+@Component
+public class SagaStepRetrier {
+    private final SagaRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final DoubleSupplier random;
+    private final Map<String, StepRetry> stepRetries = new ConcurrentHashMap<>();
+
+    public SagaStepRetrier(SagaRetryProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    SagaStepRetrier(SagaRetryProperties properties, MeterRegistry meterRegistry, DoubleSupplier random) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.random = random;
+    }
+
+    public <C> SagaStep<C> retrying(SagaStep<C> step) {
+        if (!properties.isEnabled()) {
+            return step;
+        }
+        return new RetryingSagaStep<>(step, stepRetry(step.name()));
+    }
+
+    /**
+     * @param executor 재시도 대기 후 다음 시도를 시작할 executor
+     */
+    public <C> AsyncSagaStep<C> retrying(AsyncSagaStep<C> step, Executor executor) {
+        if (!properties.isEnabled()) {
+            return step;
+        }
+        return new RetryingAsyncSagaStep<>(step, stepRetry(step.name()), executor);
+    }
+
+    private StepRetry stepRetry(String stepName) {
+        return stepRetries.computeIfAbsent(stepName, name -> {
+            SagaRetryProperties.Budget budget = properties.getBudget();
+            return new StepRetry(name, properties.policyOf(name),
+                new RetryBudget(budget.getRetryRatio(), budget.getMinRetriesPerSecond(), budget.getMaxBalance()),
+                random, meterRegistry);
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package hello.orders_service.order.saga.retry;
+
+import hello.orders_service.order.infra.config.SagaRetryProperties;
+import hello.orders_service.saga.SagaErrorType;
+import hello.orders_service.saga.SagaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 단계 하나의 재시도 판단 (정책 + 예산 + 지표)
+ * 재시도 대상 : RETRYABLE SagaException (상품 서버 5xx, 처리 중 409 등)
+ * 단계 시간 초과는 재시도하지 않음 (이전 시도가 아직 실행 중일 수 있어 같이 돌면 주문 확정/보상이 엇갈림, 복구 작업이 이어서 처리)
+ */
+class StepRetry {
+    private final String stepName;
+    private final SagaRetryProperties.Policy policy;
+    private final RetryBudget budget;
+    private final DoubleSupplier random;
+    private final Counter retries;
+    private final Counter exhaustedAttempts;
+    private final Counter exhaustedBudget;
+
+    StepRetry(String stepName, SagaRetryProperties.Policy policy, RetryBudget budget, DoubleSupplier random, MeterRegistry meterRegistry) {
+        this.stepName = stepName;
+        this.policy = policy;
+        this.budget = budget;
+        this.random = random;
+        this.retries = Counter.builder("order.saga.step.retries").tag("step", stepName).register(meterRegistry);
+        this.exhaustedAttempts = Counter.builder("order.saga.step.retry.exhausted")
+            .tag("step", stepName).tag("reason", "attempts").register(meterRegistry);
+        this.exhaustedBudget = Counter.builder("order.saga.step.retry.exhausted")
+            .tag("step", stepName).tag("reason", "budget").register(meterRegistry);
+        Gauge.builder("order.saga.step.retry.budget", budget, RetryBudget::balance).tag("step", stepName).register(meterRegistry);
+    }
+
+    String stepName() {
+        return stepName;
+    }
+
+    void onFirstAttempt() {
+        budget.recordAttempt();
+    }
+
+    /**
+     * @param attempt 방금 실패한 시도 번호 (1부터)
+     * @return 다음 시도까지 대기 시간, 재시도하지 않으면 null
+     */
+    Duration nextDelay(int attempt, Throwable failure) {
+        if (!isRetryable(failure)) {
+            return null;
+        }
+        if (attempt >= policy.getMaxAttempts()) {
+            exhaustedAttempts.increment();
+            return null;
+        }
+        if (!budget.tryAcquireRetry()) {
+            exhaustedBudget.increment();
+            return null;
+        }
+
+        retries.increment();
+        return backoff(attempt);
+    }
+
+    // delay = min(maxBackoff, initialBackoff * multiplier^(retry - 1)) * (1 - jitter * random)
+    private Duration backoff(int retry) {
+        double exponential = policy.getInitialBackoff().toMillis() * Math.pow(policy.getBackoffMultiplier(), Math.max(0, retry - 1));
+        double base = Math.min(policy.getMaxBackoff().toMillis(), exponential);
+        double jitter = Math.min(1.0, Math.max(0.0, policy.getJitter()));
+        return Duration.ofMillis((long) (base * (1 - jitter * random.getAsDouble())));
+    }
+
+    private boolean isRetryable(Throwable failure) {
+        return failure instanceof SagaException sagaEx && sagaEx.getType() == SagaErrorType.RETRYABLE;
+    }
+}
@@ -23,7 +23,8 @@ public class CreateOrderPendingStep implements SagaStep<OrderSagaContext> {
         Order order = orderService.createOrderPending(
             context.getProductId(),
             context.getBuyerId(),
-            context.getQuantity()
+            context.getQuantity(),
+            context.getSagaId()
         );
         context.setOrder(order);
         context.setOrderId(order.getId());
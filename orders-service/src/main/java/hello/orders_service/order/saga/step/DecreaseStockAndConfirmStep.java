@@ -92,8 +92,9 @@ public class DecreaseStockAndConfirmStep implements SagaStep<OrderSagaContext> {
             context.setOrder(failed);
 
         } catch (Exception ex) {
-            // 보상 실패 시
+            // 보상 실패 시, 사가가 보상 완료로 기록하지 않도록 다시 던짐 (복구 작업이 같은 INC 멱등키로 재시도)
             log.error("Compensation INC failed. orderId={}", orderId, ex);
+            throw SagaException.retryable("Compensation INC failed", ex);
         }
 
     }
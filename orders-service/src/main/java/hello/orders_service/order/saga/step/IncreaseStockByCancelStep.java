@@ -62,7 +62,9 @@ public class IncreaseStockByCancelStep implements SagaStep<OrderSagaContext> {
             // 주문 상태는 CONFIRMED 그대로 유지
 
         } catch (Exception ex) {
+            // 사가가 보상 완료로 기록하지 않도록 다시 던짐 (복구 작업이 재시도)
             log.error("Cancel compensation DEC failed. orderId={}", orderId, ex);
+            throw SagaException.retryable("Cancel compensation DEC failed", ex);
         }
     }
 }
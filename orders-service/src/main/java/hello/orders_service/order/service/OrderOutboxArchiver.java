@@ -0,0 +1,99 @@
+package hello.orders_service.order.service;
+
+import hello.orders_service.order.infra.config.OutboxArchiveProperties;
+import hello.orders_service.order.outbox.OutboxStatus;
+import hello.orders_service.order.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보관 기간이 지난 SENT outbox 정리
+ * (status, sentAt) 인덱스로 오래된 ID를 batchSize 만큼 조회 -> ID로 삭제, 배치마다 트랜잭션을 나눠 발행 쪽 UPDATE 와의 락 경합을 짧게 유지한다.
+ * 지표 : order.outbox.archive.rows (삭제 건수), order.outbox.archive.lag.seconds (보관 기간을 넘긴 가장 오래된 SENT 행의 초과 시간)
+ */
+@Component
+@Slf4j
+public class OrderOutboxArchiver {
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OutboxArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedRows;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OrderOutboxArchiver(OrderOutboxRepository orderOutboxRepository,
+                               OutboxArchiveProperties properties,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.archivedRows = Counter.builder("order.outbox.archive.rows").register(meterRegistry);
+        Gauge.builder("order.outbox.archive.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.archive.interval-ms:60000}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        try {
+            int archived = archiveSentBefore(cutoff);
+            if (archived > 0) {
+                log.info("SENT outbox 정리 완료, cutoff = {}, deleted = {}", cutoff, archived);
+            }
+            updateLag(cutoff);
+        } catch (Exception e) {
+            log.error("SENT outbox 정리 실패, 다음 주기에 재시도합니다. 사유: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * cutoff 이전에 발행 완료된 outbox 를 배치 단위로 삭제
+     * @return 삭제 건수
+     */
+    public int archiveSentBefore(LocalDateTime cutoff) {
+        int total = 0;
+
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = orderOutboxRepository.findSentIdsBefore(cutoff, PageRequest.of(0, properties.getBatchSize()));
+                return ids.isEmpty() ? 0 : orderOutboxRepository.deleteByIdIn(ids);
+            });
+
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+
+            total += deleted;
+            archivedRows.increment(deleted);
+
+            if (deleted < properties.getBatchSize()) {
+                break;
+            }
+        }
+
+        return total;
+    }
+
+    // 남아 있는 가장 오래된 SENT 행이 보관 기간을 얼마나 넘겼는지 (정리가 밀리고 있는지 확인용)
+    private void updateLag(LocalDateTime cutoff) {
+        long lag = orderOutboxRepository.findTopByStatusOrderBySentAtAsc(OutboxStatus.SENT)
+            .map(outbox -> Duration.between(outbox.getSentAt(), cutoff).getSeconds())
+            .filter(seconds -> seconds > 0)
+            .orElse(0L);
+        lagSeconds.set(lag);
+    }
+}
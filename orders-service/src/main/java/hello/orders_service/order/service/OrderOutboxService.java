@@ -1,13 +1,18 @@
 package hello.orders_service.order.service;
 
 import hello.orders_service.order.outbox.OrderOutbox;
+import hello.orders_service.order.outbox.OutboxStatus;
 import hello.orders_service.order.repository.OrderOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -15,22 +20,96 @@ import java.time.LocalDateTime;
 public class OrderOutboxService {
 
     private final OrderOutboxRepository orderOutboxRepository;
+
+    /**
+     * 발행 예정(PENDING/FAILED) outbox 를 owner 이름으로 선점 후 반환 (스윕용)
+     * 선점 기간(lease) 동안 다른 인스턴스/스레드는 같은 outbox 를 조회/선점하지 못함
+     * 발행 결과 처리(markSent/markFailed/markDead) 시 선점 해제, 처리 전에 죽으면 lease 만료 후 다시 선점 가능
+     * @param owner 선점 단위마다 고유한 이름 (인스턴스 id + 순번)
+     */
+    @Transactional
+    public List<OrderOutbox> claimDue(String owner, LocalDateTime dueAt, int maxRetryCount, Duration lease, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxStatus> statuses = List.of(OutboxStatus.PENDING, OutboxStatus.FAILED);
+        List<Long> ids = orderOutboxRepository.findClaimableIds(statuses, maxRetryCount, dueAt, now, PageRequest.of(0, limit));
+        return claim(ids, statuses, owner, now, lease);
+    }
+
+    /**
+     * 지정한 PENDING outbox 를 선점 후 반환 (커밋 직후 릴레이용)
+     * 이미 발행되었거나 다른 발행자가 선점한 outbox 는 제외
+     */
+    @Transactional
+    public List<OrderOutbox> claimByIds(Collection<Long> ids, String owner, Duration lease) {
+        return claim(ids, List.of(OutboxStatus.PENDING), owner, LocalDateTime.now(), lease);
+    }
+
+    private List<OrderOutbox> claim(Collection<Long> ids, List<OutboxStatus> statuses, String owner, LocalDateTime now, Duration lease) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        int claimed = orderOutboxRepository.claim(ids, statuses, owner, now.plus(lease), now);
+        if (claimed == 0) {
+            return List.of();
+        }
+        return orderOutboxRepository.findByClaimOwnerOrderByCreatedAtAsc(owner);
+    }
+
+    /**
+     * 발행을 보류한 outbox 의 선점 해제 (브로커 서킷 오픈 등), 재시도 횟수를 쓰지 않고 다음 스윕 대상이 됨
+     * owner 가 선점 중인 outbox 만 해제 (lease 만료 후 다른 발행자가 선점한 outbox 는 그대로)
+     */
+    @Transactional
+    public void releaseClaims(Collection<Long> ids, String owner) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        orderOutboxRepository.releaseClaims(ids, owner);
+    }
+
     @Transactional
     public void markSent(Long id) {
         OrderOutbox outbox = orderOutboxRepository.findById(id).orElseThrow();
         outbox.markSent();
     }
 
+    /**
+     * 발행 확인(confirm)된 outbox 일괄 SENT 처리
+     */
     @Transactional
-    public void markFailed(Long id, String errorMessage, LocalDateTime nextAttemptAt) {
-        OrderOutbox outbox = orderOutboxRepository.findById(id).orElseThrow();
-        outbox.markFailed(errorMessage, nextAttemptAt);
+    public void markSentAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        orderOutboxRepository.markSentAll(ids, LocalDateTime.now());
     }
 
+    /**
+     * 발행 실패 기록 (재시도 예정), owner 가 아직 선점 중일 때만 반영
+     * @return false 면 lease 가 만료되어 다른 발행자가 가져간 outbox (결과는 그 발행자가 기록)
+     */
     @Transactional
-    public void markDead(Long id, String errorMessage) {
-        OrderOutbox outbox = orderOutboxRepository.findById(id).orElseThrow();
-        outbox.markDead(errorMessage);
+    public boolean markFailed(Long id, String owner, String errorMessage, LocalDateTime nextAttemptAt) {
+        int updated = orderOutboxRepository.markFailed(id, owner, errorMessage, nextAttemptAt, LocalDateTime.now());
+        if (updated == 0) {
+            log.warn("선점을 잃은 outbox, 실패 기록 건너뜀. outboxId={}, owner={}", id, owner);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 재시도 한도 초과 DEAD 처리, owner 가 아직 선점 중일 때만 반영
+     * @return false 면 lease 가 만료되어 다른 발행자가 가져간 outbox
+     */
+    @Transactional
+    public boolean markDead(Long id, String owner, String errorMessage) {
+        int updated = orderOutboxRepository.markDead(id, owner, errorMessage, LocalDateTime.now());
+        if (updated == 0) {
+            log.warn("선점을 잃은 outbox, DEAD 처리 건너뜀. outboxId={}, owner={}", id, owner);
+            return false;
+        }
+        return true;
     }
 
     @Transactional
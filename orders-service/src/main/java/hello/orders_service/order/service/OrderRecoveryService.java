@@ -1,7 +1,5 @@
 package hello.orders_service.order.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.orders_service.order.domain.Order;
 import hello.orders_service.order.domain.OrderStatus;
 import hello.orders_service.order.exception.OrderNotFoundException;
@@ -10,6 +8,7 @@ import hello.orders_service.order.exception.ErrorCode;
 import hello.orders_service.order.infra.messaging.event.StockDecreaseRequestEvent;
 import hello.orders_service.order.outbox.OrderOutbox;
 import hello.orders_service.order.outbox.OutboxStatus;
+import hello.orders_service.order.outbox.codec.OutboxPayloadCodec;
 import hello.orders_service.order.repository.OrderOutboxRepository;
 import hello.orders_service.order.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class OrderRecoveryService {
     private final OrderRepository orderRepository;
     private final OrderOutboxRepository orderOutboxRepository;
-    private final ObjectMapper objectMapper;
+    private final OutboxPayloadCodec<StockDecreaseRequestEvent> payloadCodec;
     private final OrderOutboxService orderOutboxService;
 
     @Transactional
@@ -42,13 +41,9 @@ public class OrderRecoveryService {
             "DEC-" + order.getId()
         );
 
-        try {
-            String payload = objectMapper.writeValueAsString(event);
-            orderOutboxRepository.save(OrderOutbox.pending(order.getId(), "STOCK_DECREASE_REQUEST", payload));
-            return order;
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("재처리용 Outbox 직렬화 실패", e);
-        }
+        orderOutboxRepository.save(OrderOutbox.pending(
+            order.getId(), "STOCK_DECREASE_REQUEST", payloadCodec.contentType(), payloadCodec.encode(event)));
+        return order;
     }
 
     @Transactional
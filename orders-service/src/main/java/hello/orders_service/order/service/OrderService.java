@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -115,17 +116,34 @@ public class OrderService {
      */
     @Transactional
     public Order createOrderPending(Long productId, String buyerId, int quantity) {
-        Order o = Order.create(productId, buyerId, quantity);
+        return createOrderPending(productId, buyerId, quantity, null);
+    }
+
+    /**
+     * 사가 id 를 함께 저장, 주문 생성 완료 기록 전에 중단된 사가도 주문을 찾아 정리할 수 있도록
+     */
+    @Transactional
+    public Order createOrderPending(Long productId, String buyerId, int quantity, String sagaId) {
+        Order o = Order.create(productId, buyerId, quantity, sagaId);
         orderRepository.save(o);
         return o;
     }
 
+    @Transactional(readOnly = true)
+    public Optional<Order> findBySagaId(String sagaId) {
+        return orderRepository.findBySagaId(sagaId);
+    }
+
     /**
      * orderV2 상품 서버와 주문 서버의 일관성을 맞추기 위해 OrderSagaOrchestrator 도입
+     * 이미 확정된 주문은 그대로 반환 (같은 DEC 멱등키로 다시 실행된 단계가 확정된 주문을 실패/보상으로 돌리지 않도록)
      */
     @Transactional
     public Order confirmOrder(Long orderId) {
         Order findOrder = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(ErrorCode.ORDER_NOT_FOUND, ErrorCode.ORDER_NOT_FOUND.getMessage(), null, null));
+        if (findOrder.getStatus() == OrderStatus.CONFIRMED) {
+            return findOrder;
+        }
         findOrder.confirmStatus();
         return findOrder;
     }
@@ -0,0 +1,201 @@
+package hello.orders_service.order.service;
+
+import hello.orders_service.order.infra.config.SagaLogProperties;
+import hello.orders_service.order.repository.SagaLogRepository;
+import hello.orders_service.order.repository.SagaRecoveryClaimRepository;
+import hello.orders_service.order.saga.OrderSagaOrchestrator;
+import hello.orders_service.order.saga.log.SagaLogEventType;
+import hello.orders_service.order.saga.log.SagaProgress;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 중단된 사가 복구 및 종료된 사가 기록 정리
+ * 기동 직후와 주기적으로, 시작한 지 stuckAfter 가 지나도록 종료 기록이 없는 사가를 이어서 실행하거나 보상한다.
+ * 복구는 상품 서버 호출과 재시도 대기로 오래 걸릴 수 있어 전용 스레드에서 실행 (기동 이벤트/공용 스케줄러 스레드를 막지 않음)
+ * 인스턴스 여러 대가 같은 사가를 복구하지 않도록 사가마다 선점(SagaRecoveryClaim) 후 복구
+ * 지표 : order.saga.recovery.sagas (result=recovered|failed|skipped), order.saga.log.purged (정리한 사가 수)
+ */
+@Component
+@Slf4j
+public class SagaRecoveryWorker {
+    private final SagaLogRepository sagaLogRepository;
+    private final SagaRecoveryClaimRepository sagaRecoveryClaimRepository;
+    private final OrderSagaOrchestrator orderSagaOrchestrator;
+    private final SagaLogProperties.Recovery properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter recovered;
+    private final Counter failed;
+    private final Counter skipped;
+    private final Counter purged;
+    private final String claimOwner = UUID.randomUUID().toString();
+    // 기동 시 실행과 스케줄 실행이 겹쳐 같은 사가를 동시에 복구하지 않도록
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "saga-recovery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SagaRecoveryWorker(SagaLogRepository sagaLogRepository,
+                              SagaRecoveryClaimRepository sagaRecoveryClaimRepository,
+                              OrderSagaOrchestrator orderSagaOrchestrator,
+                              SagaLogProperties properties,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.sagaLogRepository = sagaLogRepository;
+        this.sagaRecoveryClaimRepository = sagaRecoveryClaimRepository;
+        this.orderSagaOrchestrator = orderSagaOrchestrator;
+        this.properties = properties.getRecovery();
+        this.transactionTemplate = transactionTemplate;
+        this.recovered = Counter.builder("order.saga.recovery.sagas").tag("result", "recovered").register(meterRegistry);
+        this.failed = Counter.builder("order.saga.recovery.sagas").tag("result", "failed").register(meterRegistry);
+        this.skipped = Counter.builder("order.saga.recovery.sagas").tag("result", "skipped").register(meterRegistry);
+        this.purged = Counter.builder("order.saga.log.purged").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        trigger();
+    }
+
+    // 복구는 전용 스레드에 넘기고 바로 반환 (이미 실행 중이면 건너뜀)
+    @Scheduled(fixedDelayString = "${order.saga.log.recovery.interval-ms:30000}")
+    public void trigger() {
+        if (!properties.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(this::run);
+        } catch (RuntimeException e) {
+            // 종료 중 등 실행 불가 -> 다음 주기에 다시 시도
+            running.set(false);
+            log.warn("사가 복구 실행 불가, 다음 주기에 재시도합니다. 사유: {}", e.getMessage());
+        }
+    }
+
+    void run() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int count = recoverStartedBefore(now.minus(properties.getStuckAfter()));
+            if (count > 0) {
+                log.info("중단된 사가 복구 완료, count = {}", count);
+            }
+            purgeFinishedBefore(now.minus(properties.getRetention()));
+        } catch (Exception e) {
+            log.error("사가 복구 실패, 다음 주기에 재시도합니다. 사유: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * cutoff 이전에 시작했지만 종료 기록이 없는 사가 복구
+     * @return 복구(종료 기록까지 완료)한 사가 수
+     */
+    public int recoverStartedBefore(LocalDateTime cutoff) {
+        List<String> sagaIds = sagaLogRepository.findUnfinishedSagaIds(
+            SagaLogEventType.STARTED, SagaLogEventType.FINISHED, cutoff, PageRequest.of(0, properties.getBatchSize()));
+
+        int count = 0;
+        for (String sagaId : sagaIds) {
+            if (!claim(sagaId)) {
+                // 다른 인스턴스가 복구 중
+                skipped.increment();
+                continue;
+            }
+
+            SagaProgress progress = null;
+            try {
+                progress = SagaProgress.from(sagaLogRepository.findBySagaIdOrderByIdAsc(sagaId));
+                if (progress.isFinished()) {
+                    // 조회 이후 다른 인스턴스가 복구를 마침
+                    continue;
+                }
+                orderSagaOrchestrator.recover(progress);
+                recovered.increment();
+                count++;
+            } catch (Exception e) {
+                // RETRYABLE(상품 서버 장애 등) -> 종료 기록 없이 남겨 다음 주기에 다시 시도
+                failed.increment();
+                log.warn("사가 복구 실패, 다음 주기에 재시도합니다. progress = {}, 사유: {}", progress, e.getMessage());
+            } finally {
+                release(sagaId);
+            }
+        }
+        return count;
+    }
+
+    // lease 가 만료된 선점은 다시 가져오고, 선점이 없으면 새로 INSERT (PK 충돌 시 다른 인스턴스가 먼저 선점)
+    private boolean claim(String sagaId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime claimedUntil = now.plus(properties.getClaimLease());
+        Integer taken = transactionTemplate.execute(status ->
+            sagaRecoveryClaimRepository.claimIfExpired(sagaId, claimOwner, claimedUntil, now));
+        if (taken != null && taken > 0) {
+            return true;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                sagaRecoveryClaimRepository.insertClaim(sagaId, claimOwner, claimedUntil));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void release(String sagaId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> sagaRecoveryClaimRepository.release(sagaId, claimOwner));
+        } catch (Exception e) {
+            // 해제하지 못한 선점은 claimLease 이후 다시 선점 가능
+            log.warn("사가 복구 선점 해제 실패, sagaId = {}, 사유: {}", sagaId, e.getMessage());
+        }
+    }
+
+    /**
+     * cutoff 이전에 종료된 사가 기록 삭제
+     * @return 삭제한 사가 수
+     */
+    public int purgeFinishedBefore(LocalDateTime cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<String> sagaIds = sagaLogRepository.findFinishedSagaIdsBefore(
+                SagaLogEventType.FINISHED, cutoff, PageRequest.of(0, properties.getPurgeBatchSize()));
+            if (sagaIds.isEmpty()) {
+                return 0;
+            }
+            sagaLogRepository.deleteBySagaIdIn(sagaIds);
+            sagaRecoveryClaimRepository.deleteBySagaIdIn(sagaIds);
+            return sagaIds.size();
+        });
+
+        if (deleted != null && deleted > 0) {
+            purged.increment(deleted);
+            return deleted;
+        }
+        return 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
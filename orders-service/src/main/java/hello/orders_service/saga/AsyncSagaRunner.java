@@ -0,0 +1,188 @@
+package hello.orders_service.saga;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 비동기 사가 실행기
+ * stages 를 순서대로 실행하고, 한 stage 안의 단계들은 동시에 실행 (서로 독립적인 단계만 같은 stage 에 둔다)
+ * 블로킹 없이 CompletableFuture 로 연결되며, 실패 처리 규칙은 동기 실행(OrderSagaOrchestrator.runSaga)과 같다.
+ * - BUSINESS, RETRYABLE : 보상 없이 실패
+ * - COMPENSATE, 그 외 예외 : 완료된 단계를 완료 역순으로 하나씩 보상한 뒤 실패
+ * 같은 stage 안의 단계들은 선언 순서대로 완료된 것으로 보고, 보상은 선언 역순
+ * 단계 완료/보상/종료는 SagaLog 에 기록한 뒤 다음으로 진행 (RETRYABLE 실패는 종료를 기록하지 않아 복구 대상으로 남음)
+ * 보상에 실패한 단계는 보상 기록을 남기지 않고 나머지 보상을 계속하며, 종료도 기록하지 않음 (복구 작업이 남은 보상을 다시 시도)
+ */
+@Slf4j
+public class AsyncSagaRunner<C> {
+    private final SagaLog<C> sagaLog;
+
+    public AsyncSagaRunner() {
+        this(SagaLog.none());
+    }
+
+    public AsyncSagaRunner(SagaLog<C> sagaLog) {
+        this.sagaLog = sagaLog;
+    }
+
+    /**
+     * started 기록 이후 호출
+     * @return 모든 단계가 성공하면 정상 완료, 실패 시 (보상이 끝난 뒤) 원인 예외로 완료
+     */
+    public CompletableFuture<Void> run(List<List<AsyncSagaStep<C>>> stages, C context) {
+        Deque<Completed<C>> completed = new ArrayDeque<>();
+        return runStage(stages, 0, 0, context, completed);
+    }
+
+    private CompletableFuture<Void> runStage(List<List<AsyncSagaStep<C>>> stages, int index, int firstStepIndex,
+                                             C context, Deque<Completed<C>> completed) {
+        if (index == stages.size()) {
+            return quietly(sagaLog.finished(context), context);
+        }
+
+        List<AsyncSagaStep<C>> stage = stages.get(index);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(stage.size());
+        for (AsyncSagaStep<C> step : stage) {
+            log.info("Executing step: {}", step.name());
+            futures.add(start(step, context));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .handle((ignored, ex) -> {
+                List<CompletableFuture<Void>> logged = new ArrayList<>();
+                Throwable failure = null;
+                for (int i = 0; i < stage.size(); i++) {
+                    Throwable stepFailure = failureOf(futures.get(i), stage.get(i));
+                    if (stepFailure == null) {
+                        completed.push(new Completed<>(stage.get(i), firstStepIndex + i));
+                        logged.add(sagaLog.stepDone(context, firstStepIndex + i));
+                    } else if (failure == null) {
+                        failure = stepFailure;
+                    }
+                }
+                Throwable stageFailure = failure;
+
+                // 완료 기록이 저장된 뒤 진행, 기록 실패는 단계 실패와 같이 취급 (보상 대상)
+                return CompletableFuture.allOf(logged.toArray(CompletableFuture[]::new))
+                    .handle((v, logEx) -> stageFailure != null ? stageFailure : logEx == null ? null : unwrap(logEx));
+            })
+            .thenCompose(failureFuture -> failureFuture)
+            .thenCompose(failure -> failure == null
+                ? runStage(stages, index + 1, firstStepIndex + stage.size(), context, completed)
+                : fail(failure, context, completed));
+    }
+
+    private CompletableFuture<Void> start(AsyncSagaStep<C> step, C context) {
+        CompletableFuture<Void> future;
+        try {
+            future = step.executeAsync(context);
+        } catch (RuntimeException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+
+        if (step.timeout() != null) {
+            future = future.orTimeout(step.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private CompletableFuture<Void> fail(Throwable failure, C context, Deque<Completed<C>> completed) {
+        if (failure instanceof SagaException sagaEx && sagaEx.getType() == SagaErrorType.RETRYABLE) {
+            log.warn("SagaException occurred. type={}, msg={}", sagaEx.getType(), sagaEx.getMessage());
+            return CompletableFuture.failedFuture(failure);
+        }
+        if (failure instanceof SagaException sagaEx && sagaEx.getType() == SagaErrorType.BUSINESS) {
+            log.warn("SagaException occurred. type={}, msg={}", sagaEx.getType(), sagaEx.getMessage());
+            return quietly(sagaLog.finished(context), context)
+                .thenCompose(ignored -> CompletableFuture.failedFuture(failure));
+        }
+
+        log.error("Saga failure. starting compensation... ctx={}", context, failure);
+        return quietly(sagaLog.compensating(context), context)
+            .thenCompose(ignored -> compensate(context, completed))
+            .thenCompose(allCompensated -> allCompensated
+                ? quietly(sagaLog.finished(context), context)
+                : CompletableFuture.<Void>completedFuture(null))
+            .thenCompose(ignored -> CompletableFuture.failedFuture(failure));
+    }
+
+    // 보상은 하나씩 순서대로 (완료 역순), 성공한 보상만 기록
+    // @return 모든 보상이 성공했는지
+    private CompletableFuture<Boolean> compensate(C context, Deque<Completed<C>> completed) {
+        AtomicBoolean allCompensated = new AtomicBoolean(true);
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (Completed<C> done : completed) {
+            chain = chain.thenCompose(ignored -> compensateStep(done.step(), context))
+                .thenCompose(compensated -> {
+                    if (!compensated) {
+                        allCompensated.set(false);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return quietly(sagaLog.stepCompensated(context, done.stepIndex()), context);
+                });
+        }
+        return chain.thenApply(ignored -> allCompensated.get());
+    }
+
+    private CompletableFuture<Boolean> compensateStep(AsyncSagaStep<C> step, C context) {
+        log.info("Compensating step: {}", step.name());
+        CompletableFuture<Void> future;
+        try {
+            future = step.compensateAsync(context);
+        } catch (RuntimeException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        return future.handle((ignored, ex) -> {
+            if (ex == null) {
+                return true;
+            }
+            log.error("Saga compensation step failed. step={}, ctx={}", step.name(), context, unwrap(ex));
+            return false;
+        });
+    }
+
+    // 보상/종료 기록 실패는 사가 결과를 바꾸지 않음 (기록이 남지 않은 사가는 복구 작업이 다시 정리)
+    private CompletableFuture<Void> quietly(CompletableFuture<Void> logged, C context) {
+        return logged.exceptionally(ex -> {
+            log.error("Saga log write failed. ctx={}", context, unwrap(ex));
+            return null;
+        });
+    }
+
+    // 완료된 future 의 실패 원인, 성공이면 null (시간 초과는 RETRYABLE 로 변환)
+    private Throwable failureOf(CompletableFuture<Void> future, AsyncSagaStep<C> step) {
+        try {
+            future.get();
+            return null;
+        } catch (ExecutionException ex) {
+            Throwable cause = unwrap(ex);
+            if (cause instanceof TimeoutException) {
+                return SagaException.retryable("Saga step timed out. step=" + step.name(), cause);
+            }
+            return cause;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return ex;
+        }
+    }
+
+    public static Throwable unwrap(Throwable ex) {
+        while ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+
+    private record Completed<C>(AsyncSagaStep<C> step, int stepIndex) {
+    }
+}
@@ -0,0 +1,70 @@
+package hello.orders_service.saga;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 사가 단계
+ * 실행/보상 결과를 CompletableFuture 로 반환, 실패는 SagaException 으로 완료
+ */
+public interface AsyncSagaStep<C> {
+    CompletableFuture<Void> executeAsync(C context);
+
+    CompletableFuture<Void> compensateAsync(C context);
+
+    // 실행 시간 상한 (executeAsync 호출 시점부터), null 이면 제한 없음 (초과 시 RETRYABLE 로 실패)
+    default Duration timeout() {
+        return null;
+    }
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * 기존 블로킹 SagaStep 을 executor 에서 실행하는 비동기 단계로 변환
+     * executor 가 거절하면(대기열 초과) 단계는 실행되지 않았으므로 RETRYABLE 로 실패 (보상 없이 복구 대상으로 남김)
+     * 시간 상한은 대기열에서 기다린 시간을 빼고 작업이 실제로 시작된 시점부터 잰다. (timeout() 은 null)
+     * 초과해도 블로킹 단계는 멈추지 않으므로, 재시도는 하지 않고 복구 작업(stuck-after 이후)이 이어서 처리
+     */
+    static <C> AsyncSagaStep<C> of(SagaStep<C> step, Executor executor, Duration timeout) {
+        return new AsyncSagaStep<>() {
+            @Override
+            public CompletableFuture<Void> executeAsync(C context) {
+                return submit(() -> step.execute(context), executor, step.name(), timeout);
+            }
+
+            @Override
+            public CompletableFuture<Void> compensateAsync(C context) {
+                return submit(() -> step.compensate(context), executor, step.name(), null);
+            }
+
+            @Override
+            public String name() {
+                return step.name();
+            }
+        };
+    }
+
+    private static CompletableFuture<Void> submit(Runnable task, Executor executor, String stepName, Duration timeout) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (timeout != null) {
+                    future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                try {
+                    task.run();
+                    future.complete(null);
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(SagaException.retryable("Saga step rejected by executor. step=" + stepName, ex));
+        }
+        return future;
+    }
+}
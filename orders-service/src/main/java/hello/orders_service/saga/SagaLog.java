@@ -0,0 +1,53 @@
+package hello.orders_service.saga;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 사가 진행 기록 (append-only)
+ * 각 기록이 저장된 뒤 future 가 완료되며, 사가는 다음 단계로 넘어가기 전에 이를 기다린다.
+ * 프로세스가 중간에 죽어도 기록을 보고 남은 단계를 이어서 실행하거나 보상할 수 있다.
+ * stepIndex 는 단계 목록(비동기 사가는 stage 를 펼친 순서)에서의 위치
+ */
+public interface SagaLog<C> {
+    CompletableFuture<Void> started(C context);
+
+    CompletableFuture<Void> stepDone(C context, int stepIndex);
+
+    CompletableFuture<Void> compensating(C context);
+
+    CompletableFuture<Void> stepCompensated(C context, int stepIndex);
+
+    CompletableFuture<Void> finished(C context);
+
+    // 기록하지 않음 (테스트, 기록이 필요 없는 사가)
+    static <C> SagaLog<C> none() {
+        return new SagaLog<>() {
+            private final CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+
+            @Override
+            public CompletableFuture<Void> started(C context) {
+                return done;
+            }
+
+            @Override
+            public CompletableFuture<Void> stepDone(C context, int stepIndex) {
+                return done;
+            }
+
+            @Override
+            public CompletableFuture<Void> compensating(C context) {
+                return done;
+            }
+
+            @Override
+            public CompletableFuture<Void> stepCompensated(C context, int stepIndex) {
+                return done;
+            }
+
+            @Override
+            public CompletableFuture<Void> finished(C context) {
+                return done;
+            }
+        };
+    }
+}
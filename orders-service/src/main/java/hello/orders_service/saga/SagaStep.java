@@ -4,4 +4,8 @@ public interface SagaStep <C> {
     void execute(C context);
 
     void compensate(C context);
+
+    default String name() {
+        return getClass().getSimpleName();
+    }
 }
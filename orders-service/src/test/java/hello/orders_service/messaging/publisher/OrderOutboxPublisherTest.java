@@ -1,24 +1,33 @@
 package hello.orders_service.messaging.publisher;
 
 import hello.orders_service.order.infra.config.OrderRabbitConfig;
+import hello.orders_service.order.infra.config.OutboxRelayProperties;
 import hello.orders_service.order.infra.messaging.publisher.OrderOutboxPublisher;
 import hello.orders_service.order.outbox.OrderOutbox;
 import hello.orders_service.order.outbox.OutboxStatus;
-import hello.orders_service.order.repository.OrderOutboxRepository;
+import hello.orders_service.order.outbox.codec.StockDecreaseRequestBinaryCodec;
+import hello.orders_service.order.infra.messaging.event.StockDecreaseRequestEvent;
 import hello.orders_service.order.service.OrderOutboxService;
 import hello.orders_service.order.service.OrderService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.net.ConnectException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,9 +38,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class OrderOutboxPublisherTest {
 
-    @Mock
-    private OrderOutboxRepository orderOutboxRepository;
-
     @Mock
     private RabbitTemplate rabbitTemplate;
 
@@ -41,11 +47,33 @@ class OrderOutboxPublisherTest {
     @Mock
     private OrderService orderService;
 
+    private SimpleMeterRegistry meterRegistry;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
     private OrderOutboxPublisher publisher;
 
     @BeforeEach
     void setUp() {
-        this.publisher = new OrderOutboxPublisher(orderOutboxRepository, rabbitTemplate, orderOutboxService, orderService);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        this.publisher = new OrderOutboxPublisher(rabbitTemplate, orderOutboxService, orderService, meterRegistry,
+            new OutboxRelayProperties(), circuitBreakerRegistry);
+    }
+
+    // 스윕이 선점한 outbox
+    private void givenClaimedDue(OrderOutbox... outboxes) {
+        when(orderOutboxService.claimDue(anyString(), any(LocalDateTime.class), eq(5), any(Duration.class), eq(100)))
+            .thenReturn(List.of(outboxes));
+    }
+
+    // 브로커 confirm 응답 흉내
+    private void confirmOnSend(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
     }
 
     @Test
@@ -54,15 +82,12 @@ class OrderOutboxPublisherTest {
         Long outboxId = 1L;
         String payloadJson = "{\"orderId\":100,\"productId\":500,\"quantity\":2,\"requestId\":\"DEC-123\"}";
 
-        OrderOutbox outbox = OrderOutbox.pending(100L, "STOCK_DECREASE_REQUEST", payloadJson);
+        OrderOutbox outbox = OrderOutbox.pending(100L, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, payloadJson.getBytes(StandardCharsets.UTF_8));
         ReflectionTestUtils.setField(outbox, "id", outboxId);
         ReflectionTestUtils.setField(outbox, "status", OutboxStatus.PENDING);
 
-        when(orderOutboxRepository.findTop100ByStatusInAndRetryCountLessThanAndNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
-            eq(List.of(OutboxStatus.PENDING, OutboxStatus.FAILED)),
-            eq(5),
-            any(LocalDateTime.class)
-        )).thenReturn(List.of(outbox));
+        givenClaimedDue(outbox);
+        confirmOnSend(true);
 
         // when
         publisher.publishDueOutboxEvents();
@@ -72,7 +97,8 @@ class OrderOutboxPublisherTest {
         verify(rabbitTemplate, times(1)).send(
             eq(OrderRabbitConfig.STOCK_REQUEST_EXCHANGE),
             eq(OrderRabbitConfig.STOCK_REQUEST_ROUTING_KEY),
-            msgCaptor.capture()
+            msgCaptor.capture(),
+            any(CorrelationData.class)
         );
 
         Message sentMessage = msgCaptor.getValue();
@@ -80,52 +106,216 @@ class OrderOutboxPublisherTest {
             .isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
         assertThat(new String(sentMessage.getBody(), StandardCharsets.UTF_8)).isEqualTo(payloadJson);
 
-        verify(orderOutboxService, times(1)).markSent(outboxId);
-        verify(orderOutboxService, never()).markFailed(anyLong(), anyString(), any(LocalDateTime.class));
+        verify(orderOutboxService, times(1)).markSentAll(List.of(outboxId));
+        verify(orderOutboxService, never()).markFailed(anyLong(), anyString(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void 바이너리_payload_는_복사_없이_content_type_과_함께_발행() {
+        // given
+        StockDecreaseRequestBinaryCodec codec = new StockDecreaseRequestBinaryCodec();
+        byte[] payload = codec.encode(new StockDecreaseRequestEvent(106L, 500L, 2, "DEC-106"));
+        OrderOutbox outbox = OrderOutbox.pending(106L, "STOCK_DECREASE_REQUEST", codec.contentType(), payload);
+        ReflectionTestUtils.setField(outbox, "id", 7L);
+
+        givenClaimedDue(outbox);
+        confirmOnSend(true);
+
+        // when
+        publisher.publishDueOutboxEvents();
+
+        // then
+        ArgumentCaptor<Message> msgCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(anyString(), anyString(), msgCaptor.capture(), any(CorrelationData.class));
+        assertThat(msgCaptor.getValue().getBody()).isSameAs(payload);
+        assertThat(msgCaptor.getValue().getMessageProperties().getContentType())
+            .isEqualTo(StockDecreaseRequestBinaryCodec.CONTENT_TYPE);
+    }
+
+    @Test
+    void 브로커_nack_시_sent_처리하지_않고_failed_전이() {
+        // given
+        Long outboxId = 4L;
+        OrderOutbox outbox = OrderOutbox.pending(103L, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{\"orderId\":103}".getBytes(StandardCharsets.UTF_8));
+        ReflectionTestUtils.setField(outbox, "id", outboxId);
+
+        givenClaimedDue(outbox);
+        confirmOnSend(false);
+
+        // when
+        publisher.publishDueOutboxEvents();
+
+        // then
+        verify(orderOutboxService).markFailed(eq(outboxId), anyString(), anyString(), any(LocalDateTime.class));
+        verify(orderOutboxService).markSentAll(List.of());
     }
 
     @Test
     void unsupported_eventType_발행_시_failed_전이() {
         // given
         Long outboxId = 2L;
-        OrderOutbox outbox = OrderOutbox.pending(101L, "UNSUPPORTED_EVENT_TYPE", "{\"any\":\"json\"}");
+        OrderOutbox outbox = OrderOutbox.pending(101L, "UNSUPPORTED_EVENT_TYPE", MessageProperties.CONTENT_TYPE_JSON, "{\"any\":\"json\"}".getBytes(StandardCharsets.UTF_8));
         ReflectionTestUtils.setField(outbox, "id", outboxId);
 
-        when(orderOutboxRepository.findTop100ByStatusInAndRetryCountLessThanAndNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
-            eq(List.of(OutboxStatus.PENDING, OutboxStatus.FAILED)),
-            eq(5),
-            any(LocalDateTime.class)
-        )).thenReturn(List.of(outbox));
+        givenClaimedDue(outbox);
 
         // when
         publisher.publishDueOutboxEvents();
 
         // then
-        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class));
-        verify(orderOutboxService, times(1)).markFailed(eq(outboxId), anyString(), any(LocalDateTime.class));
-        verify(orderOutboxService, never()).markSent(anyLong());
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        verify(orderOutboxService, times(1)).markFailed(eq(outboxId), anyString(), anyString(), any(LocalDateTime.class));
+        verify(orderOutboxService).markSentAll(List.of());
     }
 
     @Test
     void 최대_재시도_도달_시_dead_전이와_주문실패처리() {
         // given
         Long outboxId = 3L;
-        OrderOutbox outbox = OrderOutbox.pending(102L, "UNSUPPORTED_EVENT_TYPE", "{\"any\":\"json\"}");
+        OrderOutbox outbox = OrderOutbox.pending(102L, "UNSUPPORTED_EVENT_TYPE", MessageProperties.CONTENT_TYPE_JSON, "{\"any\":\"json\"}".getBytes(StandardCharsets.UTF_8));
         ReflectionTestUtils.setField(outbox, "id", outboxId);
         ReflectionTestUtils.setField(outbox, "retryCount", 4);
 
-        when(orderOutboxRepository.findTop100ByStatusInAndRetryCountLessThanAndNextAttemptAtLessThanEqualOrderByCreatedAtAsc(
-            eq(List.of(OutboxStatus.PENDING, OutboxStatus.FAILED)),
-            eq(5),
-            any(LocalDateTime.class)
-        )).thenReturn(List.of(outbox));
+        givenClaimedDue(outbox);
+        when(orderOutboxService.markDead(eq(outboxId), anyString(), anyString())).thenReturn(true);
 
         // when
         publisher.publishDueOutboxEvents();
 
         // then
-        verify(orderOutboxService).markDead(eq(outboxId), anyString());
+        verify(orderOutboxService).markDead(eq(outboxId), anyString(), anyString());
         verify(orderService).failOrderIfPending(102L, "OUTBOX_RETRY_EXHAUSTED");
-        verify(orderOutboxService, never()).markFailed(eq(outboxId), anyString(), any(LocalDateTime.class));
+        verify(orderOutboxService, never()).markFailed(eq(outboxId), anyString(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void 선점을_잃은_outbox_는_dead_처리되지_않으면_주문을_실패처리하지_않는다() {
+        // given - lease 만료 후 다른 발행자가 다시 선점
+        Long outboxId = 4L;
+        OrderOutbox outbox = OrderOutbox.pending(103L, "UNSUPPORTED_EVENT_TYPE", MessageProperties.CONTENT_TYPE_JSON, "{\"any\":\"json\"}".getBytes(StandardCharsets.UTF_8));
+        ReflectionTestUtils.setField(outbox, "id", outboxId);
+        ReflectionTestUtils.setField(outbox, "retryCount", 4);
+
+        givenClaimedDue(outbox);
+        when(orderOutboxService.markDead(eq(outboxId), anyString(), anyString())).thenReturn(false);
+
+        // when
+        publisher.publishDueOutboxEvents();
+
+        // then
+        verify(orderService, never()).failOrderIfPending(anyLong(), anyString());
+    }
+
+    @Test
+    void 결과_기록과_선점_해제는_선점한_owner_로_한다() {
+        // given
+        OrderOutbox outbox = OrderOutbox.pending(105L, "UNSUPPORTED_EVENT_TYPE", MessageProperties.CONTENT_TYPE_JSON, "{\"any\":\"json\"}".getBytes(StandardCharsets.UTF_8));
+        ReflectionTestUtils.setField(outbox, "id", 6L);
+
+        givenClaimedDue(outbox);
+
+        // when
+        publisher.publishDueOutboxEvents();
+
+        // then
+        ArgumentCaptor<String> claimOwner = ArgumentCaptor.forClass(String.class);
+        verify(orderOutboxService).claimDue(claimOwner.capture(), any(LocalDateTime.class), eq(5), any(Duration.class), eq(100));
+        verify(orderOutboxService).markFailed(eq(6L), eq(claimOwner.getValue()), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void 릴레이_발행은_선점한_outbox_만_보내고_지연시간_기록() {
+        // given
+        OrderOutbox pending = OrderOutbox.pending(104L, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{\"orderId\":104}".getBytes(StandardCharsets.UTF_8));
+        ReflectionTestUtils.setField(pending, "id", 5L);
+        ReflectionTestUtils.setField(pending, "createdAt", LocalDateTime.now().minusNanos(30_000_000));
+
+        // 6L 은 다른 발행자가 이미 선점 -> 선점 결과에서 제외
+        when(orderOutboxService.claimByIds(eq(List.of(5L, 6L)), anyString(), any(Duration.class)))
+            .thenReturn(List.of(pending));
+        confirmOnSend(true);
+
+        // when
+        publisher.publishByIds(List.of(5L, 6L));
+
+        // then
+        verify(rabbitTemplate, times(1)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        verify(orderOutboxService).markSentAll(List.of(5L));
+        assertThat(meterRegistry.get("order.outbox.publish.latency").tag("trigger", "relay").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void 선점_owner_는_호출마다_다름() {
+        // given
+        ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+        when(orderOutboxService.claimDue(ownerCaptor.capture(), any(LocalDateTime.class), eq(5), any(Duration.class), eq(100)))
+            .thenReturn(List.of());
+
+        // when
+        publisher.publishDueOutboxEvents();
+        publisher.publishDueOutboxEvents();
+
+        // then
+        assertThat(ownerCaptor.getAllValues()).hasSize(2).doesNotHaveDuplicates();
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void 재시도는_지수_백오프_상한_안에서_예약() {
+        // given - 3번째 실패 (기본 5s * 2^2 = 20s, 지터 0.5 -> 10s ~ 20s)
+        OrderOutbox outbox = OrderOutbox.pending(107L, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{}".getBytes(StandardCharsets.UTF_8));
+        ReflectionTestUtils.setField(outbox, "id", 8L);
+        ReflectionTestUtils.setField(outbox, "retryCount", 2);
+        givenClaimedDue(outbox);
+        confirmOnSend(false);
+
+        // when
+        LocalDateTime before = LocalDateTime.now();
+        publisher.publishDueOutboxEvents();
+
+        // then
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(orderOutboxService).markFailed(eq(8L), anyString(), anyString(), nextAttemptAt.capture());
+        assertThat(nextAttemptAt.getValue())
+            .isAfterOrEqualTo(before.plusSeconds(10))
+            .isBefore(before.plusSeconds(21));
+    }
+
+    @Test
+    void 브로커_서킷이_열려_있으면_선점하지_않음() {
+        // given
+        circuitBreakerRegistry.circuitBreaker("rabbitPublisher").transitionToOpenState();
+
+        // when
+        publisher.publishDueOutboxEvents();
+        publisher.publishByIds(List.of(1L));
+
+        // then
+        verifyNoInteractions(orderOutboxService, rabbitTemplate);
+    }
+
+    @Test
+    void 발행_중_서킷이_열리면_남은_outbox_는_재시도_횟수_없이_선점_해제() {
+        // given
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker("rabbitPublisher");
+        OrderOutbox first = OrderOutbox.pending(108L, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{}".getBytes(StandardCharsets.UTF_8));
+        OrderOutbox second = OrderOutbox.pending(109L, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{}".getBytes(StandardCharsets.UTF_8));
+        ReflectionTestUtils.setField(first, "id", 9L);
+        ReflectionTestUtils.setField(second, "id", 10L);
+        givenClaimedDue(first, second);
+
+        // 첫 발행에서 브로커 연결 실패 -> 서킷 오픈
+        doAnswer(invocation -> {
+            breaker.transitionToOpenState();
+            throw new AmqpConnectException(new ConnectException("refused"));
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // when
+        publisher.publishDueOutboxEvents();
+
+        // then
+        verify(orderOutboxService).markFailed(eq(9L), anyString(), anyString(), any(LocalDateTime.class));
+        verify(orderOutboxService, never()).markFailed(eq(10L), anyString(), anyString(), any(LocalDateTime.class));
+        verify(orderOutboxService).releaseClaims(eq(List.of(10L)), anyString());
     }
 }
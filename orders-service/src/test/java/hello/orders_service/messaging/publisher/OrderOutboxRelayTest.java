@@ -0,0 +1,68 @@
+package hello.orders_service.messaging.publisher;
+
+import hello.orders_service.order.infra.messaging.publisher.OrderOutboxPublisher;
+import hello.orders_service.order.infra.messaging.publisher.OrderOutboxRelay;
+import hello.orders_service.order.outbox.OrderOutboxSavedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    @Mock
+    private OrderOutboxPublisher orderOutboxPublisher;
+
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        this.relay = new OrderOutboxRelay(orderOutboxPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void 커밋된_outbox_는_바로_발행() {
+        // when
+        relay.onOutboxSaved(new OrderOutboxSavedEvent(1L, 100L));
+
+        // then
+        verify(orderOutboxPublisher, timeout(1000)).publishByIds(List.of(1L));
+    }
+
+    @Test
+    void 발행_실패해도_이후_outbox_는_계속_발행() {
+        // given
+        List<Long> published = new CopyOnWriteArrayList<>();
+        doThrow(new IllegalStateException("broker down"))
+            .doAnswer(invocation -> {
+                published.addAll(invocation.<Collection<Long>>getArgument(0));
+                return null;
+            })
+            .when(orderOutboxPublisher).publishByIds(anyCollection());
+
+        // when
+        relay.onOutboxSaved(new OrderOutboxSavedEvent(1L, 100L));
+        verify(orderOutboxPublisher, timeout(1000)).publishByIds(anyCollection());
+        relay.onOutboxSaved(new OrderOutboxSavedEvent(2L, 101L));
+
+        // then
+        verify(orderOutboxPublisher, timeout(1000).times(2)).publishByIds(anyCollection());
+        assertThat(published).contains(2L);
+    }
+}
@@ -0,0 +1,123 @@
+package hello.orders_service.order.api.v2;
+
+import hello.orders_service.common.web.response.ApiSuccess;
+import hello.orders_service.order.client.ProductClient;
+import hello.orders_service.order.client.dto.StockResult;
+import hello.orders_service.order.infra.messaging.publisher.OrderOutboxPublisher;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * V2 주문 동시 요청 처리 비교 (./gradlew benchmark 로 실행)
+ * 상품 서버 응답 300ms, Tomcat 요청 스레드 20개 기준
+ * blocking : 요청 스레드에서 사가 실행 (상품 서버 응답 동안 요청 스레드 점유)
+ * async    : 사가 전용 풀에서 실행, 요청 스레드는 바로 반환
+ * 부하 중 /actuator/health 응답 시간으로 요청 스레드 고갈 여부 확인
+ */
+@Tag("benchmark")
+class OrderV2SagaLoadBenchmarkTest {
+
+    private static final int CONCURRENT_ORDERS = 200;
+    private static final long PRODUCT_LATENCY_MS = 300;
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+        "server.tomcat.threads.max=20",
+        "order.saga.executor.enabled=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "outbox.archive.enabled=false"
+    })
+    class Blocking {
+        @LocalServerPort
+        int port;
+        @MockitoBean
+        ProductClient productClient;
+        @MockitoBean
+        OrderOutboxPublisher orderOutboxPublisher;
+
+        @Test
+        void 동시_주문_처리() throws Exception {
+            runLoad("blocking", port, productClient);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+        "server.tomcat.threads.max=20",
+        "order.saga.executor.enabled=true",
+        "order.saga.executor.pool-size=200",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "outbox.archive.enabled=false"
+    })
+    class Async {
+        @LocalServerPort
+        int port;
+        @MockitoBean
+        ProductClient productClient;
+        @MockitoBean
+        OrderOutboxPublisher orderOutboxPublisher;
+
+        @Test
+        void 동시_주문_처리() throws Exception {
+            runLoad("async", port, productClient);
+        }
+    }
+
+    private void runLoad(String label, int port, ProductClient productClient) throws Exception {
+        given(productClient.decreaseByOrder(anyLong(), any(), anyString())).willAnswer(inv -> {
+            Thread.sleep(PRODUCT_LATENCY_MS);
+            return ApiSuccess.of(new StockResult(true, 10, "OK"), null);
+        });
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String body = "{\"productId\":1,\"quantity\":1,\"buyerId\":\"bench\"}";
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_ORDERS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v2/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // 부하 중 헬스 체크 응답 시간 (요청 스레드가 모두 점유되면 대기)
+        Thread.sleep(50);
+        long probeStart = System.nanoTime();
+        HttpResponse<String> health = client.send(
+            HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        long probeMillis = (System.nanoTime() - probeStart) / 1_000_000;
+
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long ok = responses.stream().filter(f -> f.join().statusCode() == 200).count();
+        System.out.printf("%-8s : %d orders, %d ms total, %.0f orders/sec, health probe %d ms%n",
+            label, CONCURRENT_ORDERS, totalMillis, CONCURRENT_ORDERS / (totalMillis / 1000.0), probeMillis);
+
+        assertThat(health.statusCode()).isEqualTo(200);
+        assertThat(ok).isEqualTo(CONCURRENT_ORDERS);
+    }
+}
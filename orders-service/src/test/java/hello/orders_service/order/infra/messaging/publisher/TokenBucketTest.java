@@ -0,0 +1,39 @@
+package hello.orders_service.order.infra.messaging.publisher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void 버킷_크기만큼은_바로_발행하고_이후는_충전_속도에_맞춰_대기() {
+        TokenBucket bucket = new TokenBucket(10, 3, now::get); // 초당 10개, 최대 3개
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+
+        // 토큰 소진 -> 1개당 100ms
+        assertThat(bucket.reserve()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.reserve()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void 시간이_지나면_버킷_크기까지만_충전() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isPositive();
+    }
+}
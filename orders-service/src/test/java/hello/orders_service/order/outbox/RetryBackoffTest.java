@@ -0,0 +1,39 @@
+package hello.orders_service.order.outbox;
+
+import hello.orders_service.order.infra.config.OutboxRelayProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RetryBackoffTest {
+
+    private OutboxRelayProperties properties() {
+        OutboxRelayProperties properties = new OutboxRelayProperties();
+        properties.setInitialBackoff(Duration.ofSeconds(1));
+        properties.setBackoffMultiplier(2.0);
+        properties.setMaxBackoff(Duration.ofSeconds(30));
+        properties.setJitter(0.5);
+        return properties;
+    }
+
+    @Test
+    void 재시도마다_지수적으로_증가하고_상한에서_멈춤() {
+        RetryBackoff backoff = new RetryBackoff(properties(), () -> 0.0); // 지터 없음
+
+        assertThat(backoff.delay(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(backoff.delay(2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(backoff.delay(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(backoff.delay(10)).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void 지터는_대기_시간을_최대_jitter_비율만큼_줄임() {
+        RetryBackoff maxJitter = new RetryBackoff(properties(), () -> 1.0);
+        RetryBackoff halfJitter = new RetryBackoff(properties(), () -> 0.5);
+
+        assertThat(maxJitter.delay(4)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(halfJitter.delay(4)).isEqualTo(Duration.ofSeconds(6));
+    }
+}
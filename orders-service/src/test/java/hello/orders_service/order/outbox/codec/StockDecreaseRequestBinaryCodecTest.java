@@ -0,0 +1,58 @@
+package hello.orders_service.order.outbox.codec;
+
+import hello.orders_service.order.infra.messaging.event.StockDecreaseRequestEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StockDecreaseRequestBinaryCodecTest {
+
+    private final StockDecreaseRequestBinaryCodec codec = new StockDecreaseRequestBinaryCodec();
+
+    @Test
+    void 인코딩_후_디코딩하면_같은_이벤트() {
+        StockDecreaseRequestEvent event = new StockDecreaseRequestEvent(100L, 500L, 2, "DEC-100");
+
+        byte[] bytes = codec.encode(event);
+
+        assertThat(bytes).hasSize(1 + 8 + 8 + 4 + 1 + "DEC-100".length());
+        assertThat(codec.decode(bytes)).isEqualTo(event);
+    }
+
+    @Test
+    void 레이아웃_고정() {
+        // 상품 서버 StockDecreaseEventBinaryConverterTest 와 같은 바이트
+        byte[] bytes = codec.encode(new StockDecreaseRequestEvent(1L, 2L, 3, "DEC-1"));
+
+        assertThat(HexFormat.of().formatHex(bytes))
+            .isEqualTo("01" + "0000000000000001" + "0000000000000002" + "00000003" + "05" + "4445432d31");
+    }
+
+    @Test
+    void requestId_가_너무_길면_예외() {
+        StockDecreaseRequestEvent event = new StockDecreaseRequestEvent(1L, 2L, 3, "X".repeat(65));
+
+        assertThatThrownBy(() -> codec.encode(event)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 잘린_payload_는_IllegalArgumentException() {
+        byte[] bytes = codec.encode(new StockDecreaseRequestEvent(1L, 2L, 3, "DEC-1"));
+
+        // 헤더 중간에서 잘림
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(bytes, 10))).isInstanceOf(IllegalArgumentException.class);
+        // requestId 중간에서 잘림
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(bytes, bytes.length - 1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void requestId_길이가_최대를_넘으면_디코딩_예외() {
+        byte[] bytes = HexFormat.of().parseHex("01" + "0000000000000001" + "0000000000000002" + "00000003" + "41" + "58".repeat(65));
+
+        assertThatThrownBy(() -> codec.decode(bytes)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
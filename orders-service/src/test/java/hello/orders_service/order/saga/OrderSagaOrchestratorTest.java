@@ -4,6 +4,7 @@ import hello.orders_service.order.domain.Order;
 import hello.orders_service.order.service.OrderService;
 import hello.orders_service.saga.SagaErrorType;
 import hello.orders_service.saga.SagaException;
+import hello.orders_service.saga.SagaLog;
 import hello.orders_service.saga.SagaStep;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
@@ -77,7 +78,7 @@ class OrderSagaOrchestratorTest {
         Order expected = new Order();
         ctx.setOrder(expected);
 
-        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null, null, null, null, null);
+        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null, null, null, null, null, null, null, SagaLog.none(), null);
 
         // when
         Order result = orchestrator.runSaga(steps, ctx);
@@ -101,7 +102,7 @@ class OrderSagaOrchestratorTest {
         List<SagaStep<OrderSagaContext>> steps = List.of(s1, s2, s3);
         OrderSagaContext ctx = new OrderSagaContext();
 
-        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null, null, null, null, null);
+        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null, null, null, null, null, null, null, SagaLog.none(), null);
 
         // when
         Order result = orchestrator.runSaga(steps, ctx);
@@ -128,7 +129,7 @@ class OrderSagaOrchestratorTest {
         Order original = new Order();
         ctx.setOrder(original);
 
-        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null, null, null, null, null);
+        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null, null, null, null, null, null, null, SagaLog.none(), null);
 
         // when
         Order result = orchestrator.runSaga(steps, ctx);
@@ -151,7 +152,7 @@ class OrderSagaOrchestratorTest {
         List<SagaStep<OrderSagaContext>> steps = List.of(s1, s2);
         OrderSagaContext ctx = new OrderSagaContext();
 
-        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null,null, null, null, null);
+        OrderSagaOrchestrator orchestrator = new OrderSagaOrchestrator(orderService, null, null, null, null, null, null, null, SagaLog.none(), null);
 
         // when
         SagaException ex = assertThrows(
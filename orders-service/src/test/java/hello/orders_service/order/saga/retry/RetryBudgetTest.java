@@ -0,0 +1,57 @@
+package hello.orders_service.order.saga.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void 예산을_다_쓰면_재시도하지_않는다() {
+        RetryBudget budget = new RetryBudget(0.0, 0.0, 2, now::get);
+
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    void 첫_시도마다_비율만큼_적립() {
+        RetryBudget budget = new RetryBudget(0.5, 0.0, 1, now::get);
+        budget.tryAcquireRetry();
+
+        budget.recordAttempt();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+
+        budget.recordAttempt();
+        assertThat(budget.tryAcquireRetry()).isTrue();
+    }
+
+    @Test
+    void 시간이_지나면_최소_재시도_수만큼_적립() {
+        RetryBudget budget = new RetryBudget(0.0, 2.0, 10, now::get);
+        while (budget.tryAcquireRetry()) {
+        }
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(budget.balance()).isEqualTo(2.0);
+    }
+
+    @Test
+    void 적립은_상한을_넘지_않는다() {
+        RetryBudget budget = new RetryBudget(1.0, 1.0, 3, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            budget.recordAttempt();
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        assertThat(budget.balance()).isEqualTo(3.0);
+    }
+}
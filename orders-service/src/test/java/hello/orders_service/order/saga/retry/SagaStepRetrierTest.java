@@ -0,0 +1,185 @@
+package hello.orders_service.order.saga.retry;
+
+import hello.orders_service.order.infra.config.SagaRetryProperties;
+import hello.orders_service.saga.AsyncSagaStep;
+import hello.orders_service.saga.SagaErrorType;
+import hello.orders_service.saga.SagaException;
+import hello.orders_service.saga.SagaStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SagaStepRetrierTest {
+
+    private SimpleMeterRegistry registry;
+    private SagaRetryProperties properties;
+    private SagaStepRetrier retrier;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        properties = new SagaRetryProperties();
+        properties.getDefaults().setMaxAttempts(3);
+        properties.getDefaults().setInitialBackoff(Duration.ofMillis(1));
+        properties.getDefaults().setMaxBackoff(Duration.ofMillis(1));
+        retrier = new SagaStepRetrier(properties, registry, () -> 0.0);
+    }
+
+    // failures 번 실패 후 성공하는 단계
+    static class FlakyStep implements SagaStep<Object> {
+        final AtomicInteger calls = new AtomicInteger();
+        final int failures;
+        final SagaErrorType type;
+
+        FlakyStep(int failures, SagaErrorType type) {
+            this.failures = failures;
+            this.type = type;
+        }
+
+        @Override
+        public void execute(Object context) {
+            if (calls.incrementAndGet() <= failures) {
+                throw new SagaException(type, "boom", null);
+            }
+        }
+
+        @Override
+        public void compensate(Object context) {
+        }
+    }
+
+    private double retries(String step) {
+        return registry.get("order.saga.step.retries").tag("step", step).counter().count();
+    }
+
+    private double exhausted(String step, String reason) {
+        return registry.get("order.saga.step.retry.exhausted").tag("step", step).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void RETRYABLE_실패는_재시도해서_성공하면_예외없이_끝난다() {
+        FlakyStep step = new FlakyStep(2, SagaErrorType.RETRYABLE);
+
+        retrier.retrying(step).execute(new Object());
+
+        assertThat(step.calls.get()).isEqualTo(3);
+        assertThat(retries("FlakyStep")).isEqualTo(2);
+    }
+
+    @Test
+    void 최대_시도_횟수를_넘으면_마지막_실패를_던진다() {
+        FlakyStep step = new FlakyStep(5, SagaErrorType.RETRYABLE);
+
+        assertThatThrownBy(() -> retrier.retrying(step).execute(new Object()))
+            .isInstanceOfSatisfying(SagaException.class, ex -> assertThat(ex.getType()).isEqualTo(SagaErrorType.RETRYABLE));
+        assertThat(step.calls.get()).isEqualTo(3);
+        assertThat(exhausted("FlakyStep", "attempts")).isEqualTo(1);
+    }
+
+    @Test
+    void RETRYABLE_이_아닌_실패는_재시도하지_않는다() {
+        FlakyStep business = new FlakyStep(1, SagaErrorType.BUSINESS);
+        FlakyStep compensate = new FlakyStep(1, SagaErrorType.COMPENSATE);
+
+        assertThatThrownBy(() -> retrier.retrying(business).execute(new Object())).isInstanceOf(SagaException.class);
+        assertThatThrownBy(() -> retrier.retrying(compensate).execute(new Object())).isInstanceOf(SagaException.class);
+
+        assertThat(business.calls.get()).isEqualTo(1);
+        assertThat(compensate.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void 예산이_없으면_재시도하지_않는다() {
+        properties.getBudget().setRetryRatio(0.0);
+        properties.getBudget().setMinRetriesPerSecond(0.0);
+        properties.getBudget().setMaxBalance(1);
+        FlakyStep step = new FlakyStep(5, SagaErrorType.RETRYABLE);
+
+        assertThatThrownBy(() -> retrier.retrying(step).execute(new Object())).isInstanceOf(SagaException.class);
+
+        // 예산 1개로 재시도 1번, 이후 예산 소진
+        assertThat(step.calls.get()).isEqualTo(2);
+        assertThat(exhausted("FlakyStep", "budget")).isEqualTo(1);
+    }
+
+    @Test
+    void 단계별_정책을_적용한다() {
+        SagaRetryProperties.Policy once = new SagaRetryProperties.Policy();
+        once.setMaxAttempts(1);
+        properties.getSteps().put("FlakyStep", once);
+        FlakyStep step = new FlakyStep(1, SagaErrorType.RETRYABLE);
+
+        assertThatThrownBy(() -> retrier.retrying(step).execute(new Object())).isInstanceOf(SagaException.class);
+        assertThat(step.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void 시간_초과한_시도는_아직_실행_중일_수_있어_재시도하지_않는다() {
+        AtomicInteger calls = new AtomicInteger();
+        AsyncSagaStep<Object> slowOnce = new AsyncSagaStep<>() {
+            @Override
+            public CompletableFuture<Void> executeAsync(Object context) {
+                // 첫 시도는 응답 없음 (시간 초과, 여전히 실행 중), 두 번째 시도는 성공
+                return calls.incrementAndGet() == 1 ? new CompletableFuture<>() : CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> compensateAsync(Object context) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public Duration timeout() {
+                return Duration.ofMillis(50);
+            }
+
+            @Override
+            public String name() {
+                return "SlowOnceStep";
+            }
+        };
+
+        AsyncSagaStep<Object> retrying = retrier.retrying(slowOnce, Runnable::run);
+
+        assertThatThrownBy(() -> retrying.executeAsync(new Object()).join())
+            .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(retrying.timeout()).isNull();
+        assertThat(retries("SlowOnceStep")).isZero();
+    }
+
+    @Test
+    void 비동기_단계_재시도_소진시_마지막_실패로_완료() {
+        AsyncSagaStep<Object> alwaysTimeout = AsyncSagaStep.of(new FlakyStep(0, SagaErrorType.RETRYABLE) {
+            @Override
+            public void execute(Object context) {
+                calls.incrementAndGet();
+                throw SagaException.retryable("boom", new TimeoutException());
+            }
+
+            @Override
+            public String name() {
+                return "AlwaysFailStep";
+            }
+        }, Runnable::run, null);
+
+        assertThatThrownBy(() -> retrier.retrying(alwaysTimeout, Runnable::run).executeAsync(new Object()).join())
+            .hasCauseInstanceOf(SagaException.class);
+        assertThat(exhausted("AlwaysFailStep", "attempts")).isEqualTo(1);
+    }
+
+    @Test
+    void 비활성화시_원래_단계를_그대로_사용() {
+        properties.setEnabled(false);
+        FlakyStep step = new FlakyStep(1, SagaErrorType.RETRYABLE);
+
+        assertThat(retrier.retrying(step)).isSameAs(step);
+    }
+}
@@ -47,20 +47,21 @@ class CreateOrderPendingStepTest {
         ctx.setProductId(10L);
         ctx.setBuyerId("buyer-1");
         ctx.setQuantity(3);
+        ctx.setSagaId("saga-1");
 
         Order pending = new Order();
         // 테스트 편의를 위해 ID만 세팅
         // 리플렉션으로 주입
         setOrderId(pending);
 
-        when(orderService.createOrderPending(10L, "buyer-1", 3))
+        when(orderService.createOrderPending(10L, "buyer-1", 3, "saga-1"))
             .thenReturn(pending);
 
         // when
         step.execute(ctx);
 
         // then
-        verify(orderService).createOrderPending(10L, "buyer-1", 3);
+        verify(orderService).createOrderPending(10L, "buyer-1", 3, "saga-1");
         assertThat(ctx.getOrder()).isEqualTo(pending);
         assertThat(ctx.getOrderId()).isEqualTo(1L);
         assertThat(ctx.getDecKey()).isEqualTo("DEC-1");
@@ -1,9 +1,10 @@
 package hello.orders_service.order.saga.step;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.orders_service.order.infra.messaging.event.StockDecreaseRequestEvent;
 import hello.orders_service.order.outbox.OrderOutbox;
+import hello.orders_service.order.outbox.OrderOutboxSavedEvent;
 import hello.orders_service.order.outbox.OutboxStatus;
+import hello.orders_service.order.outbox.codec.StockDecreaseRequestBinaryCodec;
 import hello.orders_service.order.repository.OrderOutboxRepository;
 import hello.orders_service.order.saga.OrderSagaContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -19,20 +21,23 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class SaveOutboxStepTest {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StockDecreaseRequestBinaryCodec payloadCodec = new StockDecreaseRequestBinaryCodec();
 
     @Mock
     private OrderOutboxRepository orderOutboxRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private SaveOutboxStep saveOutboxStep;
 
     @BeforeEach
     void setUp() {
-        this.saveOutboxStep = new SaveOutboxStep(orderOutboxRepository, objectMapper);
+        this.saveOutboxStep = new SaveOutboxStep(orderOutboxRepository, payloadCodec, eventPublisher);
     }
 
     @Test
-    void outbox_저장_내용_검증() throws Exception {
+    void outbox_저장_내용_검증() {
         // given
         OrderSagaContext context = new OrderSagaContext();
         context.setOrderId(100L);
@@ -52,12 +57,18 @@ class SaveOutboxStepTest {
         assertThat(saved.getEventType()).isEqualTo("STOCK_DECREASE_REQUEST");
         assertThat(saved.getStatus()).isEqualTo(OutboxStatus.PENDING);
 
-        StockDecreaseRequestEvent event =
-            objectMapper.readValue(saved.getPayload(), StockDecreaseRequestEvent.class);
+        assertThat(saved.getContentType()).isEqualTo(StockDecreaseRequestBinaryCodec.CONTENT_TYPE);
+
+        StockDecreaseRequestEvent event = payloadCodec.decode(saved.getPayload());
         assertThat(event.getOrderId()).isEqualTo(100L);
         assertThat(event.getProductId()).isEqualTo(500L);
         assertThat(event.getQuantity()).isEqualTo(2);
         assertThat(event.getRequestId()).isEqualTo("DEC-123");
+
+        // 커밋 후 릴레이로 전달할 저장 이벤트 발행
+        ArgumentCaptor<OrderOutboxSavedEvent> eventCaptor = ArgumentCaptor.forClass(OrderOutboxSavedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getOrderId()).isEqualTo(100L);
     }
 }
 
@@ -0,0 +1,79 @@
+package hello.orders_service.order.service;
+
+import hello.orders_service.order.outbox.OrderOutbox;
+import hello.orders_service.order.outbox.OutboxStatus;
+import hello.orders_service.order.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "outbox.archive.enabled=false", // 스케줄 실행 대신 직접 호출
+    "outbox.archive.batch-size=2"
+})
+class OrderOutboxArchiverTest {
+
+    @Autowired
+    OrderOutboxArchiver archiver;
+    @Autowired
+    OrderOutboxRepository orderOutboxRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        orderOutboxRepository.deleteAllInBatch();
+    }
+
+    private OrderOutbox save(Long orderId, boolean sent) {
+        OrderOutbox outbox = OrderOutbox.pending(orderId, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{}".getBytes(StandardCharsets.UTF_8));
+        if (sent) {
+            outbox.markSent();
+        }
+        return orderOutboxRepository.save(outbox);
+    }
+
+    @Test
+    void cutoff_이전_SENT_outbox_를_배치로_나눠_삭제() {
+        // given
+        List<Long> sentIds = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            sentIds.add(save(i, true).getId());
+        }
+        double before = meterRegistry.get("order.outbox.archive.rows").counter().count();
+
+        // when - 배치 크기 2 -> 3번에 나눠 삭제
+        int archived = archiver.archiveSentBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(archived).isEqualTo(5);
+        assertThat(orderOutboxRepository.findAllById(sentIds)).isEmpty();
+        assertThat(meterRegistry.get("order.outbox.archive.rows").counter().count() - before).isEqualTo(5);
+    }
+
+    @Test
+    void 미발행_outbox_와_cutoff_이후_SENT_는_남긴다() {
+        // given
+        OrderOutbox pending = save(10L, false);
+        OrderOutbox recentSent = save(11L, true);
+
+        // when
+        int archived = archiver.archiveSentBefore(LocalDateTime.now().minusHours(1));
+
+        // then
+        assertThat(archived).isZero();
+        assertThat(orderOutboxRepository.findById(recentSent.getId())).isPresent();
+        assertThat(orderOutboxRepository.findById(pending.getId())).get()
+            .extracting(OrderOutbox::getStatus).isEqualTo(OutboxStatus.PENDING);
+    }
+}
@@ -0,0 +1,109 @@
+package hello.orders_service.order.service;
+
+import hello.orders_service.order.infra.messaging.publisher.OrderOutboxPublisher;
+import hello.orders_service.order.outbox.OutboxStatus;
+import hello.orders_service.order.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 발행 대상 조회(findClaimableIds) 지연 시간 측정 (./gradlew benchmark 로 실행)
+ * SENT 이력 10M 행 + 발행 대상 1,000 행, 인덱스 유무에 따른 p50/p99 비교
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./build/benchmark/outbox",
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false",
+    "outbox.archive.enabled=false"
+})
+class OrderOutboxDueQueryBenchmarkTest {
+
+    private static final int HISTORY_ROWS = 10_000_000;
+    private static final int INSERT_CHUNK = 1_000_000;
+    private static final int DUE_ROWS = 1_000;
+    private static final int WARM_UP = 50;
+    private static final int ITERATIONS = 200;
+    private static final List<OutboxStatus> DUE_STATUSES = List.of(OutboxStatus.PENDING, OutboxStatus.FAILED);
+
+    @Autowired
+    OrderOutboxRepository orderOutboxRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    // 측정 중 스윕이 발행 대상 행을 선점/상태 변경하지 않도록 대체
+    @MockitoBean
+    OrderOutboxPublisher orderOutboxPublisher;
+
+    @BeforeEach
+    void setUp() {
+        // ddl-auto=create 로 매 실행마다 테이블이 새로 만들어짐, 이력 행은 H2 SYSTEM_RANGE 로 한 번에 적재
+        for (int from = 1; from <= HISTORY_ROWS; from += INSERT_CHUNK) {
+            int to = Math.min(from + INSERT_CHUNK - 1, HISTORY_ROWS);
+            jdbcTemplate.update("insert into order_outbox " +
+                "(id, order_id, event_type, content_type, payload, status, retry_count, created_at, sent_at, last_attempt_at) " +
+                "select x, x, 'STOCK_DECREASE_REQUEST', 'application/json', X'7B7D', 'SENT', 0, " +
+                "dateadd(second, -x, localtimestamp), dateadd(second, -x + 1, localtimestamp), dateadd(second, -x + 1, localtimestamp) " +
+                "from system_range(?, ?)", from, to);
+        }
+        jdbcTemplate.update("insert into order_outbox " +
+            "(id, order_id, event_type, content_type, payload, status, retry_count, created_at, next_attempt_at) " +
+            "select x, x, 'STOCK_DECREASE_REQUEST', 'application/json', X'7B7D', 'PENDING', 0, localtimestamp, dateadd(second, -10, localtimestamp) " +
+            "from system_range(?, ?)", HISTORY_ROWS + 1, HISTORY_ROWS + DUE_ROWS);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void 이력_10M_행에서_발행_대상_조회_지연시간() {
+        long[] indexed = measure();
+        print("indexed", indexed);
+
+        jdbcTemplate.execute("drop index idx_order_outbox_due");
+        jdbcTemplate.execute("drop index idx_order_outbox_sent");
+        long[] noIndex = measure();
+        print("no index", noIndex);
+
+        assertThat(percentile(indexed, 0.5)).isLessThan(percentile(noIndex, 0.5));
+    }
+
+    private long[] measure() {
+        for (int i = 0; i < WARM_UP; i++) {
+            dueQuery();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            List<Long> ids = dueQuery();
+            nanos[i] = System.nanoTime() - start;
+            assertThat(ids).hasSize(100);
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private List<Long> dueQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        return orderOutboxRepository.findClaimableIds(DUE_STATUSES, 5, now, now, PageRequest.of(0, 100));
+    }
+
+    private long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+
+    private void print(String label, long[] sorted) {
+        System.out.printf("%-9s: rows=%d, p50=%.2fms, p99=%.2fms%n", label, HISTORY_ROWS + DUE_ROWS,
+            percentile(sorted, 0.5) / 1_000_000.0, percentile(sorted, 0.99) / 1_000_000.0);
+    }
+}
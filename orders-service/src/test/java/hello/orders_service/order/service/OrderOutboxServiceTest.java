@@ -0,0 +1,116 @@
+package hello.orders_service.order.service;
+
+import hello.orders_service.order.outbox.OrderOutbox;
+import hello.orders_service.order.outbox.OutboxStatus;
+import hello.orders_service.order.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderOutboxServiceTest {
+
+    @Autowired
+    OrderOutboxService orderOutboxService;
+
+    @Autowired
+    OrderOutboxRepository orderOutboxRepository;
+
+    private OrderOutbox savePending(Long orderId) {
+        return orderOutboxRepository.saveAndFlush(OrderOutbox.pending(orderId, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void 선점된_outbox_는_다른_발행자가_선점하지_못함() {
+        // given
+        savePending(1L);
+        savePending(2L);
+
+        // when
+        List<OrderOutbox> first = orderOutboxService.claimDue("A#1", LocalDateTime.now(), 5, Duration.ofSeconds(60), 100);
+        List<OrderOutbox> second = orderOutboxService.claimDue("B#1", LocalDateTime.now(), 5, Duration.ofSeconds(60), 100);
+
+        // then
+        assertThat(first).hasSize(2).allMatch(o -> "A#1".equals(o.getClaimOwner()));
+        assertThat(second).isEmpty();
+    }
+
+    @Test
+    void lease_만료된_outbox_는_다시_선점() {
+        // given - 선점 후 결과 처리 없이 죽은 발행자
+        OrderOutbox outbox = savePending(3L);
+        orderOutboxService.claimByIds(List.of(outbox.getId()), "A#1", Duration.ZERO);
+
+        // when
+        List<OrderOutbox> reclaimed = orderOutboxService.claimByIds(List.of(outbox.getId()), "B#1", Duration.ofSeconds(60));
+
+        // then
+        assertThat(reclaimed).extracting(OrderOutbox::getId).containsExactly(outbox.getId());
+        assertThat(reclaimed.get(0).getClaimOwner()).isEqualTo("B#1");
+    }
+
+    @Test
+    void 발행_완료되면_선점_해제() {
+        // given
+        OrderOutbox outbox = savePending(4L);
+        orderOutboxService.claimByIds(List.of(outbox.getId()), "A#1", Duration.ofSeconds(60));
+
+        // when
+        orderOutboxService.markSentAll(List.of(outbox.getId()));
+
+        // then
+        OrderOutbox sent = orderOutboxRepository.findById(outbox.getId()).orElseThrow();
+        assertThat(sent.getClaimOwner()).isNull();
+        assertThat(sent.getClaimedUntil()).isNull();
+        assertThat(orderOutboxService.claimByIds(List.of(outbox.getId()), "B#1", Duration.ofSeconds(60))).isEmpty();
+    }
+
+    @Test
+    void 선점을_잃은_발행자의_실패_기록과_선점_해제는_반영되지_않는다() {
+        // given - A 의 lease 가 만료되어 B 가 다시 선점
+        OrderOutbox outbox = savePending(5L);
+        orderOutboxService.claimByIds(List.of(outbox.getId()), "A#1", Duration.ZERO);
+        orderOutboxService.claimByIds(List.of(outbox.getId()), "B#1", Duration.ofSeconds(60));
+
+        // when - 늦게 끝난 A 가 결과 기록
+        boolean failed = orderOutboxService.markFailed(outbox.getId(), "A#1", "timeout", LocalDateTime.now());
+        boolean dead = orderOutboxService.markDead(outbox.getId(), "A#1", "timeout");
+        orderOutboxService.releaseClaims(List.of(outbox.getId()), "A#1");
+
+        // then - B 의 선점과 상태는 그대로
+        assertThat(failed).isFalse();
+        assertThat(dead).isFalse();
+        OrderOutbox current = orderOutboxRepository.findById(outbox.getId()).orElseThrow();
+        assertThat(current.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(current.getRetryCount()).isZero();
+        assertThat(current.getClaimOwner()).isEqualTo("B#1");
+    }
+
+    @Test
+    void 선점한_발행자의_실패_기록은_재시도_횟수를_올리고_선점_해제() {
+        // given
+        OrderOutbox outbox = savePending(6L);
+        orderOutboxService.claimByIds(List.of(outbox.getId()), "A#1", Duration.ofSeconds(60));
+
+        // when
+        boolean failed = orderOutboxService.markFailed(outbox.getId(), "A#1", "timeout", LocalDateTime.now());
+
+        // then
+        assertThat(failed).isTrue();
+        OrderOutbox current = orderOutboxRepository.findById(outbox.getId()).orElseThrow();
+        assertThat(current.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(current.getRetryCount()).isEqualTo(1);
+        assertThat(current.getLastError()).isEqualTo("timeout");
+        assertThat(current.getClaimOwner()).isNull();
+    }
+}
@@ -1,11 +1,11 @@
 package hello.orders_service.order.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.orders_service.order.domain.Order;
 import hello.orders_service.order.domain.OrderStatus;
 import hello.orders_service.order.exception.OrderStateException;
 import hello.orders_service.order.outbox.OrderOutbox;
 import hello.orders_service.order.outbox.OutboxStatus;
+import hello.orders_service.order.outbox.codec.StockDecreaseRequestBinaryCodec;
 import hello.orders_service.order.repository.OrderOutboxRepository;
 import hello.orders_service.order.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,8 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,7 +46,7 @@ class OrderRecoveryServiceTest {
         orderRecoveryService = new OrderRecoveryService(
             orderRepository,
             orderOutboxRepository,
-            new ObjectMapper(),
+            new StockDecreaseRequestBinaryCodec(),
             orderOutboxService
         );
     }
@@ -83,7 +85,7 @@ class OrderRecoveryServiceTest {
 
     @Test
     void 실패_outbox는_재발행_대기로_되돌린다() {
-        OrderOutbox outbox = OrderOutbox.pending(77L, "STOCK_DECREASE_REQUEST", "{\"orderId\":77}");
+        OrderOutbox outbox = OrderOutbox.pending(77L, "STOCK_DECREASE_REQUEST", MessageProperties.CONTENT_TYPE_JSON, "{\"orderId\":77}".getBytes(StandardCharsets.UTF_8));
         ReflectionTestUtils.setField(outbox, "id", 5L);
         ReflectionTestUtils.setField(outbox, "status", OutboxStatus.FAILED);
 
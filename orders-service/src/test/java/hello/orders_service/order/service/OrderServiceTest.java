@@ -102,6 +102,19 @@ class OrderServiceTest {
         assertThat(confirmOrder.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
     }
 
+    @Test
+    void confirm_order_twice_test() {
+        //given
+        Order order = orderService.createOrderPending(1L, "test", 10);
+        orderService.confirmOrder(order.getId());
+
+        //when - 같은 단계가 다시 실행되어 한 번 더 확정
+        Order confirmOrder = orderService.confirmOrder(order.getId());
+
+        //then
+        assertThat(confirmOrder.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
     @Test
     void fail_order_test() {
         //given
@@ -0,0 +1,109 @@
+package hello.orders_service.order.service;
+
+import hello.orders_service.order.infra.messaging.publisher.OrderOutboxPublisher;
+import hello.orders_service.order.repository.SagaLogRepository;
+import hello.orders_service.order.saga.OrderSagaContext;
+import hello.orders_service.order.saga.OrderSagaType;
+import hello.orders_service.order.saga.log.SagaLogEntry;
+import hello.orders_service.order.saga.log.SagaLogEventType;
+import hello.orders_service.order.saga.log.SagaLogWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 사가 기록 저장 방식 비교 (./gradlew benchmark 로 실행)
+ * 동시 사가 THREADS 개가 기록 SAGAS_PER_THREAD * 4건(시작, 단계 2개, 종료)을 하나씩 저장 완료를 기다리며 기록
+ * per-entry    : 기록마다 트랜잭션 1개
+ * group commit : SagaLogWriter 로 모아서 트랜잭션 1개
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./build/benchmark/sagalog",
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false",
+    "order.saga.log.recovery.enabled=false",
+    "outbox.archive.enabled=false"
+})
+class SagaLogWriteBenchmarkTest {
+
+    private static final int THREADS = 64;
+    private static final int SAGAS_PER_THREAD = 100;
+    private static final int ENTRIES_PER_SAGA = 4;
+
+    @Autowired
+    SagaLogWriter sagaLogWriter;
+    @Autowired
+    SagaLogRepository sagaLogRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    OrderOutboxPublisher orderOutboxPublisher;
+
+    @BeforeEach
+    void setup() {
+        sagaLogRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void 기록_저장_방식별_초당_처리량_비교() throws Exception {
+        // warm-up
+        run(entry -> transactionTemplate.executeWithoutResult(status -> sagaLogRepository.save(entry)));
+        run(entry -> sagaLogWriter.append(entry).join());
+        sagaLogRepository.deleteAllInBatch();
+
+        long perEntryNanos = run(entry -> transactionTemplate.executeWithoutResult(status -> sagaLogRepository.save(entry)));
+        long groupNanos = run(entry -> sagaLogWriter.append(entry).join());
+
+        int entries = THREADS * SAGAS_PER_THREAD * ENTRIES_PER_SAGA;
+        System.out.printf("per-entry    : %d entries, %.0f entries/sec%n", entries, entries / (perEntryNanos / 1_000_000_000.0));
+        System.out.printf("group commit : %d entries, %.0f entries/sec%n", entries, entries / (groupNanos / 1_000_000_000.0));
+
+        assertThat(sagaLogRepository.count()).isEqualTo(entries * 2L);
+    }
+
+    // 스레드마다 사가를 하나씩 진행하며 기록 (저장 완료 후 다음 기록)
+    private long run(Consumer<SagaLogEntry> writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < SAGAS_PER_THREAD; i++) {
+                        OrderSagaContext ctx = new OrderSagaContext();
+                        ctx.setSagaId(UUID.randomUUID().toString());
+                        ctx.setSagaType(OrderSagaType.ORDER);
+                        ctx.setProductId(1L);
+                        ctx.setQuantity(1);
+                        ctx.setOrderId((long) i);
+
+                        writer.accept(SagaLogEntry.of(ctx, SagaLogEventType.STARTED, null));
+                        writer.accept(SagaLogEntry.of(ctx, SagaLogEventType.STEP_DONE, 0));
+                        writer.accept(SagaLogEntry.of(ctx, SagaLogEventType.STEP_DONE, 1));
+                        writer.accept(SagaLogEntry.of(ctx, SagaLogEventType.FINISHED, null));
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
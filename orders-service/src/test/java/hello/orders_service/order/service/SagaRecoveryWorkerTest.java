@@ -0,0 +1,213 @@
+package hello.orders_service.order.service;
+
+import hello.orders_service.common.web.response.ApiSuccess;
+import hello.orders_service.order.client.ProductClient;
+import hello.orders_service.order.client.dto.StockResult;
+import hello.orders_service.order.domain.Order;
+import hello.orders_service.order.domain.OrderStatus;
+import hello.orders_service.order.exception.DependencyFailedException;
+import hello.orders_service.order.exception.ErrorCode;
+import hello.orders_service.order.repository.SagaLogRepository;
+import hello.orders_service.order.repository.SagaRecoveryClaimRepository;
+import hello.orders_service.order.saga.OrderSagaContext;
+import hello.orders_service.order.saga.OrderSagaType;
+import hello.orders_service.order.saga.log.OrderSagaLog;
+import hello.orders_service.order.saga.log.SagaLogEntry;
+import hello.orders_service.order.saga.log.SagaLogEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@SpringBootTest(properties = "order.saga.log.recovery.enabled=false")
+class SagaRecoveryWorkerTest {
+
+    @Autowired
+    SagaRecoveryWorker sagaRecoveryWorker;
+    @Autowired
+    OrderSagaLog orderSagaLog;
+    @Autowired
+    SagaLogRepository sagaLogRepository;
+    @Autowired
+    SagaRecoveryClaimRepository sagaRecoveryClaimRepository;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    ProductClient productClient;
+
+    @BeforeEach
+    void setup() {
+        sagaLogRepository.deleteAllInBatch();
+        sagaRecoveryClaimRepository.deleteAllInBatch();
+    }
+
+    // 주문 PENDING 생성(0번 단계)까지 기록하고 중단된 주문 사가
+    private OrderSagaContext stoppedAfterOrderCreated() {
+        Order order = orderService.createOrderPending(1L, "buyer", 2);
+
+        OrderSagaContext ctx = new OrderSagaContext();
+        ctx.setSagaType(OrderSagaType.ORDER);
+        ctx.setProductId(1L);
+        ctx.setQuantity(2);
+        orderSagaLog.started(ctx).join();
+
+        ctx.setOrderId(order.getId());
+        orderSagaLog.stepDone(ctx, 0).join();
+        return ctx;
+    }
+
+    private boolean finished(String sagaId) {
+        return sagaLogRepository.findBySagaIdOrderByIdAsc(sagaId).stream()
+            .map(SagaLogEntry::getEventType)
+            .anyMatch(type -> type == SagaLogEventType.FINISHED);
+    }
+
+    @Test
+    void 중단된_사가는_남은_단계부터_이어서_실행() {
+        // given
+        OrderSagaContext ctx = stoppedAfterOrderCreated();
+        given(productClient.decreaseByOrder(anyLong(), any(), anyString()))
+            .willReturn(ApiSuccess.of(new StockResult(true, 8, "OK"), null));
+
+        // when
+        int recovered = sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then - 주문 생성은 다시 하지 않고, 같은 멱등키로 재고 차감 후 확정
+        assertThat(recovered).isEqualTo(1);
+        then(productClient).should().decreaseByOrder(eq(1L), any(), eq("DEC-" + ctx.getOrderId()));
+        assertThat(orderService.findById(ctx.getOrderId()).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(finished(ctx.getSagaId())).isTrue();
+    }
+
+    @Test
+    void 보상_중_중단된_사가는_남은_보상만_수행() {
+        // given
+        OrderSagaContext ctx = stoppedAfterOrderCreated();
+        orderSagaLog.compensating(ctx).join();
+
+        // when
+        sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        then(productClient).shouldHaveNoInteractions();
+        assertThat(orderService.findById(ctx.getOrderId()).getStatus()).isEqualTo(OrderStatus.FAILED);
+        assertThat(finished(ctx.getSagaId())).isTrue();
+    }
+
+    @Test
+    void 재시도_대상_실패는_종료하지_않고_다음_주기에_다시_복구() {
+        // given
+        OrderSagaContext ctx = stoppedAfterOrderCreated();
+        given(productClient.decreaseByOrder(anyLong(), any(), anyString()))
+            .willThrow(new DependencyFailedException(ErrorCode.DEPENDENCY_FAILED, "상품 서버 장애", null, null));
+
+        // when
+        int recovered = sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(recovered).isZero();
+        assertThat(orderService.findById(ctx.getOrderId()).getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(sagaLogRepository.findUnfinishedSagaIds(SagaLogEventType.STARTED, SagaLogEventType.FINISHED,
+            LocalDateTime.now().plusSeconds(1), PageRequest.of(0, 10))).containsExactly(ctx.getSagaId());
+    }
+
+    @Test
+    void 보상에_실패하면_종료하지_않고_다음_주기에_남은_보상만_다시_수행() {
+        // given - 재고 차감(1번 단계)까지 완료 후 보상 중 중단
+        OrderSagaContext ctx = stoppedAfterOrderCreated();
+        orderSagaLog.stepDone(ctx, 1).join();
+        orderSagaLog.compensating(ctx).join();
+        given(productClient.increaseByOrder(anyLong(), any(), anyString()))
+            .willThrow(new DependencyFailedException(ErrorCode.DEPENDENCY_FAILED, "상품 서버 장애", null, null))
+            .willReturn(ApiSuccess.of(new StockResult(true, 10, "OK"), null));
+
+        // when - 첫 주기: 재고 복구 실패, 주문 FAILED 처리(0번 단계)만 보상 완료
+        int recovered = sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(recovered).isZero();
+        assertThat(finished(ctx.getSagaId())).isFalse();
+
+        // when - 다음 주기: 남은 재고 복구만 다시 수행
+        recovered = sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(recovered).isEqualTo(1);
+        then(productClient).should(times(2)).increaseByOrder(eq(1L), any(), eq("INC-" + ctx.getOrderId()));
+        assertThat(finished(ctx.getSagaId())).isTrue();
+    }
+
+    @Test
+    void 주문_생성_기록_전에_중단된_사가는_sagaId로_주문을_찾아_FAILED_처리() {
+        // given - 주문은 만들어졌지만 0번 단계 완료 기록 전에 중단
+        OrderSagaContext ctx = new OrderSagaContext();
+        ctx.setSagaType(OrderSagaType.ORDER);
+        ctx.setProductId(1L);
+        ctx.setQuantity(2);
+        orderSagaLog.started(ctx).join();
+        Order order = orderService.createOrderPending(1L, "buyer", 2, ctx.getSagaId());
+
+        // when
+        sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        then(productClient).shouldHaveNoInteractions();
+        assertThat(orderService.findById(order.getId()).getStatus()).isEqualTo(OrderStatus.FAILED);
+        assertThat(finished(ctx.getSagaId())).isTrue();
+    }
+
+    @Test
+    void 다른_인스턴스가_선점한_사가는_복구하지_않는다() {
+        // given
+        OrderSagaContext ctx = stoppedAfterOrderCreated();
+        transactionTemplate.executeWithoutResult(status ->
+            sagaRecoveryClaimRepository.insertClaim(ctx.getSagaId(), "other", LocalDateTime.now().plusMinutes(5)));
+
+        // when
+        int recovered = sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(recovered).isZero();
+        then(productClient).shouldHaveNoInteractions();
+        assertThat(finished(ctx.getSagaId())).isFalse();
+    }
+
+    @Test
+    void 시작_직후가_아닌_사가만_복구_대상() {
+        // given
+        stoppedAfterOrderCreated();
+
+        // when - cutoff 이후 시작한 사가는 진행 중으로 봄
+        int recovered = sagaRecoveryWorker.recoverStartedBefore(LocalDateTime.now().minusMinutes(1));
+
+        // then
+        assertThat(recovered).isZero();
+        then(productClient).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void 종료된_사가_기록_정리() {
+        // given
+        OrderSagaContext ctx = stoppedAfterOrderCreated();
+        orderSagaLog.finished(ctx).join();
+
+        // when
+        int purged = sagaRecoveryWorker.purgeFinishedBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(purged).isEqualTo(1);
+        assertThat(sagaLogRepository.findBySagaIdOrderByIdAsc(ctx.getSagaId())).isEmpty();
+    }
+}
@@ -0,0 +1,350 @@
+package hello.orders_service.saga;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AsyncSagaRunnerTest {
+
+    private final AsyncSagaRunner<Object> runner = new AsyncSagaRunner<>();
+    private final List<String> execLog = new CopyOnWriteArrayList<>();
+    private final List<String> compLog = new CopyOnWriteArrayList<>();
+
+    @Test
+    void stage는_순서대로_실행하고_성공시_보상하지_않는다() {
+        runner.run(List.of(List.of(step("s1")), List.of(step("s2"))), new Object()).join();
+
+        assertThat(execLog).containsExactly("s1", "s2");
+        assertThat(compLog).isEmpty();
+    }
+
+    @Test
+    void 같은_stage의_단계는_동시에_실행된다() {
+        // 두 단계가 서로를 기다리므로 순차 실행이면 시간 초과로 실패
+        CountDownLatch latch = new CountDownLatch(2);
+        AsyncSagaStep<Object> a = waiting("a", latch);
+        AsyncSagaStep<Object> b = waiting("b", latch);
+
+        runner.run(List.of(List.of(a, b)), new Object()).orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertThat(execLog).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void COMPENSATE_실패시_완료된_단계를_역순으로_보상한다() {
+        SagaException ex = SagaException.compensate("boom", null);
+        CompletableFuture<Void> result = runner.run(List.of(
+            List.of(step("s1")),
+            List.of(step("p1"), step("p2")),
+            List.of(failing("s3", ex))
+        ), new Object());
+
+        assertThatThrownBy(result::join).hasCauseReference(ex);
+        assertThat(compLog).containsExactly("p2", "p1", "s1");
+    }
+
+    @Test
+    void 같은_stage에서_성공한_단계도_보상_대상이다() {
+        CompletableFuture<Void> result = runner.run(List.of(
+            List.of(step("s1")),
+            List.of(step("p1"), failing("p2", new IllegalStateException("boom")))
+        ), new Object());
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(compLog).containsExactly("p1", "s1");
+    }
+
+    @Test
+    void BUSINESS_RETRYABLE_실패는_보상하지_않는다() {
+        for (SagaErrorType type : List.of(SagaErrorType.BUSINESS, SagaErrorType.RETRYABLE)) {
+            CompletableFuture<Void> result = runner.run(List.of(
+                List.of(step("s1")),
+                List.of(failing("s2", new SagaException(type, "boom", null)))
+            ), new Object());
+
+            assertThatThrownBy(result::join).hasCauseInstanceOf(SagaException.class);
+        }
+        assertThat(compLog).isEmpty();
+    }
+
+    @Test
+    void 시간_초과_단계는_RETRYABLE로_실패하고_다음_stage를_실행하지_않는다() {
+        AsyncSagaStep<Object> slow = new TestStep("slow", null) {
+            @Override
+            public CompletableFuture<Void> executeAsync(Object context) {
+                return new CompletableFuture<>();
+            }
+
+            @Override
+            public Duration timeout() {
+                return Duration.ofMillis(50);
+            }
+        };
+
+        CompletableFuture<Void> result = runner.run(List.of(List.of(slow), List.of(step("s2"))), new Object());
+
+        assertThatThrownBy(result::join)
+            .cause()
+            .isInstanceOfSatisfying(SagaException.class, ex -> assertThat(ex.getType()).isEqualTo(SagaErrorType.RETRYABLE));
+        assertThat(execLog).doesNotContain("s2");
+    }
+
+    @Test
+    void 블로킹_단계의_시간_상한은_대기열_대기를_빼고_실제_시작부터_잰다() {
+        SagaStep<Object> blocking = new SagaStep<>() {
+            @Override
+            public void execute(Object context) {
+                execLog.add("s1");
+            }
+
+            @Override
+            public void compensate(Object context) {
+                compLog.add("s1");
+            }
+        };
+        // 사가 풀 대기열에서 200ms 기다린 뒤 시작, 실행은 바로 끝남
+        Executor busy = CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS);
+        AsyncSagaStep<Object> step = AsyncSagaStep.of(blocking, busy, Duration.ofMillis(50));
+
+        runner.run(List.of(List.of(step)), new Object()).join();
+
+        assertThat(step.timeout()).isNull();
+        assertThat(execLog).containsExactly("s1");
+    }
+
+    @Test
+    void 보상_실패는_기록만_하고_나머지_보상을_계속한다() {
+        AsyncSagaStep<Object> brokenCompensation = new TestStep("s2", null) {
+            @Override
+            public CompletableFuture<Void> compensateAsync(Object context) {
+                return CompletableFuture.failedFuture(new IllegalStateException("compensation boom"));
+            }
+        };
+
+        CompletableFuture<Void> result = runner.run(List.of(
+            List.of(step("s1")),
+            List.of(brokenCompensation),
+            List.of(failing("s3", SagaException.compensate("boom", null)))
+        ), new Object());
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(SagaException.class);
+        assertThat(compLog).containsExactly("s1");
+    }
+
+    @Test
+    void 단계_완료와_보상을_기록한_뒤_종료를_기록한다() {
+        List<String> records = new CopyOnWriteArrayList<>();
+        AsyncSagaRunner<Object> loggingRunner = new AsyncSagaRunner<>(recording(records));
+
+        CompletableFuture<Void> result = loggingRunner.run(List.of(
+            List.of(step("s1")),
+            List.of(step("p1"), step("p2")),
+            List.of(failing("s3", SagaException.compensate("boom", null)))
+        ), new Object());
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(SagaException.class);
+        assertThat(records).containsExactly(
+            "done-0", "done-1", "done-2", "compensating", "compensated-2", "compensated-1", "compensated-0", "finished");
+    }
+
+    @Test
+    void 보상_실패한_단계는_보상_기록을_남기지_않고_종료도_기록하지_않는다() {
+        List<String> records = new CopyOnWriteArrayList<>();
+        AsyncSagaRunner<Object> loggingRunner = new AsyncSagaRunner<>(recording(records));
+        AsyncSagaStep<Object> brokenCompensation = new TestStep("s2", null) {
+            @Override
+            public CompletableFuture<Void> compensateAsync(Object context) {
+                return CompletableFuture.failedFuture(new IllegalStateException("compensation boom"));
+            }
+        };
+
+        CompletableFuture<Void> result = loggingRunner.run(List.of(
+            List.of(step("s1")),
+            List.of(brokenCompensation),
+            List.of(failing("s3", SagaException.compensate("boom", null)))
+        ), new Object());
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(SagaException.class);
+        assertThat(records).containsExactly("done-0", "done-1", "compensating", "compensated-0");
+    }
+
+    @Test
+    void RETRYABLE_실패는_종료를_기록하지_않는다() {
+        List<String> records = new CopyOnWriteArrayList<>();
+        AsyncSagaRunner<Object> loggingRunner = new AsyncSagaRunner<>(recording(records));
+
+        CompletableFuture<Void> result = loggingRunner.run(List.of(
+            List.of(step("s1")),
+            List.of(failing("s2", SagaException.retryable("boom", null)))
+        ), new Object());
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(SagaException.class);
+        assertThat(records).containsExactly("done-0");
+    }
+
+    @Test
+    void executor가_거절한_단계는_RETRYABLE로_실패하고_보상하지_않는다() {
+        List<String> records = new CopyOnWriteArrayList<>();
+        AsyncSagaRunner<Object> loggingRunner = new AsyncSagaRunner<>(recording(records));
+        SagaStep<Object> blocking = new SagaStep<>() {
+            @Override
+            public void execute(Object context) {
+                execLog.add("s2");
+            }
+
+            @Override
+            public void compensate(Object context) {
+                compLog.add("s2");
+            }
+        };
+        Executor full = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+
+        CompletableFuture<Void> result = loggingRunner.run(List.of(
+            List.of(step("s1")),
+            List.of(AsyncSagaStep.of(blocking, full, null))
+        ), new Object());
+
+        assertThatThrownBy(result::join)
+            .cause()
+            .isInstanceOfSatisfying(SagaException.class, ex -> assertThat(ex.getType()).isEqualTo(SagaErrorType.RETRYABLE));
+        assertThat(execLog).containsExactly("s1");
+        assertThat(compLog).isEmpty();
+        assertThat(records).containsExactly("done-0");
+    }
+
+    @Test
+    void 완료_기록_실패는_보상_대상이다() {
+        SagaLog<Object> failingLog = new SagaLog<>() {
+            @Override
+            public CompletableFuture<Void> started(Object context) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> stepDone(Object context, int stepIndex) {
+                return stepIndex == 1
+                    ? CompletableFuture.failedFuture(new IllegalStateException("db down"))
+                    : CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> compensating(Object context) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> stepCompensated(Object context, int stepIndex) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> finished(Object context) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+
+        CompletableFuture<Void> result = new AsyncSagaRunner<>(failingLog)
+            .run(List.of(List.of(step("s1")), List.of(step("s2")), List.of(step("s3"))), new Object());
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(execLog).containsExactly("s1", "s2");
+        assertThat(compLog).containsExactly("s2", "s1");
+    }
+
+    private SagaLog<Object> recording(List<String> records) {
+        return new SagaLog<>() {
+            @Override
+            public CompletableFuture<Void> started(Object context) {
+                records.add("started");
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> stepDone(Object context, int stepIndex) {
+                records.add("done-" + stepIndex);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> compensating(Object context) {
+                records.add("compensating");
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> stepCompensated(Object context, int stepIndex) {
+                records.add("compensated-" + stepIndex);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> finished(Object context) {
+                records.add("finished");
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+
+    private AsyncSagaStep<Object> step(String name) {
+        return new TestStep(name, null);
+    }
+
+    private AsyncSagaStep<Object> failing(String name, RuntimeException toThrow) {
+        return new TestStep(name, toThrow);
+    }
+
+    private AsyncSagaStep<Object> waiting(String name, CountDownLatch latch) {
+        return new TestStep(name, null) {
+            @Override
+            public CompletableFuture<Void> executeAsync(Object context) {
+                return CompletableFuture.runAsync(() -> {
+                    execLog.add(name);
+                    latch.countDown();
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        };
+    }
+
+    private class TestStep implements AsyncSagaStep<Object> {
+        private final String name;
+        private final RuntimeException toThrow;
+
+        TestStep(String name, RuntimeException toThrow) {
+            this.name = name;
+            this.toThrow = toThrow;
+        }
+
+        @Override
+        public CompletableFuture<Void> executeAsync(Object context) {
+            execLog.add(name);
+            return toThrow == null ? CompletableFuture.completedFuture(null) : CompletableFuture.failedFuture(toThrow);
+        }
+
+        @Override
+        public CompletableFuture<Void> compensateAsync(Object context) {
+            compLog.add(name);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package hello.product_service.product.api.v3;
 
 import hello.product_service.common.web.response.ApiSuccess;
 import hello.product_service.product.domain.Direction;
+import hello.product_service.product.model.BulkOrderRequest;
 import hello.product_service.product.model.OrderRequest;
 import hello.product_service.product.model.StockResult;
 import hello.product_service.product.service.InventoryService;
@@ -40,6 +41,23 @@ public class ProductStockV3Controller {
         return ResponseEntity.ok(ApiSuccess.of(stockResult, null));
     }
 
+    /**
+     * 여러 상품 재고를 한 번에 감소 (전부 성공 또는 전부 실패), 멱등성 키는 묶음 전체에 1개
+     */
+    @PatchMapping("/stock/decrease-by-order")
+    public ResponseEntity<ApiSuccess<StockResult>> decreaseByOrderBulk(
+        @RequestBody BulkOrderRequest bulkOrderRequest,
+        @RequestHeader("Idempotency-Key") String idempotencyKey
+    ) {
+        StockResult stockResult = inventoryServiceV2.decreaseByOrderBulk(
+            bulkOrderRequest.getOrderId(),
+            bulkOrderRequest.getLines(),
+            idempotencyKey
+        );
+
+        return ResponseEntity.ok(ApiSuccess.of(stockResult, null));
+    }
+
     @PatchMapping("/{productId}/stock/increase-by-order")
     public ResponseEntity<ApiSuccess<StockResult>> increaseByOrder(
         @PathVariable("productId") Long productId,
@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_idempotency_create_at", columnList = "createAt")) // 보관 기간 정리(purge) 범위 조회용
 public class IdempotencyRecord {
     @Id
     @GeneratedValue
@@ -10,9 +10,14 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @Getter
+// write-behind 플러시마다 요청 ID 로 이미 반영된 예약 조회 (findRequestIdsIn)
+// 유니크 불가 : 묶음 요청은 상품마다 같은 요청 ID 로 기록, increase-by-order API 는 멱등 재호출에도 원장을 다시 기록
+@Table(indexes = @Index(name = "idx_stock_ledger_request_id", columnList = "requestId"))
 public class StockLedger {
+    // pooled 옵티마이저 (allocationSize 50): 시퀀스 조회 1회로 50개 ID 할당, INSERT JDBC 배치 가능
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_ledger_seq_generator")
+    @SequenceGenerator(name = "stock_ledger_seq_generator", sequenceName = "stock_ledger_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
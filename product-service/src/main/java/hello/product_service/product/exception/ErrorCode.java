@@ -6,7 +6,8 @@ public enum ErrorCode {
     BAD_REQUEST(400, "잘못된 요청입니다."),
     INSUFFICIENT_STOCK(400, "재고가 부족합니다."),
     INTERNAL_ERROR(500, "서버 오류가 발생했습니다."),
-    RETRY_LATER(503, "처리 중 충돌이 발생했습니다, 잠시 후 다시 시도해주세요");
+    RETRY_LATER(503, "처리 중 충돌이 발생했습니다, 잠시 후 다시 시도해주세요"),
+    REQUEST_IN_PROGRESS(409, "동일한 요청이 처리 중입니다.");
 
     private final int status; private final String defaultMessage;
     ErrorCode(int status, String defaultMessage){ this.status=status; this.defaultMessage=defaultMessage; }
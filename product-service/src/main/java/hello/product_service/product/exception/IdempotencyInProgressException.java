@@ -0,0 +1,10 @@
+package hello.product_service.product.exception;
+
+import java.util.Map;
+
+public class IdempotencyInProgressException extends ApiException {
+    public IdempotencyInProgressException(String requestId) {
+        super(ErrorCode.REQUEST_IN_PROGRESS, "동일한 요청(" + requestId + ")이 처리 중입니다.",
+            Map.of("requestId", requestId));
+    }
+}
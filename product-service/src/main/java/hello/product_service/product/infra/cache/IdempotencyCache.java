@@ -0,0 +1,162 @@
+package hello.product_service.product.infra.cache;
+
+import hello.product_service.product.infra.config.IdempotencyCacheProperties;
+import hello.product_service.product.model.StockResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 처리 완료된 요청의 멱등성 결과 캐시 (requestId -> StockResult)
+ * 중복 요청(outbox 재시도 등)이 DB 조회 없이 바로 응답되도록 IdempotencyRepository 앞단에 둔다.
+ * 조회는 ConcurrentHashMap 읽기만 사용하고, 정리(evict)는 한 스레드만 수행하도록 CAS로 보호한다.
+ * 정리는 전체 순회(O(n))이므로 maxSize 의 90%(lowWaterMark)까지 한 번에 줄여, 넘칠 때마다가 아니라 maxSize/10 건마다 한 번만 순회
+ * 지표 : idempotency.cache.hits / misses / evictions, idempotency.cache.size
+ */
+@Component
+@Slf4j
+public class IdempotencyCache implements MeterBinder {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final int lowWaterMark;
+    private final LongSupplier ticker;
+
+    @Autowired
+    public IdempotencyCache(IdempotencyCacheProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    IdempotencyCache(IdempotencyCacheProperties properties, LongSupplier ticker) {
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxSize = properties.getMaxSize();
+        this.lowWaterMark = maxSize - Math.max(1, maxSize / 10);
+        this.ticker = ticker;
+    }
+
+    /**
+     * 캐시된 결과 조회, 없거나 만료되었으면 null
+     */
+    public StockResult get(String requestId) {
+        Entry entry = entries.get(requestId);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.isExpired(ticker.getAsLong())) {
+            if (entries.remove(requestId, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.result();
+    }
+
+    /**
+     * 완료된 결과 저장 (이미 커밋된 멱등성 레코드를 읽은 경우)
+     */
+    public void put(String requestId, StockResult result) {
+        entries.put(requestId, new Entry(result, ticker.getAsLong() + ttlNanos));
+
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 트랜잭션 안에서 저장한 결과는 커밋 이후에 캐시 (롤백된 결과가 캐시에 남지 않도록)
+     */
+    public void putAfterCommit(String requestId, StockResult result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(requestId, result);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(requestId, result);
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // 만료 항목을 먼저 정리하고, 그래도 lowWaterMark 보다 많으면 순회 순서대로 제거
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return; // 다른 스레드가 정리 중
+        }
+
+        try {
+            long now = ticker.getAsLong();
+            entries.entrySet().removeIf(e -> {
+                boolean expired = e.getValue().isExpired(now);
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+
+            Iterator<String> iterator = entries.keySet().iterator();
+            while (entries.size() > lowWaterMark && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("idempotency.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("idempotency.cache.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("idempotency.cache.evictions", evictions, LongAdder::sum).register(registry);
+        Gauge.builder("idempotency.cache.size", entries, Map::size).register(registry);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private record Entry(StockResult result, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
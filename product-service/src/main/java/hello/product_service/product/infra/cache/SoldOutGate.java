@@ -0,0 +1,172 @@
+package hello.product_service.product.infra.cache;
+
+import hello.product_service.product.infra.config.SoldOutGateProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 매진/재고 부족 상품 로컬 차단 (productId -> 마지막으로 알려진 Redis 재고)
+ * 알려진 재고보다 많이 요청하면 Redis 호출 없이 바로 거절한다.
+ * - 재고 값은 이 인스턴스의 선점 결과(남은 재고/부족 시 현재 재고)와 매진 알림(재고 0)으로 갱신
+ * - 재고는 차감으로만 줄어드므로 알려진 값은 실제 재고 이상 -> 재고를 늘리는 적재/복구 시에만 지우면 됨 (재입고 알림)
+ * - 알림 메시지는 "productId:instanceId", 자기 인스턴스 알림은 이미 반영했으므로 무시 (늦게 도착한 매진 알림이 재입고를 덮어쓰지 않도록)
+ * - 알림을 놓치거나 선점 결과 기록과 재입고가 겹쳐 낮은 값이 남아도 TTL 이 지나면 Redis 로 다시 확인
+ * 지표 : stock.gate.rejections, stock.gate.sold-out.notifications, stock.gate.size
+ */
+@Component
+@Slf4j
+public class SoldOutGate implements MessageListener, MeterBinder {
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder soldOutNotifications = new LongAdder();
+
+    private final SoldOutGateProperties properties;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    public SoldOutGate(SoldOutGateProperties properties, RedisTemplate<String, String> redisTemplate) {
+        this(properties, redisTemplate, System::nanoTime);
+    }
+
+    SoldOutGate(SoldOutGateProperties properties, RedisTemplate<String, String> redisTemplate, LongSupplier ticker) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * 알려진 재고가 요청 수량보다 적으면 true (Redis 호출 없이 거절)
+     */
+    public boolean rejects(Long productId, int quantity) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            return false;
+        }
+
+        if (entry.isExpired(ticker.getAsLong())) {
+            entries.remove(productId, entry);
+            return false;
+        }
+
+        if (entry.stock() < quantity) {
+            rejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 마지막으로 알려진 재고 (모르면 0, 재고 부족 응답용)
+     */
+    public int knownStock(Long productId) {
+        Entry entry = entries.get(productId);
+        return entry == null ? 0 : (int) Math.min(entry.stock(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Redis 가 알려준 재고 기록 (선점 성공 시 남은 재고, 실패 시 현재 재고)
+     */
+    public void update(Long productId, long stock) {
+        if (properties.isEnabled()) {
+            entries.put(productId, new Entry(stock, ticker.getAsLong() + ttlNanos));
+        }
+    }
+
+    /**
+     * Redis 재고가 늘어남 (적재/복구), 로컬 값 제거 후 다른 인스턴스에 알림
+     */
+    public void restocked(Long productId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        entries.remove(productId);
+        try {
+            redisTemplate.convertAndSend(properties.getRestockChannel(), message(productId));
+        } catch (Exception e) {
+            log.warn("재입고 알림 실패, productId = {}, 사유: {}", productId, e.getMessage());
+        }
+    }
+
+    /**
+     * 매진(Lua 스크립트) / 재입고(다른 인스턴스) 알림 수신
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator > 0 && body.substring(separator + 1).equals(instanceId)) {
+            return;
+        }
+
+        Long productId;
+        try {
+            productId = Long.valueOf(separator > 0 ? body.substring(0, separator) : body);
+        } catch (NumberFormatException e) {
+            log.warn("재고 알림 형식 오류, channel = {}, body = {}", channel, body);
+            return;
+        }
+
+        if (channel.equals(properties.getSoldOutChannel())) {
+            soldOutNotifications.increment();
+            update(productId, 0);
+        } else if (channel.equals(properties.getRestockChannel())) {
+            entries.remove(productId);
+        }
+    }
+
+    /**
+     * Lua 스크립트에 넘길 매진 알림 채널, 사용하지 않으면 null
+     */
+    public String soldOutChannel() {
+        return properties.isEnabled() ? properties.getSoldOutChannel() : null;
+    }
+
+    /**
+     * 알림 메시지 (productId:instanceId)
+     */
+    public String message(Long productId) {
+        return productId + ":" + instanceId;
+    }
+
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stock.gate.rejections", rejections, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stock.gate.sold-out.notifications", soldOutNotifications, LongAdder::sum).register(registry);
+        Gauge.builder("stock.gate.size", entries, Map::size).register(registry);
+    }
+
+    private record Entry(long stock, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package hello.product_service.product.infra.cache;
+
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.config.StockStrategyCacheProperties;
+import hello.product_service.product.model.ProductStockStrategy;
+import hello.product_service.product.repository.ProductRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 상품별 재고 처리 전략 캐시 (productId -> StockStrategy)
+ * 재고 감소마다 실행되던 findStockStrategyById 조회를 메모리 읽기로 대체한다.
+ * 시작 시 전체 적재, 없는 상품은 DB 조회 후 캐시(read-through)
+ * 전략 변경 시 커밋 후 로컬 제거 + Redis pub/sub 으로 다른 인스턴스에 알림, 메시지를 놓쳐도 TTL 이 지나면 DB 값으로 갱신
+ * 지표 : stock.strategy.cache.hits / misses / invalidations, stock.strategy.cache.size
+ */
+@Component
+@Slf4j
+public class StockStrategyRegistry implements MessageListener, MeterBinder {
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // 무효화 세대, DB 조회 도중 무효화가 일어나면 조회 결과를 남기지 않는다 (변경 전 값이 캐시되지 않도록)
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private final ProductRepository productRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String channel;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+
+    @Autowired
+    public StockStrategyRegistry(ProductRepository productRepository,
+                                 RedisTemplate<String, String> redisTemplate,
+                                 StockStrategyCacheProperties properties) {
+        this(productRepository, redisTemplate, properties, System::nanoTime);
+    }
+
+    StockStrategyRegistry(ProductRepository productRepository,
+                          RedisTemplate<String, String> redisTemplate,
+                          StockStrategyCacheProperties properties,
+                          LongSupplier ticker) {
+        this.productRepository = productRepository;
+        this.redisTemplate = redisTemplate;
+        this.channel = properties.getChannel();
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * 시작 시 전체 상품 전략 적재, 실패해도 조회 시점에 DB 에서 읽으므로 기동은 계속
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            long gen = generation.get();
+            List<ProductStockStrategy> strategies = productRepository.findAllStockStrategies();
+            long expiresAt = ticker.getAsLong() + ttlNanos;
+            strategies.forEach(s -> entries.putIfAbsent(s.getProductId(), new Entry(s.getStockStrategy(), expiresAt)));
+            // 적재 중 무효화가 있었으면 전부 버리고 조회 시점에 다시 읽음
+            if (generation.get() != gen) {
+                entries.clear();
+            }
+            log.info("재고 전략 캐시 적재 완료, count = {}", strategies.size());
+        } catch (Exception e) {
+            log.warn("재고 전략 캐시 적재 실패, 조회 시 DB 에서 읽습니다. 사유: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 상품의 재고 전략 조회, 캐시에 없거나 만료되었으면 DB 조회 (없는 상품은 null, 캐시하지 않음)
+     */
+    public StockStrategy get(Long productId) {
+        Entry entry = entries.get(productId);
+        long now = ticker.getAsLong();
+
+        if (entry != null && !entry.isExpired(now)) {
+            hits.increment();
+            return entry.strategy();
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        StockStrategy strategy = productRepository.findStockStrategyById(productId);
+        if (strategy != null) {
+            Entry loaded = new Entry(strategy, now + ttlNanos);
+            entries.put(productId, loaded);
+            // 저장 직전/직후에 무효화가 끼어들었으면 방금 넣은 값을 되돌림
+            if (generation.get() != gen) {
+                entries.remove(productId, loaded);
+            }
+        }
+        return strategy;
+    }
+
+    /**
+     * 전략 변경 알림, 트랜잭션 안에서 호출되면 커밋 이후에 수행 (롤백되면 알리지 않음)
+     * 커밋 전에 지우면 다른 스레드가 변경 전 값을 다시 캐시할 수 있다.
+     */
+    public void invalidateAfterCommit(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(productId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(productId);
+            }
+        });
+    }
+
+    /**
+     * 로컬 캐시 제거 후 다른 인스턴스에 알림
+     * 발행 실패 시 다른 인스턴스는 TTL 이 지날 때까지 이전 전략을 사용
+     */
+    public void invalidate(Long productId) {
+        evict(productId);
+        try {
+            redisTemplate.convertAndSend(channel, String.valueOf(productId));
+        } catch (Exception e) {
+            log.warn("재고 전략 변경 알림 실패, productId = {}, 사유: {}", productId, e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 인스턴스(자기 자신 포함)의 전략 변경 알림 수신
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            evict(Long.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("재고 전략 변경 알림 형식 오류, body = {}", body);
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(Long productId) {
+        generation.incrementAndGet();
+        entries.remove(productId);
+        invalidations.increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stock.strategy.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stock.strategy.cache.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stock.strategy.cache.invalidations", invalidations, LongAdder::sum).register(registry);
+        Gauge.builder("stock.strategy.cache.size", entries, Map::size).register(registry);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private record Entry(StockStrategy strategy, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
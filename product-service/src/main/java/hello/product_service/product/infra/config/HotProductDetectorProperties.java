@@ -0,0 +1,39 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 인기 상품 자동 감지 설정 (DB_ONLY -> REDIS_FIRST 승격, 식으면 DB_ONLY 로 강등)
+ * 차감 요청 수는 인스턴스별로 세므로 임계치는 인스턴스 1대 기준
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stock.hot-detector")
+public class HotProductDetectorProperties {
+    private boolean enabled = false;
+
+    // 차감 요청 수를 세는 구간, buckets 개의 칸으로 나눠서 밀어냄
+    private Duration window = Duration.ofSeconds(10);
+    private int buckets = 10;
+
+    // 초당 차감 요청이 이 값 이상이면 REDIS_FIRST 로 승격
+    private double promoteRatePerSecond = 50;
+
+    // 자동 승격한 상품이 이 값 이하로 coolDown 동안 유지되면 DB_ONLY 로 강등 (promote 보다 작게 두어 승격/강등 반복 방지)
+    private double demoteRatePerSecond = 5;
+    private Duration coolDown = Duration.ofMinutes(5);
+
+    // 판정 주기(ms)
+    private long evaluationIntervalMs = 1000;
+
+    // 추적하는 최대 상품 수, 초과분은 다음 판정에서 조용한 상품이 정리될 때까지 세지 않음
+    private int maxTracked = 10_000;
+
+    // 자동 승격한 상품 id 를 담는 Redis set 키, 모든 인스턴스가 같은 값을 사용해야 함
+    // 이 set 에 먼저 추가한 인스턴스만 Redis 재고를 적재하고, 먼저 지운 인스턴스만 강등
+    private String promotedKey = "stock:hot:promoted";
+}
@@ -0,0 +1,21 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 처리 완료된 멱등성 결과를 메모리에 보관하는 캐시 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency.cache")
+public class IdempotencyCacheProperties {
+    // 캐시 유지 시간, 주문 서비스 outbox 재시도 주기보다 충분히 길게
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // 최대 보관 건수, 초과 시 만료 항목부터 정리
+    private int maxSize = 100_000;
+}
@@ -0,0 +1,29 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * IdempotencyRecord 보관 기간 정리(purge) 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency.retention")
+public class IdempotencyRetentionProperties {
+    private boolean enabled = true;
+
+    // 보관 기간, 이보다 오래된 레코드는 삭제 (주문 재시도 기간보다 충분히 길게)
+    private Duration horizon = Duration.ofDays(7);
+
+    // 한 트랜잭션에서 삭제할 최대 건수 (락 유지 시간 제한)
+    private int batchSize = 1000;
+
+    // 한 번 실행에서 처리할 최대 배치 수, 남은 레코드는 다음 실행에서 이어서 삭제
+    private int maxBatchesPerRun = 100;
+
+    // 실행 주기(ms)
+    private long intervalMs = 60_000;
+}
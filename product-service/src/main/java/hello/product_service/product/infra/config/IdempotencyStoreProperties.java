@@ -0,0 +1,27 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Redis 멱등성 저장소 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency.store")
+public class IdempotencyStoreProperties {
+    // 처리 중 표시 유지 시간, 처리 도중 서버가 죽어도 이 시간이 지나면 재시도 가능
+    private Duration inFlightTtl = Duration.ofSeconds(30);
+
+    // 처리 중 표시 연장 주기, 처리가 in-flight-ttl 보다 오래 걸려도 표시가 만료되지 않도록 (in-flight-ttl 보다 충분히 짧게)
+    private Duration renewInterval = Duration.ofSeconds(10);
+
+    // 처리 중 표시를 연장하는 최대 시간, 결과 저장/해제 호출이 빠진 경우에도 연장이 끝나도록
+    private Duration maxInFlight = Duration.ofMinutes(5);
+
+    // 처리 결과 유지 시간, 주문 서비스의 재시도(outbox) 기간보다 길어야 함
+    private Duration resultTtl = Duration.ofHours(24);
+}
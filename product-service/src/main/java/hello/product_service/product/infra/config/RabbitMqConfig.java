@@ -1,5 +1,7 @@
 package hello.product_service.product.infra.config;
 
+import hello.product_service.product.infra.rabbitmq.StockDecreaseEventBinaryConverter;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.QueueBuilder;
@@ -8,6 +10,7 @@ import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
@@ -22,6 +25,12 @@ public class RabbitMqConfig {
     public static final String STOCK_REQUEST_DLX = "stock.request.dlx";
     public static final String STOCK_REQUEST_DLQ = "stock.request.dlq";
     public static final String STOCK_REQUEST_DLQ_ROUTING_KEY = "stock.request.dlq.key";
+    // 여러 상품 묶음 재고 감소 요청 (BulkStockDecreaseEvent), 단건 요청과 같은 Exchange/DLQ 사용
+    public static final String STOCK_BULK_REQUEST_ROUTING_KEY = "stock.request.bulk.key";
+    public static final String STOCK_BULK_REQUEST_QUEUE = "stock.request.bulk.queue";
+    // 같은 요청이 처리 중인 메시지를 잠시 보관했다가(TTL) 원래 routing key 로 요청 Exchange 에 되돌리는 지연 큐
+    public static final String STOCK_REQUEST_RETRY_EXCHANGE = "stock.request.retry.exchange";
+    public static final String STOCK_REQUEST_RETRY_QUEUE = "stock.request.retry.queue";
 
     // 결과를 주문 서버로 돌려줄 설정
     public static final String ORDER_RESULT_EXCHANGE = "order.result.exchange";
@@ -49,6 +58,46 @@ public class RabbitMqConfig {
             .with(STOCK_REQUEST_ROUTING_KEY);
     }
 
+    @Bean
+    public Queue stockBulkRequestQueue() {
+        return QueueBuilder.durable(STOCK_BULK_REQUEST_QUEUE)
+            .withArgument("x-dead-letter-exchange", STOCK_REQUEST_DLX)
+            .withArgument("x-dead-letter-routing-key", STOCK_REQUEST_DLQ_ROUTING_KEY)
+            .build();
+    }
+
+    @Bean
+    public Binding stockBulkRequestBinding() {
+        return BindingBuilder.bind(stockBulkRequestQueue())
+            .to(stockRequestExchange())
+            .with(STOCK_BULK_REQUEST_ROUTING_KEY);
+    }
+
+    /**
+     * 처리 중 재시도 지연 큐, 소비자 없이 TTL 이 지나면 dead-letter 로 요청 Exchange 에 되돌아감
+     * dead-letter routing key 를 지정하지 않아 발행할 때의 routing key(단건/묶음)가 그대로 유지된다.
+     * 주의 : x-message-ttl 은 큐 인자라 지연 시간을 바꾸려면 큐를 지우고 다시 선언해야 함
+     */
+    @Bean
+    public Queue stockRequestRetryQueue(StockConsumerProperties properties) {
+        return QueueBuilder.durable(STOCK_REQUEST_RETRY_QUEUE)
+            .withArgument("x-message-ttl", properties.getInProgressRetryDelayMs())
+            .withArgument("x-dead-letter-exchange", STOCK_REQUEST_EXCHANGE)
+            .build();
+    }
+
+    @Bean
+    public TopicExchange stockRequestRetryExchange() {
+        return new TopicExchange(STOCK_REQUEST_RETRY_EXCHANGE);
+    }
+
+    @Bean
+    public Binding stockRequestRetryBinding(Queue stockRequestRetryQueue) {
+        return BindingBuilder.bind(stockRequestRetryQueue)
+            .to(stockRequestRetryExchange())
+            .with("#");
+    }
+
     @Bean
     public TopicExchange stockRequestExchange() {
         return new TopicExchange(STOCK_REQUEST_EXCHANGE);
@@ -83,15 +132,60 @@ public class RabbitMqConfig {
         return rabbitTemplate;
     }
 
+    /**
+     * 재고 감소 요청 수신용 컨버터, content-type 으로 디코더 선택
+     * 바이너리(application/x-stock-decrease-request-v1)는 StockDecreaseEventBinaryConverter, 그 외(JSON)는 기본 컨버터
+     */
+    private MessageConverter stockRequestMessageConverter(MessageConverter defaultConverter) {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(defaultConverter);
+        converter.addDelegate(StockDecreaseEventBinaryConverter.CONTENT_TYPE, new StockDecreaseEventBinaryConverter());
+        return converter;
+    }
+
+    /**
+     * 단건/묶음 리스너용 컨테이너 팩토리
+     * 결과 메시지 confirm 후에 ACK 하도록 리스너가 직접 ACK/NACK 수행(MANUAL)
+     */
     @Bean
     public SimpleRabbitListenerContainerFactory stockRequestListenerContainerFactory(
         ConnectionFactory connectionFactory,
-        MessageConverter messageConverter
+        MessageConverter messageConverter,
+        StockConsumerProperties properties
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(stockRequestMessageConverter(messageConverter));
+        factory.setDefaultRequeueRejected(false);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(properties.getConcurrency());
+        factory.setMaxConcurrentConsumers(properties.getMaxConcurrency());
+        factory.setPrefetchCount(properties.getPrefetch());
+        return factory;
+    }
+
+    /**
+     * 배치 리스너용 컨테이너 팩토리
+     * batchSize 만큼 모아서(또는 receiveTimeout 경과 시) 한 번에 전달, 메시지별 ACK/NACK 는 리스너가 직접 수행(MANUAL)
+     * NACK(requeue=false) 메시지는 단건 리스너와 같이 DLQ 로 이동
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory stockRequestBatchListenerContainerFactory(
+        ConnectionFactory connectionFactory,
+        MessageConverter messageConverter,
+        StockConsumerProperties properties
     ) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(messageConverter);
+        factory.setMessageConverter(stockRequestMessageConverter(messageConverter));
         factory.setDefaultRequeueRejected(false);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(properties.getBatchSize());
+        factory.setReceiveTimeout(properties.getReceiveTimeoutMs());
+        factory.setConcurrentConsumers(properties.getConcurrency());
+        factory.setMaxConcurrentConsumers(properties.getMaxConcurrency());
+        factory.setPrefetchCount(Math.max(properties.getPrefetch(), properties.getBatchSize()));
         return factory;
     }
 }
@@ -1,11 +1,17 @@
 package hello.product_service.product.infra.config;
 
+import hello.product_service.product.infra.cache.SoldOutGate;
+import hello.product_service.product.infra.cache.StockStrategyRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisConfig {
 
@@ -25,5 +31,24 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
 
+    /**
+     * Redis pub/sub 수신 컨테이너
+     * 재고 전략 변경 알림 -> StockStrategyRegistry 로컬 캐시 제거
+     * 매진/재입고 알림 -> SoldOutGate 로컬 재고 갱신
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       StockStrategyRegistry stockStrategyRegistry,
+                                                                       SoldOutGate soldOutGate,
+                                                                       SoldOutGateProperties soldOutGateProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(stockStrategyRegistry, new ChannelTopic(stockStrategyRegistry.getChannel()));
+        container.addMessageListener(soldOutGate, List.of(
+            new ChannelTopic(soldOutGateProperties.getSoldOutChannel()),
+            new ChannelTopic(soldOutGateProperties.getRestockChannel())
+        ));
+        return container;
+    }
+}
@@ -0,0 +1,26 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 매진/재고 부족 상품 로컬 차단 설정 (Redis 호출 전에 JVM 안에서 거절)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stock.sold-out-gate")
+public class SoldOutGateProperties {
+    private boolean enabled = true;
+
+    // 알고 있는 재고 값의 유효 시간, 재입고 알림을 놓쳐도 이 시간이 지나면 Redis 로 다시 확인
+    private Duration ttl = Duration.ofSeconds(2);
+
+    // 매진 알림 채널 (Lua 스크립트가 재고 0 도달 시 PUBLISH), 메시지는 productId
+    private String soldOutChannel = "stock:sold-out";
+
+    // 재입고 알림 채널 (Redis 재고 적재/복구 시 PUBLISH), 메시지는 productId
+    private String restockChannel = "stock:restock";
+}
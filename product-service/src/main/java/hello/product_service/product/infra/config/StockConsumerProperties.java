@@ -0,0 +1,38 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 재고 차감 요청(stock.request.queue) 컨슈머 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stock.consumer")
+public class StockConsumerProperties {
+    // true 이면 배치 리스너로 수신 (단건 리스너는 시작하지 않음)
+    private boolean batchEnabled = false;
+
+    // 컨슈머 수 (최소/최대)
+    private int concurrency = 1;
+    private int maxConcurrency = 1;
+
+    // 컨슈머당 미리 받아둘 메시지 수
+    private int prefetch = 250;
+
+    // 배치 리스너 한 번 호출에 전달할 최대 메시지 수
+    private int batchSize = 50;
+
+    // 배치가 다 차지 않았을 때 기다리는 시간(ms)
+    private long receiveTimeoutMs = 100;
+
+    // 상품별 단일 writer 레인 수 (productId 해시로 레인 선택), 0 이면 사용하지 않고 컨슈머 스레드에서 바로 처리
+    private int lanes = 0;
+
+    // 같은 요청이 처리 중일 때 지연 큐에서 기다리는 시간(ms), 먼저 들어온 요청이 끝나거나 in-flight TTL 이 지난 뒤 다시 처리
+    private long inProgressRetryDelayMs = 5000;
+
+    // 처리 중 재시도 최대 횟수, 넘으면 결과 전송 없이 DLQ 로 이동 (in-flight TTL 보다 충분히 길게)
+    private int inProgressMaxRetries = 12;
+}
@@ -0,0 +1,22 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 재고 처리 결과(StockResultEvent) 발행 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stock.result")
+public class StockResultPublisherProperties {
+    // 한 번에 발행하고 confirm 을 기다리는 최대 건수
+    private int batchSize = 100;
+
+    // 버퍼 플러시 주기(ms)
+    private long flushIntervalMs = 20;
+
+    // 배치 confirm 대기 시간(ms), 초과하면 재시도 대상
+    private long confirmTimeoutMs = 5_000;
+}
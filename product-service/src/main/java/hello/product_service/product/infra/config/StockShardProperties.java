@@ -0,0 +1,23 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * REDIS_FIRST 상품 재고를 여러 키(stock:{productId}:{shard})에 나눠 담는 샤드 카운터 설정
+ * 설정을 바꾸면 이미 Redis 에 올라간 상품은 load-stock-redis 로 다시 적재해야 새 키 구성이 적용됨
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stock.shard")
+public class StockShardProperties {
+    // false 이면 상품당 키 1개 (stock:{productId})
+    private boolean enabled = false;
+
+    // 상품당 샤드 수
+    private int count = 8;
+
+    // 다른 샤드로 넘어간 상품의 재분배 주기(ms)
+    private long rebalanceIntervalMs = 1000;
+}
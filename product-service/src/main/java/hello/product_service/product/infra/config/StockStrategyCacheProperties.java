@@ -0,0 +1,21 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 상품별 재고 처리 전략(StockStrategy) 메모리 캐시 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stock.strategy-cache")
+public class StockStrategyCacheProperties {
+    // 캐시 유지 시간, 무효화 메시지를 놓친 인스턴스도 이 시간이 지나면 DB 값으로 갱신
+    private Duration ttl = Duration.ofMinutes(5);
+
+    // 전략 변경 알림 채널 (Redis pub/sub), 모든 인스턴스가 같은 값을 사용해야 함
+    private String channel = "stock:strategy:invalidate";
+}
@@ -0,0 +1,31 @@
+package hello.product_service.product.infra.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * REDIS_FIRST 상품의 DB 반영을 비동기로 모아서 처리하는 write-behind 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "stock.write-behind")
+public class StockWriteBehindProperties {
+    // false 이면 기존처럼 주문마다 동기 DB 반영
+    private boolean enabled = false;
+
+    // 예약 로그를 모으는 주기(ms)
+    private long flushIntervalMs = 200;
+
+    // 한 번에 읽어서 반영할 최대 예약 건수
+    private int batchSize = 500;
+
+    // Redis Stream 컨슈머 이름 (인스턴스마다 달라야 미처리 예약이 섞이지 않음, 기본값은 기동마다 새로 생성)
+    private String consumerName = "product-service-" + UUID.randomUUID();
+
+    // 이 시간 이상 ACK 되지 않은 다른 컨슈머의 예약은 죽은 인스턴스의 것으로 보고 가져와서 반영
+    private Duration claimIdleTime = Duration.ofSeconds(30);
+}
@@ -1,51 +1,229 @@
 package hello.product_service.product.infra.rabbitmq;
 
+import hello.product_service.product.exception.IdempotencyInProgressException;
 import hello.product_service.product.exception.InsufficientStockException;
+import hello.product_service.product.model.StockDecreaseOutcome;
+import hello.product_service.product.model.event.BulkStockDecreaseEvent;
 import hello.product_service.product.model.event.StockDecreaseEvent;
 import hello.product_service.product.model.event.StockResultEvent;
 import hello.product_service.product.service.InventoryServiceV2;
+import hello.product_service.product.service.StockWriterLanes;
 import hello.product_service.product.infra.config.RabbitMqConfig;
+import hello.product_service.product.infra.config.StockConsumerProperties;
+import hello.product_service.product.infra.config.StockResultPublisherProperties;
+import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재고 감소 요청 수신 (ACK 는 모두 MANUAL)
+ * 결과 메시지가 브로커에 confirm 된 뒤에 요청 메시지를 ACK/NACK 한다.
+ * -> 결과 발행 전에 프로세스가 죽어도 요청이 재전달되고, 멱등성 저장소의 결과로 같은 결과를 다시 전송
+ * 성공/재고 부족 -> 결과 confirm 후 ACK, 처리 중 -> 지연 큐 발행 confirm 후 ACK,
+ * 시스템 오류 -> SYSTEM_ERROR 결과 confirm 후 NACK(requeue=false) -> DLQ
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class StockDecreaseConsumer {
+    // 처리 중 재시도 횟수 헤더 (지연 큐를 거칠 때마다 1 증가)
+    public static final String IN_PROGRESS_RETRY_HEADER = "x-in-progress-retries";
+
     private final InventoryServiceV2 inventoryService;
     private final StockResultProducer stockResultProducer;
+    private final StockWriterLanes stockWriterLanes;
+    private final RabbitTemplate rabbitTemplate;
+    private final StockConsumerProperties properties;
+    private final StockResultPublisherProperties resultProperties;
 
     @RabbitListener(
         queues = RabbitMqConfig.STOCK_REQUEST_QUEUE,
-        containerFactory = "stockRequestListenerContainerFactory"
+        containerFactory = "stockRequestListenerContainerFactory",
+        autoStartup = "#{!${stock.consumer.batch-enabled:false}}" // 배치 모드에서는 시작하지 않음
     )
-    public void handleStockDecrease(StockDecreaseEvent event) {
+    public void handleStockDecrease(StockDecreaseEvent event,
+                                    @Header(name = IN_PROGRESS_RETRY_HEADER, required = false) Integer retries,
+                                    Channel channel,
+                                    @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) throws IOException {
         log.info("재고 차감 요청 수신 - 주문ID: {}, 상품ID: {}, 수량: {}", event.getOrderId(), event.getProductId(), event.getQuantity());
         try {
-            // 재고 감소 실행
-            inventoryService.decreaseByOrder(
+            // 재고 감소 실행 (레인 사용 시 상품 레인에서 실행하고 결과를 기다림)
+            stockWriterLanes.execute(event.getProductId(), () -> inventoryService.decreaseByOrder(
                 event.getProductId(),
                 event.getOrderId(),
                 event.getQuantity(),
                 event.getRequestId()
-            );
+            ));
 
             // 성공 응답 전송
-            stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), true, null));
+            ackWhenConfirmed(channel, deliveryTag, stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), true, null)));
+
+        } catch (IdempotencyInProgressException e) {
+            // 같은 요청이 처리 중, 먼저 들어온 요청이 실패로 끝날 수 있으므로 잠시 후 다시 처리
+            retryLater(channel, deliveryTag, event, RabbitMqConfig.STOCK_REQUEST_ROUTING_KEY, event.getOrderId(), event.getRequestId(), retries);
 
         } catch (InsufficientStockException e) {
             log.warn("재고 부족 - 주문ID: {}", event.getOrderId());
-            stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), false, "INSUFFICIENT_STOCK"));
+            ackWhenConfirmed(channel, deliveryTag,
+                stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), false, "INSUFFICIENT_STOCK")));
 
         } catch (Exception e) {
             log.error("시스템 장애 - 주문ID: {}", event.getOrderId(), e);
-            stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), false, "SYSTEM_ERROR"));
-            throw new AmqpRejectAndDontRequeueException("재고 차감 처리 실패 - DLQ 이동", e);
+            rejectToDlq(channel, deliveryTag, event.getOrderId());
         }
     }
 
+    /**
+     * 묶음 재고 감소 요청 수신, 여러 상품을 전부 차감하거나 하나도 차감하지 않음
+     * 상품 레인은 상품 단위라 사용하지 않음 (행 잠금 순서는 서비스에서 상품 ID 순으로 고정)
+     * 결과 전송/ACK/DLQ 규칙은 단건 리스너와 같음
+     */
+    @RabbitListener(
+        queues = RabbitMqConfig.STOCK_BULK_REQUEST_QUEUE,
+        containerFactory = "stockRequestListenerContainerFactory"
+    )
+    public void handleBulkStockDecrease(BulkStockDecreaseEvent event,
+                                        @Header(name = IN_PROGRESS_RETRY_HEADER, required = false) Integer retries,
+                                        Channel channel,
+                                        @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) throws IOException {
+        log.info("묶음 재고 차감 요청 수신 - 주문ID: {}, 상품 수: {}", event.getOrderId(), event.getLines() == null ? 0 : event.getLines().size());
+        try {
+            inventoryService.decreaseByOrderBulk(event.getOrderId(), event.getLines(), event.getRequestId());
+            ackWhenConfirmed(channel, deliveryTag, stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), true, null)));
+
+        } catch (IdempotencyInProgressException e) {
+            retryLater(channel, deliveryTag, event, RabbitMqConfig.STOCK_BULK_REQUEST_ROUTING_KEY, event.getOrderId(), event.getRequestId(), retries);
 
+        } catch (InsufficientStockException e) {
+            log.warn("재고 부족 - 주문ID: {}, {}", event.getOrderId(), e.getObject());
+            ackWhenConfirmed(channel, deliveryTag,
+                stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), false, "INSUFFICIENT_STOCK")));
+
+        } catch (Exception e) {
+            log.error("시스템 장애 - 주문ID: {}", event.getOrderId(), e);
+            rejectToDlq(channel, deliveryTag, event.getOrderId());
+        }
+    }
+
+    /**
+     * 배치 수신 (stock.consumer.batch-enabled=true)
+     * 상품별 합계 차감은 서비스에서 처리하고, 결과 전송/ACK 는 단건 리스너와 같은 규칙으로 메시지마다 수행
+     */
+    @RabbitListener(
+        queues = RabbitMqConfig.STOCK_REQUEST_QUEUE,
+        containerFactory = "stockRequestBatchListenerContainerFactory",
+        autoStartup = "${stock.consumer.batch-enabled:false}"
+    )
+    public void handleStockDecreaseBatch(List<Message<StockDecreaseEvent>> messages, Channel channel) throws IOException {
+        List<StockDecreaseEvent> events = messages.stream().map(Message::getPayload).toList();
+        log.info("재고 차감 요청 배치 수신 - 건수: {}", events.size());
+
+        List<StockDecreaseOutcome> outcomes;
+        try {
+            outcomes = inventoryService.decreaseByOrders(events);
+        } catch (Exception e) {
+            log.error("배치 재고 차감 시스템 장애 - 건수: {}", events.size(), e);
+            outcomes = events.stream().map(event -> StockDecreaseOutcome.systemError(event, e)).toList();
+        }
+
+        for (int i = 0; i < messages.size(); i++) {
+            long deliveryTag = (Long) messages.get(i).getHeaders().get(AmqpHeaders.DELIVERY_TAG);
+            StockDecreaseOutcome outcome = outcomes.get(i);
+            StockDecreaseEvent event = outcome.getEvent();
+
+            switch (outcome.getStatus()) {
+                case SUCCESS -> ackWhenConfirmed(channel, deliveryTag,
+                    stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), true, null)));
+                case INSUFFICIENT_STOCK -> {
+                    log.warn("재고 부족 - 주문ID: {}", event.getOrderId());
+                    ackWhenConfirmed(channel, deliveryTag,
+                        stockResultProducer.sendResult(new StockResultEvent(event.getOrderId(), false, "INSUFFICIENT_STOCK")));
+                }
+                case IN_PROGRESS -> retryLater(channel, deliveryTag, event, RabbitMqConfig.STOCK_REQUEST_ROUTING_KEY,
+                    event.getOrderId(), event.getRequestId(), messages.get(i).getHeaders().get(IN_PROGRESS_RETRY_HEADER, Integer.class));
+                default -> {
+                    log.error("시스템 장애 - 주문ID: {}", event.getOrderId(), outcome.getError());
+                    rejectToDlq(channel, deliveryTag, event.getOrderId());
+                }
+            }
+        }
+    }
+
+    /**
+     * 처리 중인 요청을 지연 큐로 보냄, TTL 이 지나면 같은 routing key 로 돌아와 다시 처리
+     * 먼저 들어온 요청이 끝났으면 저장된 결과로, 도중에 죽었으면 in-flight TTL 이후 새로 처리되어 결과가 전송된다.
+     * 지연 큐 발행이 confirm 되면 ACK, 실패하면 바로 다시 큐에 넣음(NACK requeue=true)
+     * 최대 횟수를 넘으면 결과 전송 없이 DLQ
+     */
+    private void retryLater(Channel channel, long deliveryTag, Object event, String routingKey,
+                            Long orderId, String requestId, Integer retries) throws IOException {
+        int attempt = retries == null ? 1 : retries + 1;
+        if (attempt > properties.getInProgressMaxRetries()) {
+            log.error("중복 요청이 계속 처리 중, DLQ 이동 - 주문ID: {}, 요청ID: {}, 재시도: {}", orderId, requestId, retries);
+            channel.basicNack(deliveryTag, false, false);
+            return;
+        }
+
+        try {
+            CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+            rabbitTemplate.convertAndSend(RabbitMqConfig.STOCK_REQUEST_RETRY_EXCHANGE, routingKey, event, message -> {
+                message.getMessageProperties().setHeader(IN_PROGRESS_RETRY_HEADER, attempt);
+                return message;
+            }, correlation);
+
+            CorrelationData.Confirm confirm = correlation.getFuture().get(resultProperties.getConfirmTimeoutMs(), TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                throw new IllegalStateException("지연 큐 발행 NACK - " + confirm.getReason());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            channel.basicNack(deliveryTag, false, true);
+            return;
+        } catch (Exception e) {
+            log.warn("처리 중 재시도 발행 실패, 다시 큐에 넣습니다 - 주문ID: {}, 사유: {}", orderId, e.getMessage());
+            channel.basicNack(deliveryTag, false, true);
+            return;
+        }
+
+        channel.basicAck(deliveryTag, false);
+        log.info("중복 요청 처리 중, {}ms 후 재시도 - 주문ID: {}, 요청ID: {}, 재시도: {}",
+            properties.getInProgressRetryDelayMs(), orderId, requestId, attempt);
+    }
+
+    // SYSTEM_ERROR 결과가 confirm 된 뒤 DLQ 로 이동
+    private void rejectToDlq(Channel channel, long deliveryTag, Long orderId) {
+        CompletableFuture<Void> confirmed = stockResultProducer.sendResult(new StockResultEvent(orderId, false, "SYSTEM_ERROR"));
+        confirmed.whenComplete((ignored, e) -> settle(channel, deliveryTag, false));
+    }
+
+    // 결과가 confirm 된 뒤 ACK (confirm 콜백은 결과 발행 스레드에서 실행)
+    private void ackWhenConfirmed(Channel channel, long deliveryTag, CompletableFuture<Void> confirmed) {
+        confirmed.whenComplete((ignored, e) -> settle(channel, deliveryTag, true));
+    }
+
+    private void settle(Channel channel, long deliveryTag, boolean ack) {
+        try {
+            if (ack) {
+                channel.basicAck(deliveryTag, false);
+            } else {
+                channel.basicNack(deliveryTag, false, false);
+            }
+        } catch (Exception e) {
+            // 채널이 닫혔으면 브로커가 요청을 재전달, 멱등성 결과로 같은 결과를 다시 전송
+            log.warn("요청 메시지 {} 실패 - deliveryTag: {}, 사유: {}", ack ? "ACK" : "NACK", deliveryTag, e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package hello.product_service.product.infra.rabbitmq;
+
+import hello.product_service.product.model.event.StockDecreaseEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 주문 서버가 바이너리로 발행한 재고 감소 요청 디코더 (content-type: application/x-stock-decrease-request-v1)
+ * [version 1B][orderId 8B][productId 8B][quantity 4B][requestId 길이 1B][requestId UTF-8 최대 64B], big-endian
+ * 주문 서버 StockDecreaseRequestBinaryCodec 과 레이아웃이 같아야 함
+ */
+public class StockDecreaseEventBinaryConverter implements MessageConverter {
+    public static final String CONTENT_TYPE = "application/x-stock-decrease-request-v1";
+    private static final int MAX_REQUEST_ID_BYTES = 64;
+    private static final byte VERSION = 1;
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof StockDecreaseEvent event)) {
+            throw new MessageConversionException("지원하지 않는 타입: " + object.getClass().getName());
+        }
+
+        byte[] requestId = event.getRequestId().getBytes(StandardCharsets.UTF_8);
+        if (requestId.length > MAX_REQUEST_ID_BYTES) {
+            throw new MessageConversionException("requestId 길이 초과: " + requestId.length + " bytes");
+        }
+
+        byte[] body = ByteBuffer.allocate(1 + 8 + 8 + 4 + 1 + requestId.length)
+            .put(VERSION)
+            .putLong(event.getOrderId())
+            .putLong(event.getProductId())
+            .putInt(event.getQuantity())
+            .put((byte) requestId.length)
+            .put(requestId)
+            .array();
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        byte[] body = message.getBody();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new MessageConversionException("지원하지 않는 payload 버전: " + version);
+            }
+
+            long orderId = buffer.getLong();
+            long productId = buffer.getLong();
+            int quantity = buffer.getInt();
+            int requestIdLength = Byte.toUnsignedInt(buffer.get());
+            if (buffer.remaining() < requestIdLength) {
+                throw new MessageConversionException("payload 길이 부족: " + body.length + " bytes");
+            }
+            String requestId = new String(body, buffer.position(), requestIdLength, StandardCharsets.UTF_8);
+            return new StockDecreaseEvent(orderId, productId, quantity, requestId);
+        } catch (BufferUnderflowException e) {
+            throw new MessageConversionException("payload 길이 부족: " + body.length + " bytes", e);
+        }
+    }
+}
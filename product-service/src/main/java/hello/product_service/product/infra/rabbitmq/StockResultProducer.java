@@ -1,25 +1,187 @@
 package hello.product_service.product.infra.rabbitmq;
 
-import hello.product_service.product.model.event.StockResultEvent;
 import hello.product_service.product.infra.config.RabbitMqConfig;
-import lombok.RequiredArgsConstructor;
+import hello.product_service.product.infra.config.StockResultPublisherProperties;
+import hello.product_service.product.model.event.StockResultEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 재고 처리 결과 발행
+ * 결과를 로컬 버퍼에 모았다가 배치 단위로 한 채널에서 발행하고, correlated publisher confirm 으로 브로커 수신을 확인한다.
+ * NACK/타임아웃/발행 실패 건은 버퍼에 다시 넣어 다음 주기에 재시도
+ * sendResult 는 브로커 confirm 시 완료되는 future 를 반환, 컨슈머는 이 future 가 완료된 뒤 요청 메시지를 ACK 한다.
+ * -> 발행 전에 프로세스가 죽어 버퍼가 유실되어도 요청이 재전달되어 결과를 다시 전송
+ * 플러시는 confirm 을 최대 confirmTimeoutMs 까지 기다리므로 공용 스케줄러 대신 전용 스레드(stock-result-flusher)에서 실행
+ * 지표 : stock.result.buffer.size, stock.result.pending.confirms, stock.result.publish.latency, stock.result.publish.retries
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class StockResultProducer {
     private final RabbitTemplate rabbitTemplate;
+    private final StockResultPublisherProperties properties;
+
+    private final Queue<PendingResult> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingConfirms = new AtomicInteger();
+    private final Timer publishLatency;
+    private final Counter publishRetries;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "stock-result-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockResultProducer(RabbitTemplate rabbitTemplate,
+                               StockResultPublisherProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.publishLatency = Timer.builder("stock.result.publish.latency")
+            .description("결과 적재부터 브로커 confirm 까지 걸린 시간")
+            .register(meterRegistry);
+        this.publishRetries = Counter.builder("stock.result.publish.retries").register(meterRegistry);
+        Gauge.builder("stock.result.buffer.size", buffer, Queue::size).register(meterRegistry);
+        Gauge.builder("stock.result.pending.confirms", pendingConfirms, AtomicInteger::get).register(meterRegistry);
+        flusher.scheduleWithFixedDelay(this::scheduledFlush,
+            properties.getFlushIntervalMs(), properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 결과를 버퍼에 적재
+     * @return 브로커가 confirm(ACK) 하면 완료되는 future (실패 건은 재시도하므로 예외로 완료되지 않음)
+     */
+    public CompletableFuture<Void> sendResult(StockResultEvent event) {
+        log.info("재고 감소 결과 메시지 버퍼 적재 - 주문ID: {}", event.getOrderId());
+        PendingResult pending = new PendingResult(event, System.nanoTime(), new CompletableFuture<>());
+        buffer.add(pending);
+        return pending.confirmed();
+    }
+
+    // 예외가 나가면 이후 실행이 멈추므로 여기서 잡음
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("결과 메시지 플러시 실패 - 사유: {}", e.getMessage(), e);
+        }
+    }
+
+    public synchronized void flush() {
+        List<PendingResult> retryLater = new ArrayList<>();
+
+        while (true) {
+            List<PendingResult> batch = drain(properties.getBatchSize());
+            if (batch.isEmpty()) {
+                break;
+            }
 
-    public void sendResult(StockResultEvent event) {
-        log.info("재고 감소 결과 메시지 전송 - 주문ID: {}", event.getOrderId());
-        rabbitTemplate.convertAndSend(
-            RabbitMqConfig.ORDER_RESULT_EXCHANGE,
-            RabbitMqConfig.ORDER_RESULT_ROUTING_KEY,
-            event
-        );
+            retryLater.addAll(publishBatch(batch));
+            if (batch.size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+
+        // 실패 건은 다음 주기에 재시도 (브로커 장애 시 바로 재발행하며 도는 것을 방지)
+        if (!retryLater.isEmpty()) {
+            publishRetries.increment(retryLater.size());
+            buffer.addAll(retryLater);
+            log.warn("결과 메시지 발행 실패, 다음 주기에 재시도 - 건수: {}", retryLater.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+        if (!buffer.isEmpty()) {
+            log.error("종료 시 발행하지 못한 결과 메시지 - 건수: {}", buffer.size());
+        }
+    }
+
+    // 한 채널에서 배치를 발행한 뒤 confirm 을 기다림, 실패한 항목 반환
+    private List<PendingResult> publishBatch(List<PendingResult> batch) {
+        List<CorrelationData> correlations = new ArrayList<>(batch.size());
+        List<PendingResult> failed = new ArrayList<>();
+
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (PendingResult pending : batch) {
+                    CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+                    operations.convertAndSend(
+                        RabbitMqConfig.ORDER_RESULT_EXCHANGE,
+                        RabbitMqConfig.ORDER_RESULT_ROUTING_KEY,
+                        pending.event(),
+                        correlation
+                    );
+                    pendingConfirms.incrementAndGet();
+                    correlations.add(correlation);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("결과 메시지 배치 발행 실패 - 사유: {}", e.getMessage());
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getConfirmTimeoutMs());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingResult pending = batch.get(i);
+            if (i >= correlations.size()) {
+                failed.add(pending); // 발행되지 못한 항목
+                continue;
+            }
+
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm = correlations.get(i).getFuture().get(remaining, TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    publishLatency.record(System.nanoTime() - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+                    pending.confirmed().complete(null);
+                } else {
+                    log.warn("결과 메시지 NACK - 주문ID: {}, 사유: {}", pending.event().getOrderId(), confirm.getReason());
+                    failed.add(pending);
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                failed.add(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(pending);
+            } finally {
+                pendingConfirms.decrementAndGet();
+            }
+        }
+
+        return failed;
+    }
+
+    private List<PendingResult> drain(int max) {
+        List<PendingResult> batch = new ArrayList<>(max);
+        PendingResult pending;
+        while (batch.size() < max && (pending = buffer.poll()) != null) {
+            batch.add(pending);
+        }
+        return batch;
+    }
 
+    private record PendingResult(StockResultEvent event, long enqueuedAt, CompletableFuture<Void> confirmed) {
     }
 }
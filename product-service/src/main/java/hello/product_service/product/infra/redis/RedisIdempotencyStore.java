@@ -0,0 +1,225 @@
+package hello.product_service.product.infra.redis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.product_service.product.infra.config.IdempotencyStoreProperties;
+import hello.product_service.product.model.IdempotencyReservation;
+import hello.product_service.product.model.StockResult;
+import hello.product_service.product.service.IdempotencyStore;
+import hello.product_service.product.service.JpaIdempotencyStore;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 기반 멱등성 저장소
+ * 비즈니스 로직 전에 SET NX로 키를 선점(IN_FLIGHT)하므로, 같은 키의 동시 요청이 재고 차감까지 진행되지 않는다.
+ * 처리 결과는 JSON으로 TTL과 함께 저장, 유니크 인덱스 INSERT가 요청 경로에서 빠진다.
+ * 레디스 장애(서킷 오픈) 시 JpaIdempotencyStore로 폴백
+ * 폴백 중 DB에만 저장된 결과는 Redis에 없으므로, 폴백 이후 resultTtl 동안만 새로 선점한 키의 DB 결과를 한 번 더 확인한다.
+ * DB에 결과가 있으면 Redis에 옮겨 적고 완료 결과를 반환, 평소 선점 경로(SET NX)는 DB를 조회하지 않는다.
+ * 선점한 키는 결과 저장/해제 전까지 renewInterval 마다 처리 중 TTL 을 연장 (처리가 in-flight-ttl 보다 길어져도 표시 유지)
+ * 서버가 죽으면 연장이 멈춰 TTL 후 만료되고, 그 뒤 재전달된 요청의 중복 차감은 차감 트랜잭션의 IdempotencyRecord 유니크 제약이 막는다.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class RedisIdempotencyStore implements IdempotencyStore {
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String IN_FLIGHT = "IN_FLIGHT";
+
+    private static final RedisScript<String> RESERVE_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/reserve_idempotency.lua"), String.class);
+    private static final RedisScript<Long> RENEW_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/renew_idempotency.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStoreProperties properties;
+    private final JpaIdempotencyStore jpaIdempotencyStore;
+    // 선점 중인 키 -> 처리 중 표시 연장 작업
+    private final Map<String, Renewal> renewals = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "idempotency-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // DB 폴백으로 결과를 저장한 뒤 이 시각(epoch ms)까지는 새로 선점한 키의 DB 결과를 확인
+    private volatile long fallbackWindowEnd;
+
+    @Override
+    @CircuitBreaker(name = "redisStockBreaker", fallbackMethod = "fallbackReserve")
+    public IdempotencyReservation reserve(String requestId) {
+        String existing = redisTemplate.execute(
+            RESERVE_SCRIPT,
+            List.of(KEY_PREFIX + requestId),
+            IN_FLIGHT,
+            String.valueOf(properties.getInFlightTtl().toSeconds())
+        );
+
+        if (existing == null) {
+            if (System.currentTimeMillis() < fallbackWindowEnd) {
+                IdempotencyReservation stored = fromFallbackStore(requestId);
+                if (stored.getState() == IdempotencyReservation.State.COMPLETED) {
+                    return stored;
+                }
+            }
+            startRenewal(requestId);
+            return IdempotencyReservation.acquired();
+        }
+
+        if (IN_FLIGHT.equals(existing)) {
+            return IdempotencyReservation.inFlight();
+        }
+
+        return IdempotencyReservation.completed(fromJson(existing));
+    }
+
+    @Override
+    @CircuitBreaker(name = "redisStockBreaker", fallbackMethod = "fallbackComplete")
+    public StockResult complete(String requestId, StockResult result) {
+        stopRenewal(requestId);
+        redisTemplate.opsForValue().set(KEY_PREFIX + requestId, toJson(result), properties.getResultTtl());
+        return result;
+    }
+
+    @Override
+    @CircuitBreaker(name = "redisStockBreaker", fallbackMethod = "fallbackRelease")
+    public void release(String requestId) {
+        stopRenewal(requestId);
+        redisTemplate.delete(KEY_PREFIX + requestId);
+    }
+
+    // 폴백 중 DB에 저장된 결과 확인, 있으면 선점한 IN_FLIGHT 키를 결과로 덮어씀
+    private IdempotencyReservation fromFallbackStore(String requestId) {
+        IdempotencyReservation stored = jpaIdempotencyStore.reserve(requestId);
+        if (stored.getState() != IdempotencyReservation.State.COMPLETED) {
+            return IdempotencyReservation.acquired();
+        }
+
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + requestId, toJson(stored.getResult()), properties.getResultTtl());
+        } catch (RuntimeException e) {
+            // 옮겨 적지 못해도 다음 선점에서 다시 DB 결과를 찾음 (IN_FLIGHT 키는 TTL 이후 사라짐)
+            log.warn("DB 멱등성 결과 Redis 반영 실패, requestId = {}, 사유: {}", requestId, e.getMessage());
+        }
+        return stored;
+    }
+
+    public IdempotencyReservation fallbackReserve(String requestId, Throwable t) {
+        log.warn("Redis 멱등성 선점 실패, DB 멱등성으로 전환합니다. requestId = {}, 사유: {}", requestId, t.getMessage());
+        return jpaIdempotencyStore.reserve(requestId);
+    }
+
+    public StockResult fallbackComplete(String requestId, StockResult result, Throwable t) {
+        stopRenewal(requestId);
+        log.warn("Redis 멱등성 저장 실패, DB에 저장합니다. requestId = {}, 사유: {}", requestId, t.getMessage());
+        fallbackWindowEnd = System.currentTimeMillis() + properties.getResultTtl().toMillis();
+        return jpaIdempotencyStore.complete(requestId, result);
+    }
+
+    public void fallbackRelease(String requestId, Throwable t) {
+        stopRenewal(requestId);
+        // 해제하지 못한 키는 처리 중 TTL이 지나면 자동으로 사라짐
+        log.warn("Redis 멱등성 해제 실패, requestId = {}, 사유: {}", requestId, t.getMessage());
+    }
+
+    private void startRenewal(String requestId) {
+        Renewal renewal = new Renewal(requestId, System.nanoTime() + properties.getMaxInFlight().toNanos());
+        Renewal previous = renewals.put(requestId, renewal);
+        if (previous != null) {
+            previous.cancel();
+        }
+        long intervalMs = properties.getRenewInterval().toMillis();
+        renewal.future = renewer.scheduleWithFixedDelay(renewal, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopRenewal(String requestId) {
+        Renewal renewal = renewals.get(requestId);
+        if (renewal != null) {
+            renewal.cancel();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * 처리 중 표시 연장 작업, 키가 처리 중이 아니거나(결과 저장, 만료) maxInFlight 가 지나면 멈춤
+     */
+    private final class Renewal implements Runnable {
+        private final String requestId;
+        private final long deadline;
+        private volatile ScheduledFuture<?> future;
+
+        private Renewal(String requestId, long deadline) {
+            this.requestId = requestId;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            if (System.nanoTime() - deadline >= 0) {
+                log.warn("멱등성 처리 중 표시 연장 시간 초과, 연장을 멈춥니다. requestId = {}", requestId);
+                cancel();
+                return;
+            }
+
+            try {
+                Long renewed = redisTemplate.execute(
+                    RENEW_SCRIPT,
+                    List.of(KEY_PREFIX + requestId),
+                    IN_FLIGHT,
+                    String.valueOf(properties.getInFlightTtl().toSeconds())
+                );
+                if (renewed == null || renewed == 0) {
+                    cancel();
+                }
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 시도, 끝내 연장하지 못하면 TTL 후 만료 (중복 차감은 DB 유니크 제약이 막음)
+                log.warn("멱등성 처리 중 표시 연장 실패, requestId = {}, 사유: {}", requestId, e.getMessage());
+            }
+        }
+
+        private void cancel() {
+            renewals.remove(requestId, this);
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    private String toJson(StockResult result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("멱등성 결과 직렬화 실패", e);
+        }
+    }
+
+    private StockResult fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, StockResult.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("멱등성 결과 역직렬화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package hello.product_service.product.infra.redis;
+
+import hello.product_service.product.infra.config.StockShardProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 샤드 재고 카운터, 상품 재고를 K개의 키(stock:{productId}:{shard})에 나눠 담는다.
+ * 키마다 해시 슬롯이 달라 Redis Cluster 에서는 한 상품의 선점이 여러 노드로 분산된다.
+ * - 선점 : 임의의 샤드 1개에서 원자적으로 차감, 부족하면 나머지 샤드에서 조금씩 모아서 차감 (모자라면 되돌림)
+ * - 재분배 : 다른 샤드로 넘어간 상품을 주기적으로 모아 샤드별 재고를 다시 고르게 맞춤
+ * - 총 재고 : 샤드 합계
+ * 모으기/재분배는 샤드 간 원자성이 없으므로 "먼저 가져오고 나중에 돌려주는" 순서만 사용 -> 중간에 실패해도 초과 판매는 생기지 않음
+ * 지표 : stock.shard.fallbacks, stock.shard.gathers, stock.shard.rebalances, stock.shard.unbalanced
+ */
+@Component
+@Slf4j
+public class ShardedStockCounter implements MeterBinder {
+    private static final String REDIS_STOCK_KEY_PREFIX = "stock:";
+
+    private static final RedisScript<Long> RESERVE_STOCK_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/reserve_stock.lua"), Long.class);
+    private static final RedisScript<Long> RESERVE_STOCK_LOGGED_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/reserve_stock_logged.lua"), Long.class);
+    private static final RedisScript<Long> APPEND_RESERVATION_LOG_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/append_reservation_log.lua"), Long.class);
+    private static final RedisScript<Long> TAKE_STOCK_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/take_stock.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StockShardProperties properties;
+    private final int shards;
+    // 첫 샤드에서 선점하지 못한 상품 (다음 재분배 대상)
+    private final Set<Long> unbalanced = ConcurrentHashMap.newKeySet();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder gathers = new LongAdder();
+    private final LongAdder rebalances = new LongAdder();
+
+    public ShardedStockCounter(RedisTemplate<String, String> redisTemplate, StockShardProperties properties) {
+        if (properties.getCount() <= 0) {
+            throw new IllegalArgumentException("stock.shard.count 는 0보다 커야 합니다.");
+        }
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.shards = properties.getCount();
+    }
+
+    public static String shardKey(Long productId, int shard) {
+        return REDIS_STOCK_KEY_PREFIX + productId + ":" + shard;
+    }
+
+    /**
+     * 재고를 샤드에 고르게 나눠 적재, 단일 키(stock:{productId})는 삭제
+     */
+    public void initialize(Long productId, int stock) {
+        for (int i = 0; i < shards; i++) {
+            redisTemplate.opsForValue().set(shardKey(productId, i), String.valueOf(share(stock, i)));
+        }
+        redisTemplate.delete(REDIS_STOCK_KEY_PREFIX + productId);
+        log.info("REDIS shard initialize, productId = {}, stock = {}, shards = {}", productId, stock, shards);
+    }
+
+    /**
+     * 재고 선점
+     * @return 선점한 샤드의 남은 재고 (여러 샤드에서 모은 경우 전체 합계), 부족 시 -(모은 재고 합계)-1
+     */
+    public Long reserve(Long productId, int quantity) {
+        return reserve(productId, quantity,
+            key -> redisTemplate.execute(RESERVE_STOCK_SCRIPT, List.of(key), String.valueOf(quantity)),
+            null);
+    }
+
+    /**
+     * write-behind 모드의 재고 선점, 샤드 1개에서 선점하면 차감과 예약 로그를 한 스크립트로 기록
+     * 여러 샤드에서 모은 경우 로그는 모은 뒤 따로 기록 (기록 실패 시 되돌림, 그 사이 서버가 죽으면 Redis 재고만 줄어듦 -> 초과 판매 없음)
+     */
+    public Long reserveWithLog(Long productId, int quantity, Long orderId, String requestId) {
+        String order = orderId == null ? "" : String.valueOf(orderId);
+        return reserve(productId, quantity,
+            key -> redisTemplate.execute(RESERVE_STOCK_LOGGED_SCRIPT,
+                List.of(key, StockReservationLog.STREAM_KEY, StockReservationLog.UNFLUSHED_KEY),
+                String.valueOf(quantity), String.valueOf(productId), order, requestId),
+            () -> redisTemplate.execute(APPEND_RESERVATION_LOG_SCRIPT,
+                List.of(StockReservationLog.STREAM_KEY, StockReservationLog.UNFLUSHED_KEY),
+                String.valueOf(quantity), String.valueOf(productId), order, requestId));
+    }
+
+    private Long reserve(Long productId, int quantity, Function<String, Long> reserveOnShard, Runnable afterGather) {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        Long remaining = reserveOnShard.apply(shardKey(productId, start));
+        if (remaining != null && remaining >= 0) {
+            return remaining;
+        }
+
+        // 이 샤드만으로는 부족 -> 다음 샤드부터 돌면서 모음
+        fallbacks.increment();
+        unbalanced.add(productId);
+        return gather(productId, quantity, start + 1, afterGather);
+    }
+
+    private Long gather(Long productId, int quantity, int from, Runnable afterGather) {
+        int[] taken = new int[shards];
+        int total = 0;
+        for (int i = 0; i < shards && total < quantity; i++) {
+            int shard = (from + i) % shards;
+            taken[shard] = take(productId, shard, quantity - total);
+            total += taken[shard];
+        }
+
+        if (total < quantity) {
+            giveBack(productId, taken);
+            return -1L - total;
+        }
+
+        if (afterGather != null) {
+            try {
+                afterGather.run();
+            } catch (RuntimeException e) {
+                giveBack(productId, taken);
+                throw e;
+            }
+        }
+        gathers.increment();
+        return total(productId);
+    }
+
+    /**
+     * 재고 복구 (임의의 샤드에 INCRBY)
+     * @return 복구한 샤드의 재고
+     */
+    public Long restore(Long productId, int quantity) {
+        String key = shardKey(productId, ThreadLocalRandom.current().nextInt(shards));
+        log.info("REDIS INCRBY, key = {}, quantity = {}", key, quantity);
+        return redisTemplate.opsForValue().increment(key, quantity);
+    }
+
+    /**
+     * 총 재고 (샤드 합계)
+     */
+    public long total(Long productId) {
+        long total = 0;
+        for (long stock : read(productId)) {
+            total += stock;
+        }
+        return total;
+    }
+
+    /**
+     * 총 재고 (샤드 합계), 적재되지 않은 샤드(키 없음)가 있으면 null
+     * total 은 키 없는 샤드를 0으로 세므로 적재 전 상품이 매진처럼 보임 -> SoldOutGate 기록은 이 값만 사용
+     */
+    public Long loadedTotal(Long productId) {
+        long total = 0;
+        for (int i = 0; i < shards; i++) {
+            String value = redisTemplate.opsForValue().get(shardKey(productId, i));
+            if (!StringUtils.hasText(value)) {
+                return null;
+            }
+            total += Long.parseLong(value);
+        }
+        return total;
+    }
+
+    /**
+     * 샤드별 재고를 다시 고르게 맞춤
+     * 목표보다 많은 샤드에서 먼저 가져온 뒤(TAKE), 모자란 샤드에 돌려줌(INCRBY), 가져온 만큼만 돌려주므로 합계는 유지
+     */
+    public void rebalance(Long productId) {
+        long[] stocks = read(productId);
+        long total = 0;
+        for (long stock : stocks) {
+            total += stock;
+        }
+
+        long pool = 0;
+        for (int i = 0; i < shards; i++) {
+            long surplus = stocks[i] - share(total, i);
+            if (surplus > 0) {
+                int taken = take(productId, i, (int) Math.min(surplus, Integer.MAX_VALUE));
+                stocks[i] -= taken;
+                pool += taken;
+            }
+        }
+
+        for (int i = 0; i < shards && pool > 0; i++) {
+            long deficit = share(total, i) - stocks[i];
+            if (deficit > 0) {
+                long give = Math.min(deficit, pool);
+                redisTemplate.opsForValue().increment(shardKey(productId, i), give);
+                pool -= give;
+            }
+        }
+
+        // 그 사이 선점/복구로 값이 바뀌어 남은 수량은 첫 샤드에 반환
+        if (pool > 0) {
+            redisTemplate.opsForValue().increment(shardKey(productId, 0), pool);
+        }
+        rebalances.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${stock.shard.rebalance-interval-ms:1000}")
+    public void rebalanceUnbalanced() {
+        if (!properties.isEnabled() || unbalanced.isEmpty()) {
+            return;
+        }
+
+        Iterator<Long> iterator = unbalanced.iterator();
+        while (iterator.hasNext()) {
+            Long productId = iterator.next();
+            iterator.remove();
+            try {
+                rebalance(productId);
+            } catch (Exception e) {
+                log.warn("샤드 재분배 실패, 다음 주기에 재시도합니다. productId = {}, 사유: {}", productId, e.getMessage());
+                unbalanced.add(productId);
+                return;
+            }
+        }
+    }
+
+    private int take(Long productId, int shard, int quantity) {
+        Long taken = redisTemplate.execute(TAKE_STOCK_SCRIPT, List.of(shardKey(productId, shard)), String.valueOf(quantity));
+        return taken == null ? 0 : taken.intValue();
+    }
+
+    private void giveBack(Long productId, int[] taken) {
+        for (int shard = 0; shard < shards; shard++) {
+            if (taken[shard] > 0) {
+                redisTemplate.opsForValue().increment(shardKey(productId, shard), taken[shard]);
+            }
+        }
+    }
+
+    // 샤드 키는 슬롯이 달라 MGET 대신 키별 GET
+    private long[] read(Long productId) {
+        long[] stocks = new long[shards];
+        for (int i = 0; i < shards; i++) {
+            String value = redisTemplate.opsForValue().get(shardKey(productId, i));
+            stocks[i] = StringUtils.hasText(value) ? Long.parseLong(value) : 0;
+        }
+        return stocks;
+    }
+
+    // total 을 샤드 수로 나눈 몫, 나머지는 앞 샤드부터 1개씩
+    private long share(long total, int shard) {
+        return total / shards + (shard < total % shards ? 1 : 0);
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public long fallbackCount() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stock.shard.fallbacks", fallbacks, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stock.shard.gathers", gathers, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stock.shard.rebalances", rebalances, LongAdder::sum).register(registry);
+        Gauge.builder("stock.shard.unbalanced", unbalanced, Set::size).register(registry);
+    }
+}
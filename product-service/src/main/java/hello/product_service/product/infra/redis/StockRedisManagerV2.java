@@ -1,14 +1,22 @@
 package hello.product_service.product.infra.redis;
 
+import hello.product_service.product.infra.cache.SoldOutGate;
+import hello.product_service.product.infra.config.StockShardProperties;
+import hello.product_service.product.infra.config.StockWriteBehindProperties;
 import hello.product_service.product.repository.ProductRepository;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -20,48 +28,146 @@ public class StockRedisManagerV2 {
     private final RedisTemplate<String, String> redisTemplate;
     private final ProductRepository productRepository;
     private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final StockShardProperties shardProperties;
+    private final ShardedStockCounter shardedStockCounter;
+    private final SoldOutGate soldOutGate;
+    private final StockWriteBehindProperties writeBehindProperties;
+    private final StockReservationLog reservationLog;
     private static final String REDIS_STOCK_KEY_PREFIX = "stock:";
 
+    // 검증 + 차감을 한 번의 호출로 처리하는 Lua 스크립트, SHA1은 스크립트 객체가 캐싱 (EVALSHA 우선 사용)
+    private static final RedisScript<Long> RESERVE_STOCK_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/reserve_stock.lua"), Long.class);
+
+    // 선점 + 예약 로그 기록 스크립트 (write-behind 모드)
+    private static final RedisScript<Long> RESERVE_STOCK_LOGGED_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/reserve_stock_logged.lua"), Long.class);
+
     /**
-     * Redis DECRBY를 이용한 재고 선점
-     * 재고가 부족하면 복구(INCRBY) 후 실패(-1L)를 반환
+     * Lua 스크립트를 이용한 재고 선점
+     * 재고 검증과 DECRBY를 Redis 서버에서 원자적으로 수행 -> 음수 재고가 외부에 노출되지 않고, 실패 시 복구(INCRBY) 왕복이 없음
+     * 로컬에 알려진 재고보다 많이 요청하면 Redis 호출 없이 바로 실패 (SoldOutGate)
      * 레디스 장애시 폴백 메서드 실행 후 (-999L) 반환
      * @return 감소 후 남은 재고 수량. 실패 시 -1L, 레디스 장애 시 -999L
      */
     @CircuitBreaker(name = "redisStockBreaker", fallbackMethod = "fallbackForRedis")
     public Long reserveStock(Long productId, int quantity) {
+        if (soldOutGate.rejects(productId, quantity)) {
+            return -1L;
+        }
+
         String key = REDIS_STOCK_KEY_PREFIX + productId;
+        refreshIfHalfOpen(productId);
 
-        // 서킷 브레이커 가져옴
-        io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker
-            = circuitBreakerRegistry.circuitBreaker("redisStockBreaker");
+        // 재고가 충분할 때만 차감, 부족하면 -(현재 재고 + 1) 반환 (한 번의 왕복, 샤드 모드는 샤드 1개에서 선점)
+        Long remainingStock = shardProperties.isEnabled()
+            ? shardedStockCounter.reserve(productId, quantity)
+            : redisTemplate.execute(RESERVE_STOCK_SCRIPT, List.of(key), soldOutArgs(productId, String.valueOf(quantity)));
+        log.info("REDIS RESERVE SCRIPT, key = {}, remainingStock = {}", key, remainingStock);
 
-        // 상태 확인, HALF_OPEN(복구 시도 중) 경우 DB와 동기화
-        if (circuitBreaker.getState() == io.github.resilience4j.circuitbreaker.CircuitBreaker.State.HALF_OPEN) {
-            log.info("서킷 상태가 {}이거나 키가 없어 DB 동기화를 진행합니다. (상품ID: {})", circuitBreaker.getState(), productId);
-            refreshStockFromDB(productId);
+        return recordResult(productId, remainingStock);
+    }
+
+    /**
+     * write-behind 모드의 재고 선점
+     * 차감과 예약 로그 기록(XADD)을 하나의 Lua 스크립트로 수행, DB 반영은 StockWriteBehindFlusher가 담당
+     * @return 감소 후 남은 재고 수량. 실패 시 -1L, 레디스 장애 시 -999L
+     */
+    @CircuitBreaker(name = "redisStockBreaker", fallbackMethod = "fallbackForRedisWithLog")
+    public Long reserveStockWithLog(Long productId, int quantity, Long orderId, String requestId) {
+        if (soldOutGate.rejects(productId, quantity)) {
+            return -1L;
         }
 
+        String key = REDIS_STOCK_KEY_PREFIX + productId;
+        refreshIfHalfOpen(productId);
+
+        Long remainingStock = shardProperties.isEnabled()
+            ? shardedStockCounter.reserveWithLog(productId, quantity, orderId, requestId)
+            : redisTemplate.execute(
+                RESERVE_STOCK_LOGGED_SCRIPT,
+                List.of(key, StockReservationLog.STREAM_KEY, StockReservationLog.UNFLUSHED_KEY),
+                soldOutArgs(productId,
+                    String.valueOf(quantity),
+                    String.valueOf(productId),
+                    orderId == null ? "" : String.valueOf(orderId),
+                    requestId)
+            );
+        log.info("REDIS RESERVE SCRIPT(LOG), key = {}, remainingStock = {}, requestId = {}", key, remainingStock, requestId);
+
+        return recordResult(productId, remainingStock);
+    }
 
-        // Redis의 DECRBY 감소 후 값을 반환
-        Long remainingStock = redisTemplate.opsForValue().decrement(key, quantity);
-        log.info("REDIS DECRBY, key = {}, remainingStock = {}", key, remainingStock);
+    // 스크립트 인자 뒤에 매진 알림 채널, 메시지 추가 (게이트를 쓰지 않으면 그대로)
+    private Object[] soldOutArgs(Long productId, String... args) {
+        String channel = soldOutGate.soldOutChannel();
+        if (channel == null) {
+            return args;
+        }
+
+        List<String> result = new ArrayList<>(List.of(args));
+        result.add(channel);
+        result.add(soldOutGate.message(productId));
+        return result.toArray();
+    }
+
+    // 스크립트 결과를 게이트에 기록 (성공 : 남은 재고, 부족 : -(현재 재고 + 1))
+    // 샤드 모드의 결과는 기록하지 않음 (성공 값은 샤드 1개의 재고, 부족 값은 다른 요청과 겹쳐 모은 부분 합계이거나 키 없음)
+    // 샤드 모드는 부족할 때만 샤드 합계를 다시 읽어 기록
+    private Long recordResult(Long productId, Long remainingStock) {
+        if (remainingStock == null) {
+            return -1L;
+        }
 
-        if (remainingStock != null && remainingStock < 0) {
-            // 재고 부족 시 롤백, quantity만큼 증가
-            redisTemplate.opsForValue().increment(key, quantity);
+        if (remainingStock < 0) {
+            if (shardProperties.isEnabled()) {
+                recordShardTotal(productId);
+            } else {
+                soldOutGate.update(productId, -remainingStock - 1);
+            }
             return -1L; // 재고 부족 실패 코드
         }
 
+        if (!shardProperties.isEnabled()) {
+            soldOutGate.update(productId, remainingStock);
+        }
         return remainingStock; // 성공 시 남은 재고 반환
     }
 
+    // 적재되지 않은 샤드가 있으면 재고를 알 수 없으므로 기록하지 않음
+    // 조회 실패는 선점 실패(재고 부족) 결과를 바꾸지 않도록 로그만 남김
+    private void recordShardTotal(Long productId) {
+        try {
+            Long total = shardedStockCounter.loadedTotal(productId);
+            if (total != null) {
+                soldOutGate.update(productId, total);
+            }
+        } catch (RuntimeException e) {
+            log.warn("샤드 재고 합계 조회 실패, 매진 게이트 기록 건너뜀. productId = {}, 사유: {}", productId, e.getMessage());
+        }
+    }
+
+    // 서킷 상태 확인, HALF_OPEN(복구 시도 중) 경우 DB와 동기화
+    private void refreshIfHalfOpen(Long productId) {
+        io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker
+            = circuitBreakerRegistry.circuitBreaker("redisStockBreaker");
+
+        if (circuitBreaker.getState() == io.github.resilience4j.circuitbreaker.CircuitBreaker.State.HALF_OPEN) {
+            log.info("서킷 상태가 {}이거나 키가 없어 DB 동기화를 진행합니다. (상품ID: {})", circuitBreaker.getState(), productId);
+            refreshStockFromDB(productId);
+        }
+    }
+
     // DB에서 최신 재고를 읽어 Redis에 갱신하는 메서드
+    // write-behind 모드는 DB에 아직 반영되지 않은 예약(미반영 수량 카운터)을 빼고 적재 (빼지 않으면 그만큼 초과 판매)
+    // 카운터를 DB보다 먼저 읽음 -> 그 사이 플러시된 예약은 두 번 빠질 수는 있어도(과소 판매) 빠지지 않는 경우는 없음
     private void refreshStockFromDB(Long productId) {
+        long unflushed = writeBehindProperties.isEnabled() ? reservationLog.unflushedQuantity(productId) : 0;
         // DB 재고 조회 (실제로는 Product 엔티티의 stock 필드)
         int dbStock = productRepository.findStockById(productId);
-        redisTemplate.opsForValue().set("stock:" + productId, String.valueOf(dbStock));
-        log.info("Redis 재고 동기화 완료: 상품 {} -> 재고 {}개", productId, dbStock);
+        int stock = (int) Math.max(0, dbStock - unflushed);
+        initializeStock(productId, stock);
+        log.info("Redis 재고 동기화 완료: 상품 {} -> 재고 {}개 (DB {}개, 미반영 예약 {}개)", productId, stock, dbStock, unflushed);
     }
 
 
@@ -70,23 +176,42 @@ public class StockRedisManagerV2 {
      * @return 복구 후 재고 수량.
      */
     public Long restoreStock(Long productId, int quantity) {
-        String key = REDIS_STOCK_KEY_PREFIX + productId;
-        log.info("REDIS INCRBY, key = {}, quantity = {}", key, quantity);
+        Long stock;
+        if (shardProperties.isEnabled()) {
+            stock = shardedStockCounter.restore(productId, quantity);
+        } else {
+            String key = REDIS_STOCK_KEY_PREFIX + productId;
+            log.info("REDIS INCRBY, key = {}, quantity = {}", key, quantity);
+
+            // INCRBY를 통해 재고 증가
+            stock = redisTemplate.opsForValue().increment(key, quantity);
+        }
 
-        // INCRBY를 통해 재고 증가
-        return redisTemplate.opsForValue().increment(key, quantity);
+        // 재고가 늘었으므로 로컬에 알려진 재고 제거 (다른 인스턴스 포함)
+        soldOutGate.restocked(productId);
+        return stock;
     }
 
     /**
      * Redis 초기화
      */
     public void initializeStock(Long productId, int initialStock) {
-        String key = REDIS_STOCK_KEY_PREFIX + productId;
-        log.info("REDIS initialize, key = {}, productId = {}, initialStock = {}", key, productId, initialStock);
-        redisTemplate.opsForValue().set(key, String.valueOf(initialStock));
+        if (shardProperties.isEnabled()) {
+            shardedStockCounter.initialize(productId, initialStock);
+        } else {
+            String key = REDIS_STOCK_KEY_PREFIX + productId;
+            log.info("REDIS initialize, key = {}, productId = {}, initialStock = {}", key, productId, initialStock);
+            redisTemplate.opsForValue().set(key, String.valueOf(initialStock));
+        }
+        soldOutGate.restocked(productId);
     }
 
     public Long findStock(Long productId) {
+        // 샤드 모드는 샤드 합계
+        if (shardProperties.isEnabled()) {
+            return shardedStockCounter.total(productId);
+        }
+
         String key = REDIS_STOCK_KEY_PREFIX + productId;
 
         // 1. Redis에서 문자열 값을 가져옴.
@@ -106,4 +231,9 @@ public class StockRedisManagerV2 {
         return -999L; // Redis 장애를 알리는 특수 코드
     }
 
+    public Long fallbackForRedisWithLog(Long productId, int quantity, Long orderId, String requestId, Throwable t) {
+        log.error("Redis 연결 실패! 서킷 브레이커 작동. DB 직접 처리로 전환합니다. 사유: {}", t.getMessage());
+        return -999L;
+    }
+
 }
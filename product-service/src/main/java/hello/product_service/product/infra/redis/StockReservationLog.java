@@ -0,0 +1,149 @@
+package hello.product_service.product.infra.redis;
+
+import hello.product_service.product.infra.config.StockWriteBehindProperties;
+import hello.product_service.product.model.StockReservation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * write-behind 예약 로그 (Redis Stream + Consumer Group)
+ * 읽었지만 ACK 하지 않은 예약은 Pending 목록에 남아 있어 장애 후 다시 읽을 수 있다.
+ * 로그의 내구성은 Redis AOF 설정(appendonly yes)에 의존한다.
+ * 컨슈머 이름은 인스턴스마다 다르며, 죽은 인스턴스의 Pending 예약은 claimIdleTime 이 지나면 살아 있는 인스턴스가 가져간다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationLog {
+    public static final String STREAM_KEY = "stock:reservation-log";
+    public static final String GROUP = "stock-write-behind";
+    // 상품별 미반영 예약 수량 (선점 스크립트에서 증가, ACK 시 감소)
+    public static final String UNFLUSHED_KEY = "stock:reservation-unflushed";
+
+    private static final RedisScript<Long> CLAIM_IDLE_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/claim_idle_reservations.lua"), Long.class);
+    private static final RedisScript<Long> ACK_SCRIPT =
+        RedisScript.of(new ClassPathResource("scripts/ack_reservations.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StockWriteBehindProperties properties;
+
+    /**
+     * 컨슈머 그룹 생성 (스트림이 없으면 함께 생성), 이미 있으면 무시
+     */
+    public void ensureGroup() {
+        try {
+            redisTemplate.opsForStream().createGroup(STREAM_KEY, ReadOffset.from("0"), GROUP);
+            log.info("예약 로그 컨슈머 그룹 생성, stream = {}, group = {}", STREAM_KEY, GROUP);
+        } catch (DataAccessException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message == null || !message.contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 아직 아무 컨슈머에게도 전달되지 않은 신규 예약 조회
+     */
+    public List<StockReservation> readNew(int count) {
+        return read(ReadOffset.lastConsumed(), count);
+    }
+
+    /**
+     * 이 컨슈머가 읽었지만 ACK 하지 못한 예약 조회 (afterId 이후부터)
+     */
+    public List<StockReservation> readPending(String afterId, int count) {
+        return read(ReadOffset.from(afterId), count);
+    }
+
+    /**
+     * 다른 컨슈머가 claimIdleTime 이상 ACK 하지 못한 예약을 이 컨슈머의 Pending 으로 옮김
+     * 옮긴 예약은 readPending 으로 다시 읽어 반영한다.
+     * @return 가져온 예약 건수
+     */
+    public long claimIdle(int count) {
+        Long claimed = redisTemplate.execute(
+            CLAIM_IDLE_SCRIPT,
+            List.of(STREAM_KEY),
+            GROUP,
+            properties.getConsumerName(),
+            String.valueOf(properties.getClaimIdleTime().toMillis()),
+            String.valueOf(count)
+        );
+        return claimed == null ? 0 : claimed;
+    }
+
+    /**
+     * DB 반영이 끝난 예약 ACK 후 스트림에서 삭제, 상품별 미반영 수량도 함께 줄임
+     */
+    public void acknowledge(Collection<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        List<String> args = new ArrayList<>(reservations.size() * 3 + 1);
+        args.add(GROUP);
+        for (StockReservation reservation : reservations) {
+            args.add(reservation.getLogId());
+            args.add(String.valueOf(reservation.getProductId()));
+            args.add(String.valueOf(reservation.getQuantity()));
+        }
+        redisTemplate.execute(ACK_SCRIPT, List.of(STREAM_KEY, UNFLUSHED_KEY), args.toArray());
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 상품의 예약 수량 합계 (신규 + Pending)
+     * 선점 스크립트가 로그와 함께 올리고 ACK 스크립트가 내리는 카운터를 읽으므로 스트림을 읽지 않는다.
+     */
+    public long unflushedQuantity(Long productId) {
+        Object value = redisTemplate.opsForHash().get(UNFLUSHED_KEY, String.valueOf(productId));
+        return value == null ? 0 : Math.max(0, Long.parseLong((String) value));
+    }
+
+    private List<StockReservation> read(ReadOffset offset, int count) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+            Consumer.from(GROUP, properties.getConsumerName()),
+            StreamReadOptions.empty().count(count),
+            StreamOffset.create(STREAM_KEY, offset)
+        );
+
+        if (records == null) {
+            return List.of();
+        }
+
+        return records.stream()
+            .map(this::toReservation)
+            .toList();
+    }
+
+    private StockReservation toReservation(MapRecord<String, Object, Object> record) {
+        Map<Object, Object> value = record.getValue();
+        String orderId = (String) value.get("orderId");
+
+        return new StockReservation(
+            record.getId().getValue(),
+            Long.parseLong((String) value.get("productId")),
+            Integer.parseInt((String) value.get("quantity")),
+            StringUtils.hasText(orderId) ? Long.parseLong(orderId) : null,
+            (String) value.get("requestId")
+        );
+    }
+}
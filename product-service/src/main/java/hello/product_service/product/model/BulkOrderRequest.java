@@ -0,0 +1,11 @@
+package hello.product_service.product.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkOrderRequest {
+    private Long orderId;
+    private List<StockLine> lines;
+}
@@ -0,0 +1,31 @@
+package hello.product_service.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 멱등성 키 선점 결과
+ * ACQUIRED  : 이번 요청이 키를 선점, 비즈니스 로직 수행
+ * IN_FLIGHT : 같은 키의 요청이 처리 중
+ * COMPLETED : 이미 처리 완료, result 반환
+ */
+@Getter
+@AllArgsConstructor
+public class IdempotencyReservation {
+    public enum State { ACQUIRED, IN_FLIGHT, COMPLETED }
+
+    private final State state;
+    private final StockResult result;
+
+    public static IdempotencyReservation acquired() {
+        return new IdempotencyReservation(State.ACQUIRED, null);
+    }
+
+    public static IdempotencyReservation inFlight() {
+        return new IdempotencyReservation(State.IN_FLIGHT, null);
+    }
+
+    public static IdempotencyReservation completed(StockResult result) {
+        return new IdempotencyReservation(State.COMPLETED, result);
+    }
+}
@@ -0,0 +1,15 @@
+package hello.product_service.product.model;
+
+import hello.product_service.product.domain.StockStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 상품 ID와 재고 처리 전략 (StockStrategyRegistry 초기 적재용)
+ */
+@Getter
+@AllArgsConstructor
+public class ProductStockStrategy {
+    private Long productId;
+    private StockStrategy stockStrategy;
+}
@@ -0,0 +1,36 @@
+package hello.product_service.product.model;
+
+import hello.product_service.product.model.event.StockDecreaseEvent;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 배치 재고 감소의 주문별 처리 결과
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StockDecreaseOutcome {
+    public enum Status { SUCCESS, INSUFFICIENT_STOCK, IN_PROGRESS, SYSTEM_ERROR }
+
+    private final StockDecreaseEvent event;
+    private final Status status;
+    private final StockResult result;
+    private final Exception error;
+
+    public static StockDecreaseOutcome success(StockDecreaseEvent event, StockResult result) {
+        return new StockDecreaseOutcome(event, Status.SUCCESS, result, null);
+    }
+
+    public static StockDecreaseOutcome insufficientStock(StockDecreaseEvent event) {
+        return new StockDecreaseOutcome(event, Status.INSUFFICIENT_STOCK, null, null);
+    }
+
+    public static StockDecreaseOutcome inProgress(StockDecreaseEvent event) {
+        return new StockDecreaseOutcome(event, Status.IN_PROGRESS, null, null);
+    }
+
+    public static StockDecreaseOutcome systemError(StockDecreaseEvent event, Exception error) {
+        return new StockDecreaseOutcome(event, Status.SYSTEM_ERROR, null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package hello.product_service.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 묶음 재고 감소의 상품 한 줄 (상품 + 수량)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLine {
+    private Long productId;
+    private int quantity;
+}
@@ -0,0 +1,17 @@
+package hello.product_service.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Redis 예약 로그 한 건 (Redis 선점은 끝났고 DB 반영을 기다리는 재고 차감)
+ */
+@Data
+@AllArgsConstructor
+public class StockReservation {
+    private String logId; // Redis Stream 레코드 ID
+    private Long productId;
+    private int quantity;
+    private Long orderId;
+    private String requestId;
+}
@@ -4,11 +4,13 @@ import hello.product_service.product.domain.IdempotencyRecord;
 import hello.product_service.product.domain.IdempotencyStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Data
 @ToString
 @AllArgsConstructor
+@NoArgsConstructor
 public class StockResult {
     private boolean success;
     private Integer remainingStock;
@@ -0,0 +1,21 @@
+package hello.product_service.product.model.event;
+
+import hello.product_service.product.model.StockLine;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 여러 상품을 한 번에 차감하는 재고 감소 요청 (전부 성공 또는 전부 실패)
+ * 결과는 단건 요청과 같이 주문 단위 StockResultEvent 로 전송
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockDecreaseEvent {
+    private Long orderId;
+    private List<StockLine> lines;
+    private String requestId;
+}
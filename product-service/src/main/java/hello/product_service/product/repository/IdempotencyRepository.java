@@ -1,11 +1,28 @@
 package hello.product_service.product.repository;
 
 import hello.product_service.product.domain.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface IdempotencyRepository extends JpaRepository<IdempotencyRecord, Long> {
     Optional<IdempotencyRecord> findByRequestId(String requestId);
 
+    // 보관 기간이 지난 레코드 ID (createAt 인덱스 범위 조회, 배치 크기만큼)
+    @Query("select r.id from IdempotencyRecord r where r.createAt < :cutoff order by r.createAt")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from IdempotencyRecord r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    Optional<IdempotencyRecord> findTopByOrderByCreateAtAsc();
+
 }
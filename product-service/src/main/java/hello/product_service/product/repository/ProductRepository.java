@@ -2,11 +2,14 @@ package hello.product_service.product.repository;
 
 import hello.product_service.product.domain.Product;
 import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.model.ProductStockStrategy;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+
 public interface ProductRepository extends JpaRepository<Product, Long> {
     @Modifying
     @Query("UPDATE Product p SET p.stock = p.stock - :qty WHERE p.id=:productId AND p.stock >= :qty")
@@ -25,6 +28,10 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("select p.stockStrategy from Product p where p.id = :productId")
     StockStrategy findStockStrategyById(@Param("productId") Long productId); // 재고 전략 조회
 
+    // 전체 상품의 재고 전략 (StockStrategyRegistry 시작 시 적재)
+    @Query("select new hello.product_service.product.model.ProductStockStrategy(p.id, p.stockStrategy) from Product p where p.stockStrategy is not null")
+    List<ProductStockStrategy> findAllStockStrategies();
+
     @Query("select p.stock from Product p where p.id = :productId")
     int findStockById(@Param("productId") Long productId);
 }
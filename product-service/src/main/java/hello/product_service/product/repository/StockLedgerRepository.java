@@ -2,6 +2,14 @@ package hello.product_service.product.repository;
 
 import hello.product_service.product.domain.StockLedger;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface StockLedgerRepository extends JpaRepository<StockLedger, Long> {
+    // 이미 원장에 기록된 요청 ID 조회 (write-behind 재처리 시 중복 반영 방지)
+    @Query("select l.requestId from StockLedger l where l.requestId in :requestIds")
+    List<String> findRequestIdsIn(@Param("requestIds") Collection<String> requestIds);
 }
@@ -0,0 +1,283 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.cache.StockStrategyRegistry;
+import hello.product_service.product.infra.config.HotProductDetectorProperties;
+import hello.product_service.product.infra.config.StockWriteBehindProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * 인기 상품 자동 감지
+ * 상품별 차감 요청 수를 슬라이딩 윈도우로 세고, 판정 주기마다
+ * - DB_ONLY 상품이 promoteRatePerSecond 이상이면 REDIS_FIRST 로 승격 (ProductService.loadInitStockRedis)
+ * - 자동 승격한 상품이 demoteRatePerSecond 이하로 coolDown 동안 유지되면 DB_ONLY 로 강등
+ * 관리자가 직접 올린 REDIS_FIRST 상품은 강등하지 않음
+ * 자동 승격 표시는 Redis set(promotedKey)에 남겨 재시작해도 유지되고, 여러 인스턴스가 동시에 판정해도
+ * set 에 먼저 추가한 인스턴스만 Redis 재고를 적재(승격)하고 먼저 지운 인스턴스만 강등
+ * write-behind 사용 중에는 승격/강등하지 않음 (Redis 선점만으로 응답하므로 전환 중 Redis-DB 차이가 초과 판매로 이어질 수 있음)
+ * 지표 : stock.hot.decisions{decision=promote|demote}, stock.hot.decision.failures, stock.hot.dropped,
+ *       stock.hot.tracked, stock.hot.promoted, stock.hot.threshold{type=promote|demote}
+ */
+@Component
+@Slf4j
+public class HotProductDetector implements MeterBinder {
+    private final Map<Long, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    // 자동 승격한 상품 -> 마지막으로 강등 기준보다 바빴던 시각(ns), 판정 주기마다 Redis 표시와 맞춤
+    private final Map<Long, Long> promoted = new ConcurrentHashMap<>();
+    private final LongAdder promotions = new LongAdder();
+    private final LongAdder demotions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final HotProductDetectorProperties properties;
+    private final StockWriteBehindProperties writeBehindProperties;
+    private final StockStrategyRegistry stockStrategyRegistry;
+    private final ProductService productService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LongSupplier ticker;
+    private final long bucketNanos;
+    private final double windowSeconds;
+
+    @Autowired
+    public HotProductDetector(HotProductDetectorProperties properties,
+                              StockWriteBehindProperties writeBehindProperties,
+                              StockStrategyRegistry stockStrategyRegistry,
+                              ProductService productService,
+                              RedisTemplate<String, String> redisTemplate) {
+        this(properties, writeBehindProperties, stockStrategyRegistry, productService, redisTemplate, System::nanoTime);
+    }
+
+    HotProductDetector(HotProductDetectorProperties properties,
+                       StockWriteBehindProperties writeBehindProperties,
+                       StockStrategyRegistry stockStrategyRegistry,
+                       ProductService productService,
+                       RedisTemplate<String, String> redisTemplate,
+                       LongSupplier ticker) {
+        if (properties.getBuckets() <= 0 || properties.getWindow().toNanos() < properties.getBuckets()) {
+            throw new IllegalArgumentException("window, buckets 설정이 올바르지 않습니다.");
+        }
+        this.properties = properties;
+        this.writeBehindProperties = writeBehindProperties;
+        this.stockStrategyRegistry = stockStrategyRegistry;
+        this.productService = productService;
+        this.redisTemplate = redisTemplate;
+        this.ticker = ticker;
+        this.bucketNanos = properties.getWindow().toNanos() / properties.getBuckets();
+        this.windowSeconds = properties.getWindow().toNanos() / 1_000_000_000.0;
+    }
+
+    /**
+     * 차감 요청 1건 기록 (요청 스레드에서 호출, 맵 조회 + 원자적 증가만 수행)
+     */
+    public void record(Long productId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        SlidingWindowCounter counter = counters.get(productId);
+        if (counter == null) {
+            if (counters.size() >= properties.getMaxTracked()) {
+                dropped.increment();
+                return;
+            }
+            counter = counters.computeIfAbsent(productId, id -> new SlidingWindowCounter(properties.getBuckets(), bucketNanos));
+        }
+        counter.add(ticker.getAsLong());
+    }
+
+    /**
+     * 상품별 초당 차감 요청 수 (최근 window 기준)
+     */
+    public double rateOf(Long productId) {
+        SlidingWindowCounter counter = counters.get(productId);
+        return counter == null ? 0 : counter.sum(ticker.getAsLong()) / windowSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.hot-detector.evaluation-interval-ms:1000}")
+    public void evaluate() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long now = ticker.getAsLong();
+        try {
+            syncPromoted(now);
+        } catch (Exception e) {
+            // 표시를 읽지 못하면 다른 인스턴스와 판정이 겹칠 수 있으므로 이번 주기는 건너뜀
+            failures.increment();
+            log.warn("자동 승격 표시 조회 실패, 판정 건너뜀, 사유: {}", e.getMessage());
+            return;
+        }
+
+        for (Map.Entry<Long, SlidingWindowCounter> entry : counters.entrySet()) {
+            Long productId = entry.getKey();
+            double rate = entry.getValue().sum(now) / windowSeconds;
+            try {
+                evaluate(productId, rate, now);
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("인기 상품 판정 실패, productId = {}, 사유: {}", productId, e.getMessage());
+            }
+
+            // 요청이 끊긴 상품은 추적 해제 (자동 승격 상품은 강등 판정을 위해 유지)
+            if (rate == 0 && !promoted.containsKey(productId)) {
+                counters.remove(productId, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Redis 의 자동 승격 표시와 로컬 상태 맞춤
+     * - 표시는 있는데 로컬에 없으면(재시작, 다른 인스턴스가 승격) 지금부터 coolDown 을 세도록 추가
+     * - 로컬에만 있으면(다른 인스턴스가 강등) 로컬에서 제거
+     */
+    private void syncPromoted(long now) {
+        Set<String> members = redisTemplate.opsForSet().members(properties.getPromotedKey());
+        Set<Long> marked = members == null ? Set.of() : members.stream().map(Long::valueOf).collect(Collectors.toSet());
+
+        promoted.keySet().removeIf(productId -> !marked.contains(productId));
+        for (Long productId : marked) {
+            if (promoted.putIfAbsent(productId, now) == null) {
+                // 이 인스턴스에 요청이 없어도 강등 판정을 할 수 있도록 추적
+                counters.computeIfAbsent(productId, id -> new SlidingWindowCounter(properties.getBuckets(), bucketNanos));
+            }
+        }
+    }
+
+    private void evaluate(Long productId, double rate, long now) {
+        if (writeBehindProperties.isEnabled()) {
+            return;
+        }
+
+        Long lastHotAt = promoted.get(productId);
+        if (lastHotAt != null) {
+            if (rate > properties.getDemoteRatePerSecond()) {
+                promoted.put(productId, now);
+            } else if (now - lastHotAt >= properties.getCoolDown().toNanos()) {
+                demote(productId, rate);
+            }
+            return;
+        }
+
+        if (rate >= properties.getPromoteRatePerSecond()
+            && stockStrategyRegistry.get(productId) == StockStrategy.DB_ONLY) {
+            promote(productId, rate, now);
+        }
+    }
+
+    private void promote(Long productId, double rate, long now) {
+        String member = productId.toString();
+        Long added = redisTemplate.opsForSet().add(properties.getPromotedKey(), member);
+        promoted.put(productId, now);
+        if (added == null || added == 0) {
+            // 다른 인스턴스가 먼저 승격, 강등 판정만 같이 함
+            return;
+        }
+
+        int stock;
+        try {
+            stock = productService.loadInitStockRedis(productId);
+        } catch (RuntimeException e) {
+            // 다음 판정에서 다시 승격할 수 있도록 표시 제거
+            promoted.remove(productId);
+            redisTemplate.opsForSet().remove(properties.getPromotedKey(), member);
+            throw e;
+        }
+        promotions.increment();
+        log.info("인기 상품 승격 (DB_ONLY -> REDIS_FIRST), productId = {}, rate = {}/s, stock = {}", productId, String.format("%.1f", rate), stock);
+    }
+
+    private void demote(Long productId, double rate) {
+        String member = productId.toString();
+        promoted.remove(productId);
+        Long removed = redisTemplate.opsForSet().remove(properties.getPromotedKey(), member);
+        if (removed == null || removed == 0) {
+            // 다른 인스턴스가 먼저 강등
+            return;
+        }
+
+        // 그 사이 관리자가 전략을 바꿨으면 관리 대상에서만 제외
+        if (stockStrategyRegistry.get(productId) == StockStrategy.REDIS_FIRST) {
+            try {
+                productService.demoteStockStrategy(productId);
+            } catch (RuntimeException e) {
+                // 다음 판정에서 다시 강등할 수 있도록 표시 복구
+                redisTemplate.opsForSet().add(properties.getPromotedKey(), member);
+                throw e;
+            }
+            demotions.increment();
+            log.info("인기 상품 강등 (REDIS_FIRST -> DB_ONLY), productId = {}, rate = {}/s", productId, String.format("%.1f", rate));
+        }
+    }
+
+    public boolean isPromoted(Long productId) {
+        return promoted.containsKey(productId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stock.hot.decisions", promotions, LongAdder::sum).tag("decision", "promote").register(registry);
+        FunctionCounter.builder("stock.hot.decisions", demotions, LongAdder::sum).tag("decision", "demote").register(registry);
+        FunctionCounter.builder("stock.hot.decision.failures", failures, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stock.hot.dropped", dropped, LongAdder::sum).register(registry);
+        Gauge.builder("stock.hot.tracked", counters, Map::size).register(registry);
+        Gauge.builder("stock.hot.promoted", promoted, Map::size).register(registry);
+        Gauge.builder("stock.hot.threshold", properties, HotProductDetectorProperties::getPromoteRatePerSecond).tag("type", "promote").register(registry);
+        Gauge.builder("stock.hot.threshold", properties, HotProductDetectorProperties::getDemoteRatePerSecond).tag("type", "demote").register(registry);
+    }
+
+    /**
+     * 칸(bucket) 단위 슬라이딩 윈도우 카운터
+     * 칸마다 담당 시간 번호(epoch)를 두고, 오래된 칸은 처음 쓰는 스레드가 0으로 초기화
+     * 초기화와 증가가 겹치면 몇 건 덜 셀 수 있음 (승격 판정용 근사치라 허용)
+     */
+    static final class SlidingWindowCounter {
+        private final long bucketNanos;
+        private final AtomicLongArray counts;
+        private final AtomicLongArray epochs;
+
+        SlidingWindowCounter(int buckets, long bucketNanos) {
+            this.bucketNanos = bucketNanos;
+            this.counts = new AtomicLongArray(buckets);
+            this.epochs = new AtomicLongArray(buckets);
+        }
+
+        void add(long now) {
+            long epoch = Math.floorDiv(now, bucketNanos);
+            int index = (int) Math.floorMod(epoch, (long) counts.length());
+            long seen = epochs.get(index);
+            if (seen != epoch && epochs.compareAndSet(index, seen, epoch)) {
+                counts.set(index, 0);
+            }
+            counts.incrementAndGet(index);
+        }
+
+        long sum(long now) {
+            long epoch = Math.floorDiv(now, bucketNanos);
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                long age = epoch - epochs.get(i);
+                if (age >= 0 && age < counts.length()) {
+                    total += counts.get(i);
+                }
+            }
+            return total;
+        }
+    }
+}
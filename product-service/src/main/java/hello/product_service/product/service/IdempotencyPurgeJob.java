@@ -0,0 +1,98 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.infra.config.IdempotencyRetentionProperties;
+import hello.product_service.product.repository.IdempotencyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 보관 기간이 지난 IdempotencyRecord 정리
+ * createAt 인덱스로 오래된 ID를 batchSize 만큼 조회 -> ID로 삭제, 배치마다 트랜잭션을 나눠 락을 짧게 유지한다.
+ * 지표 : idempotency.purge.rows (삭제 건수), idempotency.purge.lag.seconds (보관 기간을 넘긴 가장 오래된 레코드의 초과 시간)
+ */
+@Component
+@Slf4j
+public class IdempotencyPurgeJob {
+    private final IdempotencyRepository idempotencyRepository;
+    private final IdempotencyRetentionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter purgedRows;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public IdempotencyPurgeJob(IdempotencyRepository idempotencyRepository,
+                               IdempotencyRetentionProperties properties,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.purgedRows = Counter.builder("idempotency.purge.rows").register(meterRegistry);
+        Gauge.builder("idempotency.purge.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.retention.interval-ms:60000}")
+    public void purge() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getHorizon());
+        try {
+            int purged = purgeBefore(cutoff);
+            if (purged > 0) {
+                log.info("멱등성 레코드 정리 완료, cutoff = {}, purged = {}", cutoff, purged);
+            }
+            updateLag(cutoff);
+        } catch (Exception e) {
+            log.error("멱등성 레코드 정리 실패, 다음 주기에 재시도합니다. 사유: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * cutoff 이전 레코드를 배치 단위로 삭제
+     * @return 삭제 건수
+     */
+    public int purgeBefore(LocalDateTime cutoff) {
+        int total = 0;
+
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = idempotencyRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, properties.getBatchSize()));
+                return ids.isEmpty() ? 0 : idempotencyRepository.deleteByIdIn(ids);
+            });
+
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+
+            total += deleted;
+            purgedRows.increment(deleted);
+
+            if (deleted < properties.getBatchSize()) {
+                break;
+            }
+        }
+
+        return total;
+    }
+
+    // 남아 있는 가장 오래된 레코드가 보관 기간을 얼마나 넘겼는지 (정리가 밀리고 있는지 확인용)
+    private void updateLag(LocalDateTime cutoff) {
+        long lag = idempotencyRepository.findTopByOrderByCreateAtAsc()
+            .map(record -> Duration.between(record.getCreateAt(), cutoff).getSeconds())
+            .filter(seconds -> seconds > 0)
+            .orElse(0L);
+        lagSeconds.set(lag);
+    }
+}
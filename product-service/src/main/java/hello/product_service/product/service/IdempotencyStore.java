@@ -0,0 +1,27 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.model.IdempotencyReservation;
+import hello.product_service.product.model.StockResult;
+
+/**
+ * 멱등성 키 저장소
+ * reserve -> (비즈니스 로직) -> complete, 실패 시 release
+ */
+public interface IdempotencyStore {
+
+    /**
+     * 비즈니스 로직 실행 전 키 선점
+     */
+    IdempotencyReservation reserve(String requestId);
+
+    /**
+     * 처리 결과 저장
+     * @return 최종 저장된 결과 (동시 저장 경합 시 먼저 저장된 결과)
+     */
+    StockResult complete(String requestId, StockResult result);
+
+    /**
+     * 처리 실패 시 선점 해제, 같은 키로 다시 시도할 수 있게 한다.
+     */
+    void release(String requestId);
+}
@@ -2,6 +2,7 @@ package hello.product_service.product.service;
 
 import hello.product_service.product.domain.*;
 import hello.product_service.product.exception.InsufficientStockException;
+import hello.product_service.product.infra.cache.IdempotencyCache;
 import hello.product_service.product.model.StockResult;
 import hello.product_service.product.repository.IdempotencyRepository;
 import hello.product_service.product.repository.ProductRepository;
@@ -19,6 +20,7 @@ public class InventoryService {
     private final StockLedgerService stockLedgerService;
     private final IdempotencyRepository idempotencyRepository;
     private final ProductRepository productRepository;
+    private final IdempotencyCache idempotencyCache;
 
     /**
      * decreaseByOrder V1
@@ -26,11 +28,11 @@ public class InventoryService {
      * 트래픽이 많이 몰릴 것으로 예상되는 상품은 데이터베이스의 부하를 덜기 위한 Redis 도입
      */
     public StockResult decreaseByOrder(Long productId, Long orderId, int quantity, String requestId) {
-        // 요청 아이디가 신규 값인지 조회
-        IdempotencyRecord cached = idempotencyRepository.findByRequestId(requestId).orElse(null);
+        // 요청 아이디가 신규 값인지 조회 (메모리 캐시 -> DB)
+        StockResult cachedResult = findCompletedResult(requestId);
 
-        if (cached != null) { // 널이 아니면 기존에 존재
-            return StockResult.create(cached);
+        if (cachedResult != null) { // 널이 아니면 기존에 존재
+            return cachedResult;
         }
 
         // 차감 시작 (비즈니스 로직)
@@ -52,7 +54,7 @@ public class InventoryService {
             IdempotencyRecord idempotencyRecord = IdempotencyRecord.create(requestId, status, stockResult.getMessage(), stockResult.getRemainingStock());
 
             idempotencyRepository.save(idempotencyRecord);
-
+            idempotencyCache.putAfterCommit(requestId, stockResult);
         } catch (DataIntegrityViolationException e) { //유니크 제약 위반, 동시에 삽입될 경우
             // concurrent save → 기존 레코드 반환
             return idempotencyRepository.findByRequestId(requestId).map(StockResult::create).orElse(stockResult);
@@ -66,11 +68,11 @@ public class InventoryService {
     }
 
     public StockResult increaseByOrder(Long productId, Long orderId, int quantity, String requestId) {
-        // 요청 아이디가 신규 값인지 조회
-        IdempotencyRecord cached = idempotencyRepository.findByRequestId(requestId).orElse(null);
+        // 요청 아이디가 신규 값인지 조회 (메모리 캐시 -> DB)
+        StockResult cachedResult = findCompletedResult(requestId);
 
-        if (cached != null) { // 널이 아니면 기존에 존재
-            return StockResult.create(cached);
+        if (cachedResult != null) { // 널이 아니면 기존에 존재
+            return cachedResult;
         }
 
         //비즈니스 로직 -> 주문 취소로 인한 재고 증가
@@ -84,7 +86,7 @@ public class InventoryService {
             IdempotencyStatus status = stockResult.isSuccess() ? IdempotencyStatus.SUCCESS : IdempotencyStatus.FAIL;
             IdempotencyRecord idempotencyRecord = IdempotencyRecord.create(requestId, status, stockResult.getMessage(), stockResult.getRemainingStock());
             idempotencyRepository.save(idempotencyRecord);
-
+            idempotencyCache.putAfterCommit(requestId, stockResult);
         } catch (DataIntegrityViolationException e) { //유니크 제약 위반
 
             return idempotencyRepository.findByRequestId(requestId).map(StockResult::create).orElse(stockResult);
@@ -111,10 +113,10 @@ public class InventoryService {
     @Deprecated
     public StockResult decreaseByOrderV2(Long productId, Long orderId, int quantity, String requestId) {
         log.info("decrease by order call, product id = {}, order id = {}, quantity = {}, request id = {}", productId, orderId, quantity, requestId);
-        IdempotencyRecord cached = idempotencyRepository.findByRequestId(requestId).orElse(null);
+        StockResult cachedResult = findCompletedResult(requestId);
 
-        if (cached != null) { //널이 아니면 기존에 존재
-            return StockResult.create(cached);
+        if (cachedResult != null) { //널이 아니면 기존에 존재
+            return cachedResult;
         }
 
         // 비즈니스 로직 시작
@@ -130,6 +132,7 @@ public class InventoryService {
         try {
             IdempotencyRecord idempotencyRecord = IdempotencyRecord.create(requestId, IdempotencyStatus.SUCCESS, stockResult.getMessage(), stockResult.getRemainingStock());
             idempotencyRepository.save(idempotencyRecord);
+            idempotencyCache.putAfterCommit(requestId, stockResult);
         } catch (DataIntegrityViolationException e) { //유니크 제약 위반, 동시에 삽입될 경우
             // 드물지만 동일한 멱등성 키를 가지고 요청이 들어온 경우
             // concurrent save -> 기존 레코드 반환
@@ -140,4 +143,22 @@ public class InventoryService {
         return stockResult;
     }
 
+    /**
+     * 처리 완료된 요청 결과 조회, 캐시에 없으면 DB 조회 후 캐시에 적재
+     * 같은 트랜잭션에서 저장한 (아직 커밋 전) 레코드일 수 있으므로 커밋 이후에 적재
+     */
+    private StockResult findCompletedResult(String requestId) {
+        StockResult cachedResult = idempotencyCache.get(requestId);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        return idempotencyRepository.findByRequestId(requestId)
+            .map(record -> {
+                StockResult stockResult = StockResult.create(record);
+                idempotencyCache.putAfterCommit(requestId, stockResult);
+                return stockResult;
+            })
+            .orElse(null);
+    }
 }
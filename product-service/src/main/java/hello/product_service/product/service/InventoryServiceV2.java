@@ -1,11 +1,21 @@
 package hello.product_service.product.service;
 
-import hello.product_service.product.domain.IdempotencyRecord;
-import hello.product_service.product.domain.IdempotencyStatus;
 import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.exception.ApiException;
+import hello.product_service.product.exception.ErrorCode;
+import hello.product_service.product.exception.IdempotencyInProgressException;
 import hello.product_service.product.exception.InsufficientStockException;
+import hello.product_service.product.infra.cache.IdempotencyCache;
+import hello.product_service.product.infra.cache.SoldOutGate;
+import hello.product_service.product.infra.cache.StockStrategyRegistry;
+import hello.product_service.product.infra.config.StockWriteBehindProperties;
 import hello.product_service.product.infra.redis.StockRedisManagerV2;
+import hello.product_service.product.model.IdempotencyReservation;
+import hello.product_service.product.model.StockDecreaseOutcome;
+import hello.product_service.product.model.StockLine;
+import hello.product_service.product.model.StockReservation;
 import hello.product_service.product.model.StockResult;
+import hello.product_service.product.model.event.StockDecreaseEvent;
 import hello.product_service.product.repository.IdempotencyRepository;
 import hello.product_service.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +23,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,44 +40,304 @@ import org.springframework.stereotype.Service;
  */
 public class InventoryServiceV2 {
     private final ProductRepository productRepository;
-    private final IdempotencyRepository idempotencyRepository;
+    private final IdempotencyStore idempotencyStore;
     private final StockRedisManagerV2 stockRedisManager;
     private final StockTxHandler stockTxHandler;
+    private final StockWriteBehindProperties writeBehindProperties;
+    private final IdempotencyCache idempotencyCache;
+    private final StockWriterLanes stockWriterLanes;
+    private final StockStrategyRegistry stockStrategyRegistry;
+    private final HotProductDetector hotProductDetector;
+    private final SoldOutGate soldOutGate;
+    private final IdempotencyRepository idempotencyRepository;
 
     /**
      * 멱등성 체크 및 재고 전략 분기
+     * 멱등성 키를 먼저 선점(IN_FLIGHT)한 요청만 재고 차감을 수행, 같은 키의 동시 요청은 처리 중 예외
+     * Redis 선점은 동시 요청 차단과 결과 조회용, 중복 차감의 최종 판정은 차감 트랜잭션의 IdempotencyRecord 유니크 제약
      */
     public StockResult decreaseByOrder(Long productId, Long orderId, int quantity, String requestId) {
-        // 1. 멱등성 조회 (중복 요청 차단)
-        IdempotencyRecord cached = idempotencyRepository.findByRequestId(requestId).orElse(null);
-        if (cached != null) {
-            return StockResult.create(cached);
+        // 1. 멱등성 조회 (중복 요청 차단), 메모리 캐시에 있으면 저장소 조회 생략
+        StockResult completed = idempotencyCache.get(requestId);
+        if (completed != null) {
+            return completed;
         }
 
-        StockResult stockResult = null;
+        // 2. 멱등성 키 선점
+        IdempotencyReservation reservation = idempotencyStore.reserve(requestId);
+        if (reservation.getState() == IdempotencyReservation.State.COMPLETED) {
+            idempotencyCache.put(requestId, reservation.getResult());
+            return reservation.getResult();
+        }
+        if (reservation.getState() == IdempotencyReservation.State.IN_FLIGHT) {
+            throw new IdempotencyInProgressException(requestId);
+        }
+
+        hotProductDetector.record(productId);
+        return decreaseAcquired(productId, orderId, quantity, requestId);
+    }
+
+    /**
+     * 한 주문의 여러 상품 재고를 한 번에 감소 (전부 성공 또는 전부 실패)
+     * 멱등성 키는 묶음 전체에 1개, 같은 상품이 여러 줄이면 수량을 합쳐 상품 ID 오름차순으로 처리
+     * REDIS_FIRST 상품은 Redis 선점 후 DB 반영, DB 반영은 모든 상품을 한 트랜잭션에서 수행
+     */
+    public StockResult decreaseByOrderBulk(Long orderId, List<StockLine> lines, String requestId) {
+        List<StockLine> sortedLines = mergeAndSort(lines);
+
+        StockResult completed = idempotencyCache.get(requestId);
+        if (completed != null) {
+            return completed;
+        }
+
+        IdempotencyReservation reservation = idempotencyStore.reserve(requestId);
+        if (reservation.getState() == IdempotencyReservation.State.COMPLETED) {
+            idempotencyCache.put(requestId, reservation.getResult());
+            return reservation.getResult();
+        }
+        if (reservation.getState() == IdempotencyReservation.State.IN_FLIGHT) {
+            throw new IdempotencyInProgressException(requestId);
+        }
+
+        try {
+            decreaseBulkAcquired(orderId, sortedLines, requestId);
+        } catch (DataIntegrityViolationException ex) {
+            return alreadyApplied(requestId, ex);
+        } catch (RuntimeException ex) {
+            idempotencyStore.release(requestId);
+            throw ex;
+        }
+
+        // 상품별 남은 재고는 묶음 결과에 담지 않음 (멱등성 결과는 요청 1건당 1개, StockTxHandler.decreaseBulkInDB 와 같은 값)
+        StockResult result = idempotencyStore.complete(requestId, new StockResult(true, null, "OK"));
+        idempotencyCache.put(requestId, result);
+        return result;
+    }
+
+    // 같은 상품 줄은 수량 합산, 상품 ID 오름차순 정렬 (행 잠금 순서 고정)
+    private List<StockLine> mergeAndSort(List<StockLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new ApiException(ErrorCode.BAD_REQUEST, "재고 감소 상품이 비어 있습니다.");
+        }
+
+        Map<Long, Integer> quantityByProduct = new TreeMap<>();
+        for (StockLine line : lines) {
+            if (line.getProductId() == null || line.getQuantity() <= 0) {
+                throw new ApiException(ErrorCode.BAD_REQUEST, "상품 ID와 1 이상의 수량이 필요합니다.", line);
+            }
+            quantityByProduct.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        return quantityByProduct.entrySet().stream()
+            .map(e -> new StockLine(e.getKey(), e.getValue()))
+            .toList();
+    }
+
+    /**
+     * 묶음 재고 감소 본 처리
+     * 1. REDIS_FIRST 상품을 상품 ID 순서로 Redis 선점, 하나라도 부족하면 앞서 선점한 상품 복구 후 실패
+     * 2. 전체 상품을 한 트랜잭션에서 DB 차감, 실패 시 Redis 선점분 복구
+     * write-behind 설정과 무관하게 DB에 바로 반영 (묶음 전체를 한 트랜잭션으로 묶어야 하므로)
+     * Redis 장애 시 REDIS_FIRST 상품은 DB 차감만으로 처리, 단 write-behind 모드에서는 거절
+     */
+    private void decreaseBulkAcquired(Long orderId, List<StockLine> lines, String requestId) {
+        List<StockLine> redisReserved = new ArrayList<>();
+        try {
+            for (StockLine line : lines) {
+                hotProductDetector.record(line.getProductId());
+                if (stockStrategyRegistry.get(line.getProductId()) != StockStrategy.REDIS_FIRST) {
+                    continue;
+                }
+
+                Long remainStock = stockRedisManager.reserveStock(line.getProductId(), line.getQuantity());
+                if (remainStock == -999L) {
+                    // write-behind 모드의 DB 재고는 미반영 예약만큼 많으므로 DB 차감으로 대신하면 초과 판매 -> 거절
+                    if (writeBehindProperties.isEnabled()) {
+                        throw redisUnavailable(line.getProductId());
+                    }
+                    // Redis 장애, 이 상품은 DB 차감만으로 처리
+                    log.warn("Redis 장애로 인해 DB 직접 차감 모드로 전환합니다. productId: {}", line.getProductId());
+                    continue;
+                }
+                if (remainStock == -1L) {
+                    throw new InsufficientStockException(line.getProductId(), soldOutGate.knownStock(line.getProductId()));
+                }
+                redisReserved.add(line);
+            }
+
+            stockTxHandler.decreaseBulkInDB(orderId, lines, requestId);
+        } catch (RuntimeException ex) {
+            for (StockLine line : redisReserved) {
+                try {
+                    stockRedisManager.restoreStock(line.getProductId(), line.getQuantity());
+                } catch (RuntimeException restoreEx) {
+                    log.error("Redis 재고 복구 실패, productId = {}, quantity = {}", line.getProductId(), line.getQuantity(), restoreEx);
+                }
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 여러 주문의 재고 감소 (배치 컨슈머용)
+     * 멱등성 선점 후 상품별로 묶어서, DB_ONLY 상품은 합계 수량으로 UPDATE 1회 차감
+     * 합계 차감이 불가능하면(재고 부족 등) 주문 단위로 나눠서 처리하므로 주문별 결과는 단건 처리와 같다.
+     * @return 입력 순서와 같은 주문별 처리 결과
+     */
+    public List<StockDecreaseOutcome> decreaseByOrders(List<StockDecreaseEvent> events) {
+        StockDecreaseOutcome[] outcomes = new StockDecreaseOutcome[events.size()];
+        Map<Long, List<Integer>> acquiredByProduct = new LinkedHashMap<>();
+
+        // 1. 멱등성 조회 및 키 선점
+        for (int i = 0; i < events.size(); i++) {
+            StockDecreaseEvent event = events.get(i);
+            try {
+                StockResult completed = idempotencyCache.get(event.getRequestId());
+                if (completed != null) {
+                    outcomes[i] = StockDecreaseOutcome.success(event, completed);
+                    continue;
+                }
+
+                IdempotencyReservation reservation = idempotencyStore.reserve(event.getRequestId());
+                switch (reservation.getState()) {
+                    case COMPLETED -> {
+                        idempotencyCache.put(event.getRequestId(), reservation.getResult());
+                        outcomes[i] = StockDecreaseOutcome.success(event, reservation.getResult());
+                    }
+                    case IN_FLIGHT -> outcomes[i] = StockDecreaseOutcome.inProgress(event);
+                    case ACQUIRED -> {
+                        hotProductDetector.record(event.getProductId());
+                        acquiredByProduct.computeIfAbsent(event.getProductId(), id -> new ArrayList<>()).add(i);
+                    }
+                }
+            } catch (RuntimeException ex) {
+                outcomes[i] = StockDecreaseOutcome.systemError(event, ex);
+            }
+        }
+
+        // 2. 상품별 처리 (레인 사용 시 상품 레인에서 병렬 실행)
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> entry : acquiredByProduct.entrySet()) {
+            Long productId = entry.getKey();
+            List<Integer> indexes = entry.getValue();
+            futures.add(stockWriterLanes.submit(productId, () -> {
+                decreaseProductGroup(productId, indexes, events, outcomes);
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        return Arrays.asList(outcomes);
+    }
 
-        // 2. 상품의 재고 처리 전략 조회
-        StockStrategy strategy = productRepository.findStockStrategyById(productId);
+    private void decreaseProductGroup(Long productId, List<Integer> indexes, List<StockDecreaseEvent> events, StockDecreaseOutcome[] outcomes) {
+        if (indexes.size() > 1 && tryAggregatedDecrease(productId, indexes, events, outcomes)) {
+            return;
+        }
 
+        // 단건 처리 (REDIS_FIRST 상품, 단일 주문, 합계 차감 실패)
+        for (int i : indexes) {
+            StockDecreaseEvent event = events.get(i);
+            try {
+                StockResult result = decreaseAcquired(event.getProductId(), event.getOrderId(), event.getQuantity(), event.getRequestId());
+                outcomes[i] = StockDecreaseOutcome.success(event, result);
+            } catch (InsufficientStockException ex) {
+                outcomes[i] = StockDecreaseOutcome.insufficientStock(event);
+            } catch (RuntimeException ex) {
+                outcomes[i] = StockDecreaseOutcome.systemError(event, ex);
+            }
+        }
+    }
 
+    // DB_ONLY 상품의 주문들을 합계 수량으로 한 번에 차감, 실패 시 false (단건 처리로 전환)
+    private boolean tryAggregatedDecrease(Long productId, List<Integer> indexes, List<StockDecreaseEvent> events, StockDecreaseOutcome[] outcomes) {
+        List<StockReservation> reservations = indexes.stream()
+            .map(events::get)
+            .map(e -> new StockReservation(null, productId, e.getQuantity(), e.getOrderId(), e.getRequestId()))
+            .toList();
 
-        if (strategy == StockStrategy.REDIS_FIRST) {
-            // 3. 인기 상품 처리 로직 (Redis 필터링 포함)
-            stockResult = processHotItemDecrease(productId, quantity, orderId, requestId);
-        } else {
-            // 4. 일반 상품 처리 로직 (DB-Only)
-            stockResult = processNormalItemDecrease(productId, quantity, orderId, requestId);
+        List<StockResult> results;
+        try {
+            if (stockStrategyRegistry.get(productId) != StockStrategy.DB_ONLY) {
+                return false;
+            }
+            results = stockTxHandler.decreaseAggregatedInDB(productId, reservations);
+        } catch (RuntimeException ex) {
+            log.info("합계 차감 불가, 주문 단위로 처리합니다. productId = {}, count = {}, 사유: {}", productId, indexes.size(), ex.getMessage());
+            return false;
         }
 
-        // 5. 멱등성 저장 및 최종 결과 반환/예외 처리
-        return saveIdempotencyAndReturn(stockResult, requestId);
+        for (int k = 0; k < indexes.size(); k++) {
+            StockDecreaseEvent event = events.get(indexes.get(k));
+            try {
+                StockResult result = idempotencyStore.complete(event.getRequestId(), results.get(k));
+                idempotencyCache.put(event.getRequestId(), result);
+                outcomes[indexes.get(k)] = StockDecreaseOutcome.success(event, result);
+            } catch (RuntimeException ex) {
+                // 재고는 이미 반영됨, 결과 저장만 실패 -> 성공으로 응답 (키는 처리 중 TTL 후 만료)
+                log.error("멱등성 결과 저장 실패, requestId = {}", event.getRequestId(), ex);
+                outcomes[indexes.get(k)] = StockDecreaseOutcome.success(event, results.get(k));
+            }
+        }
+        return true;
     }
 
+    /**
+     * 멱등성 키를 선점한 요청의 재고 감소 및 결과 저장
+     */
+    private StockResult decreaseAcquired(Long productId, Long orderId, int quantity, String requestId) {
+        StockResult stockResult = null;
+        try {
+            // 3. 상품의 재고 처리 전략 조회 (메모리 캐시, 없으면 DB)
+            StockStrategy strategy = stockStrategyRegistry.get(productId);
+
+            if (strategy == StockStrategy.REDIS_FIRST) {
+                // 4. 인기 상품 처리 로직 (Redis 필터링 포함)
+                stockResult = processHotItemDecrease(productId, quantity, orderId, requestId);
+            } else {
+                // 5. 일반 상품 처리 로직 (DB-Only)
+                stockResult = processNormalItemDecrease(productId, quantity, orderId, requestId);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            return alreadyApplied(requestId, ex);
+        } catch (RuntimeException ex) {
+            // 재고 부족/시스템 오류 -> 선점 해제, 같은 키로 재시도 가능
+            idempotencyStore.release(requestId);
+            throw ex;
+        }
+
+        // 6. 멱등성 결과 저장 및 최종 결과 반환
+        StockResult result = idempotencyStore.complete(requestId, stockResult);
+        idempotencyCache.put(requestId, result);
+        return result;
+    }
+
+    /**
+     * 이미 DB에 반영된 요청 (처리 중 표시가 만료된 뒤 재전달, 폴백 중 DB에만 기록된 결과 등)
+     * 이번 차감은 유니크 위반으로 롤백됨 -> 저장된 결과를 Redis/메모리 캐시에 옮기고 응답
+     */
+    private StockResult alreadyApplied(String requestId, DataIntegrityViolationException ex) {
+        StockResult stored = idempotencyRepository.findByRequestId(requestId).map(StockResult::create).orElse(null);
+        if (stored == null) {
+            // 멱등성 기록과 무관한 제약 위반
+            idempotencyStore.release(requestId);
+            throw ex;
+        }
+
+        log.info("이미 반영된 재고 감소 요청, 저장된 결과로 응답합니다. requestId = {}", requestId);
+        StockResult result = idempotencyStore.complete(requestId, stored);
+        idempotencyCache.put(requestId, result);
+        return result;
+    }
 
     /**
      * 인기 상품 로직: Redis 선점 -> DB 최종 반영
      */
     private StockResult processHotItemDecrease(Long productId, int quantity, Long orderId, String requestId) {
+        if (writeBehindProperties.isEnabled()) {
+            return processHotItemWriteBehind(productId, quantity, orderId, requestId);
+        }
+
         // 1. Redis 재고 선점
         Long remainStock = stockRedisManager.reserveStock(productId, quantity);
         log.info("redis remaining stock = {}", remainStock);
@@ -72,8 +350,8 @@ public class InventoryServiceV2 {
         }
 
         if (remainStock == -1L) {
-            // Redis 선점 실패
-            throw new InsufficientStockException(productId, productRepository.findStockById(productId));
+            // Redis 선점 실패, 응답 재고는 Redis 가 알려준 값 (DB 조회 없이)
+            throw new InsufficientStockException(productId, soldOutGate.knownStock(productId));
         }
 
         // 2. Redis 재고 선점 이후 DB 반영 및 실패 시 복구
@@ -83,6 +361,10 @@ public class InventoryServiceV2 {
             // 3. DB 최종 차감 실패 (Redis-DB 불일치 등) 시 Redis 복구
             stockRedisManager.restoreStock(productId, quantity);
             throw new InsufficientStockException(productId, productRepository.findStockById(productId));
+        } catch (DataIntegrityViolationException ex) {
+            // 이미 반영된 요청, 이번 선점분만 복구
+            stockRedisManager.restoreStock(productId, quantity);
+            throw ex;
         } catch (Exception ex) {
             // 4. 기타 오류 발생 시 Redis 복구
             stockRedisManager.restoreStock(productId, quantity);
@@ -91,27 +373,34 @@ public class InventoryServiceV2 {
     }
 
     /**
-     * 일반 상품 로직: DB 단일 쿼리만 사용
+     * 인기 상품 write-behind 로직: Redis 선점 + 예약 로그 기록 후 바로 응답
+     * DB 반영은 StockWriteBehindFlusher가 모아서 처리 (요청마다 상품 행 UPDATE 경합이 발생하지 않음)
      */
-    private StockResult processNormalItemDecrease(Long productId, int quantity, Long orderId, String requestId) {
-        return stockTxHandler.finalizeStockDecreaseInDB(productId, quantity, orderId, requestId);
+    private StockResult processHotItemWriteBehind(Long productId, int quantity, Long orderId, String requestId) {
+        Long remainStock = stockRedisManager.reserveStockWithLog(productId, quantity, orderId, requestId);
+
+        if (remainStock == -999L) {
+            // DB 재고는 아직 플러시되지 않은 예약만큼 많으므로 DB 직접 차감은 초과 판매 -> 거절 (멱등성 키 해제 후 재시도 가능)
+            throw redisUnavailable(productId);
+        }
+
+        if (remainStock == -1L) {
+            throw new InsufficientStockException(productId, soldOutGate.knownStock(productId));
+        }
+
+        return new StockResult(true, remainStock.intValue(), "OK");
+    }
+
+    private ApiException redisUnavailable(Long productId) {
+        log.warn("Redis 장애로 write-behind 재고 선점 불가, 요청을 거절합니다. productId: {}", productId);
+        return new ApiException(ErrorCode.RETRY_LATER, "Redis 장애로 재고를 선점할 수 없습니다. productId = " + productId);
     }
 
     /**
-     * 멱등성 저장 및 최종 결과 반환/예외 처리
+     * 일반 상품 로직: DB 단일 쿼리만 사용
      */
-    private StockResult saveIdempotencyAndReturn(StockResult stockResult, String requestId) {
-        try {
-            IdempotencyStatus status = stockResult.isSuccess() ? IdempotencyStatus.SUCCESS : IdempotencyStatus.FAIL;
-            IdempotencyRecord record = IdempotencyRecord.create(requestId, status, stockResult.getMessage(), stockResult.getRemainingStock());
-            idempotencyRepository.save(record);
-            return stockResult;
-
-        } catch (DataIntegrityViolationException ex) {
-            // concurrent save → 기존 레코드 반환
-            // 드물지만 동일한 멱등성 키를 가지고 요청이 들어온 경우
-            return idempotencyRepository.findByRequestId(requestId).map(StockResult::create).orElse(stockResult);
-        }
+    private StockResult processNormalItemDecrease(Long productId, int quantity, Long orderId, String requestId) {
+        return stockTxHandler.finalizeStockDecreaseInDB(productId, quantity, orderId, requestId);
     }
 
 }
@@ -0,0 +1,44 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.IdempotencyRecord;
+import hello.product_service.product.domain.IdempotencyStatus;
+import hello.product_service.product.model.IdempotencyReservation;
+import hello.product_service.product.model.StockResult;
+import hello.product_service.product.repository.IdempotencyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * DB(IdempotencyRecord) 기반 멱등성 저장소, Redis 장애 시 폴백으로 사용
+ * 처리 중 상태를 표현할 수 없어 선점은 항상 ACQUIRED, 동시 요청은 requestId 유니크 제약으로 정리한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class JpaIdempotencyStore implements IdempotencyStore {
+    private final IdempotencyRepository idempotencyRepository;
+
+    @Override
+    public IdempotencyReservation reserve(String requestId) {
+        return idempotencyRepository.findByRequestId(requestId)
+            .map(record -> IdempotencyReservation.completed(StockResult.create(record)))
+            .orElseGet(IdempotencyReservation::acquired);
+    }
+
+    @Override
+    public StockResult complete(String requestId, StockResult result) {
+        try {
+            IdempotencyStatus status = result.isSuccess() ? IdempotencyStatus.SUCCESS : IdempotencyStatus.FAIL;
+            idempotencyRepository.save(IdempotencyRecord.create(requestId, status, result.getMessage(), result.getRemainingStock()));
+            return result;
+        } catch (DataIntegrityViolationException ex) {
+            // concurrent save → 기존 레코드 반환
+            return idempotencyRepository.findByRequestId(requestId).map(StockResult::create).orElse(result);
+        }
+    }
+
+    @Override
+    public void release(String requestId) {
+        // 선점 기록이 없으므로 해제할 것이 없음
+    }
+}
@@ -3,7 +3,8 @@ package hello.product_service.product.service;
 import hello.product_service.product.domain.Product;
 import hello.product_service.product.domain.StockStrategy;
 import hello.product_service.product.exception.ProductNotFoundException;
-import hello.product_service.product.infra.redis.StockRedisManager;
+import hello.product_service.product.infra.cache.StockStrategyRegistry;
+import hello.product_service.product.infra.redis.StockRedisManagerV2;
 import hello.product_service.product.model.ProductCreateRequest;
 import hello.product_service.product.model.ProductDto;
 import hello.product_service.product.model.ProductSearchCondition;
@@ -24,7 +25,8 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductSearchRepository searchRepository;
-    private final StockRedisManager stockRedisManager;
+    private final StockRedisManagerV2 stockRedisManager;
+    private final StockStrategyRegistry stockStrategyRegistry;
 
     @Transactional
     public Long create(ProductCreateRequest productCreateRequest) {
@@ -66,12 +68,24 @@ public class ProductService {
 
         int currentStock = findProduct.getStock();
 
-        // StockRedisManager를 통해 Redis에 초기 재고 설정
+        // StockRedisManagerV2를 통해 Redis에 초기 재고 설정 (샤드 모드면 샤드별로 나눠 적재)
         stockRedisManager.initializeStock(productId, currentStock);
 
         // Product StockStrategy를 REDIS로 변경
         findProduct.updateStockStrategy(StockStrategy.REDIS_FIRST);
+        stockStrategyRegistry.invalidateAfterCommit(productId);
 
         return currentStock;
     }
+
+    /**
+     * 재고 처리 전략을 DB_ONLY 로 되돌림 (인기 상품 자동 강등)
+     * Redis 재고 키는 남겨 두고 사용하지 않음, 다시 승격되면 loadInitStockRedis 가 DB 재고로 덮어씀
+     */
+    @Transactional
+    public void demoteStockStrategy(Long productId) {
+        Product findProduct = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException(productId));
+        findProduct.updateStockStrategy(StockStrategy.DB_ONLY);
+        stockStrategyRegistry.invalidateAfterCommit(productId);
+    }
 }
@@ -0,0 +1,42 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.StockLedger;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 재고 원장 일괄 저장
+ * hibernate.jdbc.batch_size 단위로 persist -> flush -> clear 하여 INSERT를 JDBC 배치로 묶고 영속성 컨텍스트가 커지지 않게 한다.
+ * clear()가 호출되므로, 같은 트랜잭션에서 아직 flush 되지 않은 엔티티 변경이 있다면 이 메서드보다 먼저 반영해야 한다.
+ */
+@Component
+@Slf4j
+public class StockLedgerBatchWriter {
+    private final EntityManager em;
+    private final int batchSize;
+
+    public StockLedgerBatchWriter(EntityManager em,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public void write(List<StockLedger> stockLedgers) {
+        for (int i = 0; i < stockLedgers.size(); i++) {
+            em.persist(stockLedgers.get(i));
+
+            if ((i + 1) % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        log.debug("재고 원장 일괄 저장, count = {}", stockLedgers.size());
+    }
+}
@@ -4,26 +4,58 @@ import hello.product_service.product.domain.Direction;
 import hello.product_service.product.domain.Product;
 import hello.product_service.product.domain.Reason;
 import hello.product_service.product.domain.StockLedger;
-import hello.product_service.product.exception.ProductNotFoundException;
+import hello.product_service.product.model.StockLine;
+import hello.product_service.product.model.StockReservation;
 import hello.product_service.product.repository.ProductRepository;
 import hello.product_service.product.repository.StockLedgerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class StockLedgerService {
     private final StockLedgerRepository stockLedgerRepository;
     private final ProductRepository productRepository;
+    private final StockLedgerBatchWriter stockLedgerBatchWriter;
 
+    /**
+     * 원장 1건 저장
+     * 재고 변경 직후 호출되므로 상품 존재는 보장됨 -> SELECT 없이 프록시(getReferenceById)로 연관관계만 설정
+     */
     @Transactional
     public Long save(Long productId, Direction direction, int quantity, Long orderId, String requestId) {
-        Product findProduct = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException(productId));
+        Product product = productRepository.getReferenceById(productId);
         Reason reason = direction == Direction.OUT ? Reason.ORDER_DECREMENT : Reason.ORDER_INCREMENT;
-        StockLedger stockLedger = StockLedger.create(findProduct, direction, reason, quantity, orderId, requestId);
+        StockLedger stockLedger = StockLedger.create(product, direction, reason, quantity, orderId, requestId);
         stockLedgerRepository.save(stockLedger);
 
         return stockLedger.getId();
     }
+
+    /**
+     * write-behind로 모아진 예약들의 원장을 한 번에 저장 (재고 감소, OUT)
+     */
+    @Transactional
+    public void saveReservations(Long productId, List<StockReservation> reservations) {
+        Product product = productRepository.getReferenceById(productId);
+        List<StockLedger> stockLedgers = reservations.stream()
+            .map(r -> StockLedger.create(product, Direction.OUT, Reason.ORDER_DECREMENT, r.getQuantity(), r.getOrderId(), r.getRequestId()))
+            .toList();
+        stockLedgerBatchWriter.write(stockLedgers);
+    }
+
+    /**
+     * 묶음 재고 감소의 원장을 한 번에 저장 (상품별 1건, OUT)
+     */
+    @Transactional
+    public void saveLines(Long orderId, List<StockLine> lines, String requestId) {
+        List<StockLedger> stockLedgers = lines.stream()
+            .map(line -> StockLedger.create(productRepository.getReferenceById(line.getProductId()),
+                Direction.OUT, Reason.ORDER_DECREMENT, line.getQuantity(), orderId, requestId))
+            .toList();
+        stockLedgerBatchWriter.write(stockLedgers);
+    }
 }
@@ -1,23 +1,37 @@
 package hello.product_service.product.service;
 
 import hello.product_service.product.domain.Direction;
+import hello.product_service.product.domain.IdempotencyRecord;
+import hello.product_service.product.domain.IdempotencyStatus;
 import hello.product_service.product.domain.Product;
 import hello.product_service.product.exception.InsufficientStockException;
 import hello.product_service.product.exception.ProductNotFoundException;
+import hello.product_service.product.model.StockLine;
+import hello.product_service.product.model.StockReservation;
 import hello.product_service.product.model.StockResult;
+import hello.product_service.product.repository.IdempotencyRepository;
 import hello.product_service.product.repository.ProductRepository;
+import hello.product_service.product.repository.StockLedgerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class StockTxHandler {
     private final ProductRepository productRepository;
     private final StockLedgerService stockLedgerService;
+    private final StockLedgerRepository stockLedgerRepository;
+    private final IdempotencyRepository idempotencyRepository;
 
     /**
      * DB에 최종적으로 반영하고 원장 기록을 남기는 메서드.
+     * 처리 결과(IdempotencyRecord)도 같은 트랜잭션에 기록, 이미 반영된 requestId 면 DataIntegrityViolationException 으로 전체 롤백
      */
     @Transactional
     public StockResult finalizeStockDecreaseInDB(Long productId, int quantity, Long orderId, String requestId) {
@@ -29,11 +43,104 @@ public class StockTxHandler {
         if (updated == 1) {
             // 2. 차감 성공, 재고 원장 기록
             stockLedgerService.save(productId, Direction.OUT, quantity, orderId, requestId);
-            return new StockResult(true, updatedProduct.getStock(), "OK");
+            StockResult result = new StockResult(true, updatedProduct.getStock(), "OK");
+            recordResult(requestId, result);
+            return result;
         } else {
             // 3. DB 재고 부족 발생 시, 트랜잭션 롤백 및 예외 발생 유도
             throw new InsufficientStockException(productId, updatedProduct.getStock());
         }
     }
 
+    /**
+     * Redis에서 이미 선점된 예약들을 상품 단위로 묶어 DB에 반영 (write-behind)
+     * UPDATE 1회 (합계 차감) + 원장 일괄 저장
+     * 복구 재처리 시 상품 행을 잠근 뒤 원장에 이미 있는 requestId는 제외하여 중복 차감을 막는다.
+     * @return 이번에 실제로 반영된 예약
+     */
+    @Transactional
+    public List<StockReservation> applyReservedDecrease(Long productId, List<StockReservation> reservations) {
+        // 상품 행을 먼저 잠가서 같은 예약을 동시에 재처리하는 인스턴스가 원장 확인 -> 저장 사이에 끼어들지 못하게 함
+        productRepository.findForUpdateWithTimeout(productId);
+
+        List<String> requestIds = reservations.stream().map(StockReservation::getRequestId).toList();
+        Set<String> applied = new HashSet<>(stockLedgerRepository.findRequestIdsIn(requestIds));
+
+        List<StockReservation> targets = reservations.stream()
+            .filter(r -> !applied.contains(r.getRequestId()))
+            .toList();
+
+        if (targets.isEmpty()) {
+            return targets;
+        }
+
+        int totalQuantity = targets.stream().mapToInt(StockReservation::getQuantity).sum();
+        int updated = productRepository.decrement(productId, totalQuantity);
+
+        if (updated != 1) {
+            // DB 재고가 Redis 선점 합계보다 적음 (Redis-DB 불일치), 롤백
+            throw new InsufficientStockException(productId, productRepository.findStockById(productId));
+        }
+
+        stockLedgerService.saveReservations(productId, targets);
+        return targets;
+    }
+
+    /**
+     * 같은 상품의 여러 주문을 합계 수량으로 한 번에 차감 (UPDATE 1회 + 원장 일괄 저장)
+     * 합계만큼 재고가 없거나 이미 반영된 주문이 섞여 있으면 예외 -> 호출 측에서 주문 단위로 나눠 처리
+     * @return 주문 순서대로 차감 후 남은 재고를 담은 결과
+     */
+    @Transactional
+    public List<StockResult> decreaseAggregatedInDB(Long productId, List<StockReservation> reservations) {
+        int totalQuantity = reservations.stream().mapToInt(StockReservation::getQuantity).sum();
+        int updated = productRepository.decrement(productId, totalQuantity);
+        int remainingStock = productRepository.findStockById(productId);
+
+        if (updated != 1) {
+            throw new InsufficientStockException(productId, remainingStock);
+        }
+
+        stockLedgerService.saveReservations(productId, reservations);
+
+        // 주문 순서대로 차감했다고 보고 주문별 남은 재고 계산
+        List<StockResult> results = new ArrayList<>(reservations.size());
+        int stock = remainingStock + totalQuantity;
+        for (StockReservation reservation : reservations) {
+            stock -= reservation.getQuantity();
+            StockResult result = new StockResult(true, stock, "OK");
+            recordResult(reservation.getRequestId(), result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * 한 주문의 여러 상품을 한 트랜잭션에서 차감 (전부 성공 또는 전부 롤백)
+     * 상품 ID 오름차순으로 UPDATE 하여 행 잠금 획득 순서를 고정 -> 상품이 겹치는 묶음 요청끼리 교착 상태가 생기지 않음
+     * 묶음 결과는 요청 1건당 1개로 기록 (상품별 남은 재고는 담지 않음)
+     * @param lines 상품 ID 오름차순 정렬, 상품 중복 없음
+     */
+    @Transactional
+    public void decreaseBulkInDB(Long orderId, List<StockLine> lines, String requestId) {
+        for (StockLine line : lines) {
+            int updated = productRepository.decrement(line.getProductId(), line.getQuantity());
+            if (updated != 1) {
+                // 한 줄이라도 실패하면 앞서 차감한 상품까지 전부 롤백
+                Product product = productRepository.findById(line.getProductId())
+                    .orElseThrow(() -> new ProductNotFoundException(line.getProductId()));
+                throw new InsufficientStockException(line.getProductId(), product.getStock());
+            }
+        }
+
+        stockLedgerService.saveLines(orderId, lines, requestId);
+        recordResult(requestId, new StockResult(true, null, "OK"));
+    }
+
+    // 처리 결과를 차감과 같은 트랜잭션에 기록 (requestId 유니크)
+    // Redis 처리 중 표시가 만료된 뒤 다시 들어온 요청도 여기서 유니크 위반으로 걸러져 차감까지 롤백 -> 중복 차감의 최종 판정
+    private void recordResult(String requestId, StockResult result) {
+        idempotencyRepository.saveAndFlush(
+            IdempotencyRecord.create(requestId, IdempotencyStatus.SUCCESS, result.getMessage(), result.getRemainingStock()));
+    }
 }
@@ -0,0 +1,137 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.exception.InsufficientStockException;
+import hello.product_service.product.infra.config.StockWriteBehindProperties;
+import hello.product_service.product.infra.redis.StockReservationLog;
+import hello.product_service.product.model.StockReservation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * write-behind 플러셔
+ * Redis에서 선점된 예약 로그를 주기적으로 모아 상품 단위로 DB에 반영 (상품당 UPDATE 1회 + 원장 일괄 저장)
+ * DB 반영이 끝난 예약만 ACK 하므로, 반영 전 장애가 나면 재기동 시 Pending 목록부터 다시 처리한다.
+ * 재기동하지 않는(죽은) 인스턴스의 Pending 예약은 다른 인스턴스가 claimIdleTime 후 가져가서 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockWriteBehindFlusher {
+    private final StockReservationLog reservationLog;
+    private final StockTxHandler stockTxHandler;
+    private final StockWriteBehindProperties properties;
+
+    private volatile boolean ready = false;
+
+    /**
+     * 기동 시 컨슈머 그룹 준비 후 ACK 되지 않은 예약부터 복구
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        reservationLog.ensureGroup();
+        ready = true;
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${stock.write-behind.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (!properties.isEnabled() || !ready) {
+            return;
+        }
+
+        try {
+            claimIdle();
+            flushPending();
+            flushNew();
+        } catch (Exception e) {
+            // 반영하지 못한 예약은 Pending으로 남아 다음 주기에 재처리
+            log.error("write-behind 플러시 실패, 다음 주기에 재시도합니다. 사유: {}", e.getMessage(), e);
+        }
+    }
+
+    // 죽은 인스턴스가 남긴 Pending 예약을 가져옴, 이어지는 flushPending 에서 반영
+    private void claimIdle() {
+        long claimed = reservationLog.claimIdle(properties.getBatchSize());
+        if (claimed > 0) {
+            log.info("write-behind 유휴 Pending 예약 인수, consumer = {}, count = {}", properties.getConsumerName(), claimed);
+        }
+    }
+
+    // 이전에 읽었지만 ACK 하지 못한 예약 재처리
+    private void flushPending() {
+        String afterId = "0";
+        while (true) {
+            List<StockReservation> reservations = reservationLog.readPending(afterId, properties.getBatchSize());
+            if (reservations.isEmpty()) {
+                return;
+            }
+
+            log.info("write-behind Pending 예약 재처리, count = {}", reservations.size());
+            apply(reservations);
+            afterId = reservations.get(reservations.size() - 1).getLogId();
+        }
+    }
+
+    // 신규 예약 반영, 배치가 가득 차면 남은 예약이 있으므로 계속 읽는다
+    private void flushNew() {
+        while (true) {
+            List<StockReservation> reservations = reservationLog.readNew(properties.getBatchSize());
+            if (reservations.isEmpty()) {
+                return;
+            }
+
+            apply(reservations);
+            if (reservations.size() < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    private void apply(List<StockReservation> reservations) {
+        Map<Long, List<StockReservation>> byProduct = reservations.stream()
+            .collect(Collectors.groupingBy(StockReservation::getProductId, LinkedHashMap::new, Collectors.toList()));
+
+        List<StockReservation> done = new ArrayList<>();
+        for (Map.Entry<Long, List<StockReservation>> entry : byProduct.entrySet()) {
+            Long productId = entry.getKey();
+            List<StockReservation> group = entry.getValue();
+
+            try {
+                stockTxHandler.applyReservedDecrease(productId, group);
+                log.info("write-behind 반영 완료, productId = {}, count = {}", productId, group.size());
+            } catch (InsufficientStockException e) {
+                // 합계 차감 실패 (Redis-DB 불일치), 예약 단위로 나눠서 반영
+                applyOneByOne(productId, group);
+            }
+            done.addAll(group);
+        }
+
+        reservationLog.acknowledge(done);
+    }
+
+    private void applyOneByOne(Long productId, List<StockReservation> group) {
+        for (StockReservation reservation : group) {
+            try {
+                stockTxHandler.applyReservedDecrease(productId, List.of(reservation));
+            } catch (InsufficientStockException e) {
+                // 재시도해도 해결되지 않으므로 ACK 후 수동 정합성 확인 대상으로 남긴다
+                log.error("write-behind 반영 불가 (DB 재고 부족), productId = {}, orderId = {}, requestId = {}, quantity = {}",
+                    productId, reservation.getOrderId(), reservation.getRequestId(), reservation.getQuantity());
+            }
+        }
+    }
+}
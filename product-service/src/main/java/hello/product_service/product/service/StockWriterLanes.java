@@ -0,0 +1,84 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.infra.config.StockConsumerProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * 상품별 단일 writer 레인
+ * productId 해시로 레인(단일 스레드)을 고정하므로 같은 상품의 재고 차감은 한 스레드에서 순서대로 실행되고,
+ * 다른 상품은 서로 다른 레인에서 병렬로 실행된다. -> 컨슈머 동시성을 올려도 같은 상품 행의 락 경합이 생기지 않음
+ * 레인 수가 0 이면 호출한 스레드에서 바로 실행
+ */
+@Component
+@Slf4j
+public class StockWriterLanes {
+    private final ExecutorService[] lanes;
+
+    public StockWriterLanes(StockConsumerProperties properties) {
+        this.lanes = new ExecutorService[properties.getLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(namedThread("stock-lane-" + i));
+        }
+        log.info("재고 차감 레인 수 = {}", lanes.length);
+    }
+
+    public boolean isEnabled() {
+        return lanes.length > 0;
+    }
+
+    /**
+     * 상품 레인에 작업 등록
+     */
+    public <T> CompletableFuture<T> submit(Long productId, Supplier<T> task) {
+        if (!isEnabled()) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(task, lanes[laneOf(productId)]);
+    }
+
+    /**
+     * 상품 레인에서 실행하고 결과를 기다림, 작업에서 발생한 예외는 그대로 전달
+     */
+    public <T> T execute(Long productId, Supplier<T> task) {
+        try {
+            return submit(productId, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    int laneOf(Long productId) {
+        return Math.floorMod(Long.hashCode(productId), lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private static ThreadFactory namedThread(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+-- DB 반영이 끝난 예약 ACK 스크립트
+-- ACK 후 스트림에서 삭제하고 상품별 미반영 수량을 줄인다. 처음 ACK 한 예약만 줄이므로 두 번 ACK 해도 두 번 빠지지 않음
+-- KEYS[1] : 예약 로그 스트림
+-- KEYS[2] : 상품별 미반영 예약 수량 해시
+-- ARGV[1] : 컨슈머 그룹, 이후 (logId, productId, quantity) 반복
+-- return  : ACK 한 예약 건수
+local acked = 0
+
+for i = 2, #ARGV, 3 do
+    if redis.call('XACK', KEYS[1], ARGV[1], ARGV[i]) == 1 then
+        redis.call('HINCRBY', KEYS[2], ARGV[i + 1], -tonumber(ARGV[i + 2]))
+        acked = acked + 1
+    end
+    redis.call('XDEL', KEYS[1], ARGV[i])
+end
+
+return acked
@@ -0,0 +1,13 @@
+-- 예약 로그 기록 스크립트 (샤드 여러 곳에서 모아서 선점한 경우)
+-- 로그(XADD)와 상품별 미반영 수량(HINCRBY)을 함께 기록
+-- KEYS[1] : 예약 로그 스트림
+-- KEYS[2] : 상품별 미반영 예약 수량 해시
+-- ARGV[1] : 수량, ARGV[2] : productId, ARGV[3] : orderId, ARGV[4] : requestId
+redis.call('XADD', KEYS[1], '*',
+    'productId', ARGV[2],
+    'quantity', ARGV[1],
+    'orderId', ARGV[3],
+    'requestId', ARGV[4])
+redis.call('HINCRBY', KEYS[2], ARGV[2], tonumber(ARGV[1]))
+
+return 1
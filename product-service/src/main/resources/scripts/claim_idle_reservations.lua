@@ -0,0 +1,8 @@
+-- 죽은 인스턴스가 읽고 ACK 하지 못한 예약 로그를 가져오는 스크립트
+-- minIdle 이상 전달되지 않은 Pending 예약을 이 컨슈머로 옮긴다 (XAUTOCLAIM, Redis 6.2+)
+-- KEYS[1] : stock:reservation-log
+-- ARGV[1] : 컨슈머 그룹, ARGV[2] : 가져올 컨슈머, ARGV[3] : 최소 유휴 시간(ms), ARGV[4] : 최대 건수
+-- return  : 가져온 예약 건수
+local claimed = redis.call('XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], '0-0', 'COUNT', ARGV[4], 'JUSTID')
+
+return #claimed[2]
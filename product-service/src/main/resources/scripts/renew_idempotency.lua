@@ -0,0 +1,10 @@
+-- 멱등성 처리 중 표시 연장 스크립트
+-- 아직 처리 중(IN_FLIGHT)일 때만 TTL 을 다시 설정, 결과가 저장되었거나 키가 사라졌으면 그대로 둔다
+-- KEYS[1] : idempotency:{requestId}
+-- ARGV[1] : 처리 중 표시 값, ARGV[2] : 처리 중 TTL(초)
+-- return  : 연장하면 1, 아니면 0
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('EXPIRE', KEYS[1], ARGV[2])
+end
+
+return 0
@@ -0,0 +1,10 @@
+-- 멱등성 키 선점 스크립트
+-- 키가 없으면 처리 중(IN_FLIGHT) 표시와 함께 생성, 있으면 기존 값을 돌려준다 (SET NX + GET 한 번의 왕복)
+-- KEYS[1] : idempotency:{requestId}
+-- ARGV[1] : 처리 중 표시 값, ARGV[2] : 처리 중 TTL(초)
+-- return  : 선점 성공 시 nil, 이미 있으면 저장된 값 (처리 중 표시 또는 결과 JSON)
+if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[2]) then
+    return nil
+end
+
+return redis.call('GET', KEYS[1])
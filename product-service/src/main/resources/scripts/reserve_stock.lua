@@ -0,0 +1,23 @@
+-- 재고 선점 스크립트 (검증 + 차감을 Redis 서버에서 원자적으로 수행)
+-- KEYS[1] : stock:{productId}
+-- ARGV[1] : 차감 수량
+-- ARGV[2] : (선택) 매진 알림 채널, ARGV[3] : 알림 메시지 (productId:instanceId)
+-- return  : 차감 후 남은 재고, 재고 부족 시 -(현재 재고 + 1), 키 없음 -1
+-- 이번 차감으로 재고가 0이 되면 매진 알림 발행 (다른 인스턴스의 SoldOutGate 갱신)
+local stock = tonumber(redis.call('GET', KEYS[1]))
+local quantity = tonumber(ARGV[1])
+
+if stock == nil then
+    return -1
+end
+
+if stock < quantity then
+    return -stock - 1
+end
+
+local remaining = redis.call('DECRBY', KEYS[1], quantity)
+if remaining == 0 and ARGV[2] then
+    redis.call('PUBLISH', ARGV[2], ARGV[3])
+end
+
+return remaining
@@ -0,0 +1,32 @@
+-- 재고 선점 + 예약 로그 기록 스크립트 (write-behind 모드)
+-- 차감과 로그(XADD)가 한 번에 반영되므로, DB 반영 전에 서버가 죽어도 예약 로그로 복구할 수 있다.
+-- KEYS[1] : stock:{productId}
+-- KEYS[2] : 예약 로그 스트림
+-- KEYS[3] : 상품별 미반영 예약 수량 해시 (DB 반영 후 ACK 시 차감)
+-- ARGV[1] : 차감 수량, ARGV[2] : productId, ARGV[3] : orderId, ARGV[4] : requestId
+-- ARGV[5] : (선택) 매진 알림 채널, ARGV[6] : 알림 메시지 (productId:instanceId)
+-- return  : 차감 후 남은 재고, 재고 부족 시 -(현재 재고 + 1), 키 없음 -1
+local stock = tonumber(redis.call('GET', KEYS[1]))
+local quantity = tonumber(ARGV[1])
+
+if stock == nil then
+    return -1
+end
+
+if stock < quantity then
+    return -stock - 1
+end
+
+local remaining = redis.call('DECRBY', KEYS[1], quantity)
+redis.call('XADD', KEYS[2], '*',
+    'productId', ARGV[2],
+    'quantity', ARGV[1],
+    'orderId', ARGV[3],
+    'requestId', ARGV[4])
+redis.call('HINCRBY', KEYS[3], ARGV[2], quantity)
+
+if remaining == 0 and ARGV[5] then
+    redis.call('PUBLISH', ARGV[5], ARGV[6])
+end
+
+return remaining
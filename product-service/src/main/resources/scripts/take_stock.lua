@@ -0,0 +1,15 @@
+-- 재고 부분 회수 스크립트 (샤드 카운터 모으기/재분배용)
+-- 남은 재고가 요청보다 적으면 남은 만큼만 가져간다.
+-- KEYS[1] : stock:{productId}:{shard}
+-- ARGV[1] : 가져갈 최대 수량
+-- return  : 실제로 가져간 수량 (키가 없거나 0이면 0)
+local stock = tonumber(redis.call('GET', KEYS[1]))
+local wanted = tonumber(ARGV[1])
+
+if stock == nil or stock <= 0 then
+    return 0
+end
+
+local taken = math.min(stock, wanted)
+redis.call('DECRBY', KEYS[1], taken)
+return taken
@@ -7,6 +7,7 @@ import hello.product_service.product.infra.redis.StockRedisManager;
 import hello.product_service.product.model.event.StockDecreaseEvent;
 import hello.product_service.product.model.event.StockResultEvent;
 import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +15,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 
 @SpringBootTest
@@ -32,6 +36,12 @@ class StockDecreaseMessagingTest {
     @MockitoBean
     private StockResultProducer resultProducer; // 결과 응답 발송만 Mock
 
+    @BeforeEach
+    void setup() {
+        // 결과 confirm 완료 -> 요청 메시지 ACK
+        given(resultProducer.sendResult(any())).willReturn(CompletableFuture.completedFuture(null));
+    }
+
     @Test
     void stock_decrease_integration_test() {
         // given
@@ -0,0 +1,109 @@
+package hello.product_service.product.infra.cache;
+
+import hello.product_service.product.infra.config.IdempotencyCacheProperties;
+import hello.product_service.product.model.StockResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private IdempotencyCache cache;
+
+    @BeforeEach
+    void setup() {
+        IdempotencyCacheProperties properties = new IdempotencyCacheProperties();
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setMaxSize(3);
+        cache = new IdempotencyCache(properties, now::get);
+    }
+
+    @Test
+    void 저장된_결과는_적중_없으면_미스() {
+        StockResult result = new StockResult(true, 10, "OK");
+        cache.put("REQ-1", result);
+
+        assertThat(cache.get("REQ-1")).isSameAs(result);
+        assertThat(cache.get("REQ-2")).isNull();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void TTL_지나면_만료되어_제거() {
+        cache.put("REQ-1", new StockResult(true, 10, "OK"));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(cache.get("REQ-1")).isNull();
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void 최대_건수를_넘으면_정리() {
+        for (int i = 0; i < 10; i++) {
+            cache.put("REQ-" + i, new StockResult(true, i, "OK"));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+        assertThat(cache.evictionCount()).isEqualTo(10 - cache.size());
+    }
+
+    @Test
+    void 정리는_최대_건수의_90퍼센트까지_한_번에_줄인다() {
+        IdempotencyCacheProperties properties = new IdempotencyCacheProperties();
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setMaxSize(100);
+        IdempotencyCache large = new IdempotencyCache(properties, now::get);
+
+        for (int i = 0; i <= 100; i++) {
+            large.put("REQ-" + i, new StockResult(true, i, "OK"));
+        }
+        assertThat(large.size()).isEqualTo(90);
+        assertThat(large.evictionCount()).isEqualTo(11);
+
+        // 다시 최대 건수를 넘을 때까지는 정리하지 않음
+        for (int i = 101; i <= 110; i++) {
+            large.put("REQ-" + i, new StockResult(true, i, "OK"));
+        }
+        assertThat(large.size()).isEqualTo(100);
+        assertThat(large.evictionCount()).isEqualTo(11);
+    }
+
+    @Test
+    void 트랜잭션_중_저장은_커밋_이후에만_적재() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.putAfterCommit("REQ-1", new StockResult(true, 10, "OK"));
+            assertThat(cache.size()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(cache.get("REQ-1")).isNotNull();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void 지표_등록() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.put("REQ-1", new StockResult(true, 10, "OK"));
+        cache.get("REQ-1");
+        cache.get("REQ-2");
+
+        assertThat(registry.get("idempotency.cache.hits").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("idempotency.cache.misses").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("idempotency.cache.size").gauge().value()).isEqualTo(1);
+    }
+}
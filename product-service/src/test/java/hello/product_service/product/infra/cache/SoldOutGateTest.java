@@ -0,0 +1,111 @@
+package hello.product_service.product.infra.cache;
+
+import hello.product_service.product.infra.config.SoldOutGateProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SoldOutGateTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SoldOutGateProperties properties = new SoldOutGateProperties();
+    private RedisTemplate<String, String> redisTemplate;
+    private SoldOutGate gate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        properties.setTtl(Duration.ofSeconds(2));
+        redisTemplate = mock(RedisTemplate.class);
+        gate = new SoldOutGate(properties, redisTemplate, now::get);
+    }
+
+    @Test
+    void 알려진_재고보다_많이_요청하면_거절() {
+        gate.update(1L, 3);
+
+        assertThat(gate.rejects(1L, 3)).isFalse();
+        assertThat(gate.rejects(1L, 4)).isTrue();
+        assertThat(gate.knownStock(1L)).isEqualTo(3);
+        assertThat(gate.rejectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 모르는_상품은_거절하지_않는다() {
+        assertThat(gate.rejects(1L, 1)).isFalse();
+        assertThat(gate.knownStock(1L)).isZero();
+    }
+
+    @Test
+    void TTL이_지나면_Redis로_다시_확인() {
+        gate.update(1L, 0);
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        assertThat(gate.rejects(1L, 1)).isFalse();
+    }
+
+    @Test
+    void 재입고하면_로컬_값_제거_후_알림() {
+        gate.update(1L, 0);
+
+        gate.restocked(1L);
+
+        assertThat(gate.rejects(1L, 1)).isFalse();
+        verify(redisTemplate).convertAndSend(properties.getRestockChannel(), gate.message(1L));
+    }
+
+    @Test
+    void 다른_인스턴스의_매진_알림은_재고_0으로_기록() {
+        gate.onMessage(message(properties.getSoldOutChannel(), "1:other"), null);
+
+        assertThat(gate.rejects(1L, 1)).isTrue();
+    }
+
+    @Test
+    void 다른_인스턴스의_재입고_알림은_로컬_값_제거() {
+        gate.update(1L, 0);
+
+        gate.onMessage(message(properties.getRestockChannel(), "1:other"), null);
+
+        assertThat(gate.rejects(1L, 1)).isFalse();
+    }
+
+    @Test
+    void 자기_인스턴스_알림은_무시() {
+        // 재입고 후 늦게 도착한 자기 매진 알림이 재입고를 덮어쓰지 않아야 한다
+        gate.restocked(1L);
+
+        gate.onMessage(message(properties.getSoldOutChannel(), gate.message(1L)), null);
+
+        assertThat(gate.rejects(1L, 1)).isFalse();
+    }
+
+    @Test
+    void 비활성화하면_기록도_거절도_하지_않는다() {
+        properties.setEnabled(false);
+
+        gate.update(1L, 0);
+        gate.restocked(1L);
+
+        assertThat(gate.rejects(1L, 1)).isFalse();
+        assertThat(gate.soldOutChannel()).isNull();
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    private DefaultMessage message(String channel, String body) {
+        return new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
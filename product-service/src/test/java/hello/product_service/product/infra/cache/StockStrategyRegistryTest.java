@@ -0,0 +1,115 @@
+package hello.product_service.product.infra.cache;
+
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.config.StockStrategyCacheProperties;
+import hello.product_service.product.model.ProductStockStrategy;
+import hello.product_service.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StockStrategyRegistryTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private ProductRepository productRepository;
+    private RedisTemplate<String, String> redisTemplate;
+    private StockStrategyRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        productRepository = mock(ProductRepository.class);
+        redisTemplate = mock(RedisTemplate.class);
+        StockStrategyCacheProperties properties = new StockStrategyCacheProperties();
+        properties.setTtl(Duration.ofSeconds(10));
+        registry = new StockStrategyRegistry(productRepository, redisTemplate, properties, now::get);
+    }
+
+    @Test
+    void 시작_시_적재한_전략은_DB_조회_없이_반환() {
+        given(productRepository.findAllStockStrategies()).willReturn(List.of(
+            new ProductStockStrategy(1L, StockStrategy.REDIS_FIRST),
+            new ProductStockStrategy(2L, StockStrategy.DB_ONLY)
+        ));
+
+        registry.load();
+
+        assertThat(registry.get(1L)).isEqualTo(StockStrategy.REDIS_FIRST);
+        assertThat(registry.get(2L)).isEqualTo(StockStrategy.DB_ONLY);
+        verify(productRepository, times(0)).findStockStrategyById(1L);
+        assertThat(registry.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void 캐시에_없으면_DB_조회_후_캐시() {
+        given(productRepository.findStockStrategyById(1L)).willReturn(StockStrategy.DB_ONLY);
+
+        registry.get(1L);
+        registry.get(1L);
+
+        verify(productRepository, times(1)).findStockStrategyById(1L);
+        assertThat(registry.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 없는_상품은_캐시하지_않는다() {
+        assertThat(registry.get(1L)).isNull();
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void TTL_지나면_DB에서_다시_읽는다() {
+        given(productRepository.findStockStrategyById(1L)).willReturn(StockStrategy.DB_ONLY, StockStrategy.REDIS_FIRST);
+        registry.get(1L);
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(registry.get(1L)).isEqualTo(StockStrategy.REDIS_FIRST);
+    }
+
+    @Test
+    void 무효화하면_로컬에서_제거하고_다른_인스턴스에_알린다() {
+        given(productRepository.findStockStrategyById(1L)).willReturn(StockStrategy.DB_ONLY, StockStrategy.REDIS_FIRST);
+        registry.get(1L);
+
+        registry.invalidate(1L);
+
+        verify(redisTemplate).convertAndSend(registry.getChannel(), "1");
+        assertThat(registry.get(1L)).isEqualTo(StockStrategy.REDIS_FIRST);
+    }
+
+    @Test
+    void 알림_발행이_실패해도_로컬_캐시는_제거() {
+        given(productRepository.findStockStrategyById(1L)).willReturn(StockStrategy.DB_ONLY);
+        registry.get(1L);
+        willThrow(new RuntimeException("redis down")).given(redisTemplate).convertAndSend(registry.getChannel(), "1");
+
+        registry.invalidate(1L);
+
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void 다른_인스턴스의_변경_알림을_받으면_제거() {
+        given(productRepository.findStockStrategyById(1L)).willReturn(StockStrategy.DB_ONLY);
+        registry.get(1L);
+
+        registry.onMessage(new DefaultMessage(
+            registry.getChannel().getBytes(StandardCharsets.UTF_8), "1".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(registry.size()).isZero();
+    }
+}
@@ -1,21 +1,48 @@
 package hello.product_service.product.infra.rabbitmq;
 
+import hello.product_service.product.exception.IdempotencyInProgressException;
 import hello.product_service.product.exception.InsufficientStockException;
+import hello.product_service.product.infra.config.RabbitMqConfig;
+import hello.product_service.product.infra.config.StockConsumerProperties;
+import hello.product_service.product.infra.config.StockResultPublisherProperties;
+import hello.product_service.product.model.StockDecreaseOutcome;
+import hello.product_service.product.model.StockLine;
+import hello.product_service.product.model.StockResult;
+import hello.product_service.product.model.event.BulkStockDecreaseEvent;
 import hello.product_service.product.model.event.StockDecreaseEvent;
 import hello.product_service.product.model.event.StockResultEvent;
 import hello.product_service.product.service.InventoryServiceV2;
+import hello.product_service.product.service.StockWriterLanes;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,33 +54,155 @@ class StockDecreaseConsumerTest {
     @Mock
     private StockResultProducer stockResultProducer;
 
+    @Spy
+    private StockWriterLanes stockWriterLanes = new StockWriterLanes(new StockConsumerProperties()); // 레인 0개 -> 호출 스레드에서 실행
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Spy
+    private StockConsumerProperties properties = new StockConsumerProperties();
+
+    @Spy
+    private StockResultPublisherProperties resultProperties = new StockResultPublisherProperties();
+
     @InjectMocks
     private StockDecreaseConsumer stockDecreaseConsumer;
 
+    private final Channel channel = mock(Channel.class);
+    private final CompletableFuture<Void> confirmed = new CompletableFuture<>();
+
+    @BeforeEach
+    void setup() {
+        // 결과 confirm 은 테스트에서 직접 완료
+        lenient().when(stockResultProducer.sendResult(any())).thenReturn(confirmed);
+    }
+
     @Test
-    void 재고부족은_실패이벤트를_보내고_dlq로_보내지_않는다() {
+    void 재고부족은_실패이벤트를_보내고_confirm_후_ACK() throws Exception {
         StockDecreaseEvent event = new StockDecreaseEvent(1L, 2L, 3, "DEC-1");
         willThrow(new InsufficientStockException(2L, 0)).given(inventoryService)
             .decreaseByOrder(2L, 1L, 3, "DEC-1");
 
-        stockDecreaseConsumer.handleStockDecrease(event);
+        stockDecreaseConsumer.handleStockDecrease(event, null, channel, 7L);
 
         ArgumentCaptor<StockResultEvent> captor = ArgumentCaptor.forClass(StockResultEvent.class);
         verify(stockResultProducer).sendResult(captor.capture());
         assertThat(captor.getValue().getReason()).isEqualTo("INSUFFICIENT_STOCK");
+
+        // 결과 confirm 전에는 ACK 하지 않음
+        verify(channel, never()).basicAck(7L, false);
+        confirmed.complete(null);
+        verify(channel).basicAck(7L, false);
     }
 
     @Test
-    void 시스템오류는_실패이벤트를_보내고_dlq로_보낸다() {
+    void 시스템오류는_실패이벤트를_보내고_dlq로_보낸다() throws Exception {
         StockDecreaseEvent event = new StockDecreaseEvent(1L, 2L, 3, "DEC-1");
         willThrow(new RuntimeException("boom")).given(inventoryService)
             .decreaseByOrder(2L, 1L, 3, "DEC-1");
 
-        assertThatThrownBy(() -> stockDecreaseConsumer.handleStockDecrease(event))
-            .isInstanceOf(AmqpRejectAndDontRequeueException.class);
+        stockDecreaseConsumer.handleStockDecrease(event, null, channel, 7L);
 
         ArgumentCaptor<StockResultEvent> captor = ArgumentCaptor.forClass(StockResultEvent.class);
         verify(stockResultProducer).sendResult(captor.capture());
         assertThat(captor.getValue().getReason()).isEqualTo("SYSTEM_ERROR");
+
+        confirmed.complete(null);
+        verify(channel).basicNack(7L, false, false);
+    }
+
+    @Test
+    void 같은_요청이_처리중이면_결과를_보내지_않고_지연_큐로_보낸다() throws Exception {
+        StockDecreaseEvent event = new StockDecreaseEvent(1L, 2L, 3, "DEC-1");
+        willThrow(new IdempotencyInProgressException("DEC-1")).given(inventoryService)
+            .decreaseByOrder(2L, 1L, 3, "DEC-1");
+        willAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(4);
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).given(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class),
+            any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        stockDecreaseConsumer.handleStockDecrease(event, null, channel, 7L);
+
+        verify(stockResultProducer, never()).sendResult(any());
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMqConfig.STOCK_REQUEST_RETRY_EXCHANGE),
+            eq(RabbitMqConfig.STOCK_REQUEST_ROUTING_KEY), eq(event), any(MessagePostProcessor.class), any(CorrelationData.class));
+        verify(channel).basicAck(7L, false);
+    }
+
+    @Test
+    void 처리중_재시도_횟수를_넘으면_결과_없이_dlq로_보낸다() throws Exception {
+        StockDecreaseEvent event = new StockDecreaseEvent(1L, 2L, 3, "DEC-1");
+        willThrow(new IdempotencyInProgressException("DEC-1")).given(inventoryService)
+            .decreaseByOrder(2L, 1L, 3, "DEC-1");
+
+        stockDecreaseConsumer.handleStockDecrease(event, properties.getInProgressMaxRetries(), channel, 7L);
+
+        verify(stockResultProducer, never()).sendResult(any());
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class),
+            any(MessagePostProcessor.class), any(CorrelationData.class));
+        verify(channel).basicNack(7L, false, false);
+    }
+
+    @Test
+    void 배치_수신은_주문별로_결과를_보내고_시스템오류만_dlq로_보낸다() throws Exception {
+        StockDecreaseEvent ok = new StockDecreaseEvent(1L, 2L, 1, "DEC-1");
+        StockDecreaseEvent insufficient = new StockDecreaseEvent(2L, 2L, 100, "DEC-2");
+        StockDecreaseEvent error = new StockDecreaseEvent(3L, 3L, 1, "DEC-3");
+        List<Message<StockDecreaseEvent>> messages = List.of(message(ok, 1L), message(insufficient, 2L), message(error, 3L));
+
+        given(inventoryService.decreaseByOrders(List.of(ok, insufficient, error))).willReturn(List.of(
+            StockDecreaseOutcome.success(ok, new StockResult(true, 9, "OK")),
+            StockDecreaseOutcome.insufficientStock(insufficient),
+            StockDecreaseOutcome.systemError(error, new RuntimeException("boom"))
+        ));
+
+        stockDecreaseConsumer.handleStockDecreaseBatch(messages, channel);
+
+        ArgumentCaptor<StockResultEvent> captor = ArgumentCaptor.forClass(StockResultEvent.class);
+        verify(stockResultProducer, times(3)).sendResult(captor.capture());
+        assertThat(captor.getAllValues()).extracting(StockResultEvent::getReason)
+            .containsExactly(null, "INSUFFICIENT_STOCK", "SYSTEM_ERROR");
+
+        verify(channel, never()).basicAck(1L, false);
+        confirmed.complete(null);
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+        verify(channel).basicNack(3L, false, false);
+    }
+
+    @Test
+    void 묶음_요청_재고부족은_주문_단위_실패이벤트_1건을_보낸다() throws Exception {
+        List<StockLine> lines = List.of(new StockLine(2L, 1), new StockLine(3L, 5));
+        BulkStockDecreaseEvent event = new BulkStockDecreaseEvent(1L, lines, "DEC-1");
+        willThrow(new InsufficientStockException(3L, 0)).given(inventoryService)
+            .decreaseByOrderBulk(1L, lines, "DEC-1");
+
+        stockDecreaseConsumer.handleBulkStockDecrease(event, null, channel, 7L);
+
+        ArgumentCaptor<StockResultEvent> captor = ArgumentCaptor.forClass(StockResultEvent.class);
+        verify(stockResultProducer).sendResult(captor.capture());
+        assertThat(captor.getValue().getOrderId()).isEqualTo(1L);
+        assertThat(captor.getValue().getReason()).isEqualTo("INSUFFICIENT_STOCK");
+    }
+
+    @Test
+    void 묶음_요청_시스템오류는_dlq로_보낸다() throws Exception {
+        List<StockLine> lines = List.of(new StockLine(2L, 1));
+        BulkStockDecreaseEvent event = new BulkStockDecreaseEvent(1L, lines, "DEC-1");
+        willThrow(new RuntimeException("boom")).given(inventoryService)
+            .decreaseByOrderBulk(1L, lines, "DEC-1");
+
+        stockDecreaseConsumer.handleBulkStockDecrease(event, null, channel, 7L);
+
+        verify(stockResultProducer).sendResult(any());
+        confirmed.complete(null);
+        verify(channel).basicNack(7L, false, false);
+    }
+
+    private Message<StockDecreaseEvent> message(StockDecreaseEvent event, long deliveryTag) {
+        return MessageBuilder.withPayload(event).setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag).build();
     }
 }
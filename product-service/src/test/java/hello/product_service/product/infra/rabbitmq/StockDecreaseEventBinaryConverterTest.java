@@ -0,0 +1,58 @@
+package hello.product_service.product.infra.rabbitmq;
+
+import hello.product_service.product.model.event.StockDecreaseEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StockDecreaseEventBinaryConverterTest {
+
+    private final StockDecreaseEventBinaryConverter converter = new StockDecreaseEventBinaryConverter();
+
+    private Message binaryMessage(String hex) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(StockDecreaseEventBinaryConverter.CONTENT_TYPE);
+        return new Message(HexFormat.of().parseHex(hex), properties);
+    }
+
+    @Test
+    void 주문_서버_바이너리_레이아웃_디코딩() {
+        // 주문 서버 StockDecreaseRequestBinaryCodecTest 와 같은 바이트
+        Message message = binaryMessage("01" + "0000000000000001" + "0000000000000002" + "00000003" + "05" + "4445432d31");
+
+        Object event = converter.fromMessage(message);
+
+        assertThat(event).isEqualTo(new StockDecreaseEvent(1L, 2L, 3, "DEC-1"));
+    }
+
+    @Test
+    void 잘린_payload_는_변환_예외() {
+        Message message = binaryMessage("01" + "0000000000000001");
+
+        assertThatThrownBy(() -> converter.fromMessage(message)).isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void content_type_에_따라_바이너리와_JSON_디코더_선택() {
+        ContentTypeDelegatingMessageConverter delegating = new ContentTypeDelegatingMessageConverter(new Jackson2JsonMessageConverter());
+        delegating.addDelegate(StockDecreaseEventBinaryConverter.CONTENT_TYPE, converter);
+        StockDecreaseEvent expected = new StockDecreaseEvent(10L, 20L, 1, "DEC-10");
+
+        Message binary = converter.toMessage(expected, new MessageProperties());
+        MessageProperties jsonProperties = new MessageProperties();
+        jsonProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        jsonProperties.setInferredArgumentType(StockDecreaseEvent.class);
+        Message json = new Message(
+            "{\"orderId\":10,\"productId\":20,\"quantity\":1,\"requestId\":\"DEC-10\"}".getBytes(), jsonProperties);
+
+        assertThat(delegating.fromMessage(binary)).isEqualTo(expected);
+        assertThat(delegating.fromMessage(json)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,78 @@
+package hello.product_service.product.infra.rabbitmq;
+
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.infra.config.RabbitMqConfig;
+import hello.product_service.product.model.event.StockResultEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "stock.result.flush-interval-ms=3600000") // 스케줄러 대신 직접 flush
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class StockResultProducerTest {
+    private static final String TEST_QUEUE = "order.result.test.queue";
+
+    @Autowired
+    StockResultProducer stockResultProducer;
+    @Autowired
+    RabbitTemplate rabbitTemplate;
+    @Autowired
+    AmqpAdmin amqpAdmin;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        // 주문 서버 대신 결과를 받아볼 큐
+        Queue queue = new Queue(TEST_QUEUE, false, false, true);
+        amqpAdmin.declareQueue(queue);
+        amqpAdmin.declareBinding(BindingBuilder.bind(queue)
+            .to(new TopicExchange(RabbitMqConfig.ORDER_RESULT_EXCHANGE))
+            .with(RabbitMqConfig.ORDER_RESULT_ROUTING_KEY));
+        amqpAdmin.purgeQueue(TEST_QUEUE, false);
+    }
+
+    @Test
+    void 버퍼에_모은_결과를_배치로_발행하고_confirm_받음() {
+        // given
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        for (long orderId = 1; orderId <= 250; orderId++) {
+            confirms.add(stockResultProducer.sendResult(new StockResultEvent(orderId, true, null)));
+        }
+        assertThat(confirms).noneMatch(CompletableFuture::isDone);
+        long confirmedBefore = meterRegistry.get("stock.result.publish.latency").timer().count();
+
+        // when
+        stockResultProducer.flush();
+
+        // then
+        Set<Long> received = new HashSet<>();
+        Object message;
+        while ((message = rabbitTemplate.receiveAndConvert(TEST_QUEUE, 1_000)) != null) {
+            received.add(((StockResultEvent) message).getOrderId());
+        }
+        assertThat(received).hasSize(250);
+        assertThat(confirms).allMatch(CompletableFuture::isDone); // 컨슈머는 이 시점에 요청 메시지 ACK
+        assertThat(meterRegistry.get("stock.result.publish.latency").timer().count() - confirmedBefore).isEqualTo(250);
+        assertThat(meterRegistry.get("stock.result.pending.confirms").gauge().value()).isZero();
+        assertThat(meterRegistry.get("stock.result.buffer.size").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,157 @@
+package hello.product_service.product.infra.redis;
+
+import hello.product_service.product.domain.IdempotencyRecord;
+import hello.product_service.product.domain.IdempotencyStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.infra.config.IdempotencyStoreProperties;
+import hello.product_service.product.model.IdempotencyReservation;
+import hello.product_service.product.model.StockResult;
+import hello.product_service.product.repository.IdempotencyRepository;
+import hello.product_service.product.service.JpaIdempotencyStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class RedisIdempotencyStoreTest {
+
+    @Autowired
+    RedisIdempotencyStore idempotencyStore;
+    @Autowired
+    IdempotencyRepository idempotencyRepository;
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    JpaIdempotencyStore jpaIdempotencyStore;
+
+    @Test
+    void 선점_후_같은_키는_처리중_완료_후에는_결과_반환() {
+        String requestId = "IDEM-1";
+
+        assertThat(idempotencyStore.reserve(requestId).getState()).isEqualTo(IdempotencyReservation.State.ACQUIRED);
+        assertThat(idempotencyStore.reserve(requestId).getState()).isEqualTo(IdempotencyReservation.State.IN_FLIGHT);
+
+        idempotencyStore.complete(requestId, new StockResult(true, 7, "OK"));
+
+        IdempotencyReservation reservation = idempotencyStore.reserve(requestId);
+        assertThat(reservation.getState()).isEqualTo(IdempotencyReservation.State.COMPLETED);
+        assertThat(reservation.getResult().getRemainingStock()).isEqualTo(7);
+    }
+
+    @Test
+    void 해제하면_다시_선점_가능() {
+        String requestId = "IDEM-2";
+        idempotencyStore.reserve(requestId);
+
+        idempotencyStore.release(requestId);
+
+        assertThat(idempotencyStore.reserve(requestId).getState()).isEqualTo(IdempotencyReservation.State.ACQUIRED);
+    }
+
+    @Test
+    void 폴백_중_DB에만_저장된_결과는_선점하지_않고_반환() {
+        // given - Redis 장애로 DB(IdempotencyRecord)에만 저장된 결과
+        RedisIdempotencyStore store = new RedisIdempotencyStore(
+            redisTemplate, objectMapper, new IdempotencyStoreProperties(), jpaIdempotencyStore);
+        String requestId = "IDEM-FALLBACK";
+        store.fallbackComplete(requestId, new StockResult(true, 4, "OK"), new IllegalStateException("redis down"));
+
+        try {
+            // when
+            IdempotencyReservation first = store.reserve(requestId);
+            IdempotencyReservation second = store.reserve(requestId);
+
+            // then - 두 번째는 Redis 에 옮겨 적은 결과
+            assertThat(first.getState()).isEqualTo(IdempotencyReservation.State.COMPLETED);
+            assertThat(first.getResult().getRemainingStock()).isEqualTo(4);
+            assertThat(second.getState()).isEqualTo(IdempotencyReservation.State.COMPLETED);
+            assertThat(second.getResult().getRemainingStock()).isEqualTo(4);
+        } finally {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void 폴백이_없었으면_선점_시_DB를_조회하지_않는다() {
+        // given - 폴백 없이 DB 에만 있는 결과 (차감 트랜잭션이 남긴 기록)
+        RedisIdempotencyStore store = new RedisIdempotencyStore(
+            redisTemplate, objectMapper, new IdempotencyStoreProperties(), jpaIdempotencyStore);
+        String requestId = "IDEM-NO-FALLBACK";
+        idempotencyRepository.save(IdempotencyRecord.create(requestId, IdempotencyStatus.SUCCESS, "OK", 4));
+
+        try {
+            // when & then - Redis 선점만 하고, 중복 차감은 차감 트랜잭션의 유니크 제약이 막음
+            assertThat(store.reserve(requestId).getState()).isEqualTo(IdempotencyReservation.State.ACQUIRED);
+        } finally {
+            store.release(requestId);
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void 처리_중에는_TTL이_지나도_표시를_연장하고_결과_저장_후에는_멈춘다() throws InterruptedException {
+        // given - 처리 중 TTL 1초, 300ms 마다 연장
+        IdempotencyStoreProperties properties = new IdempotencyStoreProperties();
+        properties.setInFlightTtl(Duration.ofSeconds(1));
+        properties.setRenewInterval(Duration.ofMillis(300));
+        RedisIdempotencyStore store = new RedisIdempotencyStore(redisTemplate, objectMapper, properties, jpaIdempotencyStore);
+        String requestId = "IDEM-RENEW";
+
+        try {
+            store.reserve(requestId);
+
+            // when - TTL 보다 오래 처리
+            Thread.sleep(2_500);
+
+            // then - 아직 처리 중
+            assertThat(store.reserve(requestId).getState()).isEqualTo(IdempotencyReservation.State.IN_FLIGHT);
+
+            store.complete(requestId, new StockResult(true, 3, "OK"));
+            Thread.sleep(1_000);
+            assertThat(redisTemplate.getExpire("idempotency:" + requestId)).isGreaterThan(60L);
+        } finally {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void 동시_요청은_하나만_선점() throws InterruptedException {
+        int threadCount = 50;
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger acquired = new AtomicInteger();
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    if (idempotencyStore.reserve("IDEM-CONCURRENT").getState() == IdempotencyReservation.State.ACQUIRED) {
+                        acquired.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executorService.shutdown();
+
+        assertThat(acquired.get()).isEqualTo(1);
+    }
+}
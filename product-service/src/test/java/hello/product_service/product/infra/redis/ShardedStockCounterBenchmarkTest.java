@@ -0,0 +1,100 @@
+package hello.product_service.product.infra.redis;
+
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.infra.config.StockShardProperties;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 샤드 수(K)별 한 상품 재고 선점 처리량 비교 (./gradlew benchmark 로 실행)
+ * 단일 Redis 노드에서는 모든 샤드가 같은 스레드에서 처리되므로 K 증가에 따른 차이는 스크립트/폴백 비용만 보여준다.
+ * 키가 여러 노드로 흩어지는 Redis Cluster 에서 실행해야 K 에 따른 확장을 확인할 수 있다.
+ * sell-out : 재고가 요청 수보다 적어 샤드가 비어 가는 구간의 폴백(모으기) 비용까지 포함
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class ShardedStockCounterBenchmarkTest {
+
+    private static final int[] SHARD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int THREADS = 32;
+    private static final int OPS_PER_THREAD = 2_000;
+    private static final int OPS = THREADS * OPS_PER_THREAD;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Test
+    void 샤드_수별_초당_선점_처리량_비교() throws Exception {
+        // warm-up
+        run(counter(4), 1L, OPS);
+
+        for (int shards : SHARD_COUNTS) {
+            ShardedStockCounter counter = counter(shards);
+
+            long plentyStart = System.nanoTime();
+            long plentySuccess = run(counter, 100L + shards, OPS * 2);
+            long plentyNanos = System.nanoTime() - plentyStart;
+
+            long sellOutStart = System.nanoTime();
+            long sellOutSuccess = run(counter, 200L + shards, OPS / 2);
+            long sellOutNanos = System.nanoTime() - sellOutStart;
+
+            System.out.printf("K=%2d plenty   : %.0f ops/sec%n", shards, opsPerSec(plentyNanos));
+            System.out.printf("K=%2d sell-out : %.0f ops/sec, fallbacks = %d%n", shards, opsPerSec(sellOutNanos), counter.fallbackCount());
+
+            assertThat(plentySuccess).isEqualTo(OPS);
+            assertThat(sellOutSuccess).isEqualTo(OPS / 2);
+        }
+    }
+
+    private ShardedStockCounter counter(int shards) {
+        StockShardProperties properties = new StockShardProperties();
+        properties.setCount(shards);
+        return new ShardedStockCounter(redisTemplate, properties);
+    }
+
+    // THREADS 개의 스레드가 OPS_PER_THREAD 번씩 1개 선점, 성공 건수 반환
+    private long run(ShardedStockCounter counter, Long productId, int stock) throws Exception {
+        counter.initialize(productId, stock);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executorService.submit(() -> {
+                long success = 0;
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    if (counter.reserve(productId, 1) >= 0) {
+                        success++;
+                    }
+                }
+                return success;
+            }));
+        }
+
+        long success = 0;
+        for (Future<Long> future : futures) {
+            success += future.get();
+        }
+        executorService.shutdown();
+        return success;
+    }
+
+    private double opsPerSec(long nanos) {
+        return OPS / (nanos / 1_000_000_000.0);
+    }
+}
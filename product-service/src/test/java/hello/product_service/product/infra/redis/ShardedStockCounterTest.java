@@ -0,0 +1,123 @@
+package hello.product_service.product.infra.redis;
+
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.infra.config.StockShardProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class ShardedStockCounterTest {
+
+    private static final Long PRODUCT_ID = 7_000L;
+    private static final int SHARDS = 4;
+
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    private ShardedStockCounter counter;
+
+    @BeforeEach
+    void setup() {
+        StockShardProperties properties = new StockShardProperties();
+        properties.setCount(SHARDS);
+        counter = new ShardedStockCounter(redisTemplate, properties);
+    }
+
+    @Test
+    void 재고를_샤드에_고르게_나누고_합계로_조회() {
+        counter.initialize(PRODUCT_ID, 10);
+
+        assertThat(shardStock(0)).isEqualTo(3);
+        assertThat(shardStock(1)).isEqualTo(3);
+        assertThat(shardStock(2)).isEqualTo(2);
+        assertThat(shardStock(3)).isEqualTo(2);
+        assertThat(counter.total(PRODUCT_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void 샤드_하나로_부족하면_다른_샤드에서_모아서_차감() {
+        counter.initialize(PRODUCT_ID, 8); // 샤드당 2
+
+        assertThat(counter.reserve(PRODUCT_ID, 7)).isEqualTo(1L);
+        assertThat(counter.total(PRODUCT_ID)).isEqualTo(1);
+    }
+
+    @Test
+    void 합계가_부족하면_실패하고_가져온_재고는_되돌린다() {
+        counter.initialize(PRODUCT_ID, 8);
+
+        assertThat(counter.reserve(PRODUCT_ID, 9)).isEqualTo(-9L); // -(합계 8) - 1
+        assertThat(counter.total(PRODUCT_ID)).isEqualTo(8);
+    }
+
+    @Test
+    void 적재되지_않은_샤드가_있으면_합계를_알_수_없다() {
+        counter.initialize(PRODUCT_ID, 8);
+        assertThat(counter.loadedTotal(PRODUCT_ID)).isEqualTo(8L);
+
+        redisTemplate.delete(ShardedStockCounter.shardKey(PRODUCT_ID, 2));
+
+        // total 은 키 없는 샤드를 0으로 세지만, loadedTotal 은 재고를 모른다고 봄
+        assertThat(counter.total(PRODUCT_ID)).isEqualTo(6);
+        assertThat(counter.loadedTotal(PRODUCT_ID)).isNull();
+    }
+
+    @Test
+    void 재분배하면_합계는_그대로_샤드별로_고르게() {
+        counter.initialize(PRODUCT_ID, 8);
+        redisTemplate.opsForValue().set(ShardedStockCounter.shardKey(PRODUCT_ID, 0), "0");
+        redisTemplate.opsForValue().set(ShardedStockCounter.shardKey(PRODUCT_ID, 1), "6");
+
+        counter.rebalance(PRODUCT_ID);
+
+        assertThat(counter.total(PRODUCT_ID)).isEqualTo(10);
+        for (int i = 0; i < SHARDS; i++) {
+            assertThat(shardStock(i)).isBetween(2L, 3L);
+        }
+    }
+
+    @Test
+    void 동시_선점_시_초과_판매가_없다() throws InterruptedException {
+        int stock = 100;
+        int requests = 300;
+        counter.initialize(PRODUCT_ID, stock);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(requests);
+        AtomicLong successCount = new AtomicLong();
+        for (int i = 0; i < requests; i++) {
+            executorService.submit(() -> {
+                try {
+                    if (counter.reserve(PRODUCT_ID, 1) >= 0) {
+                        successCount.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        assertThat(successCount.get()).isEqualTo(stock);
+        assertThat(counter.total(PRODUCT_ID)).isZero();
+    }
+
+    private long shardStock(int shard) {
+        return Long.parseLong(redisTemplate.opsForValue().get(ShardedStockCounter.shardKey(PRODUCT_ID, shard)));
+    }
+}
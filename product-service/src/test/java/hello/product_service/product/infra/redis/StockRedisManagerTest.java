@@ -1,13 +1,24 @@
 package hello.product_service.product.infra.redis;
 
 import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.infra.cache.SoldOutGate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -19,6 +30,12 @@ class StockRedisManagerTest {
     @MockitoSpyBean
     StockRedisManagerV2 stockRedisManager;
 
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    SoldOutGate soldOutGate;
+
     private static final Long PRODUCT_ID = 999L;
     private static final int INITIAL_STOCK = 50;
 
@@ -54,6 +71,37 @@ class StockRedisManagerTest {
         assertThat(stockRedisManager.findStock(PRODUCT_ID)).isEqualTo(50L); // 변경되지 않음
     }
 
+    @Test
+    void reserveStock_재고부족_이후_요청은_Redis_호출_없이_거절() {
+        // given
+        stockRedisManager.reserveStock(PRODUCT_ID, 60); // 재고 50 확인
+        long rejections = soldOutGate.rejectionCount();
+        resetCommandStats();
+
+        // when
+        Long remainingStock = stockRedisManager.reserveStock(PRODUCT_ID, 51);
+
+        // then
+        assertThat(remainingStock).isEqualTo(-1L);
+        assertThat(soldOutGate.knownStock(PRODUCT_ID)).isEqualTo(INITIAL_STOCK);
+        assertThat(soldOutGate.rejectionCount()).isEqualTo(rejections + 1);
+        Properties stats = redisTemplate.execute((RedisCallback<Properties>) connection ->
+            connection.serverCommands().info("commandstats"));
+        assertThat(commandCalls(stats, "evalsha") + commandCalls(stats, "eval")).isZero();
+    }
+
+    @Test
+    void restoreStock_재고복구_후_다시_선점_가능() {
+        // given
+        stockRedisManager.reserveStock(PRODUCT_ID, INITIAL_STOCK); // 매진
+
+        // when
+        stockRedisManager.restoreStock(PRODUCT_ID, 5);
+
+        // then
+        assertThat(stockRedisManager.reserveStock(PRODUCT_ID, 5)).isZero();
+    }
+
     @Test
     void restoreStock_재고복구() {
         // given
@@ -82,4 +130,83 @@ class StockRedisManagerTest {
         // then
         assertThat(result).isEqualTo(-999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void reserveStock_동시성_음수재고_노출없음_롤백호출없음() throws InterruptedException {
+        // given
+        int threadCount = 200; // 재고(50)보다 많은 요청 -> 150건은 재고 부족
+        stockRedisManager.reserveStock(PRODUCT_ID, 0); // 스크립트 캐싱(EVALSHA) 워밍업
+        long rejections = soldOutGate.rejectionCount();
+        resetCommandStats();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicLong successCount = new AtomicLong(0);
+        AtomicLong minObservedStock = new AtomicLong(Long.MAX_VALUE);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // 선점이 진행되는 동안 다른 클라이언트가 보는 재고를 계속 관찰
+        Thread observer = new Thread(() -> {
+            while (running.get()) {
+                String stock = redisTemplate.opsForValue().get("stock:" + PRODUCT_ID);
+                if (stock != null) {
+                    minObservedStock.accumulateAndGet(Long.parseLong(stock), Math::min);
+                }
+            }
+        });
+        observer.start();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    if (stockRedisManager.reserveStock(PRODUCT_ID, 1) >= 0) {
+                        successCount.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+        executorService.shutdown();
+        running.set(false);
+        observer.join();
+
+        // then
+        assertThat(successCount.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(stockRedisManager.findStock(PRODUCT_ID)).isZero();
+        // 음수 재고가 한 번도 노출되지 않아야 한다
+        assertThat(minObservedStock.get()).isGreaterThanOrEqualTo(0);
+
+        // 선점 1건당 Redis 호출 최대 1회(EVALSHA), 매진을 알고 난 뒤의 요청은 로컬에서 거절, 롤백(INCRBY) 호출 없음
+        Properties stats = redisTemplate.execute((RedisCallback<Properties>) connection ->
+            connection.serverCommands().info("commandstats"));
+        assertThat(commandCalls(stats, "incrby")).isZero();
+        assertThat(commandCalls(stats, "evalsha") + commandCalls(stats, "eval") + soldOutGate.rejectionCount() - rejections)
+            .isEqualTo(threadCount);
+    }
+
+    private void resetCommandStats() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().resetConfigStats();
+            return null;
+        });
+    }
+
+    // cmdstat_{command} = "calls=12,usec=...,..." 형식에서 calls 값 추출
+    private long commandCalls(Properties stats, String command) {
+        String value = stats.getProperty("cmdstat_" + command);
+        if (value == null) {
+            return 0L;
+        }
+
+        for (String token : value.split(",")) {
+            if (token.startsWith("calls=")) {
+                return Long.parseLong(token.substring("calls=".length()));
+            }
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,111 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.Product;
+import hello.product_service.product.domain.ProductStatus;
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.model.StockLine;
+import hello.product_service.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 묶음 크기별 재고 감소 처리량 비교 (./gradlew benchmark 로 실행)
+ * single : 상품 줄마다 decreaseByOrder (멱등성 선점/저장 + 트랜잭션을 줄 수만큼)
+ * bulk   : decreaseByOrderBulk 1회 (멱등성 1회 + 트랜잭션 1개)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false"
+})
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class BulkStockDecreaseBenchmarkTest {
+
+    private static final int[] BATCH_SIZES = {1, 5, 10, 20, 50};
+    private static final int ORDERS = 200;
+    private static final int WARM_UP_ORDERS = 20;
+    private static final int INITIAL_STOCK = 1_000_000;
+    private final List<Long> productIds = new ArrayList<>();
+
+    @Autowired
+    InventoryServiceV2 inventoryService;
+    @Autowired
+    ProductRepository productRepository;
+
+    @BeforeEach
+    void setup() {
+        productIds.clear();
+        for (int i = 0; i < 50; i++) {
+            productIds.add(productRepository.saveAndFlush(
+                new Product("BENCH-" + i, 1000, INITIAL_STOCK, ProductStatus.ACTIVE, StockStrategy.DB_ONLY)).getId());
+        }
+    }
+
+    @Test
+    void 묶음_크기별_초당_처리량_비교() {
+        // warm-up
+        singleWrite(5, WARM_UP_ORDERS, "WARM-S-");
+        bulkWrite(5, WARM_UP_ORDERS, "WARM-B-");
+
+        long expectedLines = WARM_UP_ORDERS * 5L * 2;
+        for (int batchSize : BATCH_SIZES) {
+            long singleStart = System.nanoTime();
+            singleWrite(batchSize, ORDERS, "SINGLE-" + batchSize + "-");
+            long singleNanos = System.nanoTime() - singleStart;
+
+            long bulkStart = System.nanoTime();
+            bulkWrite(batchSize, ORDERS, "BULK-" + batchSize + "-");
+            long bulkNanos = System.nanoTime() - bulkStart;
+
+            System.out.printf("batch=%2d single : %.0f lines/sec, %.2f ms/order%n",
+                batchSize, linesPerSec(batchSize, singleNanos), msPerOrder(singleNanos));
+            System.out.printf("batch=%2d bulk   : %.0f lines/sec, %.2f ms/order%n",
+                batchSize, linesPerSec(batchSize, bulkNanos), msPerOrder(bulkNanos));
+            expectedLines += (long) ORDERS * batchSize * 2;
+        }
+
+        // 줄마다 1개씩 차감 -> 전체 차감량 = 처리한 줄 수
+        long remaining = productIds.stream().mapToLong(productRepository::findStockById).sum();
+        assertThat((long) INITIAL_STOCK * productIds.size() - remaining).isEqualTo(expectedLines);
+    }
+
+    // 기존 경로: 상품 줄마다 단건 요청 (멱등성 키도 줄마다)
+    private void singleWrite(int batchSize, int orders, String prefix) {
+        for (int order = 0; order < orders; order++) {
+            for (StockLine line : lines(batchSize)) {
+                inventoryService.decreaseByOrder(line.getProductId(), (long) order, line.getQuantity(),
+                    prefix + order + "-" + line.getProductId());
+            }
+        }
+    }
+
+    private void bulkWrite(int batchSize, int orders, String prefix) {
+        for (int order = 0; order < orders; order++) {
+            inventoryService.decreaseByOrderBulk((long) order, lines(batchSize), prefix + order);
+        }
+    }
+
+    private List<StockLine> lines(int batchSize) {
+        return productIds.subList(0, batchSize).stream().map(id -> new StockLine(id, 1)).toList();
+    }
+
+    private double linesPerSec(int batchSize, long nanos) {
+        return (double) ORDERS * batchSize / (nanos / 1_000_000_000.0);
+    }
+
+    private double msPerOrder(long nanos) {
+        return nanos / 1_000_000.0 / ORDERS;
+    }
+}
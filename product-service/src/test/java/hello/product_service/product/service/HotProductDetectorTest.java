@@ -0,0 +1,191 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.cache.StockStrategyRegistry;
+import hello.product_service.product.infra.config.HotProductDetectorProperties;
+import hello.product_service.product.infra.config.StockWriteBehindProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class HotProductDetectorTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final HotProductDetectorProperties properties = new HotProductDetectorProperties();
+    private final StockWriteBehindProperties writeBehindProperties = new StockWriteBehindProperties();
+    private StockStrategyRegistry stockStrategyRegistry;
+    private ProductService productService;
+    private RedisTemplate<String, String> redisTemplate;
+    // Redis 자동 승격 표시(set) 대신 쓰는 메모리 set, 인스턴스끼리 공유
+    private final Set<String> promotedMarkers = ConcurrentHashMap.newKeySet();
+    private HotProductDetector detector;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        properties.setEnabled(true);
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setBuckets(10);
+        properties.setPromoteRatePerSecond(10);
+        properties.setDemoteRatePerSecond(1);
+        properties.setCoolDown(Duration.ofSeconds(30));
+        stockStrategyRegistry = mock(StockStrategyRegistry.class);
+        productService = mock(ProductService.class);
+        redisTemplate = mock(RedisTemplate.class);
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        given(redisTemplate.opsForSet()).willReturn(setOperations);
+        given(setOperations.members(properties.getPromotedKey())).willAnswer(invocation -> Set.copyOf(promotedMarkers));
+        given(setOperations.add(eq(properties.getPromotedKey()), anyString()))
+            .willAnswer(invocation -> promotedMarkers.add(invocation.getArgument(1)) ? 1L : 0L);
+        given(setOperations.remove(eq(properties.getPromotedKey()), anyString()))
+            .willAnswer(invocation -> promotedMarkers.remove(invocation.getArgument(1)) ? 1L : 0L);
+        detector = newDetector();
+    }
+
+    private HotProductDetector newDetector() {
+        return new HotProductDetector(properties, writeBehindProperties, stockStrategyRegistry, productService, redisTemplate, now::get);
+    }
+
+    @Test
+    void 윈도우가_지난_요청은_비율에서_빠진다() {
+        record(1L, 50);
+        assertThat(detector.rateOf(1L)).isEqualTo(5.0);
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(detector.rateOf(1L)).isZero();
+    }
+
+    @Test
+    void 임계치_이상이면_REDIS_FIRST로_승격() {
+        given(stockStrategyRegistry.get(1L)).willReturn(StockStrategy.DB_ONLY);
+        record(1L, 100); // 10/s
+
+        detector.evaluate();
+
+        verify(productService).loadInitStockRedis(1L);
+        assertThat(detector.isPromoted(1L)).isTrue();
+        assertThat(promotedMarkers).containsExactly("1");
+    }
+
+    @Test
+    void 여러_인스턴스가_동시에_판정해도_Redis_재고는_한_번만_적재() {
+        given(stockStrategyRegistry.get(1L)).willReturn(StockStrategy.DB_ONLY);
+        HotProductDetector other = newDetector();
+        record(1L, 100);
+        for (int i = 0; i < 100; i++) {
+            other.record(1L);
+        }
+
+        detector.evaluate();
+        other.evaluate();
+
+        verify(productService, times(1)).loadInitStockRedis(1L);
+        assertThat(other.isPromoted(1L)).isTrue();
+    }
+
+    @Test
+    void 재시작해도_자동_승격_표시로_강등_판정() {
+        given(stockStrategyRegistry.get(1L)).willReturn(StockStrategy.REDIS_FIRST);
+        promotedMarkers.add("1");
+
+        // 재시작 직후, 요청이 없어도 표시된 상품을 이어서 관리
+        detector.evaluate();
+        assertThat(detector.isPromoted(1L)).isTrue();
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        detector.evaluate();
+
+        verify(productService).demoteStockStrategy(1L);
+        assertThat(promotedMarkers).isEmpty();
+    }
+
+    @Test
+    void 승격_실패하면_표시를_지워_다음_판정에서_다시_승격() {
+        given(stockStrategyRegistry.get(1L)).willReturn(StockStrategy.DB_ONLY);
+        given(productService.loadInitStockRedis(1L)).willThrow(new IllegalStateException("redis down")).willReturn(10);
+        record(1L, 100);
+
+        detector.evaluate();
+        assertThat(promotedMarkers).isEmpty();
+        assertThat(detector.isPromoted(1L)).isFalse();
+
+        detector.evaluate();
+
+        verify(productService, times(2)).loadInitStockRedis(1L);
+        assertThat(detector.isPromoted(1L)).isTrue();
+    }
+
+    @Test
+    void 임계치_미만이거나_이미_REDIS_FIRST면_승격하지_않는다() {
+        given(stockStrategyRegistry.get(2L)).willReturn(StockStrategy.REDIS_FIRST);
+        record(1L, 99);
+        record(2L, 200);
+
+        detector.evaluate();
+
+        verify(productService, never()).loadInitStockRedis(any());
+    }
+
+    @Test
+    void 승격한_상품이_coolDown_동안_조용하면_강등() {
+        given(stockStrategyRegistry.get(1L)).willReturn(StockStrategy.DB_ONLY, StockStrategy.REDIS_FIRST);
+        record(1L, 100);
+        detector.evaluate();
+
+        // 윈도우가 비었지만 coolDown 전에는 유지
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+        detector.evaluate();
+        verify(productService, never()).demoteStockStrategy(any());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        detector.evaluate();
+
+        verify(productService).demoteStockStrategy(1L);
+        assertThat(detector.isPromoted(1L)).isFalse();
+        assertThat(promotedMarkers).isEmpty();
+    }
+
+    @Test
+    void write_behind_사용_중에는_전환하지_않는다() {
+        writeBehindProperties.setEnabled(true);
+        given(stockStrategyRegistry.get(1L)).willReturn(StockStrategy.DB_ONLY);
+        record(1L, 200);
+
+        detector.evaluate();
+
+        verify(productService, never()).loadInitStockRedis(any());
+    }
+
+    @Test
+    void 최대_추적_수를_넘는_상품은_세지_않는다() {
+        properties.setMaxTracked(1);
+        record(1L, 1);
+        record(2L, 1);
+
+        assertThat(detector.rateOf(1L)).isPositive();
+        assertThat(detector.rateOf(2L)).isZero();
+    }
+
+    private void record(Long productId, int count) {
+        for (int i = 0; i < count; i++) {
+            detector.record(productId);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.IdempotencyRecord;
+import hello.product_service.product.domain.IdempotencyStatus;
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.repository.IdempotencyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "idempotency.retention.enabled=false", // 스케줄 실행 대신 직접 호출
+    "idempotency.retention.batch-size=2"
+})
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class IdempotencyPurgeJobTest {
+
+    @Autowired
+    IdempotencyPurgeJob purgeJob;
+    @Autowired
+    IdempotencyRepository idempotencyRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void cutoff_이전_레코드를_배치로_나눠_삭제() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            idempotencyRepository.save(IdempotencyRecord.create("PURGE-" + i, IdempotencyStatus.SUCCESS, "OK", 10));
+        }
+        double before = meterRegistry.get("idempotency.purge.rows").counter().count();
+
+        // when - 배치 크기 2 -> 3번에 나눠 삭제
+        int purged = purgeJob.purgeBefore(LocalDateTime.now().plusSeconds(1));
+
+        // then
+        assertThat(purged).isGreaterThanOrEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(idempotencyRepository.findByRequestId("PURGE-" + i)).isEmpty();
+        }
+        assertThat(meterRegistry.get("idempotency.purge.rows").counter().count() - before).isEqualTo(purged);
+    }
+
+    @Test
+    void cutoff_이후_레코드는_남긴다() {
+        // given
+        idempotencyRepository.save(IdempotencyRecord.create("KEEP-1", IdempotencyStatus.SUCCESS, "OK", 10));
+
+        // when
+        purgeJob.purgeBefore(LocalDateTime.now().minusDays(1));
+
+        // then
+        assertThat(idempotencyRepository.findByRequestId("KEEP-1")).isPresent();
+    }
+}
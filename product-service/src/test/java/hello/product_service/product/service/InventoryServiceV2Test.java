@@ -6,7 +6,12 @@ import hello.product_service.product.domain.StockStrategy;
 import hello.product_service.product.exception.InsufficientStockException;
 import hello.product_service.product.infra.TestContainerInitializer;
 import hello.product_service.product.infra.redis.StockRedisManager;
+import hello.product_service.product.model.StockDecreaseOutcome;
+import hello.product_service.product.model.StockLine;
+import hello.product_service.product.model.StockResult;
+import hello.product_service.product.model.event.StockDecreaseEvent;
 import hello.product_service.product.repository.ProductRepository;
+import hello.product_service.product.repository.StockLedgerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +19,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -35,6 +41,10 @@ class InventoryServiceV2Test {
     ProductRepository productRepository;
     @Autowired
     StockRedisManager stockRedisManager;
+    @Autowired
+    StockLedgerRepository stockLedgerRepository;
+    @Autowired
+    StockTxHandler stockTxHandler;
 
 
     @BeforeEach
@@ -148,5 +158,105 @@ class InventoryServiceV2Test {
 
     }
 
+    @Test
+    void DB_반영_후_결과_저장_전에_죽어도_재전달_시_다시_차감하지_않는다() {
+        // given - Redis 선점 + DB 차감 커밋까지 끝나고, 멱등성 결과를 Redis 에 남기기 전에 서버가 죽음 (처리 중 표시는 만료)
+        stockRedisManager.initializeStock(PRODUCT_ID_HOT, INITIAL_STOCK - 3);
+        stockTxHandler.finalizeStockDecreaseInDB(PRODUCT_ID_HOT, 3, 30L, "DEC-REPLAY");
+
+        // when - 같은 요청 재전달
+        StockResult result = inventoryService.decreaseByOrder(PRODUCT_ID_HOT, 30L, 3, "DEC-REPLAY");
+
+        // then - 저장된 결과로 응답, DB/Redis 모두 한 번만 차감
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getRemainingStock()).isEqualTo(INITIAL_STOCK - 3);
+        assertThat(productRepository.findStockById(PRODUCT_ID_HOT)).isEqualTo(INITIAL_STOCK - 3);
+        assertThat(stockRedisManager.findStock(PRODUCT_ID_HOT)).isEqualTo(INITIAL_STOCK - 3);
+        assertThat(stockLedgerRepository.findRequestIdsIn(List.of("DEC-REPLAY"))).hasSize(1);
+    }
+
+    @Test
+    void 배치_일반상품은_합계로_한번에_차감() {
+        // given
+        Long productId = productRepository.saveAndFlush(
+            new Product("NORMAL", 1000, 10, ProductStatus.ACTIVE, StockStrategy.DB_ONLY)).getId();
+        List<StockDecreaseEvent> events = List.of(
+            new StockDecreaseEvent(1L, productId, 2, "BATCH-1"),
+            new StockDecreaseEvent(2L, productId, 3, "BATCH-2"),
+            new StockDecreaseEvent(3L, productId, 4, "BATCH-3")
+        );
+
+        // when
+        List<StockDecreaseOutcome> outcomes = inventoryService.decreaseByOrders(events);
+
+        // then
+        assertThat(outcomes).extracting(StockDecreaseOutcome::getStatus).containsOnly(StockDecreaseOutcome.Status.SUCCESS);
+        assertThat(outcomes).extracting(o -> o.getResult().getRemainingStock()).containsExactly(8, 5, 1);
+        assertThat(productRepository.findStockById(productId)).isEqualTo(1);
+    }
+
+    @Test
+    void 배치_합계만큼_재고가_없으면_주문별로_처리() {
+        // given
+        Long productId = productRepository.saveAndFlush(
+            new Product("NORMAL", 1000, 5, ProductStatus.ACTIVE, StockStrategy.DB_ONLY)).getId();
+        List<StockDecreaseEvent> events = List.of(
+            new StockDecreaseEvent(1L, productId, 3, "BATCH-SPLIT-1"),
+            new StockDecreaseEvent(2L, productId, 3, "BATCH-SPLIT-2")
+        );
+
+        // when
+        List<StockDecreaseOutcome> outcomes = inventoryService.decreaseByOrders(events);
+
+        // then
+        assertThat(outcomes).extracting(StockDecreaseOutcome::getStatus)
+            .containsExactly(StockDecreaseOutcome.Status.SUCCESS, StockDecreaseOutcome.Status.INSUFFICIENT_STOCK);
+        assertThat(productRepository.findStockById(productId)).isEqualTo(2);
+    }
+
+    @Test
+    void 묶음_차감은_모든_상품을_한번에_차감() {
+        // given
+        Long normalId = productRepository.saveAndFlush(
+            new Product("NORMAL", 1000, 10, ProductStatus.ACTIVE, StockStrategy.DB_ONLY)).getId();
+
+        // when (같은 상품 줄은 합산, 입력 순서와 무관하게 상품 ID 순으로 처리)
+        inventoryService.decreaseByOrderBulk(10L, List.of(
+            new StockLine(PRODUCT_ID_HOT, 5),
+            new StockLine(normalId, 2),
+            new StockLine(normalId, 1)
+        ), "BULK-1");
+
+        // then
+        assertThat(productRepository.findStockById(normalId)).isEqualTo(7);
+        assertThat(productRepository.findStockById(PRODUCT_ID_HOT)).isEqualTo(INITIAL_STOCK - 5);
+        assertThat(stockRedisManager.findStock(PRODUCT_ID_HOT)).isEqualTo(INITIAL_STOCK - 5);
+        assertThat(stockLedgerRepository.findRequestIdsIn(List.of("BULK-1"))).hasSize(2);
+    }
+
+    @Test
+    void 묶음_차감_중_한_상품이라도_부족하면_전부_롤백() {
+        // given
+        Long normalId = productRepository.saveAndFlush(
+            new Product("NORMAL", 1000, 1, ProductStatus.ACTIVE, StockStrategy.DB_ONLY)).getId();
 
-}
\ No newline at end of file
+        // when
+        assertThatThrownBy(() -> inventoryService.decreaseByOrderBulk(11L, List.of(
+            new StockLine(PRODUCT_ID_HOT, 5),
+            new StockLine(normalId, 2)
+        ), "BULK-2")).isInstanceOf(InsufficientStockException.class);
+
+        // then (DB, Redis 모두 원래 재고, 원장 없음)
+        assertThat(productRepository.findStockById(PRODUCT_ID_HOT)).isEqualTo(INITIAL_STOCK);
+        assertThat(productRepository.findStockById(normalId)).isEqualTo(1);
+        assertThat(stockRedisManager.findStock(PRODUCT_ID_HOT)).isEqualTo(INITIAL_STOCK);
+        assertThat(stockLedgerRepository.findRequestIdsIn(List.of("BULK-2"))).isEmpty();
+
+        // 선점 해제 -> 같은 키로 재시도 가능
+        inventoryService.decreaseByOrderBulk(11L, List.of(
+            new StockLine(PRODUCT_ID_HOT, 5),
+            new StockLine(normalId, 1)
+        ), "BULK-2");
+        assertThat(productRepository.findStockById(normalId)).isZero();
+    }
+}
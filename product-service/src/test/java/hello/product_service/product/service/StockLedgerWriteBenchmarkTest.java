@@ -0,0 +1,119 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.Direction;
+import hello.product_service.product.domain.Product;
+import hello.product_service.product.domain.ProductStatus;
+import hello.product_service.product.domain.Reason;
+import hello.product_service.product.domain.StockLedger;
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.repository.ProductRepository;
+import hello.product_service.product.repository.StockLedgerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 재고 원장 저장 방식 비교 (./gradlew benchmark 로 실행)
+ * legacy : 원장 1건마다 findById + save
+ * batch  : getReferenceById + pooled 시퀀스 + JDBC 배치 INSERT
+ * 두 방식 모두 트랜잭션당 같은 건수(ROWS_PER_TX)로 나눠 저장, 트랜잭션 단위 차이가 아닌 저장 방식 차이만 비교
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false"
+})
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class StockLedgerWriteBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARM_UP_ROWS = 500;
+    private static final int[] ROWS_PER_TX = {1, 50, 500};
+    private Long productId;
+
+    @Autowired
+    StockLedgerService stockLedgerService;
+    @Autowired
+    StockLedgerBatchWriter stockLedgerBatchWriter;
+    @Autowired
+    StockLedgerRepository stockLedgerRepository;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        stockLedgerRepository.deleteAllInBatch();
+        productId = productRepository.saveAndFlush(
+            new Product("BENCH", 1000, 1_000_000, ProductStatus.ACTIVE, StockStrategy.DB_ONLY)).getId();
+    }
+
+    @Test
+    void 원장_저장_방식별_초당_처리량_비교() {
+        // warm-up
+        legacyWrite(WARM_UP_ROWS, 50, "WARM-L-");
+        batchWrite(WARM_UP_ROWS, 50, "WARM-B-");
+
+        for (int rowsPerTx : ROWS_PER_TX) {
+            long legacyStart = System.nanoTime();
+            legacyWrite(ROWS, rowsPerTx, "LEGACY-" + rowsPerTx + "-");
+            long legacyNanos = System.nanoTime() - legacyStart;
+
+            long batchStart = System.nanoTime();
+            batchWrite(ROWS, rowsPerTx, "BATCH-" + rowsPerTx + "-");
+            long batchNanos = System.nanoTime() - batchStart;
+
+            System.out.printf("rows/tx=%3d legacy : %d rows, %.0f rows/sec%n", rowsPerTx, ROWS, rowsPerSec(legacyNanos));
+            System.out.printf("rows/tx=%3d batch  : %d rows, %.0f rows/sec%n", rowsPerTx, ROWS, rowsPerSec(batchNanos));
+        }
+
+        assertThat(stockLedgerRepository.count()).isEqualTo((ROWS * (long) ROWS_PER_TX.length + WARM_UP_ROWS) * 2L);
+    }
+
+    // 기존 경로: 원장마다 상품 SELECT 후 INSERT, 트랜잭션당 rowsPerTx 건
+    private void legacyWrite(int rows, int rowsPerTx, String prefix) {
+        for (int from = 0; from < rows; from += rowsPerTx) {
+            int to = Math.min(rows, from + rowsPerTx);
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < to; i++) {
+                    Product product = productRepository.findById(productId).orElseThrow();
+                    stockLedgerRepository.save(StockLedger.create(product, Direction.OUT, Reason.ORDER_DECREMENT, 1, (long) i, prefix + i));
+                }
+            });
+        }
+    }
+
+    // 배치 경로: 트랜잭션당 rowsPerTx 건을 한 번에 JDBC 배치 INSERT
+    private void batchWrite(int rows, int rowsPerTx, String prefix) {
+        for (int from = 0; from < rows; from += rowsPerTx) {
+            int to = Math.min(rows, from + rowsPerTx);
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                Product product = productRepository.getReferenceById(productId);
+                List<StockLedger> stockLedgers = new ArrayList<>(to - first);
+                for (int i = first; i < to; i++) {
+                    stockLedgers.add(StockLedger.create(product, Direction.OUT, Reason.ORDER_DECREMENT, 1, (long) i, prefix + i));
+                }
+                stockLedgerBatchWriter.write(stockLedgers);
+            });
+        }
+    }
+
+    private double rowsPerSec(long nanos) {
+        return ROWS / (nanos / 1_000_000_000.0);
+    }
+}
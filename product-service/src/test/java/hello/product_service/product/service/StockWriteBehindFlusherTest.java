@@ -0,0 +1,178 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.Product;
+import hello.product_service.product.domain.ProductStatus;
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.infra.config.StockWriteBehindProperties;
+import hello.product_service.product.infra.redis.StockRedisManagerV2;
+import hello.product_service.product.infra.redis.StockReservationLog;
+import hello.product_service.product.model.StockReservation;
+import hello.product_service.product.model.StockResult;
+import hello.product_service.product.repository.ProductRepository;
+import hello.product_service.product.repository.StockLedgerRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "stock.write-behind.enabled=true",
+    "stock.write-behind.flush-interval-ms=3600000" // 스케줄러 대신 테스트에서 직접 flush 호출
+})
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class StockWriteBehindFlusherTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private Long productId;
+
+    @Autowired
+    InventoryServiceV2 inventoryService;
+    @Autowired
+    StockWriteBehindFlusher flusher;
+    @Autowired
+    StockTxHandler stockTxHandler;
+    @Autowired
+    StockReservationLog reservationLog;
+    @Autowired
+    StockRedisManagerV2 stockRedisManager;
+    @Autowired
+    ProductRepository productRepository;
+    @Autowired
+    StockLedgerRepository stockLedgerRepository;
+    @Autowired
+    RedisTemplate<String, String> redisTemplate;
+    @Autowired
+    CircuitBreakerRegistry circuitBreakerRegistry;
+    @Autowired
+    StockWriteBehindProperties properties;
+
+    @BeforeEach
+    void setup() {
+        Product product = new Product("HOT", 1000, INITIAL_STOCK, ProductStatus.ACTIVE, StockStrategy.REDIS_FIRST);
+        productId = productRepository.saveAndFlush(product).getId();
+        stockRedisManager.initializeStock(productId, INITIAL_STOCK);
+
+        // 이전 테스트의 예약 로그 제거 후 그룹 재생성
+        redisTemplate.delete(List.of(StockReservationLog.STREAM_KEY, StockReservationLog.UNFLUSHED_KEY));
+        reservationLog.ensureGroup();
+    }
+
+    @Test
+    void 선점은_바로_응답하고_플러시에서_합계로_DB_반영() {
+        // when
+        StockResult result1 = inventoryService.decreaseByOrder(productId, 1L, 3, "WB-1");
+        StockResult result2 = inventoryService.decreaseByOrder(productId, 2L, 5, "WB-2");
+        StockResult result3 = inventoryService.decreaseByOrder(productId, 3L, 2, "WB-3");
+
+        // then - 응답은 Redis 기준, DB는 아직 그대로
+        assertThat(result1.getRemainingStock()).isEqualTo(97);
+        assertThat(result2.getRemainingStock()).isEqualTo(92);
+        assertThat(result3.getRemainingStock()).isEqualTo(90);
+        assertThat(productRepository.findStockById(productId)).isEqualTo(INITIAL_STOCK);
+        assertThat(reservationLog.unflushedQuantity(productId)).isEqualTo(10);
+
+        flusher.flush();
+
+        assertThat(productRepository.findStockById(productId)).isEqualTo(90);
+        assertThat(reservationLog.unflushedQuantity(productId)).isZero();
+        assertThat(stockLedgerRepository.findRequestIdsIn(List.of("WB-1", "WB-2", "WB-3")))
+            .containsExactlyInAnyOrder("WB-1", "WB-2", "WB-3");
+        assertThat(redisTemplate.opsForStream().size(StockReservationLog.STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void ACK_되지_않은_예약은_다음_플러시에서_복구() {
+        // given - 예약 로그를 읽기만 하고 반영 전에 중단된 상황
+        inventoryService.decreaseByOrder(productId, 10L, 4, "WB-PENDING-1");
+        inventoryService.decreaseByOrder(productId, 11L, 6, "WB-PENDING-2");
+        List<StockReservation> delivered = reservationLog.readNew(10);
+        assertThat(delivered).hasSize(2);
+
+        // when
+        flusher.flush();
+
+        // then
+        assertThat(productRepository.findStockById(productId)).isEqualTo(90);
+        assertThat(stockLedgerRepository.findRequestIdsIn(List.of("WB-PENDING-1", "WB-PENDING-2"))).hasSize(2);
+    }
+
+    @Test
+    void 죽은_인스턴스가_ACK_하지_못한_예약은_다른_인스턴스가_가져와서_반영() {
+        // given - 다른 인스턴스(컨슈머)가 읽기만 하고 죽은 상황
+        inventoryService.decreaseByOrder(productId, 40L, 4, "WB-DEAD-1");
+        inventoryService.decreaseByOrder(productId, 41L, 6, "WB-DEAD-2");
+        redisTemplate.opsForStream().read(
+            Consumer.from(StockReservationLog.GROUP, "dead-instance"),
+            StreamOffset.create(StockReservationLog.STREAM_KEY, ReadOffset.lastConsumed())
+        );
+
+        Duration claimIdleTime = properties.getClaimIdleTime();
+        properties.setClaimIdleTime(Duration.ZERO);
+        try {
+            // when
+            flusher.flush();
+        } finally {
+            properties.setClaimIdleTime(claimIdleTime);
+        }
+
+        // then
+        assertThat(productRepository.findStockById(productId)).isEqualTo(90);
+        assertThat(stockLedgerRepository.findRequestIdsIn(List.of("WB-DEAD-1", "WB-DEAD-2"))).hasSize(2);
+        assertThat(redisTemplate.opsForStream().size(StockReservationLog.STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void 같은_예약을_다시_반영해도_중복_차감되지_않음() {
+        // given
+        List<StockReservation> reservations = List.of(
+            new StockReservation("1-0", productId, 7, 20L, "WB-REPLAY-1"),
+            new StockReservation("1-1", productId, 3, 21L, "WB-REPLAY-2")
+        );
+
+        // when
+        List<StockReservation> first = stockTxHandler.applyReservedDecrease(productId, reservations);
+        List<StockReservation> second = stockTxHandler.applyReservedDecrease(productId, reservations);
+
+        // then
+        assertThat(first).hasSize(2);
+        assertThat(second).isEmpty();
+        assertThat(productRepository.findStockById(productId)).isEqualTo(90);
+    }
+
+    @Test
+    void 서킷_복구_중_재적재는_반영되지_않은_예약을_뺀다() {
+        // given - Redis 97, DB 100, 스트림에 미반영 예약 3
+        inventoryService.decreaseByOrder(productId, 30L, 3, "WB-HALF-OPEN-1");
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("redisStockBreaker");
+        circuitBreaker.transitionToOpenState();
+        circuitBreaker.transitionToHalfOpenState();
+
+        try {
+            // when - HALF_OPEN 상태의 선점은 DB 기준으로 재적재 후 선점
+            StockResult result = inventoryService.decreaseByOrder(productId, 31L, 2, "WB-HALF-OPEN-2");
+
+            // then - DB 100 - 미반영 3 = 97 에서 선점
+            assertThat(result.getRemainingStock()).isEqualTo(95);
+        } finally {
+            circuitBreaker.reset();
+        }
+
+        flusher.flush();
+        assertThat(productRepository.findStockById(productId)).isEqualTo(95);
+    }
+}
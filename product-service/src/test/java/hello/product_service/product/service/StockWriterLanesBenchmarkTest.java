@@ -0,0 +1,131 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.domain.Product;
+import hello.product_service.product.domain.ProductStatus;
+import hello.product_service.product.domain.StockStrategy;
+import hello.product_service.product.infra.TestContainerInitializer;
+import hello.product_service.product.infra.config.StockConsumerProperties;
+import hello.product_service.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 상품 행 경합 비교 (./gradlew benchmark 로 실행)
+ * direct : 컨슈머 스레드 32개가 소수의 상품을 바로 차감 (현재 단일 큐 + concurrency 증가 상황)
+ * lanes  : 같은 32개 스레드가 상품 레인을 거쳐 차감
+ * lock wait 는 UPDATE(decrement) 호출 시간의 합으로 측정 (행 락 대기 포함), 실패 건수는 락 타임아웃 등 예외 수
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.show_sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false"
+})
+@Testcontainers
+@ContextConfiguration(initializers = TestContainerInitializer.class)
+class StockWriterLanesBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int PRODUCTS = 4;
+    private static final int OPERATIONS = 8_000;
+
+    @Autowired
+    StockTxHandler stockTxHandler;
+    @Autowired
+    ProductRepository productRepository;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        productIds.clear();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds.add(productRepository.saveAndFlush(
+                new Product("HOT-" + i, 1000, 1_000_000, ProductStatus.ACTIVE, StockStrategy.DB_ONLY)).getId());
+        }
+    }
+
+    @Test
+    void 단일큐_직접차감_대비_상품_레인_처리량과_락대기_비교() throws InterruptedException {
+        Result direct = run(null, "DIRECT-");
+
+        StockConsumerProperties properties = new StockConsumerProperties();
+        properties.setLanes(PRODUCTS);
+        StockWriterLanes lanes = new StockWriterLanes(properties);
+        Result laned = run(lanes, "LANE-");
+        lanes.shutdown();
+
+        System.out.printf("direct : %.0f ops/sec, db time(lock wait 포함) avg %.3f ms, failures %d%n",
+            direct.opsPerSec(), direct.avgDbMillis(), direct.failures);
+        System.out.printf("lanes  : %.0f ops/sec, db time(lock wait 포함) avg %.3f ms, failures %d%n",
+            laned.opsPerSec(), laned.avgDbMillis(), laned.failures);
+
+        assertThat(direct.failures + laned.failures).isLessThan(OPERATIONS * 2L);
+    }
+
+    private Result run(StockWriterLanes lanes, String prefix) throws InterruptedException {
+        ExecutorService consumers = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch latch = new CountDownLatch(OPERATIONS);
+        AtomicLong dbNanos = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            final int seq = i;
+            Long productId = productIds.get(i % PRODUCTS);
+            consumers.submit(() -> {
+                try {
+                    Runnable decrease = () -> {
+                        long begin = System.nanoTime();
+                        try {
+                            stockTxHandler.finalizeStockDecreaseInDB(productId, 1, (long) seq, prefix + seq);
+                        } finally {
+                            dbNanos.addAndGet(System.nanoTime() - begin);
+                        }
+                    };
+
+                    if (lanes == null) {
+                        decrease.run();
+                    } else {
+                        lanes.execute(productId, () -> {
+                            decrease.run();
+                            return null;
+                        });
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        long elapsed = System.nanoTime() - start;
+        consumers.shutdown();
+
+        return new Result(elapsed, dbNanos.get(), failures.get());
+    }
+
+    private record Result(long elapsedNanos, long dbNanos, long failures) {
+        double opsPerSec() {
+            return OPERATIONS / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double avgDbMillis() {
+            return dbNanos / 1_000_000.0 / OPERATIONS;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package hello.product_service.product.service;
+
+import hello.product_service.product.infra.config.StockConsumerProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class StockWriterLanesTest {
+
+    private StockWriterLanes lanes;
+
+    @BeforeEach
+    void setup() {
+        StockConsumerProperties properties = new StockConsumerProperties();
+        properties.setLanes(4);
+        lanes = new StockWriterLanes(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void 같은_상품은_같은_레인에서_순서대로_실행() {
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        List<CompletableFuture<Integer>> futures = IntStream.range(0, 100)
+            .mapToObj(i -> lanes.submit(7L, () -> {
+                executed.add(i);
+                threads.add(Thread.currentThread().getName());
+                return i;
+            }))
+            .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(executed).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+        assertThat(threads).containsOnly("stock-lane-" + lanes.laneOf(7L));
+    }
+
+    @Test
+    void 다른_상품은_다른_레인으로_분산() {
+        assertThat(IntStream.range(0, 4).mapToObj(i -> lanes.laneOf((long) i)).distinct()).hasSize(4);
+    }
+
+    @Test
+    void 작업_예외는_호출자에게_그대로_전달() {
+        assertThatThrownBy(() -> lanes.execute(1L, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    void 레인이_0개면_호출_스레드에서_실행() {
+        StockWriterLanes inline = new StockWriterLanes(new StockConsumerProperties());
+        String caller = Thread.currentThread().getName();
+
+        assertThat(inline.execute(1L, () -> Thread.currentThread().getName())).isEqualTo(caller);
+    }
+}